@@ -0,0 +1,90 @@
+package ca.bcit.comp2522.project.mygame.jmh;
+
+import ca.bcit.comp2522.project.mygame.common.ArenaConfig;
+import ca.bcit.comp2522.project.mygame.engine.GameLogic;
+import ca.bcit.comp2522.project.mygame.engine.ManualGameClock;
+import ca.bcit.comp2522.project.mygame.entities.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.MOVE_COOLDOWN_IN_NANOSECONDS;
+
+/**
+ * Samples the latency of single {@link GameLogic#updateGame(long)} ticks on square arenas of growing size, up to
+ * 1000 by 1000 cells holding 100,000 players.
+ * <p>
+ * A frame budget is missed by the slow ticks rather than the typical one, so every tick is timed on its own and JMH
+ * reports the median, 99th percentile and worst tick next to the average. The crowd always covers a tenth of the
+ * arena, and the cost per player-tick should stay roughly flat from one arena to the next. Each measurement iteration
+ * plays a fresh seeded game on a {@link ManualGameClock} advanced by one 60 Hz frame per tick. Should a round end
+ * during an iteration, it is re-initialized inside the sampled tick. The strips of the arena are updated on the
+ * calling thread only; {@link StripParallelismBenchmark} measures them on a pool.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArenaTickBenchmark
+{
+    private static final long TICK_IN_NANOSECONDS = 16_666_667L;
+    private static final long SEED = 0L;
+    private static final int CELLS_PER_PLAYER = 10;
+
+    /**
+     * The number of cells along each side of the arena.
+     */
+    @Param({"100", "250", "500", "1000"})
+    public int side;
+
+    private ArenaConfig arena;
+    private ManualGameClock clock;
+    private GameLogic<Player> gameLogic;
+
+    /**
+     * Starts a fresh seeded game on the arena of the current side length.
+     */
+    @Setup(Level.Iteration)
+    public void startGame()
+    {
+        arena = new ArenaConfig(side, side, side * side / CELLS_PER_PLAYER);
+        // Start past the move cooldown so that nobody is held back by a last move that never happened.
+        clock = new ManualGameClock(MOVE_COOLDOWN_IN_NANOSECONDS);
+        gameLogic = GameLogic.newHeadlessInstance(SEED, clock);
+        gameLogic.setTickPool(null);
+        gameLogic.initGame(arena);
+    }
+
+    /**
+     * Advances the game by one tick.
+     *
+     * @return the number of players still on the field, so that the tick cannot be optimized away.
+     */
+    @Benchmark
+    public int updateGame()
+    {
+        gameLogic.updateGame(clock.advance(TICK_IN_NANOSECONDS));
+        if(gameLogic.isGameOver())
+        {
+            gameLogic.initGame(arena);
+        }
+        return gameLogic.getOnFieldCount();
+    }
+}
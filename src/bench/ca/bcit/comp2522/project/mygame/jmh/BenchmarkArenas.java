@@ -0,0 +1,48 @@
+package ca.bcit.comp2522.project.mygame.jmh;
+
+import ca.bcit.comp2522.project.mygame.common.ArenaConfig;
+
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.BOTTOM_OFFSET_IN_NUMBER_OF_CELLS;
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.FINISH_LINE_Y_IN_NUMBER_OF_CELLS;
+
+/*
+ * Sizes the arenas of the JMH benchmarks from a crowd size and a crowd density, so that the same number of players
+ * can be measured on a sparse and on a crowded field.
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+final class BenchmarkArenas
+{
+    /*
+     * Holds static helpers only.
+     */
+    private BenchmarkArenas()
+    {
+    }
+
+    /*
+     * Returns a roughly square arena on which the given number of players cover the given fraction of the cells.
+     * The arena is made taller if needed, so that every player fits between the starting row and the finish line.
+     *
+     * @param numberOfPlayers the number of players, including the user.
+     * @param density         the fraction of cells covered by players, between zero and one.
+     * @return the arena.
+     */
+    static ArenaConfig arenaFor(final int numberOfPlayers,
+                                final double density)
+    {
+        final double numberOfCells;
+        final int width;
+        final int minimumHeight;
+        final int height;
+
+        numberOfCells = numberOfPlayers / density;
+        width = (int) Math.ceil(Math.sqrt(numberOfCells));
+        minimumHeight = (numberOfPlayers + width - 1) / width +
+                        FINISH_LINE_Y_IN_NUMBER_OF_CELLS +
+                        BOTTOM_OFFSET_IN_NUMBER_OF_CELLS;
+        height = Math.max((int) Math.ceil(numberOfCells / width), minimumHeight);
+        return new ArenaConfig(width, height, numberOfPlayers);
+    }
+}
@@ -0,0 +1,80 @@
+package ca.bcit.comp2522.project.mygame.jmh;
+
+import ca.bcit.comp2522.project.mygame.simulation.HeadlessSimulator;
+import ca.bcit.comp2522.project.mygame.simulation.SimulationStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of playing a whole round headless, from initialization to game over, at several crowd sizes and
+ * densities.
+ * <p>
+ * Every invocation plays one round with the {@link HeadlessSimulator}, ticking at 60 Hz. Rounds differ in length, so
+ * the seed cycles through a fixed set that is the same for every configuration and every run. The average then
+ * covers the same mix of short and long rounds each time.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HeadlessRoundBenchmark
+{
+    private static final int ONE_ROUND = 1;
+    private static final int NUMBER_OF_SEEDS = 16;
+
+    /**
+     * The number of players, including the user.
+     */
+    @Param({"50", "500"})
+    public int numberOfPlayers;
+
+    /**
+     * The fraction of the arena's cells covered by players. The default arena is covered to 0.025.
+     */
+    @Param({"0.025", "0.1"})
+    public double density;
+
+    private HeadlessSimulator simulator;
+    private long seed;
+
+    /**
+     * Creates the simulator for the arena of the current parameters.
+     */
+    @Setup(Level.Trial)
+    public void createSimulator()
+    {
+        simulator = new HeadlessSimulator(BenchmarkArenas.arenaFor(numberOfPlayers, density),
+                                          HeadlessSimulator.DEFAULT_TICK_IN_NANOSECONDS,
+                                          HeadlessSimulator.DEFAULT_MAXIMUM_ROUND_DURATION_IN_NANOSECONDS);
+    }
+
+    /**
+     * Plays one round under the next seed.
+     *
+     * @return the statistics of the round.
+     */
+    @Benchmark
+    public SimulationStatistics playRound()
+    {
+        seed = (seed + 1) % NUMBER_OF_SEEDS;
+        return simulator.run(ONE_ROUND, seed);
+    }
+}
@@ -0,0 +1,141 @@
+package ca.bcit.comp2522.project.mygame.jmh;
+
+import ca.bcit.comp2522.project.mygame.engine.OccupancyGrid;
+import ca.bcit.comp2522.project.mygame.entities.PlayerStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of looking up the player on a cell, for cells that are occupied and cells that are empty.
+ * <p>
+ * The lookup that used to be {@code GameLogic.getPlayerAt} is now {@link OccupancyGrid#getOccupant(int, int)}, which
+ * every move, push and finish line check goes through. Players are scattered at random over a 500 by 500 grid at
+ * the given density, and each invocation looks up the next of a fixed list of randomly chosen occupied or empty
+ * cells, so that neither the caches nor the branch predictor can learn the answer.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OccupancyLookupBenchmark
+{
+    private static final int SIDE_IN_NUMBER_OF_CELLS = 500;
+    private static final int NUMBER_OF_PROBES = 4096;
+    private static final int PROBE_MASK = NUMBER_OF_PROBES - 1;
+    private static final long SEED = 0L;
+
+    /**
+     * The fraction of the grid's cells covered by players.
+     */
+    @Param({"0.025", "0.1", "0.4"})
+    public double density;
+
+    private OccupancyGrid occupancyGrid;
+    private int[] hitX;
+    private int[] hitY;
+    private int[] missX;
+    private int[] missY;
+    private int probe;
+
+    /**
+     * Scatters the players and picks the cells to probe.
+     */
+    @Setup(Level.Trial)
+    public void scatterPlayers()
+    {
+        final Random random;
+        final int numberOfPlayers;
+        final PlayerStore playerStore;
+        int hits;
+        int misses;
+
+        random = new Random(SEED);
+        numberOfPlayers = (int) (SIDE_IN_NUMBER_OF_CELLS * SIDE_IN_NUMBER_OF_CELLS * density);
+        playerStore = new PlayerStore(numberOfPlayers);
+        occupancyGrid = new OccupancyGrid(SIDE_IN_NUMBER_OF_CELLS, SIDE_IN_NUMBER_OF_CELLS, playerStore);
+        while(playerStore.size() < numberOfPlayers)
+        {
+            final int x;
+            final int y;
+
+            x = random.nextInt(SIDE_IN_NUMBER_OF_CELLS);
+            y = random.nextInt(SIDE_IN_NUMBER_OF_CELLS);
+            if(occupancyGrid.getOccupant(x, y) == OccupancyGrid.NO_PLAYER)
+            {
+                occupancyGrid.place(playerStore.addPlayer(x, y).getIndex());
+            }
+        }
+
+        hitX = new int[NUMBER_OF_PROBES];
+        hitY = new int[NUMBER_OF_PROBES];
+        missX = new int[NUMBER_OF_PROBES];
+        missY = new int[NUMBER_OF_PROBES];
+        hits = 0;
+        misses = 0;
+        while(hits < NUMBER_OF_PROBES || misses < NUMBER_OF_PROBES)
+        {
+            final int x;
+            final int y;
+
+            x = random.nextInt(SIDE_IN_NUMBER_OF_CELLS);
+            y = random.nextInt(SIDE_IN_NUMBER_OF_CELLS);
+            if(occupancyGrid.getOccupant(x, y) != OccupancyGrid.NO_PLAYER && hits < NUMBER_OF_PROBES)
+            {
+                hitX[hits] = x;
+                hitY[hits] = y;
+                hits++;
+            }
+            else if(occupancyGrid.getOccupant(x, y) == OccupancyGrid.NO_PLAYER && misses < NUMBER_OF_PROBES)
+            {
+                missX[misses] = x;
+                missY[misses] = y;
+                misses++;
+            }
+        }
+    }
+
+    /**
+     * Looks up the next occupied cell.
+     *
+     * @return the player found.
+     */
+    @Benchmark
+    public int getOccupantHit()
+    {
+        final int next;
+        next = probe++ & PROBE_MASK;
+        return occupancyGrid.getOccupant(hitX[next], hitY[next]);
+    }
+
+    /**
+     * Looks up the next empty cell.
+     *
+     * @return {@link OccupancyGrid#NO_PLAYER}.
+     */
+    @Benchmark
+    public int getOccupantMiss()
+    {
+        final int next;
+        next = probe++ & PROBE_MASK;
+        return occupancyGrid.getOccupant(missX[next], missY[next]);
+    }
+}
@@ -0,0 +1,117 @@
+package ca.bcit.comp2522.project.mygame.jmh;
+
+import ca.bcit.comp2522.project.mygame.engine.GameLogic;
+import ca.bcit.comp2522.project.mygame.engine.OccupancyGrid;
+import ca.bcit.comp2522.project.mygame.engine.PushResolver;
+import ca.bcit.comp2522.project.mygame.entities.PlayerStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.MOVE_COOLDOWN_IN_NANOSECONDS;
+
+/**
+ * Measures the cost of a voluntary move that pushes a chain of players, for chains of growing length.
+ * <p>
+ * {@link GameLogic#tryMoveWithPush} places players at random, so it cannot line up a chain of a given length. This
+ * benchmark therefore drives the {@link PushResolver} it delegates to directly. A single row holds a pusher at each
+ * end, the chain next to the left one and one free cell next to the right one. The two pushers take turns shoving
+ * the chain back and forth, so every invocation moves the whole chain by one cell, and the game time advances past
+ * the move cooldown in between.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PushChainBenchmark
+{
+    private static final int ROW = 0;
+    private static final int ROWS = 1;
+    private static final int PUSHERS = 2;
+    private static final int FREE_CELLS = 1;
+    private static final int RIGHT = 1;
+    private static final int LEFT = -1;
+    private static final int NO_MOVE = 0;
+
+    /**
+     * The number of players in the pushed chain.
+     */
+    @Param({"1", "4", "16", "64"})
+    public int chainLength;
+
+    private PushResolver pushResolver;
+    private int leftPusher;
+    private int rightPusher;
+    private boolean pushRight;
+    private long now;
+
+    /**
+     * Lines up the pushers and the chain.
+     */
+    @Setup(Level.Trial)
+    public void lineUp()
+    {
+        final int width;
+        final PlayerStore playerStore;
+        final OccupancyGrid occupancyGrid;
+
+        width = chainLength + PUSHERS + FREE_CELLS;
+        playerStore = new PlayerStore(chainLength + PUSHERS);
+        occupancyGrid = new OccupancyGrid(width, ROWS, playerStore);
+
+        leftPusher = playerStore.addPlayer(0, ROW).getIndex();
+        for(int link = 1; link <= chainLength; link++)
+        {
+            playerStore.addPlayer(link, ROW);
+        }
+        rightPusher = playerStore.addPlayer(width - 1, ROW).getIndex();
+        for(int index = 0; index < playerStore.size(); index++)
+        {
+            occupancyGrid.place(index);
+        }
+
+        pushResolver = new PushResolver(playerStore, occupancyGrid);
+        pushRight = true;
+        now = MOVE_COOLDOWN_IN_NANOSECONDS;
+    }
+
+    /**
+     * Shoves the chain one cell towards the free cell.
+     *
+     * @return the number of players pushed.
+     */
+    @Benchmark
+    public int push()
+    {
+        final int pushed;
+
+        now += MOVE_COOLDOWN_IN_NANOSECONDS + 1;
+        if(pushRight)
+        {
+            pushed = pushResolver.resolve(leftPusher, RIGHT, NO_MOVE, true, now);
+        }
+        else
+        {
+            pushed = pushResolver.resolve(rightPusher, LEFT, NO_MOVE, true, now);
+        }
+        pushRight = !pushRight;
+        return pushed;
+    }
+}
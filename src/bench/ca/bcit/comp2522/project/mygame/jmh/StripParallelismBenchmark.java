@@ -0,0 +1,112 @@
+package ca.bcit.comp2522.project.mygame.jmh;
+
+import ca.bcit.comp2522.project.mygame.common.ArenaConfig;
+import ca.bcit.comp2522.project.mygame.engine.GameLogic;
+import ca.bcit.comp2522.project.mygame.engine.ManualGameClock;
+import ca.bcit.comp2522.project.mygame.entities.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.MOVE_COOLDOWN_IN_NANOSECONDS;
+
+/**
+ * Measures how the throughput of {@link GameLogic#updateGame(long)} on the largest arena grows with the number of
+ * threads updating its strips.
+ * <p>
+ * The same seeded game on a 1000 by 1000 grid with 100,000 players is played on the calling thread alone, and on
+ * fork-join pools of one, two and four threads. Thread counts beyond the number of processors only show the cost of
+ * contention; pass {@code -p threads=...} to match the machine. A game plays out the same on any number of threads,
+ * which {@code GameLogicTest} checks, so only the speed differs from one row to the next. Each measurement iteration
+ * starts a fresh game on a {@link ManualGameClock} advanced by one 60 Hz frame per tick.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StripParallelismBenchmark
+{
+    private static final ArenaConfig ARENA = new ArenaConfig(1000, 1000, 100_000);
+    private static final long TICK_IN_NANOSECONDS = 16_666_667L;
+    private static final long SEED = 0L;
+    private static final int CALLING_THREAD = 0;
+
+    /**
+     * The number of threads in the pool updating the strips, or zero to update them on the calling thread.
+     */
+    @Param({"0", "1", "2", "4"})
+    public int threads;
+
+    private ForkJoinPool pool;  // Null when the strips are updated on the calling thread.
+    private ManualGameClock clock;
+    private GameLogic<Player> gameLogic;
+
+    /**
+     * Creates the pool for the current number of threads.
+     */
+    @Setup(Level.Trial)
+    public void createPool()
+    {
+        pool = threads == CALLING_THREAD ? null : new ForkJoinPool(threads);
+    }
+
+    /**
+     * Starts a fresh seeded game whose strips are updated on the pool.
+     */
+    @Setup(Level.Iteration)
+    public void startGame()
+    {
+        // Start past the move cooldown so that nobody is held back by a last move that never happened.
+        clock = new ManualGameClock(MOVE_COOLDOWN_IN_NANOSECONDS);
+        gameLogic = GameLogic.newHeadlessInstance(SEED, clock);
+        gameLogic.setTickPool(pool);
+        gameLogic.initGame(ARENA);
+    }
+
+    /**
+     * Shuts the pool down.
+     */
+    @TearDown(Level.Trial)
+    public void shutDownPool()
+    {
+        if(pool != null)
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Advances the game by one tick.
+     *
+     * @return the number of players still on the field, so that the tick cannot be optimized away.
+     */
+    @Benchmark
+    public int updateGame()
+    {
+        gameLogic.updateGame(clock.advance(TICK_IN_NANOSECONDS));
+        if(gameLogic.isGameOver())
+        {
+            gameLogic.initGame(ARENA);
+        }
+        return gameLogic.getOnFieldCount();
+    }
+}
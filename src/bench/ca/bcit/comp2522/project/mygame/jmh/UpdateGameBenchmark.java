@@ -0,0 +1,94 @@
+package ca.bcit.comp2522.project.mygame.jmh;
+
+import ca.bcit.comp2522.project.mygame.common.ArenaConfig;
+import ca.bcit.comp2522.project.mygame.engine.GameLogic;
+import ca.bcit.comp2522.project.mygame.engine.ManualGameClock;
+import ca.bcit.comp2522.project.mygame.entities.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.MOVE_COOLDOWN_IN_NANOSECONDS;
+
+/**
+ * Measures the average cost of a single {@link GameLogic#updateGame(long)} tick for growing crowds at several crowd
+ * densities.
+ * <p>
+ * Each configuration plays a seeded headless game on a {@link ManualGameClock} advanced by one 60 Hz frame per tick,
+ * so NPCs move, push and get eliminated exactly as they would in a real round. Every measurement iteration starts a
+ * fresh game. Should a round end during an iteration, it is re-initialized inside the measured tick; with the
+ * iteration lengths used here that happens rarely enough not to move the average. The strips of a large arena are
+ * updated on the calling thread only, so that the numbers do not depend on the number of processors.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UpdateGameBenchmark
+{
+    private static final long TICK_IN_NANOSECONDS = 16_666_667L;
+    private static final long SEED = 0L;
+
+    /**
+     * The number of players, including the user.
+     */
+    @Param({"50", "500", "5000"})
+    public int numberOfPlayers;
+
+    /**
+     * The fraction of the arena's cells covered by players. The default arena is covered to 0.025.
+     */
+    @Param({"0.025", "0.1", "0.4"})
+    public double density;
+
+    private ArenaConfig arena;
+    private ManualGameClock clock;
+    private GameLogic<Player> gameLogic;
+
+    /**
+     * Starts a fresh seeded game on the arena of the current parameters.
+     */
+    @Setup(Level.Iteration)
+    public void startGame()
+    {
+        arena = BenchmarkArenas.arenaFor(numberOfPlayers, density);
+        // Start past the move cooldown so that nobody is held back by a last move that never happened.
+        clock = new ManualGameClock(MOVE_COOLDOWN_IN_NANOSECONDS);
+        gameLogic = GameLogic.newHeadlessInstance(SEED, clock);
+        gameLogic.setTickPool(null);
+        gameLogic.initGame(arena);
+    }
+
+    /**
+     * Advances the game by one tick.
+     *
+     * @return the number of players still on the field, so that the tick cannot be optimized away.
+     */
+    @Benchmark
+    public int updateGame()
+    {
+        gameLogic.updateGame(clock.advance(TICK_IN_NANOSECONDS));
+        if(gameLogic.isGameOver())
+        {
+            gameLogic.initGame(arena);
+        }
+        return gameLogic.getOnFieldCount();
+    }
+}
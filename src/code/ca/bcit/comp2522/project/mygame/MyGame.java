@@ -4,34 +4,33 @@ import ca.bcit.comp2522.project.menu.JavaFXGame;
 import ca.bcit.comp2522.project.mygame.audio.SoundManager;
 import ca.bcit.comp2522.project.mygame.common.GameState;
 import ca.bcit.comp2522.project.mygame.common.MovementDirection;
-import ca.bcit.comp2522.project.mygame.engine.GameLogic;
-import ca.bcit.comp2522.project.mygame.entities.Player;
+import ca.bcit.comp2522.project.mygame.engine.GameSession;
+import ca.bcit.comp2522.project.mygame.engine.SimulationLoop;
+import ca.bcit.comp2522.project.mygame.engine.WorldSnapshot;
+import ca.bcit.comp2522.project.mygame.metrics.EngineMetrics;
+import ca.bcit.comp2522.project.mygame.metrics.MetricsReporter;
+import ca.bcit.comp2522.project.mygame.metrics.TickPhase;
+import ca.bcit.comp2522.project.mygame.replay.Replay;
+import ca.bcit.comp2522.project.mygame.ui.GameLayers;
 import ca.bcit.comp2522.project.mygame.ui.GameRenderer;
 import javafx.animation.AnimationTimer;
 import javafx.application.Application;
-import javafx.geometry.VPos;
 import javafx.scene.Scene;
-import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.input.KeyCode;
 import javafx.scene.layout.StackPane;
-import javafx.scene.text.Font;
-import javafx.scene.text.TextAlignment;
 import javafx.stage.Stage;
 
-import java.util.ArrayList;
-import java.util.Random;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.concurrent.CountDownLatch;
 
 import static ca.bcit.comp2522.project.mygame.common.GameConfig.BOTTOM_MARGIN_IN_PIXEL;
 import static ca.bcit.comp2522.project.mygame.common.GameConfig.CELL_SIZE_IN_PIXEL;
 import static ca.bcit.comp2522.project.mygame.common.GameConfig.GRID_HEIGHT_IN_NUMBER_OF_CELLS;
 import static ca.bcit.comp2522.project.mygame.common.GameConfig.GRID_WIDTH_IN_NUMBER_OF_CELLS;
-import static ca.bcit.comp2522.project.mygame.common.GameConfig.LIGHT_SWITCH_FROM_RED_LIGHT_MINIMUM_INTERVAL_IN_MILLISECONDS;
-import static ca.bcit.comp2522.project.mygame.common.GameConfig.LIGHT_SWITCH_MINIMUM_INTERVAL_IN_MILLISECONDS;
 import static ca.bcit.comp2522.project.mygame.common.GameConfig.TOP_MARGIN_IN_PIXEL;
-import static ca.bcit.comp2522.project.mygame.util.DrawingUtils.directionDeltaX;
-import static ca.bcit.comp2522.project.mygame.util.DrawingUtils.directionDeltaY;
 
 
 /**
@@ -39,18 +38,23 @@ import static ca.bcit.comp2522.project.mygame.util.DrawingUtils.directionDeltaY;
  * <p>
  * This class extends {@link Application} and implements the {@link JavaFXGame} interface,
  * combining the JavaFX application lifecycle with custom game logic. It is responsible for initializing
- * the game window, configuring the scene and canvas, processing user input (keyboard events), and managing
- * the game loop via an {@link AnimationTimer}. The class orchestrates transitions between different game
+ * the game window, configuring the scene and canvas, processing user input (keyboard events), and drawing
+ * the game via an {@link AnimationTimer}. The class orchestrates transitions between different game
  * states (such as the intro screen, active gameplay, and game over screen) and integrates with components
  * that handle game logic, sound, and UI rendering.
  * </p>
  * <p>
  * Key features include:
  * <ul>
- *   <li>Setting up the stage and canvas for drawing game graphics.</li>
+ *   <li>Setting up the stage and the layered canvases for drawing game graphics.</li>
  *   <li>Managing user input to trigger game state changes and in-game movements.</li>
- *   <li>Running a game loop that periodically updates game logic and renders the UI.</li>
+ *   <li>Running the game logic on a dedicated {@link SimulationLoop} thread in fixed time steps, while the JavaFX
+ *       Application Thread only forwards key presses to it and renders the latest published snapshot every frame,
+ *       with players interpolated between steps.</li>
  *   <li>Controlling background music based on game conditions.</li>
+ *   <li>Saving the recording of a finished round as a replay file when S is pressed on the game over screen.</li>
+ *   <li>Publishing the engine metrics, render latency included, over JMX, and printing them every
+ *       {@code mygame.metrics.reportPeriodMillis} milliseconds when that system property is set.</li>
  * </ul>
  * </p>
  *
@@ -65,25 +69,28 @@ public class MyGame
     private static final int CANVAS_HEIGHT = GRID_HEIGHT_IN_NUMBER_OF_CELLS * CELL_SIZE_IN_PIXEL +
                                              TOP_MARGIN_IN_PIXEL +
                                              BOTTOM_MARGIN_IN_PIXEL;
-    private static final int DEFAULT_TIME_VALUE = 0;
+    private static final double NO_PROGRESS = 0.0;
+    private static final double COMPLETE_STEP = 1.0;
 
-    // Game logic update roughly every 50ms
-    private static final long UPDATE_INTERVAL_IN_NANOSECONDS = 50_000_000;
+    // Game logic advances in fixed steps of 50ms of game time.
+    private static final long LOGIC_STEP_IN_NANOSECONDS = 50_000_000;
+
+    // Finished rounds are saved under names like replay-1700000000000.rlbr.
+    private static final String REPLAY_FILE_PREFIX = "replay-";
+    private static final String REPLAY_FILE_EXTENSION = ".rlbr";
+
+    // Set this system property to a number of milliseconds to have the engine metrics printed that often.
+    private static final String METRICS_REPORT_PERIOD_PROPERTY = "mygame.metrics.reportPeriodMillis";
+    private static final long NO_METRICS_REPORTS = 0L;
 
     private Stage myGameStage;
     private AnimationTimer gameLoop;  // store a reference
-    private GameLogic gameLogic;
+    private SimulationLoop simulation;  // Runs this window's own game session on a separate thread.
+    private MetricsReporter metricsReporter;  // Prints the session's metrics periodically, if requested.
     private SoundManager soundManager;
 
-    // Game states
-    private GameState gameState = GameState.INTRO;
     private CountDownLatch gameLatch;
 
-    private Player user;
-    private final Random random = new Random();
-
-    private long lastUpdateTimeInNanoseconds = 0;
-
     /**
      * Initializes and starts the game.
      * <p>
@@ -91,14 +98,15 @@ public class MyGame
      * It performs the following tasks:
      * <ul>
      *   <li>Stores the primary stage and sets up a custom close request handler.</li>
-     *   <li>Initializes the {@link SoundManager} and {@link GameLogic}, and creates an instance
-     *       of {@link GameRenderer} for handling UI drawing.</li>
-     *   <li>Creates the canvas and scene, applying any required stylesheets.</li>
-     *   <li>Registers key event handlers to handle user input across different game states:
-     *       starting the game, moving the user-controlled player, or exiting the game.</li>
-     *   <li>Configures initial timing values for game logic updates and light switching.</li>
-     *   <li>Creates and starts the main game loop using {@link AnimationTimer} to continuously
-     *       update game logic and render the current game state.</li>
+     *   <li>Initializes the {@link SoundManager}, creates a {@link SimulationLoop} running this window's own
+     *       {@link GameSession}, and creates an instance of {@link GameRenderer} for handling UI drawing.</li>
+     *   <li>Creates the layered canvases and scene, applying any required stylesheets.</li>
+     *   <li>Registers key event handlers to handle user input across different game states: starting the game or
+     *       moving the user-controlled player, both submitted as commands to the simulation, or exiting the game.</li>
+     *   <li>Starts the simulation thread, which advances the game in fixed logic steps and publishes a snapshot of it
+     *       after each one.</li>
+     *   <li>Creates and starts the render loop using {@link AnimationTimer}. Every frame draws the latest snapshot,
+     *       with players interpolated by the fraction of a step that has passed since it was published.</li>
      * </ul>
      * </p>
      *
@@ -109,9 +117,9 @@ public class MyGame
     {
         this.myGameStage = primaryStage; // Store the stage for future reference.
         soundManager = new SoundManager();
-        gameLogic = GameLogic.getInstance(soundManager);
+        simulation = new SimulationLoop(soundManager, LOGIC_STEP_IN_NANOSECONDS);
         final GameRenderer renderer;
-        renderer = new GameRenderer(gameLogic);
+        renderer = new GameRenderer();
 
         // If the user clicks the [X] button to close the window:
         primaryStage.setOnCloseRequest(e ->
@@ -121,13 +129,13 @@ public class MyGame
             closeGameWindow(); // custom method we define next
         });
 
-        // Set up the canvas and scene.
-        final Canvas canvas;
+        // Set up the layered canvases and scene.
+        final GameLayers layers;
         final StackPane root;
         final Scene scene;
 
-        canvas = new Canvas(CANVAS_WIDTH, CANVAS_HEIGHT);
-        root = new StackPane(canvas);
+        layers = new GameLayers(CANVAS_WIDTH, CANVAS_HEIGHT);
+        root = new StackPane(layers.getCanvases());
         scene = new Scene(root, CANVAS_WIDTH, CANVAS_HEIGHT);
         scene.getStylesheets().add(getClass().getResource("/myGameStyles.css").toExternalForm());
 
@@ -138,12 +146,16 @@ public class MyGame
         // Set up key input for all game states.
         scene.setOnKeyPressed(e ->
         {
+            final WorldSnapshot snapshot;
+            final GameState gameState;
+
+            snapshot = simulation.getLatestSnapshot();
+            gameState = snapshot.getState();
             if(gameState == GameState.INTRO)
             {
                 if(e.getCode() == KeyCode.ENTER)
                 {
-                    gameLogic.initGame();
-                    gameState = GameState.GAME;
+                    simulation.submitStartRound();
                 }
                 else if
                 (e.getCode() == KeyCode.ESCAPE)
@@ -153,7 +165,7 @@ public class MyGame
             }
             else if(gameState == GameState.GAME)
             {
-                if(!gameLogic.isGameOver())
+                if(!snapshot.isGameOver())
                 {
                     MovementDirection dir;
                     dir = null;
@@ -175,7 +187,7 @@ public class MyGame
                     }
                     if(dir != null)
                     {
-                        gameLogic.tryMoveWithPush(gameLogic.getUser(), directionDeltaX(dir), directionDeltaY(dir), new ArrayList<>(), true);
+                        simulation.submitUserMove(dir);
                     }
                 }
             }
@@ -183,8 +195,11 @@ public class MyGame
             {
                 if(e.getCode() == KeyCode.ENTER)
                 {
-                    gameLogic.initGame();
-                    gameState = GameState.GAME;
+                    simulation.submitStartRound();
+                }
+                else if(e.getCode() == KeyCode.S)
+                {
+                    saveLastReplay();
                 }
                 else if(e.getCode() == KeyCode.ESCAPE)
                 {
@@ -193,45 +208,31 @@ public class MyGame
             }
         });
 
-        final GraphicsContext gc;
-        gc = canvas.getGraphicsContext2D();
-        gc.setFont(Font.font("Monospaced", CELL_SIZE_IN_PIXEL));
-        gc.setTextAlign(TextAlignment.LEFT);
-        gc.setTextBaseline(VPos.TOP);
-
-        // Initialize timing for game logic updates and light switching.
-        gameLogic.setNextSwitchInMilliseconds(LIGHT_SWITCH_MINIMUM_INTERVAL_IN_MILLISECONDS +
-                random.nextInt(LIGHT_SWITCH_FROM_RED_LIGHT_MINIMUM_INTERVAL_IN_MILLISECONDS));
-        gameLogic.setLastLightSwitchTimeInNanoseconds(System.nanoTime());
+        simulation.start();
+        publishMetrics();
 
         gameLoop = new AnimationTimer()
         {
             @Override
             public void handle(final long now)
             {
-                if(lastUpdateTimeInNanoseconds == DEFAULT_TIME_VALUE)
-                {
-                    lastUpdateTimeInNanoseconds = now;
-                    return;
-                }
-                final long delta;
-                delta = now - lastUpdateTimeInNanoseconds;
-                if(delta >= UPDATE_INTERVAL_IN_NANOSECONDS)
-                {
-                    if(gameState == GameState.GAME)
-                    {
-                        gameLogic.updateGame(now);
-                    }
+                final WorldSnapshot snapshot;
+                final GameState gameState;
+                final double stepProgress;
+                final EngineMetrics metrics;
+                final long renderStart;
 
-                    if(gameLogic.isGameOver())
-                    {
-                        gameState = GameState.GAME_OVER;
-                    }
-
-                    renderer.render(gameState, gc);
-
-                    lastUpdateTimeInNanoseconds = now;
-                }
+                // The snapshot is never modified after publication, so it can be drawn while the next step runs.
+                snapshot = simulation.getLatestSnapshot();
+                gameState = snapshot.getState();
+                stepProgress = Math.max(NO_PROGRESS,
+                                        Math.min(COMPLETE_STEP,
+                                                 (double) (now - snapshot.getCapturedAtInNanoseconds()) /
+                                                 LOGIC_STEP_IN_NANOSECONDS));
+                metrics = simulation.getMetrics();
+                renderStart = metrics.beginPhase();
+                renderer.render(snapshot, layers, stepProgress);
+                metrics.endPhase(TickPhase.RENDER, renderStart);
 
                 if(gameState == GameState.INTRO)
                 {
@@ -239,7 +240,7 @@ public class MyGame
                 }
                 else if(gameState == GameState.GAME)
                 {
-                    if(gameLogic.isGreen())
+                    if(snapshot.isGreen())
                     {
                         soundManager.playBGM();
                     }
@@ -280,9 +281,9 @@ public class MyGame
     /**
      * Stops the game.
      * <p>
-     * This method is automatically invoked when the application is stopped. It stops the active game loop
-     * and halts any background music, ensuring that all resources are properly released and the game state is
-     * gracefully terminated.
+     * This method is automatically invoked when the application is stopped. It stops the active game loop,
+     * halts any background music and stops the simulation, disposing of its game session, ensuring that all resources are properly released
+     * and the game state is gracefully terminated.
      * </p>
      */
     @Override
@@ -293,6 +294,7 @@ public class MyGame
             gameLoop.stop();
         }
         soundManager.stopBGM();
+        stopSimulation();
     }
 
     /*
@@ -301,7 +303,7 @@ public class MyGame
      * This helper method is invoked when a user opts to exit the game (or when the window's close request is
      * triggered). It performs the following actions:
      * <ul>
-     *   <li>Stops background music and the game loop.</li>
+     *   <li>Stops background music, the game loop and the simulation, disposing of the game session.</li>
      *   <li>Decrements the {@link CountDownLatch} if one is present, unblocking any waiting threads (such as a main
      *   menu).</li>
      *   <li>Closes the primary game stage, effectively terminating the UI.</li>
@@ -316,6 +318,7 @@ public class MyGame
         {
             gameLoop.stop();
         }
+        stopSimulation();
 
         if(gameLatch != null)
         {
@@ -327,4 +330,73 @@ public class MyGame
             myGameStage.close();
         }
     }
+
+    /*
+     * Registers the simulation's metrics over JMX and, if the report period system property is set, starts printing
+     * them to standard output.
+     */
+    private void publishMetrics()
+    {
+        final long reportPeriodInMilliseconds;
+
+        try
+        {
+            simulation.getMetrics().register();
+        }
+        catch(final IllegalStateException e)
+        {
+            System.err.println("Error publishing engine metrics: " + e.getMessage());
+        }
+
+        reportPeriodInMilliseconds = Long.getLong(METRICS_REPORT_PERIOD_PROPERTY, NO_METRICS_REPORTS);
+        if(reportPeriodInMilliseconds > NO_METRICS_REPORTS)
+        {
+            metricsReporter = new MetricsReporter(simulation.getMetrics(), System.out, reportPeriodInMilliseconds);
+            metricsReporter.start();
+        }
+    }
+
+    /*
+     * Saves the recording of the round that has just ended to a file named after the current time, in the working
+     * directory, so that it can be played back with a ReplayPlayer.
+     */
+    private void saveLastReplay()
+    {
+        final Replay replay;
+        final String fileName;
+
+        replay = simulation.getLastReplay();
+        if(replay == null)
+        {
+            return;
+        }
+
+        fileName = REPLAY_FILE_PREFIX + System.currentTimeMillis() + REPLAY_FILE_EXTENSION;
+        try(final OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName)))
+        {
+            replay.write(out);
+            System.out.println("Replay saved to " + fileName);
+        }
+        catch(final IOException e)
+        {
+            System.err.println("Error writing file " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    /*
+     * Stops the simulation thread, if it was started, and disposes of its game session so that its state cannot leak
+     * into another game.
+     */
+    private void stopSimulation()
+    {
+        if(metricsReporter != null)
+        {
+            metricsReporter.stop();
+        }
+        if(simulation != null)
+        {
+            simulation.getMetrics().unregister();
+            simulation.stop();
+        }
+    }
 }
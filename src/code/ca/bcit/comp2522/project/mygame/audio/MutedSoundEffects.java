@@ -0,0 +1,47 @@
+package ca.bcit.comp2522.project.mygame.audio;
+
+/**
+ * A {@link SoundEffects} implementation that plays nothing.
+ * <p>
+ * It is used when the game runs without the JavaFX toolkit, such as in headless simulations, where loading and
+ * playing audio clips is neither possible nor wanted.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class MutedSoundEffects
+        implements SoundEffects
+{
+    /**
+     * Does nothing.
+     */
+    @Override
+    public void playPushSound()
+    {
+    }
+
+    /**
+     * Does nothing.
+     */
+    @Override
+    public void playGunshotSound()
+    {
+    }
+
+    /**
+     * Does nothing.
+     */
+    @Override
+    public void playDeathSound1()
+    {
+    }
+
+    /**
+     * Does nothing.
+     */
+    @Override
+    public void playDeathSound2()
+    {
+    }
+}
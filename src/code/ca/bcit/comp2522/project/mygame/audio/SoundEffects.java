@@ -0,0 +1,35 @@
+package ca.bcit.comp2522.project.mygame.audio;
+
+/**
+ * Represents the sound effects the game engine triggers during play.
+ * <p>
+ * The game logic only depends on this interface, not on a particular audio backend. {@link SoundManager} plays the
+ * effects through JavaFX, while {@link MutedSoundEffects} silently ignores them so that the engine can run without
+ * the JavaFX toolkit, for example in headless simulations.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public interface SoundEffects
+{
+    /**
+     * Plays the push sound effect.
+     */
+    void playPushSound();
+
+    /**
+     * Plays the gunshot sound effect.
+     */
+    void playGunshotSound();
+
+    /**
+     * Plays the first death sound effect.
+     */
+    void playDeathSound1();
+
+    /**
+     * Plays the second death sound effect.
+     */
+    void playDeathSound2();
+}
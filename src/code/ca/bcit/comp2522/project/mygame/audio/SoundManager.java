@@ -9,7 +9,8 @@ import javafx.scene.media.AudioClip;
  * resources. It handles individual sound effects such as push, gunshot, and death sounds,
  * as well as the control of looping background music (BGM). The background music is designed
  * to loop indefinitely until explicitly stopped. This class uses JavaFX's {@link AudioClip}
- * for efficient audio playback.
+ * for efficient audio playback. The sound effects are exposed to the game engine through the {@link SoundEffects}
+ * interface.
  * </p>
  * <p>
  * Audio resources used:
@@ -28,6 +29,7 @@ import javafx.scene.media.AudioClip;
  * @version 1.0
  */
 public class SoundManager
+        implements SoundEffects
 {
     private final AudioClip pushSound;
     private final AudioClip gunshotSound;
@@ -64,6 +66,7 @@ public class SoundManager
     /**
      * Plays the push sound effect.
      */
+    @Override
     public void playPushSound()
     {
         pushSound.play();
@@ -72,6 +75,7 @@ public class SoundManager
     /**
      * Plays the gunshot sound effect.
      */
+    @Override
     public void playGunshotSound()
     {
         gunshotSound.play();
@@ -80,6 +84,7 @@ public class SoundManager
     /**
      * Plays the first death sound effect.
      */
+    @Override
     public void playDeathSound1()
     {
         deathSound1.play();
@@ -88,6 +93,7 @@ public class SoundManager
     /**
      * Plays the second death sound effect.
      */
+    @Override
     public void playDeathSound2()
     {
         deathSound2.play();
@@ -0,0 +1,192 @@
+package ca.bcit.comp2522.project.mygame.common;
+
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.BOTTOM_OFFSET_IN_NUMBER_OF_CELLS;
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.FINISH_LINE_Y_IN_NUMBER_OF_CELLS;
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.GRID_HEIGHT_IN_NUMBER_OF_CELLS;
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.GRID_WIDTH_IN_NUMBER_OF_CELLS;
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.NUMBER_OF_PLAYERS;
+
+/**
+ * The size of an arena chosen at runtime: the width and height of its grid and the number of players in it.
+ * <p>
+ * {@link GameConfig} fixes the arena of the windowed game at compile time. An {@code ArenaConfig} describes any other
+ * arena the engine can play, up to {@link #MAXIMUM_NUMBER_OF_CELLS} cells, for example 1000 by 1000 cells holding
+ * 100,000 players. The engine sizes its player store, occupancy grid and scratch buffers from it when a game is
+ * initialized, so a larger arena costs memory in proportion to its cells and players, and nothing more.
+ * </p>
+ * <p>
+ * The finish line and the starting row keep their distance from the top and bottom edges given by
+ * {@code FINISH_LINE_Y_IN_NUMBER_OF_CELLS} and {@code BOTTOM_OFFSET_IN_NUMBER_OF_CELLS}. Players start on the
+ * starting row and fill the rows above it, never beyond the finish line, so the number of players is limited by the
+ * number of cells in between. Instances are immutable.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public final class ArenaConfig
+{
+    /**
+     * The largest number of cells an arena may have.
+     */
+    public static final int MAXIMUM_NUMBER_OF_CELLS = 1_000_000;
+
+    /**
+     * The arena of the windowed game, as fixed by {@link GameConfig}.
+     */
+    public static final ArenaConfig DEFAULT = new ArenaConfig(GRID_WIDTH_IN_NUMBER_OF_CELLS,
+                                                              GRID_HEIGHT_IN_NUMBER_OF_CELLS,
+                                                              NUMBER_OF_PLAYERS);
+
+    private static final int MINIMUM_WIDTH = 1;
+    private static final int MINIMUM_NUMBER_OF_PLAYERS = 1;
+    private static final int MINIMUM_HEIGHT = FINISH_LINE_Y_IN_NUMBER_OF_CELLS + BOTTOM_OFFSET_IN_NUMBER_OF_CELLS + 1;
+
+    private final int widthInNumberOfCells;
+    private final int heightInNumberOfCells;
+    private final int numberOfPlayers;
+
+    /**
+     * Constructs an {@code ArenaConfig} with the given grid size and number of players.
+     *
+     * @param widthInNumberOfCells  the width of the grid in cells.
+     * @param heightInNumberOfCells the height of the grid in cells.
+     * @param numberOfPlayers       the number of players, including the user.
+     * @throws IllegalArgumentException if the grid is too small or larger than {@link #MAXIMUM_NUMBER_OF_CELLS}
+     *                                  cells, or if the number of players is not positive or exceeds the number of
+     *                                  cells between the starting row and the finish line.
+     */
+    public ArenaConfig(final int widthInNumberOfCells,
+                       final int heightInNumberOfCells,
+                       final int numberOfPlayers)
+    {
+        validateGrid(widthInNumberOfCells, heightInNumberOfCells);
+        validateNumberOfPlayers(numberOfPlayers, startingCapacity(widthInNumberOfCells, heightInNumberOfCells));
+        this.widthInNumberOfCells = widthInNumberOfCells;
+        this.heightInNumberOfCells = heightInNumberOfCells;
+        this.numberOfPlayers = numberOfPlayers;
+    }
+
+    /**
+     * Returns the width of the grid in cells.
+     *
+     * @return the grid width.
+     */
+    public int getWidthInNumberOfCells()
+    {
+        return widthInNumberOfCells;
+    }
+
+    /**
+     * Returns the height of the grid in cells.
+     *
+     * @return the grid height.
+     */
+    public int getHeightInNumberOfCells()
+    {
+        return heightInNumberOfCells;
+    }
+
+    /**
+     * Returns the number of players, including the user.
+     *
+     * @return the number of players.
+     */
+    public int getNumberOfPlayers()
+    {
+        return numberOfPlayers;
+    }
+
+    /**
+     * Returns the row of the finish line. A player whose y-coordinate is at most this row has finished.
+     *
+     * @return the y-coordinate of the finish line.
+     */
+    public int getFinishLineY()
+    {
+        return FINISH_LINE_Y_IN_NUMBER_OF_CELLS;
+    }
+
+    /**
+     * Returns the row on which the first players start.
+     *
+     * @return the y-coordinate of the starting row.
+     */
+    public int getStartingRow()
+    {
+        return heightInNumberOfCells - BOTTOM_OFFSET_IN_NUMBER_OF_CELLS;
+    }
+
+    /**
+     * Returns the number of cells in the grid.
+     *
+     * @return the grid width times its height.
+     */
+    public int getNumberOfCells()
+    {
+        return widthInNumberOfCells * heightInNumberOfCells;
+    }
+
+    /**
+     * Returns a string representation of this arena.
+     *
+     * @return the grid size and number of players.
+     */
+    @Override
+    public String toString()
+    {
+        return widthInNumberOfCells + "x" + heightInNumberOfCells + " cells, " + numberOfPlayers + " players";
+    }
+
+    /*
+     * Returns the number of cells between the starting row and the finish line, both included.
+     *
+     * @param widthInNumberOfCells  the width of the grid.
+     * @param heightInNumberOfCells the height of the grid.
+     * @return the largest number of players the grid can start with.
+     */
+    private static int startingCapacity(final int widthInNumberOfCells,
+                                        final int heightInNumberOfCells)
+    {
+        final int availableRows;
+        availableRows = heightInNumberOfCells - BOTTOM_OFFSET_IN_NUMBER_OF_CELLS - FINISH_LINE_Y_IN_NUMBER_OF_CELLS + 1;
+        return availableRows * widthInNumberOfCells;
+    }
+
+    /*
+     * Validates that the grid leaves room between the finish line and the starting row and is not too large.
+     *
+     * @param widthInNumberOfCells  the width to validate.
+     * @param heightInNumberOfCells the height to validate.
+     * @throws IllegalArgumentException if the grid is too small or has too many cells.
+     */
+    private static void validateGrid(final int widthInNumberOfCells,
+                                     final int heightInNumberOfCells)
+    {
+        if(widthInNumberOfCells < MINIMUM_WIDTH ||
+           heightInNumberOfCells < MINIMUM_HEIGHT ||
+           (long) widthInNumberOfCells * heightInNumberOfCells > MAXIMUM_NUMBER_OF_CELLS)
+        {
+            throw new IllegalArgumentException("Grid must be at least " + MINIMUM_WIDTH + "x" + MINIMUM_HEIGHT +
+                                               " and at most " + MAXIMUM_NUMBER_OF_CELLS + " cells. Provided: " +
+                                               widthInNumberOfCells + "x" + heightInNumberOfCells);
+        }
+    }
+
+    /*
+     * Validates that the requested number of players fits between the starting row and the finish line.
+     *
+     * @param numberOfPlayers the number of players to validate.
+     * @param capacity        the number of cells available to start on.
+     * @throws IllegalArgumentException if the number is not positive or there are not enough free cells.
+     */
+    private static void validateNumberOfPlayers(final int numberOfPlayers,
+                                                final int capacity)
+    {
+        if(numberOfPlayers < MINIMUM_NUMBER_OF_PLAYERS || numberOfPlayers > capacity)
+        {
+            throw new IllegalArgumentException("Number of players must be between " + MINIMUM_NUMBER_OF_PLAYERS +
+                                               " and " + capacity + ". Provided: " + numberOfPlayers);
+        }
+    }
+}
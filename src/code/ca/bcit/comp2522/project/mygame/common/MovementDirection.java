@@ -51,5 +51,45 @@ public enum MovementDirection
     /**
      * Represents rightward movement, typically toward the right-hand side of the display area.
      */
-    RIGHT
+    RIGHT;
+
+    private static final int COORDINATE_MOVEMENT_BY_ZERO = 0;
+    private static final int COORDINATE_MOVEMENT_BY_NEGATIVE_ONE = -1;
+    private static final int COORDINATE_MOVEMENT_BY_POSITIVE_ONE = 1;
+
+    /**
+     * Returns the change in the x-coordinate caused by one step in this direction.
+     * <p>
+     * {@link #LEFT} returns -1, {@link #RIGHT} returns 1 and every other direction returns 0.
+     * </p>
+     *
+     * @return the x-axis delta of this direction.
+     */
+    public int getDeltaX()
+    {
+        switch(this)
+        {
+            case LEFT: return COORDINATE_MOVEMENT_BY_NEGATIVE_ONE;
+            case RIGHT: return COORDINATE_MOVEMENT_BY_POSITIVE_ONE;
+            default: return COORDINATE_MOVEMENT_BY_ZERO;
+        }
+    }
+
+    /**
+     * Returns the change in the y-coordinate caused by one step in this direction.
+     * <p>
+     * {@link #UP} returns -1, {@link #DOWN} returns 1 and every other direction returns 0.
+     * </p>
+     *
+     * @return the y-axis delta of this direction.
+     */
+    public int getDeltaY()
+    {
+        switch(this)
+        {
+            case UP: return COORDINATE_MOVEMENT_BY_NEGATIVE_ONE;
+            case DOWN: return COORDINATE_MOVEMENT_BY_POSITIVE_ONE;
+            default: return COORDINATE_MOVEMENT_BY_ZERO;
+        }
+    }
 }
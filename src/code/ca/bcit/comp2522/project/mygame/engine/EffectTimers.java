@@ -0,0 +1,239 @@
+package ca.bcit.comp2522.project.mygame.engine;
+
+import ca.bcit.comp2522.project.mygame.audio.SoundEffects;
+import ca.bcit.comp2522.project.mygame.entities.PlayerStore;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.LongConsumer;
+
+/**
+ * The engine's own timers for delayed cosmetic effects: resetting push animation flags and playing death sounds.
+ * <p>
+ * Every effect is described by a small, reusable timer entry rather than by a new animation or closure. Entries are
+ * taken from a pool when an effect is scheduled, queued in an {@link EventQueue} under the game time at which they
+ * are due, and returned to the pool as soon as they have fired. Once the pool has grown to the largest number of
+ * effects pending at one time, for example during a mass elimination, scheduling an effect allocates nothing.
+ * </p>
+ * <p>
+ * Timers fire when {@link #runDue(long)} is called with the current game time, which the game logic does on every
+ * update. Because they follow the game clock instead of the JavaFX timeline, the effects behave the same whether the
+ * game is played in a window, on a simulation thread or headless.
+ * </p>
+ * <p>
+ * Like the game logic itself, this class is meant to be used by a single thread.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class EffectTimers
+{
+    private static final int INITIAL_POOL_SIZE = 64;
+    private static final int GROWTH_FACTOR = 2;
+    private static final int NO_PLAYER = -1;
+
+    private static final int CLEAR_PUSH_FLAGS = 0;
+    private static final int DEATH_SOUND = 1;
+    private static final int GUNSHOT_AND_DEATH_SOUND = 2;
+
+    private final SoundEffects soundEffects;
+    private final Random effectRandom;
+    private final EventQueue pending;
+    private Timer[] pool;
+    private int pooledCount;
+
+    /**
+     * Constructs an {@code EffectTimers} that plays the given sound effects and picks sound variants with the given
+     * random source.
+     *
+     * @param soundEffects the sound effects to play.
+     * @param effectRandom the random source choosing between death sound variants.
+     * @throws IllegalArgumentException if either argument is null.
+     */
+    public EffectTimers(final SoundEffects soundEffects,
+                        final Random effectRandom)
+    {
+        validateArguments(soundEffects, effectRandom);
+        this.soundEffects = soundEffects;
+        this.effectRandom = effectRandom;
+        this.pending = new EventQueue();
+        this.pool = new Timer[INITIAL_POOL_SIZE];
+        for(int entry = 0; entry < INITIAL_POOL_SIZE; entry++)
+        {
+            pool[entry] = new Timer();
+        }
+        this.pooledCount = INITIAL_POOL_SIZE;
+    }
+
+    /**
+     * Schedules the pushing and pushed flags of two players to be cleared at the given time.
+     *
+     * @param playerStore            the store holding both players.
+     * @param pusher                 the slot of the player who pushed.
+     * @param pushed                 the slot of the player who was pushed.
+     * @param dueTimeInNanoseconds   the game time at which the flags are cleared.
+     */
+    public void schedulePushFlagReset(final PlayerStore playerStore,
+                                      final int pusher,
+                                      final int pushed,
+                                      final long dueTimeInNanoseconds)
+    {
+        schedule(CLEAR_PUSH_FLAGS, playerStore, pusher, pushed, dueTimeInNanoseconds);
+    }
+
+    /**
+     * Schedules one of the two death sounds, picked at random, to be played at the given time.
+     *
+     * @param dueTimeInNanoseconds the game time at which the sound is played.
+     */
+    public void scheduleDeathSound(final long dueTimeInNanoseconds)
+    {
+        schedule(DEATH_SOUND, null, NO_PLAYER, NO_PLAYER, dueTimeInNanoseconds);
+    }
+
+    /**
+     * Schedules a gunshot followed by one of the two death sounds, picked at random, to be played at the given time.
+     *
+     * @param dueTimeInNanoseconds the game time at which the sounds are played.
+     */
+    public void scheduleGunshotAndDeathSound(final long dueTimeInNanoseconds)
+    {
+        schedule(GUNSHOT_AND_DEATH_SOUND, null, NO_PLAYER, NO_PLAYER, dueTimeInNanoseconds);
+    }
+
+    /**
+     * Fires every timer that is due at the given time, earliest first, and returns its entry to the pool.
+     *
+     * @param now the current game time in nanoseconds.
+     * @return the number of timers fired.
+     */
+    public int runDue(final long now)
+    {
+        return pending.runDue(now);
+    }
+
+    /**
+     * Returns the number of timers waiting to fire.
+     *
+     * @return the number of pending timers.
+     */
+    public int getPendingCount()
+    {
+        return pending.size();
+    }
+
+    /**
+     * Returns the number of idle timer entries kept in the pool for reuse.
+     *
+     * @return the number of pooled entries.
+     */
+    public int getPooledCount()
+    {
+        return pooledCount;
+    }
+
+    /*
+     * Takes a timer entry from the pool, fills it in and queues it.
+     *
+     * @param effect               the effect to run.
+     * @param playerStore          the store of the players concerned, if any.
+     * @param first                the first player concerned, if any.
+     * @param second               the second player concerned, if any.
+     * @param dueTimeInNanoseconds the game time at which the effect runs.
+     */
+    private void schedule(final int effect,
+                          final PlayerStore playerStore,
+                          final int first,
+                          final int second,
+                          final long dueTimeInNanoseconds)
+    {
+        final Timer timer;
+        timer = pooledCount > 0 ? pool[--pooledCount] : new Timer();
+        timer.effect = effect;
+        timer.playerStore = playerStore;
+        timer.first = first;
+        timer.second = second;
+        pending.schedule(dueTimeInNanoseconds, timer);
+    }
+
+    /*
+     * Runs the effect of a due timer and returns its entry to the pool.
+     *
+     * @param timer the timer that is due.
+     */
+    private void fire(final Timer timer)
+    {
+        switch(timer.effect)
+        {
+            case CLEAR_PUSH_FLAGS:
+                timer.playerStore.setPushing(timer.first, false);
+                timer.playerStore.setPushed(timer.second, false);
+                break;
+            case GUNSHOT_AND_DEATH_SOUND:
+                soundEffects.playGunshotSound();
+                playRandomDeathSound();
+                break;
+            default:
+                playRandomDeathSound();
+                break;
+        }
+
+        // Drop the reference so that a finished game's player store is not kept alive by the pool.
+        timer.playerStore = null;
+        if(pooledCount == pool.length)
+        {
+            pool = Arrays.copyOf(pool, pool.length * GROWTH_FACTOR);
+        }
+        pool[pooledCount++] = timer;
+    }
+
+    /*
+     * Plays one of the two death sounds, picked at random.
+     */
+    private void playRandomDeathSound()
+    {
+        if(effectRandom.nextBoolean())
+        {
+            soundEffects.playDeathSound1();
+        }
+        else
+        {
+            soundEffects.playDeathSound2();
+        }
+    }
+
+    /*
+     * Validates that neither the sound effects nor the random source is null.
+     *
+     * @param soundEffects the SoundEffects instance to validate.
+     * @param effectRandom the Random instance to validate.
+     * @throws IllegalArgumentException if either argument is null.
+     */
+    private static void validateArguments(final SoundEffects soundEffects,
+                                          final Random effectRandom)
+    {
+        if(soundEffects == null || effectRandom == null)
+        {
+            throw new IllegalArgumentException("SoundEffects and Random cannot be null.");
+        }
+    }
+
+    /*
+     * A reusable timer entry. The event queue calls it back once it is due.
+     */
+    private final class Timer
+            implements LongConsumer
+    {
+        private int effect;
+        private PlayerStore playerStore;
+        private int first;
+        private int second;
+
+        @Override
+        public void accept(final long now)
+        {
+            fire(this);
+        }
+    }
+}
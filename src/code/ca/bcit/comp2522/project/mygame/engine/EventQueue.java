@@ -0,0 +1,260 @@
+package ca.bcit.comp2522.project.mygame.engine;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A priority queue of timed game events, ordered by the game time at which each event becomes due.
+ * <p>
+ * Instead of checking every timer on every tick, the engine schedules an event for the moment something has to
+ * happen and asks the queue once per tick to run whatever has become due. Looking at the earliest event costs
+ * constant time, so a tick in which nothing is due does no timer work at all, and scheduling or running an event
+ * costs time logarithmic in the number of pending events.
+ * </p>
+ * <p>
+ * The queue is a binary min-heap stored in parallel arrays of due times, insertion sequence numbers and actions.
+ * Events that fall due at the same time run in the order they were scheduled, which keeps deterministic games
+ * reproducible. When an event runs, its action receives the current time passed to {@link #runDue(long)}.
+ * </p>
+ * <p>
+ * This class is not thread-safe; it belongs to the thread that updates the game.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class EventQueue
+{
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int ROOT = 0;
+    private static final int GROWTH_FACTOR = 2;
+    private static final int NO_EVENTS = 0;
+
+    private long[] dueTimes;
+    private long[] sequenceNumbers;
+    private LongConsumer[] actions;
+    private int size;
+    private long nextSequenceNumber;
+
+    /**
+     * Constructs an empty {@code EventQueue}.
+     */
+    public EventQueue()
+    {
+        this.dueTimes = new long[DEFAULT_CAPACITY];
+        this.sequenceNumbers = new long[DEFAULT_CAPACITY];
+        this.actions = new LongConsumer[DEFAULT_CAPACITY];
+        this.size = NO_EVENTS;
+        this.nextSequenceNumber = 0;
+    }
+
+    /**
+     * Schedules an action to run once the game time reaches the given due time.
+     *
+     * @param dueTimeInNanoseconds the game time at which the action becomes due.
+     * @param action               the action to run; it receives the time at which it actually runs.
+     * @throws IllegalArgumentException if {@code action} is null.
+     */
+    public void schedule(final long dueTimeInNanoseconds,
+                         final LongConsumer action)
+    {
+        if(action == null)
+        {
+            throw new IllegalArgumentException("Event action cannot be null.");
+        }
+        if(size == actions.length)
+        {
+            grow();
+        }
+
+        dueTimes[size] = dueTimeInNanoseconds;
+        sequenceNumbers[size] = nextSequenceNumber++;
+        actions[size] = action;
+        siftUp(size);
+        size++;
+    }
+
+    /**
+     * Runs, in order, every event whose due time is not later than {@code now}, including events scheduled by
+     * those events that are themselves already due.
+     *
+     * @param now the current game time in nanoseconds.
+     * @return the number of events run.
+     */
+    public int runDue(final long now)
+    {
+        int run;
+        run = 0;
+        while(size > NO_EVENTS && dueTimes[ROOT] <= now)
+        {
+            final LongConsumer action;
+            action = actions[ROOT];
+            removeRoot();
+            action.accept(now);
+            run++;
+        }
+        return run;
+    }
+
+    /**
+     * Returns the due time of the earliest pending event.
+     *
+     * @return the earliest due time, or {@link Long#MAX_VALUE} if no event is pending.
+     */
+    public long getNextDueTimeInNanoseconds()
+    {
+        return size == NO_EVENTS ? Long.MAX_VALUE : dueTimes[ROOT];
+    }
+
+    /**
+     * Returns the number of pending events.
+     *
+     * @return the number of pending events.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Discards every pending event.
+     */
+    public void clear()
+    {
+        Arrays.fill(actions, ROOT, size, null);
+        size = NO_EVENTS;
+    }
+
+    /*
+     * Removes the earliest event from the heap.
+     */
+    private void removeRoot()
+    {
+        size--;
+        moveEntry(size, ROOT);
+        actions[size] = null;
+        if(size > NO_EVENTS)
+        {
+            siftDown(ROOT);
+        }
+    }
+
+    /*
+     * Moves the entry at the given position up until its parent is not later than it.
+     *
+     * @param position the position of the entry.
+     */
+    private void siftUp(final int position)
+    {
+        int child;
+        child = position;
+        while(child > ROOT)
+        {
+            final int parent;
+            parent = (child - 1) / 2;
+            if(!isEarlier(child, parent))
+            {
+                return;
+            }
+            swap(child, parent);
+            child = parent;
+        }
+    }
+
+    /*
+     * Moves the entry at the given position down until neither child is earlier than it.
+     *
+     * @param position the position of the entry.
+     */
+    private void siftDown(final int position)
+    {
+        int parent;
+        parent = position;
+        while(true)
+        {
+            final int left;
+            final int right;
+            int earliest;
+
+            left = 2 * parent + 1;
+            right = left + 1;
+            earliest = parent;
+            if(left < size && isEarlier(left, earliest))
+            {
+                earliest = left;
+            }
+            if(right < size && isEarlier(right, earliest))
+            {
+                earliest = right;
+            }
+            if(earliest == parent)
+            {
+                return;
+            }
+            swap(parent, earliest);
+            parent = earliest;
+        }
+    }
+
+    /*
+     * Indicates whether the entry at the first position must run before the entry at the second.
+     *
+     * @param first  the position of the first entry.
+     * @param second the position of the second entry.
+     * @return true if the first entry is due earlier, or at the same time but was scheduled first.
+     */
+    private boolean isEarlier(final int first,
+                              final int second)
+    {
+        return dueTimes[first] < dueTimes[second] ||
+               (dueTimes[first] == dueTimes[second] && sequenceNumbers[first] < sequenceNumbers[second]);
+    }
+
+    /*
+     * Swaps the entries at the given positions.
+     *
+     * @param first  the position of the first entry.
+     * @param second the position of the second entry.
+     */
+    private void swap(final int first,
+                      final int second)
+    {
+        final long dueTime;
+        final long sequenceNumber;
+        final LongConsumer action;
+
+        dueTime = dueTimes[first];
+        sequenceNumber = sequenceNumbers[first];
+        action = actions[first];
+        moveEntry(second, first);
+        dueTimes[second] = dueTime;
+        sequenceNumbers[second] = sequenceNumber;
+        actions[second] = action;
+    }
+
+    /*
+     * Copies the entry at one position over the entry at another.
+     *
+     * @param from the position to copy from.
+     * @param to   the position to copy to.
+     */
+    private void moveEntry(final int from,
+                           final int to)
+    {
+        dueTimes[to] = dueTimes[from];
+        sequenceNumbers[to] = sequenceNumbers[from];
+        actions[to] = actions[from];
+    }
+
+    /*
+     * Doubles the capacity of the heap arrays.
+     */
+    private void grow()
+    {
+        final int capacity;
+        capacity = actions.length * GROWTH_FACTOR;
+        dueTimes = Arrays.copyOf(dueTimes, capacity);
+        sequenceNumbers = Arrays.copyOf(sequenceNumbers, capacity);
+        actions = Arrays.copyOf(actions, capacity);
+    }
+}
@@ -0,0 +1,30 @@
+package ca.bcit.comp2522.project.mygame.engine;
+
+/**
+ * A source of time, in nanoseconds, for the game engine.
+ * <p>
+ * The engine never reads the system timer directly. Instead it asks a {@code GameClock}, so that a game can either
+ * run against real time with {@link #SYSTEM} or be driven by a synthetic clock such as {@link ManualGameClock},
+ * which lets a simulation advance as fast as the CPU allows and replay identically every time.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public interface GameClock
+{
+    /**
+     * A clock backed by {@link System#nanoTime()}, used for normal, real-time play.
+     */
+    GameClock SYSTEM = System::nanoTime;
+
+    /**
+     * Returns the current time of this clock in nanoseconds.
+     * <p>
+     * As with {@link System#nanoTime()}, only differences between two readings of the same clock are meaningful.
+     * </p>
+     *
+     * @return the current time in nanoseconds.
+     */
+    long nanoTime();
+}
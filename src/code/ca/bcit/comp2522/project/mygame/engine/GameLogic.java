@@ -1,39 +1,42 @@
 package ca.bcit.comp2522.project.mygame.engine;
 
+import ca.bcit.comp2522.project.mygame.audio.MutedSoundEffects;
+import ca.bcit.comp2522.project.mygame.audio.SoundEffects;
 import ca.bcit.comp2522.project.mygame.audio.SoundManager;
-import ca.bcit.comp2522.project.mygame.common.MovementDirection;
+import ca.bcit.comp2522.project.mygame.common.ArenaConfig;
 import ca.bcit.comp2522.project.mygame.entities.Player;
-import javafx.animation.PauseTransition;
-import javafx.util.Duration;
+import ca.bcit.comp2522.project.mygame.entities.PlayerStore;
+import ca.bcit.comp2522.project.mygame.metrics.EngineMetrics;
+import ca.bcit.comp2522.project.mygame.metrics.TickPhase;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static ca.bcit.comp2522.project.mygame.common.GameConfig.ALLOWED_NUMBER_OF_WINNERS;
-import static ca.bcit.comp2522.project.mygame.common.GameConfig.BOTTOM_OFFSET_IN_NUMBER_OF_CELLS;
-import static ca.bcit.comp2522.project.mygame.common.GameConfig.FINISH_LINE_Y_IN_NUMBER_OF_CELLS;
 import static ca.bcit.comp2522.project.mygame.common.GameConfig.GRID_HEIGHT_IN_NUMBER_OF_CELLS;
 import static ca.bcit.comp2522.project.mygame.common.GameConfig.GRID_WIDTH_IN_NUMBER_OF_CELLS;
 import static ca.bcit.comp2522.project.mygame.common.GameConfig.LIGHT_SWITCH_FROM_RED_LIGHT_MINIMUM_INTERVAL_IN_MILLISECONDS;
 import static ca.bcit.comp2522.project.mygame.common.GameConfig.LIGHT_SWITCH_MINIMUM_INTERVAL_IN_MILLISECONDS;
 import static ca.bcit.comp2522.project.mygame.common.GameConfig.LIGHT_SWITCH_TIME_VARIABILITY_IN_MILLISECONDS;
-import static ca.bcit.comp2522.project.mygame.common.GameConfig.MOVE_COOLDOWN_IN_NANOSECONDS;
-import static ca.bcit.comp2522.project.mygame.common.GameConfig.NPC_MOVING_DISTANCE_ON_X_AXIS;
-import static ca.bcit.comp2522.project.mygame.common.GameConfig.NPC_MOVING_DISTANCE_ON_Y_AXIS;
-import static ca.bcit.comp2522.project.mygame.common.GameConfig.NPC_MOVING_IN_RED_LIGHT_PROBABILITY;
-import static ca.bcit.comp2522.project.mygame.common.GameConfig.NPC_MOVING_SPEED_PROBABILITY;
-import static ca.bcit.comp2522.project.mygame.common.GameConfig.NUMBER_OF_PLAYERS;
-import static ca.bcit.comp2522.project.mygame.util.DrawingUtils.directionDeltaX;
-import static ca.bcit.comp2522.project.mygame.util.DrawingUtils.directionDeltaY;
 
 /**
  * Manages the core game logic and mechanics that drive the gameplay.
  * <p>
  * This class is responsible for initializing the game state, processing player movements (both voluntary and forced),
  * enforcing game rules such as red light conditions and finish line validations, and handling game events like push
- * actions and sound effect triggers. It employs the Singleton design pattern to ensure that only one instance of the
- * game logic exists during runtime.
+ * actions and sound effect triggers. Every {@link GameSession} owns its own instance, so several games can run in
+ * the same JVM without sharing any state.
+ * </p>
+ * <p>
+ * The game logic does not depend on the JavaFX toolkit directly. Sound effects are played through a
+ * {@link SoundEffects} implementation and delayed cosmetic effects are fired by the engine's own pooled
+ * {@link EffectTimers}, driven by the game clock, so a game created with
+ * {@link #newHeadlessInstance(long, GameClock)} can be played to completion on any thread, without a window, as fast
+ * as the CPU allows. Such instances share no state with each other, so any number of them can be played side by
+ * side on different threads.
  * </p>
  * <p>
  * The main responsibilities of this class include:
@@ -53,27 +56,65 @@ import static ca.bcit.comp2522.project.mygame.util.DrawingUtils.directionDeltaY;
  */
 public class GameLogic<T extends Player>
 {
-    private static GameLogic<?> singleGameLogic;     // Singleton instance of GameLogic.
     private List<T> players;
     private T user;
 
+    // The grid size and crowd size of the current game; every per-game structure below is sized from it.
+    private ArenaConfig arena = ArenaConfig.DEFAULT;
+
+    // Structure-of-arrays store holding the state of every player; the list above only holds handles onto it.
+    private PlayerStore playerStore;
+
+    // Spatial index mapping each grid cell to the active player standing on it.
+    private OccupancyGrid occupancyGrid;
+
+    // Resolves moves and push chains against the occupancy grid without allocating.
+    private PushResolver pushResolver;
+
+    // Decides and carries out the moves of every NPC in one batched pass per update.
+    private NpcMovementPass npcMovementPass;
+
+    // The behaviors handed out to the NPCs of each new game, in turn.
+    private NpcBehavior[] npcBehaviors = {NpcArchetype.STANDARD};
+
+    // The pool on which the strips of a large arena are updated in parallel, or null to update them on one thread.
+    private ForkJoinPool tickPool = ForkJoinPool.commonPool();
+
     private static final int FIRST_INDEX = 0;
     private static final int INITIAL_COUNT = 0;
     private static final boolean INITIAL_LIGHT_CONDITION = true;
-    private static final int NUMBER_OF_MOVEMENT_DIRECTIONS = 4;
     private static final double BASE_SOUND_DELAY = 0.5;
     private static final double SOUND_DELAY_WEIGHT = 0.05;
     private static final int NANOSECOND_PER_MILLISECOND = 1000000;
-    private static final int PUSHING_DELAY_IN_MILLISECOND = 300;
+    private static final double PUSHING_DELAY_IN_SECONDS = 0.3;
+    private static final double NANOSECONDS_PER_SECOND = 1_000_000_000.0;
 
-    private final SoundManager soundManager;
-    private final Random random = new Random();
+    private final SoundEffects soundEffects;
+
+    // Fires delayed cosmetic effects, such as death sounds and the reset of push animation flags, from pooled timers.
+    private final EffectTimers effectTimers;
+
+    // Drives every gameplay decision. Seeded in deterministic mode so that a run can be reproduced exactly.
+    private final Random random;
+
+    // Picks cosmetic sound variants only, so that audio callbacks never disturb the gameplay random sequence.
+    private final Random effectRandom = new Random();
+
+    // The source of time for initialization and user moves.
+    private final GameClock clock;
     private boolean gameOver = false;
     private long gameStartTimeInNanoseconds;
 
     // Count of players who have successfully finished.
     private int finishedCount = 0;
 
+    // Live counts of eliminated players and of players still on the field, kept up to date as players leave it.
+    private int eliminatedCount = 0;
+    private int onFieldCount = 0;
+
+    // Scratch list of the players who crossed the finish line during the current update.
+    private int[] finishLineCrossers;
+
     // Flag indicating whether the game field has been cleared (remaining players eliminated).
     private boolean fieldCleared = false;
 
@@ -86,45 +127,84 @@ public class GameLogic<T extends Player>
     // Timestamp (in nanoseconds) of the last light switch.
     private long lastLightSwitchTimeInNanoseconds = 0;
 
-    static
-    {
-        singleGameLogic = null;
-    }
+    // Timed game events, such as the next light switch, run by the update loop once their due time is reached.
+    private final EventQueue events = new EventQueue();
+
+    // Identifies the most recently scheduled light switch; a switch event scheduled earlier is stale and ignored.
+    private long lightSwitchGeneration = 0;
+
+    // Times every phase of an update and counts pushes. Off until enabled, as headless runs rarely need it.
+    private final EngineMetrics metrics = new EngineMetrics(false);
 
     /*
-     * Private constructor that initializes the GameLogic with the specified SoundManager.
+     * Package-private constructor that initializes the GameLogic with the specified sound effects, random source and
+     * clock. Besides the factory methods below, it is used by GameSession.
      * <p>
-     * Validates the provided SoundManager to ensure sound effects can be played during game events.
+     * Validates the provided SoundEffects to ensure sound effects can be played during game events.
      * </p>
      *
-     * @param soundManager the SoundManager instance used to play game sound effects.
-     * @throws IllegalArgumentException if {@code soundManager} is null.
+     * @param soundEffects the sound effects played during game events.
+     * @param random       the random source driving all gameplay decisions.
+     * @param clock        the clock used to time initialization, user moves and delayed effects.
+     * @throws IllegalArgumentException if any argument is null.
      */
-    private GameLogic(final SoundManager soundManager)
+    GameLogic(final SoundEffects soundEffects,
+              final Random random,
+              final GameClock clock)
     {
-        validateSoundManager(soundManager);
-        this.soundManager = soundManager;
+        validateSoundEffects(soundEffects);
+        validateRandom(random);
+        validateClock(clock);
+        this.soundEffects = soundEffects;
+        this.effectTimers = new EffectTimers(soundEffects, effectRandom);
+        this.random = random;
+        this.clock = clock;
     }
 
     /**
-     * Returns the singleton instance of the GameLogic.
+     * Creates a new, independent GameLogic that runs deterministically.
      * <p>
-     * This method follows the Singleton design pattern to ensure only one instance of GameLogic exists
-     * during the application's lifecycle. If an instance does not exist, it is created using the provided
-     * SoundManager; subsequent calls will return the same instance.
+     * Every call returns a fresh instance. All gameplay randomness (starting columns, NPC decisions and light
+     * timings) is drawn from a random source seeded with {@code seed}, and all time readings come from {@code clock}
+     * or from the {@code now} passed to {@link #updateGame(long)}. Two instances created with the same seed and driven
+     * with the same sequence of timestamps and user moves therefore play out identically, bit for bit. Paired with a
+     * {@link ManualGameClock}, the game can be stepped with synthetic timestamps as fast as the CPU allows.
      * </p>
      *
-     * @param soundManager the SoundManager to be used for initializing GameLogic.
+     * @param soundManager the SoundManager to be used for sound effects.
+     * @param seed         the seed of the gameplay random source.
+     * @param clock        the clock used to time initialization and user moves.
      * @param <T>          the type of Player used in the game.
-     * @return the singleton instance of GameLogic.
+     * @return a new deterministic GameLogic.
+     * @throws IllegalArgumentException if {@code soundManager} or {@code clock} is null.
      */
-    public static <T extends Player> GameLogic<T> getInstance(final SoundManager soundManager)
+    public static <T extends Player> GameLogic<T> newDeterministicInstance(final SoundManager soundManager,
+                                                                         final long seed,
+                                                                         final GameClock clock)
     {
-        if(singleGameLogic == null)
-        {
-            singleGameLogic = new GameLogic<T>(soundManager);
-        }
-        return (GameLogic<T>) singleGameLogic;
+        return new GameLogic<T>(soundManager, new Random(seed), clock);
+    }
+
+    /**
+     * Creates a new, independent GameLogic that runs deterministically and without the JavaFX toolkit.
+     * <p>
+     * The game plays exactly like one created with {@link #newDeterministicInstance(SoundManager, long, GameClock)}
+     * and the same seed, except that no sound is played. Delayed cosmetic effects, such as the reset of push flags,
+     * still follow the injected clock and fire when {@link #updateGame(long)} or {@link #runDueEffects(long)} reaches
+     * their due time. Because nothing in the game then depends on the JavaFX Application Thread, it can be driven from
+     * any thread, which is what simulations and tests need.
+     * </p>
+     *
+     * @param seed  the seed of the gameplay random source.
+     * @param clock the clock used to time initialization and user moves.
+     * @param <T>   the type of Player used in the game.
+     * @return a new headless, deterministic GameLogic.
+     * @throws IllegalArgumentException if {@code clock} is null.
+     */
+    public static <T extends Player> GameLogic<T> newHeadlessInstance(final long seed,
+                                                                      final GameClock clock)
+    {
+        return new GameLogic<T>(new MutedSoundEffects(), new Random(seed), clock);
     }
 
     /**
@@ -137,6 +217,20 @@ public class GameLogic<T extends Player>
         return players;
     }
 
+    /**
+     * Returns the structure-of-arrays store holding the state of every player in the current game.
+     * <p>
+     * Code that needs to visit the whole crowd, such as the renderer, can read the store by slot index instead of
+     * going through the {@link Player} handles returned by {@link #getPlayers()}.
+     * </p>
+     *
+     * @return the player store.
+     */
+    public PlayerStore getPlayerStore()
+    {
+        return playerStore;
+    }
+
 
     /**
      * Returns the user-controlled player.
@@ -149,6 +243,16 @@ public class GameLogic<T extends Player>
     }
 
 
+    /**
+     * Returns the clock this game reads its time from.
+     *
+     * @return the game clock.
+     */
+    public GameClock getClock()
+    {
+        return clock;
+    }
+
     /**
      * Returns the game start time in nanoseconds.
      *
@@ -169,6 +273,50 @@ public class GameLogic<T extends Player>
         return finishedCount;
     }
 
+    /**
+     * Returns the number of players eliminated so far. The count is kept up to date as players are eliminated, so
+     * reading it costs nothing.
+     *
+     * @return the eliminated players count.
+     */
+    public int getEliminatedCount()
+    {
+        return eliminatedCount;
+    }
+
+    /**
+     * Returns the number of players still on the field, that is, neither eliminated nor finished.
+     *
+     * @return the number of players on the field.
+     */
+    public int getOnFieldCount()
+    {
+        return onFieldCount;
+    }
+
+    /**
+     * Returns the number of players on the field standing on the given row of the grid, read from a histogram that
+     * is kept up to date as players move, finish and are eliminated.
+     *
+     * @param row the y-coordinate of the row.
+     * @return the number of players on the row, or zero if no game has been initialized or the row is outside the
+     *         grid.
+     */
+    public int getRowPopulation(final int row)
+    {
+        return occupancyGrid == null ? INITIAL_COUNT : occupancyGrid.getRowPopulation(row);
+    }
+
+    /**
+     * Returns the arena of the current game, or the default arena if no game has been initialized yet.
+     *
+     * @return the grid size and number of players of the current game.
+     */
+    public ArenaConfig getArena()
+    {
+        return arena;
+    }
+
     /**
      * Indicates whether the game is currently in the green light state.
      *
@@ -210,23 +358,95 @@ public class GameLogic<T extends Player>
     }
 
     /**
-     * Sets the duration (in milliseconds) until the next light switch.
+     * Sets the duration (in milliseconds) until the next light switch. The pending light switch is rescheduled to
+     * match.
      *
      * @param nextSwitchInMilliseconds the next switch duration in milliseconds.
      */
     public void setNextSwitchInMilliseconds(final long nextSwitchInMilliseconds)
     {
         this.nextSwitchInMilliseconds = nextSwitchInMilliseconds;
+        scheduleLightSwitch();
     }
 
     /**
-     * Sets the timestamp for the last light switch.
+     * Sets the timestamp for the last light switch. The pending light switch is rescheduled to match.
      *
      * @param lastLightSwitchTimeInNanoseconds the new timestamp in nanoseconds.
      */
     public void setLastLightSwitchTimeInNanoseconds(final long lastLightSwitchTimeInNanoseconds)
     {
         this.lastLightSwitchTimeInNanoseconds = lastLightSwitchTimeInNanoseconds;
+        scheduleLightSwitch();
+    }
+
+    /**
+     * Sets the behaviors handed out to the non-player characters (NPCs). Starting from the next call to
+     * {@link #initGame()}, the NPCs take the given behaviors in turn, so the same behavior can be listed several times
+     * to make it more common. By default every NPC follows {@link NpcArchetype#STANDARD}.
+     *
+     * @param behaviors the behaviors to hand out.
+     * @throws IllegalArgumentException if no behavior is given or any behavior is null.
+     */
+    public void setNpcBehaviors(final NpcBehavior... behaviors)
+    {
+        validateNpcBehaviors(behaviors);
+        this.npcBehaviors = behaviors.clone();
+    }
+
+    /**
+     * Returns the behaviors handed out to the non-player characters (NPCs) of each new game.
+     *
+     * @return a copy of the behaviors, in the order in which they are handed out.
+     */
+    public NpcBehavior[] getNpcBehaviors()
+    {
+        return npcBehaviors.clone();
+    }
+
+    /**
+     * Resets the gameplay random source to the given seed.
+     * <p>
+     * Called right before {@link #initGame()}, this makes the coming round play out exactly like a round started the
+     * same way by a game created with {@link #newHeadlessInstance(long, GameClock)} and the same seed, given the same
+     * timestamps and user moves. This is what makes a recorded round replayable.
+     * </p>
+     *
+     * @param seed the new seed of the gameplay random source.
+     */
+    public void reseed(final long seed)
+    {
+        random.setSeed(seed);
+    }
+
+    /**
+     * Returns the instrumentation of this game: the latency of every phase of {@link #updateGame(long)}, push counts
+     * and chain lengths, and allocations per tick. It starts disabled; enabling it costs a few clock readings per
+     * update.
+     *
+     * @return the metrics of this game.
+     */
+    public EngineMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Sets the pool on which the NPC moves of a large arena are computed in parallel, one horizontal strip of the grid
+     * per task. The outcome of a game does not depend on the pool: a seeded game plays out identically on any number
+     * of threads, including none. Arenas no taller than a single strip never use the pool. By default the common
+     * fork-join pool is used.
+     *
+     * @param tickPool the pool to use, or null to compute every update on the thread calling
+     *                 {@link #updateGame(long)}.
+     */
+    public void setTickPool(final ForkJoinPool tickPool)
+    {
+        this.tickPool = tickPool;
+        if(npcMovementPass != null)
+        {
+            npcMovementPass.setPool(tickPool);
+        }
     }
 
     /**
@@ -235,11 +455,12 @@ public class GameLogic<T extends Player>
      * This method performs the following key operations:
      * <ul>
      *   <li><b>Player Creation and Positioning:</b> Generates a list of players using {@code NUMBER_OF_PLAYERS} as
-     *       the total count. For each player, a random starting x-coordinate is assigned within the grid's width.
-     *       All players start on the bottom row, determined by {@code GRID_HEIGHT_IN_NUMBER_OF_CELLS} minus
-     *       {@code BOTTOM_OFFSET_IN_NUMBER_OF_CELLS}. The first player created is marked as the user-controlled
-     *       player.</li>
-     *   <li><b>Game Timing Initialization:</b> Captures the current system time in nanoseconds as the game start time,
+     *       the total count. For each player, a random, unoccupied starting x-coordinate is assigned within the
+     *       grid's width. All players start on the bottom row, determined by {@code GRID_HEIGHT_IN_NUMBER_OF_CELLS}
+     *       minus {@code BOTTOM_OFFSET_IN_NUMBER_OF_CELLS}. The first player created is marked as the user-controlled
+     *       player. The state of every player is held in a fresh {@link PlayerStore}, and every player is registered
+     *       in the occupancy grid.</li>
+     *   <li><b>Game Timing Initialization:</b> Captures the current time of the game clock as the game start time,
      *       ensuring that subsequent time-based operations (like light switching or move cooldowns) are correctly
      *       measured against this baseline.</li>
      *   <li><b>Resetting Game Variables:</b> Resets counters (e.g., finishedCount), flags (e.g., fieldCleared,
@@ -247,23 +468,88 @@ public class GameLogic<T extends Player>
      *       the next light switch by combining a minimum interval
      *       ({@code LIGHT_SWITCH_MINIMUM_INTERVAL_IN_MILLISECONDS}) with a random component governed by
      *       {@code LIGHT_SWITCH_TIME_VARIABILITY_IN_MILLISECONDS}.</li>
-     *   <li><b>Light Switch Timer Setup:</b> Records the initial light switch time using the system's current nanotime
+     *   <li><b>Light Switch Timer Setup:</b> Records the initial light switch time using the game clock
      *       to accurately track the time elapsed for light switching logic.</li>
      * </ul>
      * </p>
      */
     public void initGame()
     {
-        // Create list of players and position them in a random place.
-        players = new ArrayList<>();
-        for(int index = 0; index < NUMBER_OF_PLAYERS; index++)
+        initGame(ArenaConfig.DEFAULT);
+    }
+
+    /**
+     * Initializes the game state exactly like {@link #initGame()}, but with the given number of players.
+     * <p>
+     * Players fill the starting row first, each on a distinct random column. Once the starting row is full, the
+     * remaining players are spread over the rows directly above it, never beyond the finish line. This overload
+     * exists so that much larger crowds than {@code NUMBER_OF_PLAYERS} can be simulated and measured.
+     * </p>
+     *
+     * @param numberOfPlayers the number of players to create, including the user.
+     * @throws IllegalArgumentException if {@code numberOfPlayers} is not positive or exceeds the number of cells
+     *                                  between the starting row and the finish line.
+     */
+    public void initGame(final int numberOfPlayers)
+    {
+        initGame(new ArenaConfig(GRID_WIDTH_IN_NUMBER_OF_CELLS, GRID_HEIGHT_IN_NUMBER_OF_CELLS, numberOfPlayers));
+    }
+
+    /**
+     * Initializes the game state exactly like {@link #initGame()}, but on the given arena.
+     * <p>
+     * The player store, occupancy grid, push resolver and NPC movement pass are all created for the arena's grid
+     * size and crowd size, so the arena can be chosen at runtime, up to {@link ArenaConfig#MAXIMUM_NUMBER_OF_CELLS}
+     * cells, without any of them being oversized for a small game. The arena stays in effect until the next call to
+     * this method.
+     * </p>
+     *
+     * @param arena the grid size and number of players of the new game.
+     * @throws IllegalArgumentException if {@code arena} is null.
+     */
+    public void initGame(final ArenaConfig arena)
+    {
+        validateArena(arena);
+        this.arena = arena;
+
+        final int numberOfPlayers;
+        final int width;
+
+        numberOfPlayers = arena.getNumberOfPlayers();
+        width = arena.getWidthInNumberOfCells();
+
+        // Create list of players and position them in a random, unoccupied place.
+        players = new ArrayList<>(numberOfPlayers);
+        playerStore = new PlayerStore(numberOfPlayers);
+        occupancyGrid = new OccupancyGrid(width, arena.getHeightInNumberOfCells(), playerStore);
+        playerStore.setMoveListener(occupancyGrid);
+        playerStore.setStatusListener(this::playerStatusChanged);
+        pushResolver = new PushResolver(playerStore, occupancyGrid);
+        pushResolver.setMetrics(metrics);
+        npcMovementPass = new NpcMovementPass(playerStore, occupancyGrid, pushResolver);
+        npcMovementPass.setPool(tickPool);
+
+        final int[] columns;
+        columns = new int[width];
+        for(int column = 0; column < width; column++)
         {
+            columns[column] = column;
+        }
+
+        for(int index = 0; index < numberOfPlayers; index++)
+        {
+            final int rowOffset;
+            final int columnSlot;
             final int startingXCoordinate;
             final T newPlayer;
 
-            startingXCoordinate = random.nextInt(GRID_WIDTH_IN_NUMBER_OF_CELLS);
-            newPlayer = (T) new Player(startingXCoordinate,
-                                    GRID_HEIGHT_IN_NUMBER_OF_CELLS - BOTTOM_OFFSET_IN_NUMBER_OF_CELLS);
+            rowOffset = index / width;
+            columnSlot = index % width;
+
+            // Partial Fisher-Yates shuffle: each player on a row takes a column nobody on that row has taken yet.
+            swapColumns(columns, columnSlot, columnSlot + random.nextInt(width - columnSlot));
+            startingXCoordinate = columns[columnSlot];
+            newPlayer = (T) playerStore.addPlayer(startingXCoordinate, arena.getStartingRow() - rowOffset);
 
             if(index == FIRST_INDEX)
             {
@@ -271,14 +557,18 @@ public class GameLogic<T extends Player>
                 user = newPlayer;
             }
             players.add(newPlayer);
+            occupancyGrid.place(newPlayer.getIndex());
         }
-
+        npcMovementPass.assignBehaviors(npcBehaviors);
 
         // Record game starting time.
-        gameStartTimeInNanoseconds = System.nanoTime();
+        gameStartTimeInNanoseconds = clock.nanoTime();
 
         // Set game logic variables to its initial value.
         finishedCount = INITIAL_COUNT;
+        eliminatedCount = INITIAL_COUNT;
+        onFieldCount = numberOfPlayers;
+        finishLineCrossers = new int[numberOfPlayers];
         fieldCleared = false;
         green = INITIAL_LIGHT_CONDITION;
         gameOver = false;
@@ -288,7 +578,11 @@ public class GameLogic<T extends Player>
                                    random.nextInt(LIGHT_SWITCH_TIME_VARIABILITY_IN_MILLISECONDS);
 
         // Record last light switching time.
-        lastLightSwitchTimeInNanoseconds = System.nanoTime();
+        lastLightSwitchTimeInNanoseconds = clock.nanoTime();
+
+        // Forget the events of any previous round and schedule the first light switch.
+        events.clear();
+        scheduleLightSwitch();
     }
 
     /**
@@ -296,7 +590,11 @@ public class GameLogic<T extends Player>
      * <p>
      * This method is the primary driver that progresses the game state. It handles:
      * <ul>
-     *   <li><b>NPC Movement:</b>
+     *   <li><b>Step Tracking:</b> Before anything moves, every player's position is recorded as its step-start
+     *       position, so that a renderer can interpolate between the positions before and after this update. Only the
+     *       players that moved since the previous step need their record refreshed.</li>
+     *   <li><b>NPC Movement:</b> Every NPC moves according to the {@link NpcBehavior} it was given at the start of
+     *       the game. With the default {@link NpcArchetype#STANDARD} behavior:
      *       <ul>
      *         <li>During green light periods, non-user NPCs attempt to move with a probability defined by
      *             {@code NPC_MOVING_SPEED_PROBABILITY}, using fixed movement deltas
@@ -304,86 +602,83 @@ public class GameLogic<T extends Player>
      *         <li>During red light, NPCs may still move, but with a significantly lower chance determined by
      *             {@code NPC_MOVING_IN_RED_LIGHT_PROBABILITY}. The direction of movement is randomly selected
      *             from all available movement directions.</li>
+     *         <li>Both cases run as one batched {@link NpcMovementPass}: the move decisions of all NPCs are drawn
+     *             into a mask first, one behavior group at a time, moves into free cells are made next, and only the
+     *             remaining collisions go through push resolution.</li>
      *       </ul>
      *   </li>
      *   <li><b>Red Light Enforcement:</b> If the light is red, the method checks if any player (other than those
      *       already marked as finished) has moved from their previous position. Any such movement results in immediate
      *       elimination (with sound effects played), potentially marking the game as over if the eliminated player
-     *       is the user.</li>
+     *       is the user. Only the players in the player store's moved set are checked, so the cost of this check
+     *       follows the number of players that moved rather than the size of the crowd.</li>
      *   <li><b>Finish Line Processing:</b>
      *       <ul>
      *         <li>Players are checked against a finish line condition (using
-     *         {@code FINISH_LINE_Y_IN_NUMBER_OF_CELLS}).</li>
+     *         the arena's finish line row). Only the players in the player store's moved set can have
+     *         crossed it, so only those are checked.</li>
      *         <li>If a player reaches the finish line and the count of finished players is below the limit defined by
      *             {@code ALLOWED_NUMBER_OF_WINNERS}, the player is marked as finished and the finished count is
      *             incremented.</li>
      *         <li>If the finished count exceeds this limit, the player is eliminated, triggering a death sequence.</li>
+     *         <li>Once the limit is reached, every player left on the field is eliminated. The live count of players
+     *             on the field ends this step as soon as nobody is left.</li>
      *       </ul>
      *   </li>
      *   <li><b>Victory and Game Over Conditions:</b> Specifically checks whether the user has reached the finish line
      *      (with their y-coordinate less than or equal to the designated finish line) and is not eliminated, marking
      *      a win and ending the game.</li>
-     *   <li><b>Light Timer Update:</b> Calculates the elapsed time (in milliseconds) since the last light switch. If
-     *       the elapsed time exceeds the predetermined interval ({@code nextSwitchInMilliseconds}), the light color
-     *       toggles between green and red. The timer is then reset with a new interval, which depends on whether the
-     *       light is currently green or red (using appropriate minimum intervals and variability).</li>
-     *   <li><b>Position Tracking:</b> After all game actions are processed, each player's previous position is updated
-     *       to reflect their current position. This mechanism is essential for detecting subsequent movement changes
-     *       in the next update cycle.</li>
+     *   <li><b>Timed Events:</b> Runs every event whose due time has been reached, taken from an {@link EventQueue}
+     *       instead of polling each timer. The light switch is such an event: it is due once the predetermined interval
+     *       ({@code nextSwitchInMilliseconds}) has passed since the last switch, toggles the light between green and
+     *       red, and schedules the next switch with a new interval, which depends on whether the light is currently
+     *       green or red (using appropriate minimum intervals and variability). Delayed cosmetic effects that have
+     *       become due, such as death sounds, fire afterwards.</li>
+     *   <li><b>Position Tracking:</b> After all game actions are processed, the previous position of each player that
+     *       moved is updated to reflect their current position. This mechanism is essential for detecting subsequent
+     *       movement changes in the next update cycle.</li>
      * </ul>
      * </p>
      *
-     * @param now the current system time in nanoseconds used to drive time-dependent game logic.
+     * @param now the current time in nanoseconds used to drive time-dependent game logic, including NPC move
+     *            cooldowns.
      */
     public void updateGame(final long now)
     {
+        final int numberOfPlayers;
+        final long tickStart;
+        long phaseStart;
+
+        numberOfPlayers = playerStore.size();
+        tickStart = metrics.beginTick();
+
+        playerStore.markStepStart();
+
         // --- NPC MOVEMENT LOGIC ---
-        if(green)
-        {
-            for(final Player p : players)
-            {
-                if(!p.isEliminated() && !p.isUser() && random.nextDouble() < NPC_MOVING_SPEED_PROBABILITY)
-                {
-                    tryMoveWithPush(p,
-                                    NPC_MOVING_DISTANCE_ON_X_AXIS,
-                                    NPC_MOVING_DISTANCE_ON_Y_AXIS,
-                                    new ArrayList<>(),
-                                    true);
-                }
-            }
-        }
-        else
-        {
-            // During red light, NPC can still occasionally move with low possibility.
-            for(final Player p : players)
-            {
-                if(!p.isEliminated() && !p.isUser() && random.nextDouble() < NPC_MOVING_IN_RED_LIGHT_PROBABILITY)
-                {
-                    final MovementDirection direction;
-                    direction = MovementDirection.values()[random.nextInt(NUMBER_OF_MOVEMENT_DIRECTIONS)];
-                    tryMoveWithPush(p,
-                                    directionDeltaX(direction),
-                                    directionDeltaY(direction),
-                                    new ArrayList<>(),
-                                    true);
-                }
-            }
-        }
+        // Each group of NPCs decides by its own behavior; during red light, NPCs can still occasionally move.
+        npcMovementPass.run(random.nextLong(), green, now);
+        phaseStart = metrics.endPhase(TickPhase.NPC_MOVEMENT, tickStart);
 
         // Red light elimination: if a player moves during red light, and they are not finished, eliminate them.
+        // Only players in the store's moved set can have left their previous position, so only those are checked.
         if(!green)
         {
-            for(final Player p : players)
+            final int numberOfMovedPlayers;
+            numberOfMovedPlayers = playerStore.getMovedCount();
+            for(int position = 0; position < numberOfMovedPlayers; position++)
             {
+                final int index;
                 final boolean playerMoved;
-                playerMoved = (p.getX() != p.getPrevX() || p.getY() != p.getPrevY());
 
-                if(!p.isEliminated() && !p.isFinished() && playerMoved)
+                index = playerStore.getMovedPlayer(position);
+                playerMoved = (playerStore.getX(index) != playerStore.getPrevX(index) ||
+                               playerStore.getY(index) != playerStore.getPrevY(index));
+
+                if(playerStore.isOnField(index) && playerMoved)
                 {
-                    p.setEliminated(true);
-                    p.setDeathTimeStamp(now);
-                    playDeathSequence();
-                    if(p.isUser())
+                    eliminate(index, now);
+                    playDeathSequence(now);
+                    if(playerStore.isUser(index))
                     {
                         gameOver = true;
                     }
@@ -391,40 +686,43 @@ public class GameLogic<T extends Player>
             }
         }
 
+        phaseStart = metrics.endPhase(TickPhase.ELIMINATION, phaseStart);
+
         // --- FINISH LINE LOGIC ---
-        for(final Player p : players)
+        // Only players who moved can have crossed the finish line. They are handled in slot order, which decides who
+        // still gets one of the winning places when several players cross during the same update.
+        final int numberOfCrossers;
+        numberOfCrossers = collectFinishLineCrossers();
+        for(int crosser = 0; crosser < numberOfCrossers; crosser++)
         {
-            // Process finishers: any player at y==0 (finish line) and not yet finished.
-            if(!p.isEliminated() && !p.isFinished() && p.getY() < FINISH_LINE_Y_IN_NUMBER_OF_CELLS)
+            final int index;
+            index = finishLineCrossers[crosser];
+            if(finishedCount < ALLOWED_NUMBER_OF_WINNERS)
             {
-                if(finishedCount < ALLOWED_NUMBER_OF_WINNERS)
-                {
-                    p.setFinished(true);
-                    finishedCount++;
-                }
-                else
-                {
-                    // Finished too late: eliminate this player.
-                    p.setEliminated(true);
-                    p.setDeathTimeStamp(now);
-                    playDeathSequence();
-                }
+                finish(index);
+                finishedCount++;
+            }
+            else
+            {
+                // Finished too late: eliminate this player.
+                eliminate(index, now);
+                playDeathSequence(now);
             }
         }
         // If ALLOWED_NUMBER_OF_WINNERS players have finished, then eliminate everyone else.
         if(finishedCount >= ALLOWED_NUMBER_OF_WINNERS && !fieldCleared)
         {
-            int index;
-            index = FIRST_INDEX;
-            for(final Player p : players)
+            int deathOrder;
+            deathOrder = FIRST_INDEX;
+            // The scan stops as soon as the last player on the field has been eliminated.
+            for(int index = 0; index < numberOfPlayers && onFieldCount > 0; index++)
             {
-                if(!p.isFinished() && !p.isEliminated())
+                if(playerStore.isOnField(index))
                 {
-                    p.setEliminated(true);
-                    p.setDeathTimeStamp(now);
+                    eliminate(index, now);
                     // Schedule each death sequence with an increasing delay.
-                    scheduleDeathSequence(BASE_SOUND_DELAY + index * SOUND_DELAY_WEIGHT);
-                    index++;
+                    scheduleDeathSequence(now, BASE_SOUND_DELAY + deathOrder * SOUND_DELAY_WEIGHT);
+                    deathOrder++;
                 }
             }
             fieldCleared = true;
@@ -432,38 +730,38 @@ public class GameLogic<T extends Player>
         }
 
         // --- WIN CONDITION LOGIC ---
-        if(user.getY() <= FINISH_LINE_Y_IN_NUMBER_OF_CELLS && !user.isEliminated())
+        if(user.getY() <= arena.getFinishLineY() && !user.isEliminated())
         {
             // The user finished.
-            user.setFinished(true);
+            finish(user.getIndex());
             gameOver = true;
         }
+        phaseStart = metrics.endPhase(TickPhase.FINISH_LINE, phaseStart);
 
-        // --- LIGHT TIMER UPDATE LOGIC ---
-        final long elapsedMs;
-        elapsedMs = (now - lastLightSwitchTimeInNanoseconds) / NANOSECOND_PER_MILLISECOND;
-        if(elapsedMs >= nextSwitchInMilliseconds)
-        {
-            green = !green;
-            lastLightSwitchTimeInNanoseconds = now;
-            if(green)
-            {
-                nextSwitchInMilliseconds = LIGHT_SWITCH_MINIMUM_INTERVAL_IN_MILLISECONDS +
-                                           random.nextInt(LIGHT_SWITCH_TIME_VARIABILITY_IN_MILLISECONDS);
-            }
-            else
-            {
-                nextSwitchInMilliseconds = LIGHT_SWITCH_FROM_RED_LIGHT_MINIMUM_INTERVAL_IN_MILLISECONDS +
-                                           random.nextInt(LIGHT_SWITCH_TIME_VARIABILITY_IN_MILLISECONDS);
-            }
-        }
+        // --- TIMED EVENTS ---
+        // Runs the light switch, and any other event, once its due time has been reached, then any due effect.
+        events.runDue(now);
+        effectTimers.runDue(now);
+        metrics.endPhase(TickPhase.LIGHT_UPDATE, phaseStart);
 
         // --- POSITION UPDATE LOGIC ---
-        for(final Player p : players)
-        {
-            p.setPrevX(p.getX());
-            p.setPrevY(p.getY());
-        }
+        playerStore.syncPreviousPositions();
+        metrics.endTick(tickStart);
+    }
+
+    /**
+     * Fires every delayed cosmetic effect, such as a death sound or the reset of push animation flags, that is due at
+     * the given time.
+     * <p>
+     * {@link #updateGame(long)} already does this on every update. Loops that stop updating the game once it is over
+     * should keep calling this method, so that the effects scheduled at the end of a round still play.
+     * </p>
+     *
+     * @param now the current time in nanoseconds.
+     */
+    public void runDueEffects(final long now)
+    {
+        effectTimers.runDue(now);
     }
 
     /**
@@ -480,143 +778,226 @@ public class GameLogic<T extends Player>
      *       animation effects.</li>
      *   <li><b>Forced Moves:</b> When the move is not voluntary (i.e., as part of a push sequence with
      *       {@code voluntaryMove} equal to {@code false}), the player is allowed to move into the target cell
-     *       unconditionally after a successful recursive push of any occupant occupying that cell.</li>
+     *       unconditionally after a successful push of any occupant occupying that cell.</li>
      * </ul>
      * Additionally, the method enforces the following constraints:
      * <ul>
      *   <li><b>Move Cooldown:</b> The player can move only if the time elapsed since their last move exceeds a
      *       cooldown threshold defined by {@code MOVE_COOLDOWN_IN_NANOSECONDS}. This prevents excessively frequent
-     *       moves.</li>
+     *       moves. The same applies to every player that would be pushed.</li>
      *   <li><b>Grid Boundaries:</b> The method ensures that the new position (after applying deltaX and deltaY) is within
-     *       the valid grid bounds, as defined by the game’s constants. If the move would result in a position outside
-     *       these bounds, the move is rejected.</li>
-     *   <li><b>Cyclic Push Prevention:</b> To avoid infinite recursion or cyclic pushing scenarios, a list of players
-     *       that have already been processed ({@code visitedPlayers}) is maintained. If the current player is already present
-     *       in this list, the push attempt is aborted.</li>
+     *       the valid grid bounds, as defined by the game's constants. If the move, or any push it causes, would result
+     *       in a position outside these bounds, the move is rejected.</li>
      * </ul>
+     * The push chain itself is resolved iteratively by a {@link PushResolver}, which walks the line of players along
+     * the push direction and moves them only once it has found room for all of them.
+     * The cooldowns are measured against the current time of the game clock.
      * </p>
      *
-     * @param movingPlayer     the player to attempt moving.
-     * @param deltaX           the change in the x-coordinate.
-     * @param deltaY           the change in the y-coordinate.
-     * @param visitedPlayers   a list of players already involved in the current push chain, used to prevent cyclic behavior.
-     * @param voluntaryMove  {@code true} if this move is initiated voluntarily by the player; {@code false} if it is forced as part of a push sequence.
+     * @param movingPlayer  the player to attempt moving.
+     * @param deltaX        the change in the x-coordinate.
+     * @param deltaY        the change in the y-coordinate.
+     * @param voluntaryMove {@code true} if this move is initiated voluntarily by the player; {@code false} if it is forced as part of a push sequence.
      * @return {@code true} if the move (or resulting push) was successfully executed; {@code false} if the move could not be completed.
+     * @throws IllegalArgumentException if {@code movingPlayer} is not one of the players of the current game.
      */
     public boolean tryMoveWithPush(final Player movingPlayer,
                                    final int deltaX,
                                    final int deltaY,
-                                   final List<Player> visitedPlayers,
                                    final boolean voluntaryMove)
     {
-        final long currentTime;
-        currentTime = System.nanoTime();
+        validatePlayer(movingPlayer);
+        return attemptMove(movingPlayer.getIndex(), deltaX, deltaY, voluntaryMove, clock.nanoTime());
+    }
+
+    /*
+     * Attempts to move the player in the given slot and plays the push feedback when the user shoves someone.
+     *
+     * @param index         the slot of the player to move.
+     * @param deltaX        the change in the x-coordinate.
+     * @param deltaY        the change in the y-coordinate.
+     * @param voluntaryMove true if the move is voluntary; false if it is forced.
+     * @param now           the current time in nanoseconds.
+     * @return true if the move (or resulting push) was successfully executed.
+     */
+    private boolean attemptMove(final int index,
+                                final int deltaX,
+                                final int deltaY,
+                                final boolean voluntaryMove,
+                                final long now)
+    {
+        final int pushedPlayers;
+        final int occupant;
 
-        // Allow the move only if the cooldown has elapsed.
-        if(currentTime - movingPlayer.getLastMoveTimestampInNanoseconds() < MOVE_COOLDOWN_IN_NANOSECONDS)
-        {
-            return false;
-        }
+        pushedPlayers = pushResolver.resolve(index, deltaX, deltaY, voluntaryMove, now);
+        occupant = pushResolver.getFirstOccupant();
 
-        // This line prevents players pushing each other endlessly.
-        if(visitedPlayers.contains(movingPlayer))
+        if(occupant != OccupancyGrid.NO_PLAYER && voluntaryMove && playerStore.isUser(index))
         {
-            return false;
+            soundEffects.playPushSound();
+            // Set visual flags for pushing and pushed.
+            playerStore.setPushing(index, true);
+            playerStore.setPushed(occupant, true);
+            // Reset these flags after a short delay.
+            effectTimers.schedulePushFlagReset(playerStore,
+                                               index,
+                                               occupant,
+                                               now + toNanoseconds(PUSHING_DELAY_IN_SECONDS));
         }
 
-        visitedPlayers.add(movingPlayer);
-
-        final int newX;
-        final int newY;
+        return pushedPlayers != PushResolver.MOVE_REJECTED;
+    }
 
-        newX = movingPlayer.getX() + deltaX;
-        newY = movingPlayer.getY() + deltaY;
+    /*
+     * Eliminates the player in the given slot, removing it from the occupancy grid and recording its time of death.
+     *
+     * @param index the slot of the player to eliminate.
+     * @param now   the current time in nanoseconds.
+     */
+    private void eliminate(final int index,
+                           final long now)
+    {
+        occupancyGrid.remove(index);
+        playerStore.setEliminated(index, true);
+        playerStore.setDeathTimestampInNanoseconds(index, now);
+        eliminatedCount++;
+        onFieldCount--;
+    }
 
-        // This makes sure the player does not move outside the game grid.
-        if(newX < FIRST_INDEX ||
-                newX >= GRID_WIDTH_IN_NUMBER_OF_CELLS ||
-                newY < FIRST_INDEX ||
-                newY >= GRID_HEIGHT_IN_NUMBER_OF_CELLS)
+    /*
+     * Marks the player in the given slot as finished. The player leaves the field, so it no longer occupies its cell.
+     *
+     * @param index the slot of the player who finished.
+     */
+    private void finish(final int index)
+    {
+        if(playerStore.isOnField(index))
         {
-            return false;
+            onFieldCount--;
         }
+        occupancyGrid.remove(index);
+        playerStore.setFinished(index, true);
+    }
 
-        final Player occupant;
-        occupant = getPlayerAt(newX, newY);
+    /*
+     * Brings the live counts and the occupancy grid in line with a status change made through a player's handle. A
+     * player who leaves the field no longer occupies its cell, and one who comes back takes its cell again if it is
+     * free.
+     *
+     * @param index         the slot of the player whose status changed.
+     * @param wasEliminated true if the player was eliminated before the change.
+     * @param wasOnField    true if the player was on the field before the change.
+     */
+    private void playerStatusChanged(final int index,
+                                     final boolean wasEliminated,
+                                     final boolean wasOnField)
+    {
+        final boolean eliminated;
+        final boolean onField;
 
-        if(occupant != null)
+        eliminated = playerStore.isEliminated(index);
+        onField = playerStore.isOnField(index);
+        if(eliminated && !wasEliminated)
         {
-            if(voluntaryMove && movingPlayer.isUser())
-            {
-                soundManager.playPushSound();
-                // Set visual flags for pushing and pushed.
-                movingPlayer.setPushing(true);
-                occupant.setPushed(true);
-                // Reset these flags after a short delay.
-                final PauseTransition pushDelay;
-                pushDelay = new PauseTransition(Duration.millis(PUSHING_DELAY_IN_MILLISECOND));
-
-                pushDelay.setOnFinished(e ->
-                {
-                    movingPlayer.setPushing(false);
-                    occupant.setPushed(false);
-                });
-                pushDelay.play();
-            }
-            final int previousX;
-            final int previousY;
+            eliminatedCount++;
+        }
+        else if(!eliminated && wasEliminated)
+        {
+            eliminatedCount--;
+        }
+        if(wasOnField && !onField)
+        {
+            occupancyGrid.remove(index);
+            onFieldCount--;
+        }
+        else if(!wasOnField && onField)
+        {
+            occupancyGrid.place(index);
+            onFieldCount++;
+        }
+    }
 
-            previousX = movingPlayer.getX();
-            previousY = movingPlayer.getY();
+    /*
+     * Collects, in ascending slot order, the players of the moved set who are on the field beyond the finish line.
+     *
+     * @return the number of players collected into finishLineCrossers.
+     */
+    private int collectFinishLineCrossers()
+    {
+        final int numberOfMovedPlayers;
+        int numberOfCrossers;
 
-            final boolean pushed;
-            pushed = tryMoveWithPush(occupant, deltaX, deltaY, visitedPlayers, false);
-            if(!pushed)
+        numberOfMovedPlayers = playerStore.getMovedCount();
+        numberOfCrossers = 0;
+        for(int position = 0; position < numberOfMovedPlayers; position++)
+        {
+            final int index;
+            index = playerStore.getMovedPlayer(position);
+            if(playerStore.isOnField(index) && playerStore.getY(index) < arena.getFinishLineY())
             {
-                return false;
+                finishLineCrossers[numberOfCrossers] = index;
+                numberOfCrossers++;
             }
+        }
+        Arrays.sort(finishLineCrossers, FIRST_INDEX, numberOfCrossers);
+        return numberOfCrossers;
+    }
 
-            if(voluntaryMove)
-            {
-                movingPlayer.setX(previousX);
-                movingPlayer.setY(previousY);
-            }
-            else
-            {
-                movingPlayer.setX(newX);
-                movingPlayer.setY(newY);
-            }
+    /*
+     * Schedules the next light switch for the moment the current light interval ends, replacing any switch scheduled
+     * before.
+     */
+    private void scheduleLightSwitch()
+    {
+        final long generation;
+        generation = ++lightSwitchGeneration;
+        events.schedule(lastLightSwitchTimeInNanoseconds + nextSwitchInMilliseconds * NANOSECOND_PER_MILLISECOND,
+                        now ->
+                        {
+                            if(generation == lightSwitchGeneration)
+                            {
+                                switchLight(now);
+                            }
+                        });
+    }
 
-            movingPlayer.setLastMoveTimestampInNanoseconds(currentTime);
-            return true;
+    /*
+     * Toggles the light, draws the duration of the new light interval and schedules the switch that ends it.
+     *
+     * @param now the current time in nanoseconds, recorded as the time of this switch.
+     */
+    private void switchLight(final long now)
+    {
+        green = !green;
+        lastLightSwitchTimeInNanoseconds = now;
+        if(green)
+        {
+            nextSwitchInMilliseconds = LIGHT_SWITCH_MINIMUM_INTERVAL_IN_MILLISECONDS +
+                                       random.nextInt(LIGHT_SWITCH_TIME_VARIABILITY_IN_MILLISECONDS);
         }
         else
         {
-            movingPlayer.setX(newX);
-            movingPlayer.setY(newY);
-            movingPlayer.setLastMoveTimestampInNanoseconds(currentTime);
-            return true;
+            nextSwitchInMilliseconds = LIGHT_SWITCH_FROM_RED_LIGHT_MINIMUM_INTERVAL_IN_MILLISECONDS +
+                                       random.nextInt(LIGHT_SWITCH_TIME_VARIABILITY_IN_MILLISECONDS);
         }
+        scheduleLightSwitch();
     }
 
     /*
-     * Returns the player occupying the specified grid cell.
+     * Swaps two entries of the column array used to assign distinct starting columns.
      *
-     * @param x the x-coordinate of the grid cell.
-     * @param y the y-coordinate of the grid cell.
-     * @return the player at the specified cell, or {@code null} if no non-eliminated player occupies it.
+     * @param columns the column array.
+     * @param first   the index of the first entry.
+     * @param second  the index of the second entry.
      */
-    private Player getPlayerAt(final int x,
-                               final int y)
+    private static void swapColumns(final int[] columns,
+                                    final int first,
+                                    final int second)
     {
-        for(final Player p : players)
-        {
-            if(!p.isEliminated() && p.getX() == x && p.getY() == y)
-            {
-                return p;
-            }
-        }
-        return null;
+        final int temporary;
+        temporary = columns[first];
+        columns[first] = columns[second];
+        columns[second] = temporary;
     }
 
 
@@ -626,24 +1007,13 @@ public class GameLogic<T extends Player>
      * This method plays a gunshot sound immediately, then after a 0.5-second delay,
      * plays one of two possible death sounds chosen at random.
      * </p>
+     *
+     * @param now the current time in nanoseconds.
      */
-    private void playDeathSequence()
+    private void playDeathSequence(final long now)
     {
-        soundManager.playGunshotSound();
-        final PauseTransition delay;
-        delay = new PauseTransition(Duration.seconds(BASE_SOUND_DELAY));
-        delay.setOnFinished(event ->
-        {
-            if(random.nextBoolean())
-            {
-                soundManager.playDeathSound1();
-            }
-            else
-            {
-                soundManager.playDeathSound2();
-            }
-        });
-        delay.play();
+        soundEffects.playGunshotSound();
+        effectTimers.scheduleDeathSound(now + toNanoseconds(BASE_SOUND_DELAY));
     }
 
 
@@ -653,42 +1023,115 @@ public class GameLogic<T extends Player>
      * This method plays the gunshot sound immediately followed by one of two random death sounds after the delay.
      * </p>
      *
-     * @param p            the player for whom the death sequence is scheduled.
+     * @param now          the current time in nanoseconds.
      * @param delaySeconds the delay in seconds before playing the death sequence.
      */
-    private void scheduleDeathSequence(final double delaySeconds)
+    private void scheduleDeathSequence(final long now,
+                                       final double delaySeconds)
+    {
+        effectTimers.scheduleGunshotAndDeathSound(now + toNanoseconds(delaySeconds));
+    }
+
+    /*
+     * Converts a delay in seconds to nanoseconds.
+     *
+     * @param seconds the delay in seconds.
+     * @return the delay in nanoseconds.
+     */
+    private static long toNanoseconds(final double seconds)
     {
-        final PauseTransition delay;
-        delay = new PauseTransition(Duration.seconds(delaySeconds));
+        return (long) (seconds * NANOSECONDS_PER_SECOND);
+    }
 
-        delay.setOnFinished(event ->
+    /*
+     * Validates that at least one NPC behavior is given and that none is null.
+     *
+     * @param behaviors the behaviors to validate.
+     * @throws IllegalArgumentException if the array is null or empty, or contains null.
+     */
+    private static void validateNpcBehaviors(final NpcBehavior[] behaviors)
+    {
+        if(behaviors == null || behaviors.length == 0)
         {
-            // Randomly choose one of the two death sounds.
-            if(random.nextBoolean())
-            {
-                soundManager.playGunshotSound();
-                soundManager.playDeathSound1();
-            }
-            else
+            throw new IllegalArgumentException("At least one NpcBehavior must be provided.");
+        }
+        for(final NpcBehavior behavior : behaviors)
+        {
+            if(behavior == null)
             {
-                soundManager.playGunshotSound();
-                soundManager.playDeathSound2();
+                throw new IllegalArgumentException("NpcBehavior cannot be null.");
             }
-        });
-        delay.play();
+        }
+    }
+
+    /*
+     * Validates that the arena is not null.
+     *
+     * @param arena the arena to validate.
+     * @throws IllegalArgumentException if arena is null.
+     */
+    private static void validateArena(final ArenaConfig arena)
+    {
+        if(arena == null)
+        {
+            throw new IllegalArgumentException("ArenaConfig cannot be null.");
+        }
+    }
+
+    /*
+     * Validates that the provided player belongs to the current game.
+     *
+     * @param player the player to validate.
+     * @throws IllegalArgumentException if the player is null or is not one of this game's players.
+     */
+    private void validatePlayer(final Player player)
+    {
+        if(player == null || !player.isBackedBy(playerStore))
+        {
+            throw new IllegalArgumentException("Player must be one of the players of the current game.");
+        }
+    }
+
+    /*
+     * Validates that the provided Random is not null.
+     *
+     * @param random the Random instance to validate.
+     * @throws IllegalArgumentException if random is null.
+     */
+    private static void validateRandom(final Random random)
+    {
+        if(random == null)
+        {
+            throw new IllegalArgumentException("Random cannot be null.");
+        }
     }
 
     /*
-     * Validates that the provided SoundManager is not null.
+     * Validates that the provided GameClock is not null.
      *
-     * @param soundManager the SoundManager instance to validate.
-     * @throws IllegalArgumentException if soundManager is null.
+     * @param clock the GameClock instance to validate.
+     * @throws IllegalArgumentException if clock is null.
      */
-    private static void validateSoundManager(final SoundManager soundManager)
+    private static void validateClock(final GameClock clock)
     {
-        if(soundManager == null)
+        if(clock == null)
         {
-            throw new IllegalArgumentException("SoundManager cannot be null.");
+            throw new IllegalArgumentException("GameClock cannot be null.");
         }
     }
+
+    /*
+     * Validates that the provided SoundEffects is not null.
+     *
+     * @param soundEffects the SoundEffects instance to validate.
+     * @throws IllegalArgumentException if soundEffects is null.
+     */
+    private static void validateSoundEffects(final SoundEffects soundEffects)
+    {
+        if(soundEffects == null)
+        {
+            throw new IllegalArgumentException("SoundEffects cannot be null.");
+        }
+    }
+
 }
@@ -0,0 +1,185 @@
+package ca.bcit.comp2522.project.mygame.engine;
+
+import ca.bcit.comp2522.project.mygame.audio.MutedSoundEffects;
+import ca.bcit.comp2522.project.mygame.audio.SoundEffects;
+import ca.bcit.comp2522.project.mygame.entities.Player;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An isolated round of Red Light Blood Light, together with the registry of every session that is currently open.
+ * <p>
+ * Each session owns its own {@link GameLogic}, and with it its own random source, clock, player store and occupancy
+ * grid, so any number of sessions can run side by side in the same JVM without sharing state. Sessions are created
+ * through the static factory methods, registered under a unique id, and can be looked up by that id from anywhere
+ * until they are disposed. A game window should create a session when it opens and dispose of it when it closes, so
+ * that reopening the game always starts from a fresh state and closed games do not linger in memory.
+ * </p>
+ * <p>
+ * The registry is thread-safe: sessions can be created, found and disposed concurrently from any thread.
+ * </p>
+ *
+ * @param <T> a type that extends {@link Player}, representing the participants in the game.
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public final class GameSession<T extends Player>
+{
+    private static final Map<Long, GameSession<?>> OPEN_SESSIONS = new ConcurrentHashMap<>();
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
+    private final long id;
+    private final GameLogic<T> gameLogic;
+
+    /*
+     * Private constructor that wraps the given game logic under the given id.
+     *
+     * @param id        the unique id of the session.
+     * @param gameLogic the game logic owned by the session.
+     */
+    private GameSession(final long id,
+                        final GameLogic<T> gameLogic)
+    {
+        this.id = id;
+        this.gameLogic = gameLogic;
+    }
+
+    /**
+     * Creates and registers a session for interactive play.
+     * <p>
+     * The session plays the given sound effects, reads time from the system clock and draws its randomness from a
+     * fresh, unseeded random source.
+     * </p>
+     *
+     * @param soundEffects the sound effects played during game events.
+     * @param <T>          the type of Player used in the game.
+     * @return the new session.
+     * @throws IllegalArgumentException if {@code soundEffects} is null.
+     */
+    public static <T extends Player> GameSession<T> create(final SoundEffects soundEffects)
+    {
+        return create(soundEffects, GameClock.SYSTEM);
+    }
+
+    /**
+     * Creates and registers a session for interactive play that reads its time from the given clock.
+     * <p>
+     * This is meant for game loops that advance game time themselves, for example in fixed steps, rather than
+     * following the system clock directly.
+     * </p>
+     *
+     * @param soundEffects the sound effects played during game events.
+     * @param clock        the clock used to time initialization and user moves.
+     * @param <T>          the type of Player used in the game.
+     * @return the new session.
+     * @throws IllegalArgumentException if either argument is null.
+     */
+    public static <T extends Player> GameSession<T> create(final SoundEffects soundEffects,
+                                                           final GameClock clock)
+    {
+        return register(new GameLogic<T>(soundEffects, new Random(), clock));
+    }
+
+    /**
+     * Creates and registers a deterministic session that runs without the JavaFX toolkit.
+     * <p>
+     * The session plays no sound and draws its randomness from a random source seeded with {@code seed}, exactly
+     * like {@link GameLogic#newHeadlessInstance(long, GameClock)}.
+     * </p>
+     *
+     * @param seed  the seed of the gameplay random source.
+     * @param clock the clock used to time initialization and user moves.
+     * @param <T>   the type of Player used in the game.
+     * @return the new session.
+     * @throws IllegalArgumentException if {@code clock} is null.
+     */
+    public static <T extends Player> GameSession<T> createHeadless(final long seed,
+                                                                   final GameClock clock)
+    {
+        return register(new GameLogic<T>(new MutedSoundEffects(), new Random(seed), clock));
+    }
+
+    /**
+     * Returns the open session with the given id.
+     * <p>
+     * The registry does not remember which type of Player each session was created for, so the session is returned
+     * with an unknown player type.
+     * </p>
+     *
+     * @param id the id of the session.
+     * @return the session, or {@code null} if no open session has that id.
+     */
+    public static GameSession<?> find(final long id)
+    {
+        return OPEN_SESSIONS.get(id);
+    }
+
+    /**
+     * Returns the number of sessions that are currently open.
+     *
+     * @return the number of open sessions.
+     */
+    public static int getOpenSessionCount()
+    {
+        return OPEN_SESSIONS.size();
+    }
+
+    /**
+     * Returns the unique id of this session.
+     *
+     * @return the session id.
+     */
+    public long getId()
+    {
+        return id;
+    }
+
+    /**
+     * Returns the game logic owned by this session.
+     *
+     * @return the game logic.
+     */
+    public GameLogic<T> getGameLogic()
+    {
+        return gameLogic;
+    }
+
+    /**
+     * Indicates whether this session is still registered.
+     *
+     * @return {@code true} if the session has not been disposed; {@code false} otherwise.
+     */
+    public boolean isOpen()
+    {
+        return OPEN_SESSIONS.get(id) == this;
+    }
+
+    /**
+     * Removes this session from the registry.
+     * <p>
+     * Afterward the session can no longer be found by its id. Disposing a session more than once has no further
+     * effect.
+     * </p>
+     */
+    public void dispose()
+    {
+        OPEN_SESSIONS.remove(id, this);
+    }
+
+    /*
+     * Wraps the game logic in a new session with a fresh id and registers it.
+     *
+     * @param gameLogic the game logic owned by the new session.
+     * @return the registered session.
+     */
+    private static <T extends Player> GameSession<T> register(final GameLogic<T> gameLogic)
+    {
+        final GameSession<T> session;
+        session = new GameSession<>(NEXT_ID.incrementAndGet(), gameLogic);
+        OPEN_SESSIONS.put(session.id, session);
+        return session;
+    }
+}
@@ -0,0 +1,79 @@
+package ca.bcit.comp2522.project.mygame.engine;
+
+/**
+ * A {@link GameClock} whose time only changes when it is explicitly set or advanced.
+ * <p>
+ * This clock is meant for deterministic runs: a driver advances it by a fixed step before every call to
+ * {@link GameLogic#updateGame(long)}, so the game sees exactly the same sequence of timestamps on every run,
+ * regardless of how fast the machine is.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class ManualGameClock
+        implements GameClock
+{
+    private static final long MINIMUM_STEP = 0;
+
+    private long currentTimeInNanoseconds;
+
+    /**
+     * Constructs a {@code ManualGameClock} that starts at the given time.
+     *
+     * @param startTimeInNanoseconds the initial time of the clock in nanoseconds.
+     */
+    public ManualGameClock(final long startTimeInNanoseconds)
+    {
+        this.currentTimeInNanoseconds = startTimeInNanoseconds;
+    }
+
+    /**
+     * Returns the current time of this clock in nanoseconds.
+     *
+     * @return the current time in nanoseconds.
+     */
+    @Override
+    public long nanoTime()
+    {
+        return currentTimeInNanoseconds;
+    }
+
+    /**
+     * Sets the clock to the given time.
+     *
+     * @param timeInNanoseconds the new time in nanoseconds.
+     */
+    public void setTime(final long timeInNanoseconds)
+    {
+        this.currentTimeInNanoseconds = timeInNanoseconds;
+    }
+
+    /**
+     * Moves the clock forward by the given amount and returns the new time.
+     *
+     * @param stepInNanoseconds the amount of time to advance by, in nanoseconds; must not be negative.
+     * @return the new time in nanoseconds.
+     * @throws IllegalArgumentException if {@code stepInNanoseconds} is negative.
+     */
+    public long advance(final long stepInNanoseconds)
+    {
+        validateStep(stepInNanoseconds);
+        currentTimeInNanoseconds += stepInNanoseconds;
+        return currentTimeInNanoseconds;
+    }
+
+    /*
+     * Validates that a step does not move the clock backwards.
+     *
+     * @param stepInNanoseconds the step to validate.
+     * @throws IllegalArgumentException if the step is negative.
+     */
+    private static void validateStep(final long stepInNanoseconds)
+    {
+        if(stepInNanoseconds < MINIMUM_STEP)
+        {
+            throw new IllegalArgumentException("Clock step cannot be negative. Provided: " + stepInNanoseconds);
+        }
+    }
+}
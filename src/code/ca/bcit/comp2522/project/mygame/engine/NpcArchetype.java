@@ -0,0 +1,167 @@
+package ca.bcit.comp2522.project.mygame.engine;
+
+import ca.bcit.comp2522.project.mygame.entities.PlayerStore;
+
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.NPC_MOVING_IN_RED_LIGHT_PROBABILITY;
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.NPC_MOVING_SPEED_PROBABILITY;
+
+/**
+ * The built-in non-player character (NPC) behaviors.
+ * <p>
+ * Every archetype is compiled into a small, fixed policy: how likely it is to move under each light, how often a
+ * green-light move is a sidestep instead of a step forward, and whether it pushes players who stand in its way. The
+ * constants only differ by that policy and share one decision loop, which runs once per group rather than per NPC.
+ * </p>
+ * <ul>
+ *   <li>{@link #STANDARD}: the classic contestant, moving with {@code NPC_MOVING_SPEED_PROBABILITY} on green and
+ *       {@code NPC_MOVING_IN_RED_LIGHT_PROBABILITY} on red.</li>
+ *   <li>{@link #CAUTIOUS}: moves a little less often, never moves on red and never pushes.</li>
+ *   <li>{@link #RECKLESS}: moves twice as often and is ten times as likely to twitch on red.</li>
+ *   <li>{@link #PUSHER}: moves more often than standard and shoves whoever blocks it.</li>
+ *   <li>{@link #BLOCKER}: often sidesteps into other lanes on green, never moves on red and never pushes.</li>
+ * </ul>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public enum NpcArchetype
+        implements NpcBehavior
+{
+    /**
+     * The classic contestant.
+     */
+    STANDARD(NPC_MOVING_SPEED_PROBABILITY, NPC_MOVING_IN_RED_LIGHT_PROBABILITY, 0.0, true),
+
+    /**
+     * A contestant who moves a little less often, stands perfectly still on red and never pushes.
+     */
+    CAUTIOUS(0.07, 0.0, 0.0, false),
+
+    /**
+     * A contestant who rushes forward and twitches on red far more often than the others.
+     */
+    RECKLESS(0.2, 0.01, 0.0, true),
+
+    /**
+     * A contestant who moves more often than standard and shoves whoever stands in its way.
+     */
+    PUSHER(0.15, NPC_MOVING_IN_RED_LIGHT_PROBABILITY, 0.0, true),
+
+    /**
+     * A contestant who often sidesteps into other lanes on green, getting in the way of the players behind.
+     */
+    BLOCKER(NPC_MOVING_SPEED_PROBABILITY, 0.0, 0.4, false);
+
+    private static final double NO_SIDESTEPS = 0.0;
+
+    // The lowest bit of the sidestep hash picks the side; its top 53 bits decide whether to sidestep at all.
+    private static final long SIDE_BIT = 1L;
+
+    private final double greenLightMoveProbability;
+    private final double redLightMoveProbability;
+    private final double sidestepProbability;
+    private final byte pushFlag;
+
+    /*
+     * Compiles the policy of an archetype.
+     *
+     * @param greenLightMoveProbability the probability of moving during an update under a green light.
+     * @param redLightMoveProbability   the probability of moving, in a random direction, under a red light.
+     * @param sidestepProbability       the probability that a green-light move is a sidestep instead of forward.
+     * @param pushes                    true if the archetype pushes players who block it.
+     */
+    NpcArchetype(final double greenLightMoveProbability,
+                 final double redLightMoveProbability,
+                 final double sidestepProbability,
+                 final boolean pushes)
+    {
+        this.greenLightMoveProbability = greenLightMoveProbability;
+        this.redLightMoveProbability = redLightMoveProbability;
+        this.sidestepProbability = sidestepProbability;
+        this.pushFlag = pushes ? 0 : NpcMovementPass.AVOID_PUSH;
+    }
+
+    /**
+     * Returns the probability that an NPC of this archetype moves during an update under a green light.
+     *
+     * @return the green-light move probability.
+     */
+    public double getGreenLightMoveProbability()
+    {
+        return greenLightMoveProbability;
+    }
+
+    /**
+     * Returns the probability that an NPC of this archetype moves during an update under a red light.
+     *
+     * @return the red-light move probability.
+     */
+    public double getRedLightMoveProbability()
+    {
+        return redLightMoveProbability;
+    }
+
+    /**
+     * Indicates whether an NPC of this archetype pushes players who stand in its way.
+     *
+     * @return {@code true} if it pushes; {@code false} if it gives up the move instead.
+     */
+    public boolean pushes()
+    {
+        return pushFlag == 0;
+    }
+
+    /**
+     * Decides the moves of a group following this archetype's policy.
+     *
+     * @param members     the slots of the NPCs following this behavior, in ascending order.
+     * @param fromMember  the position in {@code members} of the first NPC to decide for.
+     * @param toMember    the position in {@code members} just past the last NPC to decide for.
+     * @param playerStore the store holding the players' state.
+     * @param seed        the seed of this update's random choices.
+     * @param green       {@code true} if the light is green; {@code false} if it is red.
+     * @param decisions   the decision mask to write into, indexed by slot.
+     */
+    @Override
+    public void decide(final int[] members,
+                       final int fromMember,
+                       final int toMember,
+                       final PlayerStore playerStore,
+                       final long seed,
+                       final boolean green,
+                       final byte[] decisions)
+    {
+        final double probability;
+        probability = green ? greenLightMoveProbability : redLightMoveProbability;
+
+        for(int member = fromMember; member < toMember; member++)
+        {
+            final int index;
+            final long bits;
+            final boolean moving;
+            final byte direction;
+
+            index = members[member];
+            bits = NpcMovementPass.hash(seed, index);
+            moving = playerStore.isOnField(index) && NpcMovementPass.toUniform(bits) < probability;
+            if(!green)
+            {
+                direction = NpcMovementPass.toRandomDirection(bits);
+            }
+            else if(sidestepProbability > NO_SIDESTEPS)
+            {
+                // A second hash keeps the sidestep choice independent of the decision to move.
+                final long sidestepBits;
+                sidestepBits = NpcMovementPass.hash(bits, index);
+                direction = NpcMovementPass.toUniform(sidestepBits) < sidestepProbability ?
+                            NpcMovementPass.toSidestep((sidestepBits & SIDE_BIT) == 0) :
+                            NpcMovementPass.FORWARD;
+            }
+            else
+            {
+                direction = NpcMovementPass.FORWARD;
+            }
+            decisions[index] = moving ? (byte) (direction | pushFlag) : NpcMovementPass.NO_MOVE;
+        }
+    }
+}
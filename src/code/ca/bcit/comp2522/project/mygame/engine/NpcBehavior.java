@@ -0,0 +1,53 @@
+package ca.bcit.comp2522.project.mygame.engine;
+
+import ca.bcit.comp2522.project.mygame.entities.PlayerStore;
+
+/**
+ * Decides how a group of non-player characters (NPCs) that share the same behavior move during one game update.
+ * <p>
+ * The engine groups NPCs by behavior and calls {@link #decide(int[], int, int, PlayerStore, long, boolean, byte[])}
+ * once per group and range of slots, rather than once per NPC. Each implementation therefore runs its own loop over
+ * its members, which only ever sees one kind of behavior and contains no further virtual calls, so the JIT compiler
+ * can optimize it as tightly as a hand-written loop.
+ * </p>
+ * <p>
+ * In a large arena the members of a group are split into ranges that are decided on different threads at once, all
+ * writing into the same decision mask. An implementation must therefore only write the decisions of the members in
+ * its range and must not keep per-update state in fields.
+ * </p>
+ * <p>
+ * An implementation only writes decisions; {@link NpcMovementPass} then carries out the moves of all groups together.
+ * A decision is one of {@link NpcMovementPass#NO_MOVE}, {@link NpcMovementPass#FORWARD} or a direction encoded with
+ * {@link NpcMovementPass#encode(ca.bcit.comp2522.project.mygame.common.MovementDirection)}, optionally combined with
+ * {@link NpcMovementPass#AVOID_PUSH} for a move that must be abandoned rather than push another player. Random
+ * choices must be drawn with {@link NpcMovementPass#hash(long, int)} so that games stay reproducible.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ * @see NpcArchetype
+ */
+public interface NpcBehavior
+{
+    /**
+     * Writes this update's decision for every member of the given range into the decision mask, indexed by slot.
+     * <p>
+     * Members that are no longer on the field must be given {@link NpcMovementPass#NO_MOVE}.
+     * </p>
+     *
+     * @param members     the slots of the NPCs following this behavior, in ascending order.
+     * @param fromMember  the position in {@code members} of the first NPC to decide for.
+     * @param toMember    the position in {@code members} just past the last NPC to decide for.
+     * @param playerStore the store holding the players' state.
+     * @param seed        the seed of this update's random choices.
+     * @param green       {@code true} if the light is green; {@code false} if it is red.
+     * @param decisions   the decision mask to write into, indexed by slot.
+     */
+    void decide(int[] members,
+                int fromMember,
+                int toMember,
+                PlayerStore playerStore,
+                long seed,
+                boolean green,
+                byte[] decisions);
+}
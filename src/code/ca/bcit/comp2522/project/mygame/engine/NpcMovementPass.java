@@ -0,0 +1,761 @@
+package ca.bcit.comp2522.project.mygame.engine;
+
+import ca.bcit.comp2522.project.mygame.common.MovementDirection;
+import ca.bcit.comp2522.project.mygame.entities.PlayerStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.NPC_MOVING_DISTANCE_ON_X_AXIS;
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.NPC_MOVING_DISTANCE_ON_Y_AXIS;
+
+/**
+ * Moves every non-player character (NPC) for one game update in a few tight passes over the player store.
+ * <p>
+ * Rather than drawing a random number and resolving a move for one NPC after another, the pass works in three
+ * phases:
+ * <ol>
+ *   <li><b>Decide:</b> NPCs are grouped by their {@link NpcBehavior}, and each group decides for all of its members
+ *       at once whether they move and in which direction, writing the result into a primitive {@code byte[]} mask.
+ *       Each decision comes from a counter-based SplitMix64 hash of the update's seed and the slot number (see
+ *       {@link #hash(long, int)}), so a decision loop carries no state from one slot to the next. The slots are
+ *       decided in chunks of {@link #SLOTS_PER_CHUNK}, and each chunk sorts its movers by the strip of rows they
+ *       stand on.</li>
+ *   <li><b>Uncontested moves:</b> The grid is split into horizontal strips of
+ *       {@link #STRIP_HEIGHT_IN_NUMBER_OF_CELLS} rows. Within each strip, every mover whose target cell is empty and
+ *       inside the same strip steps straight into it through
+ *       {@link PushResolver#settleUncontestedUnmarked(int, int, int, long)}, in slot order. Movers that are blocked
+ *       by an occupant are set aside, unless their decision says to abandon the move instead, and so are movers
+ *       whose target lies in another strip.</li>
+ *   <li><b>Borders and collisions:</b> On a single thread, the moves that leave their strip are then tried in slot
+ *       order, and only the movers set aside as blocked go through the full push resolution, whose chains may run
+ *       across strips.</li>
+ * </ol>
+ * In a large crowd most movers step into free cells, so the push chain walk only runs for the few that collide. The
+ * pass allocates nothing after its behaviors have been assigned.
+ * </p>
+ * <p>
+ * Chunks touch disjoint slots and strips touch disjoint rows, so when a {@link ForkJoinPool} is set, the chunks of
+ * the first phase and then the strips of the second run in parallel on it. What a strip does never depends on another
+ * strip, and everything that could is left to the single-threaded third phase, so a game plays out exactly the same
+ * whether the pass runs on one thread or many. An arena no taller than one strip, such as the default one, has a
+ * single strip and plays exactly like the serial pass, run without a pool.
+ * </p>
+ * <p>
+ * Given the same seed, the pass makes the same decisions, so games driven by a seeded random source stay
+ * reproducible.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class NpcMovementPass
+{
+    /**
+     * The decision of an NPC that stays where it is.
+     */
+    public static final byte NO_MOVE = -1;
+
+    /**
+     * The decision of an NPC that steps towards the finish line.
+     */
+    public static final byte FORWARD = (byte) MovementDirection.values().length;
+
+    /**
+     * A flag that can be combined with a move decision to abandon the move rather than push an occupant.
+     */
+    public static final byte AVOID_PUSH = 1 << 3;
+
+    /**
+     * The number of grid rows in each strip whose uncontested moves are settled independently of the others.
+     */
+    public static final int STRIP_HEIGHT_IN_NUMBER_OF_CELLS = 64;
+
+    /**
+     * The number of consecutive slots decided together, and sorted into strips, by a single task.
+     */
+    public static final int SLOTS_PER_CHUNK = 4096;
+
+    private static final int DIRECTION_MASK = AVOID_PUSH - 1;
+    private static final int[] DELTA_X;
+    private static final int[] DELTA_Y;
+    private static final int NO_GROUP = -1;
+    private static final int NO_GROUPS = 0;
+    private static final int NO_CHUNKS = 0;
+    private static final int SINGLE = 1;
+
+    // What the second phase did with each mover, and so what the third phase still has to do.
+    private static final byte SETTLED = 0;
+    private static final byte MOVED = 1;
+    private static final byte LEAVING_STRIP = 2;
+    private static final byte CONTESTED = 3;
+
+    // SplitMix64 constants: the golden-ratio increment and the two multipliers of its finalizer.
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long FIRST_MIX_MULTIPLIER = 0xBF58476D1CE4E5B9L;
+    private static final long SECOND_MIX_MULTIPLIER = 0x94D049BB133111EBL;
+    private static final int FIRST_MIX_SHIFT = 30;
+    private static final int SECOND_MIX_SHIFT = 27;
+    private static final int FINAL_MIX_SHIFT = 31;
+
+    // A uniform double in [0, 1) is built from the top 53 bits of a hash, leaving the low bits for the direction.
+    private static final int DOUBLE_FRACTION_SHIFT = 11;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final int DIRECTION_BITS_MASK = 3;
+
+    private final PlayerStore playerStore;
+    private final PushResolver pushResolver;
+    private final int gridHeight;
+    private final int numberOfStrips;
+    private final byte[] decisions;    // Per-slot mask: NO_MOVE, or a direction optionally combined with AVOID_PUSH.
+    private final byte[] outcomes;     // Per-slot outcome of the second phase for every mover.
+    private final int[] movers;        // The movers of each chunk, within the chunk's slot range, grouped by strip.
+    private final int[] leavingStrip;  // Scratch list of the movers whose target cell lies in another strip.
+    private final int[] contested;     // Scratch list of the movers whose target cell was occupied.
+    private final StripTask[] stripTasks;
+    private final UpdateTask updateTask;
+
+    // NPCs grouped by behavior: each group's behavior, the slots of its members in ascending order, and for every
+    // chunk the position in the members of the first member at or past the chunk's first slot.
+    private NpcBehavior[] groupBehaviors;
+    private int[][] groupMembers;
+    private int[][] groupChunkStarts;
+
+    // For every chunk, the start of each strip's movers within the chunk, followed by their end; and a write cursor.
+    private int numberOfChunks;
+    private int[] chunkStripStarts;
+    private int[] chunkStripCursors;
+    private ChunkTask[] chunkTasks;
+
+    // The pool the phases run on in parallel, or null to run them on the calling thread.
+    private ForkJoinPool pool;
+
+    // The arguments of the update in progress, read by the tasks.
+    private long updateSeed;
+    private boolean updateGreen;
+    private long updateNow;
+
+    static
+    {
+        final MovementDirection[] directions;
+        directions = MovementDirection.values();
+
+        DELTA_X = new int[directions.length + 1];
+        DELTA_Y = new int[directions.length + 1];
+        for(final MovementDirection direction : directions)
+        {
+            DELTA_X[direction.ordinal()] = direction.getDeltaX();
+            DELTA_Y[direction.ordinal()] = direction.getDeltaY();
+        }
+        DELTA_X[FORWARD] = NPC_MOVING_DISTANCE_ON_X_AXIS;
+        DELTA_Y[FORWARD] = NPC_MOVING_DISTANCE_ON_Y_AXIS;
+    }
+
+    /**
+     * Constructs a {@code NpcMovementPass} for the players held in the given store, standing on the given grid. No NPC
+     * moves until behaviors have been assigned with {@link #assignBehaviors(NpcBehavior[])}, and every phase runs on
+     * the calling thread until a pool is set with {@link #setPool(ForkJoinPool)}.
+     *
+     * @param playerStore   the store holding the players' state.
+     * @param occupancyGrid the occupancy grid indexing the same players.
+     * @param pushResolver  the resolver used to carry out moves against the same players.
+     * @throws IllegalArgumentException if any argument is null.
+     */
+    public NpcMovementPass(final PlayerStore playerStore,
+                           final OccupancyGrid occupancyGrid,
+                           final PushResolver pushResolver)
+    {
+        validateArguments(playerStore, occupancyGrid, pushResolver);
+        this.playerStore = playerStore;
+        this.pushResolver = pushResolver;
+        this.gridHeight = occupancyGrid.getHeight();
+        this.numberOfStrips = (gridHeight + STRIP_HEIGHT_IN_NUMBER_OF_CELLS - 1) / STRIP_HEIGHT_IN_NUMBER_OF_CELLS;
+        this.decisions = new byte[playerStore.capacity()];
+        this.outcomes = new byte[playerStore.capacity()];
+        this.movers = new int[playerStore.capacity()];
+        this.leavingStrip = new int[playerStore.capacity()];
+        this.contested = new int[playerStore.capacity()];
+        this.stripTasks = new StripTask[numberOfStrips];
+        for(int strip = 0; strip < numberOfStrips; strip++)
+        {
+            stripTasks[strip] = new StripTask(strip);
+        }
+        this.updateTask = new UpdateTask();
+        this.groupBehaviors = new NpcBehavior[NO_GROUPS];
+        this.groupMembers = new int[NO_GROUPS][];
+        this.groupChunkStarts = new int[NO_GROUPS][];
+        this.numberOfChunks = NO_CHUNKS;
+        this.chunkStripStarts = new int[NO_CHUNKS];
+        this.chunkStripCursors = new int[NO_CHUNKS];
+        this.chunkTasks = new ChunkTask[NO_CHUNKS];
+        Arrays.fill(decisions, NO_MOVE);
+    }
+
+    /**
+     * Sets the pool on which the chunks and strips of every update run in parallel. A game plays out the same on any
+     * pool, or on none.
+     *
+     * @param pool the pool to run on, or null to run every phase on the thread calling {@link #run(long, boolean,
+     *             long)}.
+     */
+    public void setPool(final ForkJoinPool pool)
+    {
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the number of horizontal strips the grid is split into.
+     *
+     * @return the number of strips.
+     */
+    public int getNumberOfStrips()
+    {
+        return numberOfStrips;
+    }
+
+    /**
+     * Assigns a behavior to every NPC currently in the player store, cycling through the given behaviors in slot
+     * order, and groups the NPCs by behavior. The user's slot is skipped.
+     *
+     * @param behaviors the behaviors to hand out; the same behavior may appear more than once to weight the mix.
+     * @throws IllegalArgumentException if {@code behaviors} is null or empty, or contains null.
+     */
+    public void assignBehaviors(final NpcBehavior[] behaviors)
+    {
+        validateBehaviors(behaviors);
+
+        final int numberOfPlayers;
+        final List<NpcBehavior> distinctBehaviors;
+        final int[] groupOfSlot;
+        final int[] groupSizes;
+        int nextBehavior;
+
+        numberOfPlayers = playerStore.size();
+        distinctBehaviors = new ArrayList<>();
+        groupOfSlot = new int[numberOfPlayers];
+        nextBehavior = 0;
+
+        for(int index = 0; index < numberOfPlayers; index++)
+        {
+            if(playerStore.isUser(index))
+            {
+                groupOfSlot[index] = NO_GROUP;
+            }
+            else
+            {
+                final NpcBehavior behavior;
+                behavior = behaviors[nextBehavior % behaviors.length];
+                nextBehavior++;
+                if(!distinctBehaviors.contains(behavior))
+                {
+                    distinctBehaviors.add(behavior);
+                }
+                groupOfSlot[index] = distinctBehaviors.indexOf(behavior);
+            }
+        }
+
+        groupBehaviors = distinctBehaviors.toArray(new NpcBehavior[NO_GROUPS]);
+        groupMembers = new int[groupBehaviors.length][];
+        groupSizes = new int[groupBehaviors.length];
+        for(int index = 0; index < numberOfPlayers; index++)
+        {
+            if(groupOfSlot[index] != NO_GROUP)
+            {
+                groupSizes[groupOfSlot[index]]++;
+            }
+        }
+        for(int group = 0; group < groupBehaviors.length; group++)
+        {
+            groupMembers[group] = new int[groupSizes[group]];
+            groupSizes[group] = 0;
+        }
+        for(int index = 0; index < numberOfPlayers; index++)
+        {
+            final int group;
+            group = groupOfSlot[index];
+            if(group != NO_GROUP)
+            {
+                groupMembers[group][groupSizes[group]] = index;
+                groupSizes[group]++;
+            }
+        }
+
+        assignChunks(numberOfPlayers);
+        Arrays.fill(decisions, NO_MOVE);
+    }
+
+    /**
+     * Moves the NPCs for one game update.
+     * <p>
+     * Every group of NPCs first decides its moves according to its behavior, after which the moves of all groups are
+     * carried out together, strip by strip in slot order. Moves are voluntary, so an NPC that runs into another player
+     * either pushes it and stays in its cell or, if its decision says so, gives up the move. If a pool is set and the
+     * arena has more than one chunk or strip, the first two phases run on the pool, and this method returns once the
+     * whole update is done.
+     * </p>
+     *
+     * @param seed  the seed of this update's decisions, typically drawn from the game's random source.
+     * @param green {@code true} if the light is green; {@code false} if it is red.
+     * @param now   the current time in nanoseconds.
+     */
+    public void run(final long seed,
+                    final boolean green,
+                    final long now)
+    {
+        updateSeed = seed;
+        updateGreen = green;
+        updateNow = now;
+
+        if(pool == null || (numberOfChunks <= SINGLE && numberOfStrips == SINGLE))
+        {
+            for(int chunk = 0; chunk < numberOfChunks; chunk++)
+            {
+                decideChunk(chunk);
+            }
+            for(int strip = 0; strip < numberOfStrips; strip++)
+            {
+                settleStrip(strip);
+            }
+        }
+        else
+        {
+            updateTask.reinitialize();
+            pool.invoke(updateTask);
+        }
+
+        settleBordersAndCollisions(now);
+    }
+
+    /**
+     * Returns the decision that moves an NPC in the given direction.
+     *
+     * @param direction the direction to move in.
+     * @return the encoded decision.
+     */
+    public static byte encode(final MovementDirection direction)
+    {
+        return (byte) direction.ordinal();
+    }
+
+    /**
+     * Returns 64 well-mixed random bits for the given slot, derived from a counter-based SplitMix64 hash of the seed
+     * and the slot number. The same seed and slot always give the same bits.
+     *
+     * @param seed the seed of the current update.
+     * @param slot the slot of the player.
+     * @return the random bits.
+     */
+    public static long hash(final long seed,
+                            final int slot)
+    {
+        return mix(seed + (slot + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Converts the top 53 of the given random bits to a uniform double between zero, inclusive, and one, exclusive.
+     *
+     * @param bits the random bits.
+     * @return the uniform double.
+     */
+    public static double toUniform(final long bits)
+    {
+        return (bits >>> DOUBLE_FRACTION_SHIFT) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Converts the lowest two of the given random bits, which {@link #toUniform(long)} does not use, to the decision
+     * of moving in one of the four movement directions.
+     *
+     * @param bits the random bits.
+     * @return the encoded decision.
+     */
+    public static byte toRandomDirection(final long bits)
+    {
+        return (byte) (bits & DIRECTION_BITS_MASK);
+    }
+
+    /**
+     * Returns the decision of stepping sideways, to the left or to the right.
+     *
+     * @param left {@code true} to step left; {@code false} to step right.
+     * @return the encoded decision.
+     */
+    public static byte toSidestep(final boolean left)
+    {
+        return left ? encode(MovementDirection.LEFT) : encode(MovementDirection.RIGHT);
+    }
+
+    /*
+     * Splits the slots into chunks and records, for every group and chunk, where the chunk's members start.
+     *
+     * @param numberOfPlayers the number of players in the store.
+     */
+    private void assignChunks(final int numberOfPlayers)
+    {
+        numberOfChunks = (numberOfPlayers + SLOTS_PER_CHUNK - 1) / SLOTS_PER_CHUNK;
+        chunkStripStarts = new int[numberOfChunks * (numberOfStrips + 1)];
+        chunkStripCursors = new int[numberOfChunks * numberOfStrips];
+        chunkTasks = new ChunkTask[numberOfChunks];
+        for(int chunk = 0; chunk < numberOfChunks; chunk++)
+        {
+            chunkTasks[chunk] = new ChunkTask(chunk);
+        }
+
+        groupChunkStarts = new int[groupBehaviors.length][];
+        for(int group = 0; group < groupBehaviors.length; group++)
+        {
+            final int[] members;
+            final int[] chunkStarts;
+            int member;
+
+            members = groupMembers[group];
+            chunkStarts = new int[numberOfChunks + 1];
+            member = 0;
+            for(int chunk = 0; chunk <= numberOfChunks; chunk++)
+            {
+                while(member < members.length && members[member] < chunk * SLOTS_PER_CHUNK)
+                {
+                    member++;
+                }
+                chunkStarts[chunk] = member;
+            }
+            groupChunkStarts[group] = chunkStarts;
+        }
+    }
+
+    /*
+     * Decides the moves of every NPC in a chunk, then sorts the chunk's movers by strip, keeping slot order within
+     * each strip.
+     *
+     * @param chunk the chunk to decide.
+     */
+    private void decideChunk(final int chunk)
+    {
+        // One call per group: each behavior runs its own loop over its members in this chunk.
+        for(int group = 0; group < groupBehaviors.length; group++)
+        {
+            groupBehaviors[group].decide(groupMembers[group],
+                                         groupChunkStarts[group][chunk],
+                                         groupChunkStarts[group][chunk + 1],
+                                         playerStore,
+                                         updateSeed,
+                                         updateGreen,
+                                         decisions);
+        }
+
+        final int firstSlot;
+        final int endSlot;
+        final int startsBase;
+        final int cursorsBase;
+
+        firstSlot = chunk * SLOTS_PER_CHUNK;
+        endSlot = Math.min(firstSlot + SLOTS_PER_CHUNK, playerStore.size());
+        startsBase = chunk * (numberOfStrips + 1);
+        cursorsBase = chunk * numberOfStrips;
+
+        // Count the movers of each strip, then turn the counts into the start of each strip's movers.
+        Arrays.fill(chunkStripStarts, startsBase, startsBase + numberOfStrips + 1, 0);
+        for(int index = firstSlot; index < endSlot; index++)
+        {
+            if(decisions[index] != NO_MOVE)
+            {
+                chunkStripStarts[startsBase + stripOf(index) + 1]++;
+            }
+        }
+        for(int strip = 0; strip < numberOfStrips; strip++)
+        {
+            chunkStripStarts[startsBase + strip + 1] += chunkStripStarts[startsBase + strip];
+            chunkStripCursors[cursorsBase + strip] = chunkStripStarts[startsBase + strip];
+        }
+        for(int index = firstSlot; index < endSlot; index++)
+        {
+            if(decisions[index] != NO_MOVE)
+            {
+                final int cursor;
+                cursor = cursorsBase + stripOf(index);
+                movers[firstSlot + chunkStripCursors[cursor]] = index;
+                chunkStripCursors[cursor]++;
+            }
+        }
+    }
+
+    /*
+     * Steps every mover of a strip whose target cell is empty and inside the strip, in slot order, and records what
+     * is left for the single-threaded phase.
+     *
+     * @param strip the strip to settle.
+     */
+    private void settleStrip(final int strip)
+    {
+        final int firstRow;
+        final int endRow;
+
+        firstRow = strip * STRIP_HEIGHT_IN_NUMBER_OF_CELLS;
+        endRow = Math.min(firstRow + STRIP_HEIGHT_IN_NUMBER_OF_CELLS, gridHeight);
+
+        for(int chunk = 0; chunk < numberOfChunks; chunk++)
+        {
+            final int firstSlot;
+            final int startsBase;
+            final int end;
+
+            firstSlot = chunk * SLOTS_PER_CHUNK;
+            startsBase = chunk * (numberOfStrips + 1) + strip;
+            end = firstSlot + chunkStripStarts[startsBase + 1];
+            for(int position = firstSlot + chunkStripStarts[startsBase]; position < end; position++)
+            {
+                final int index;
+                final byte decision;
+                final int targetY;
+
+                index = movers[position];
+                decision = decisions[index];
+                targetY = playerStore.getY(index) + DELTA_Y[decision & DIRECTION_MASK];
+                if(targetY < firstRow || targetY >= endRow)
+                {
+                    outcomes[index] = LEAVING_STRIP;
+                }
+                else
+                {
+                    final int result;
+                    result = pushResolver.settleUncontestedUnmarked(index,
+                                                                    DELTA_X[decision & DIRECTION_MASK],
+                                                                    DELTA_Y[decision & DIRECTION_MASK],
+                                                                    updateNow);
+                    if(result == PushResolver.MOVE_CONTESTED)
+                    {
+                        outcomes[index] = (decision & AVOID_PUSH) == 0 ? CONTESTED : SETTLED;
+                    }
+                    else
+                    {
+                        outcomes[index] = result == PushResolver.MOVE_REJECTED ? SETTLED : MOVED;
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Reports the movers that stepped within their strip as moved, then tries the moves that leave their strip and
+     * resolves the pushes of the movers that ran into someone, each in slot order.
+     *
+     * @param now the current time in nanoseconds.
+     */
+    private void settleBordersAndCollisions(final long now)
+    {
+        int leavingCount;
+        int contestedCount;
+
+        leavingCount = 0;
+        contestedCount = 0;
+        for(int chunk = 0; chunk < numberOfChunks; chunk++)
+        {
+            final int firstSlot;
+            final int end;
+
+            firstSlot = chunk * SLOTS_PER_CHUNK;
+            end = firstSlot + chunkStripStarts[chunk * (numberOfStrips + 1) + numberOfStrips];
+            for(int position = firstSlot; position < end; position++)
+            {
+                final int index;
+                index = movers[position];
+                switch(outcomes[index])
+                {
+                    case MOVED:
+                        playerStore.markMoved(index);
+                        break;
+                    case LEAVING_STRIP:
+                        leavingStrip[leavingCount] = index;
+                        leavingCount++;
+                        break;
+                    case CONTESTED:
+                        contested[contestedCount] = index;
+                        contestedCount++;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        // Movers are listed by chunk and then by strip, so only several strips can leave the lists out of slot order.
+        if(numberOfStrips > SINGLE)
+        {
+            Arrays.sort(leavingStrip, 0, leavingCount);
+        }
+        for(int position = 0; position < leavingCount; position++)
+        {
+            final int index;
+            final byte decision;
+
+            index = leavingStrip[position];
+            decision = decisions[index];
+            if(!pushResolver.settleUncontested(index,
+                                               DELTA_X[decision & DIRECTION_MASK],
+                                               DELTA_Y[decision & DIRECTION_MASK],
+                                               now) &&
+               (decision & AVOID_PUSH) == 0)
+            {
+                contested[contestedCount] = index;
+                contestedCount++;
+            }
+        }
+        if(numberOfStrips > SINGLE)
+        {
+            Arrays.sort(contested, 0, contestedCount);
+        }
+
+        // Resolve the pushes of the few movers that ran into someone.
+        for(int position = 0; position < contestedCount; position++)
+        {
+            final int index;
+            final byte decision;
+
+            index = contested[position];
+            decision = decisions[index];
+            pushResolver.resolve(index,
+                                 DELTA_X[decision & DIRECTION_MASK],
+                                 DELTA_Y[decision & DIRECTION_MASK],
+                                 true,
+                                 now);
+        }
+    }
+
+    /*
+     * Returns the strip the player in the given slot stands on.
+     *
+     * @param index the slot of the player.
+     * @return the strip of the player's row.
+     */
+    private int stripOf(final int index)
+    {
+        return playerStore.getY(index) / STRIP_HEIGHT_IN_NUMBER_OF_CELLS;
+    }
+
+    /*
+     * Scrambles a 64-bit value with the SplitMix64 finalizer.
+     *
+     * @param value the value to scramble.
+     * @return the scrambled value.
+     */
+    private static long mix(final long value)
+    {
+        long bits;
+        bits = value;
+        bits = (bits ^ (bits >>> FIRST_MIX_SHIFT)) * FIRST_MIX_MULTIPLIER;
+        bits = (bits ^ (bits >>> SECOND_MIX_SHIFT)) * SECOND_MIX_MULTIPLIER;
+        return bits ^ (bits >>> FINAL_MIX_SHIFT);
+    }
+
+    /*
+     * Validates that neither the player store, the occupancy grid nor the push resolver is null.
+     *
+     * @param playerStore   the PlayerStore instance to validate.
+     * @param occupancyGrid the OccupancyGrid instance to validate.
+     * @param pushResolver  the PushResolver instance to validate.
+     * @throws IllegalArgumentException if any argument is null.
+     */
+    private static void validateArguments(final PlayerStore playerStore,
+                                          final OccupancyGrid occupancyGrid,
+                                          final PushResolver pushResolver)
+    {
+        if(playerStore == null || occupancyGrid == null || pushResolver == null)
+        {
+            throw new IllegalArgumentException("PlayerStore, OccupancyGrid and PushResolver cannot be null.");
+        }
+    }
+
+    /*
+     * Validates that the behaviors to hand out are present.
+     *
+     * @param behaviors the behaviors to validate.
+     * @throws IllegalArgumentException if the array is null or empty, or contains null.
+     */
+    private static void validateBehaviors(final NpcBehavior[] behaviors)
+    {
+        if(behaviors == null || behaviors.length == 0)
+        {
+            throw new IllegalArgumentException("At least one NpcBehavior must be provided.");
+        }
+        for(final NpcBehavior behavior : behaviors)
+        {
+            if(behavior == null)
+            {
+                throw new IllegalArgumentException("NpcBehavior cannot be null.");
+            }
+        }
+    }
+
+    /*
+     * Runs the first two phases of an update on the pool: every chunk in parallel, then every strip in parallel.
+     */
+    private final class UpdateTask
+            extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute()
+        {
+            for(final ChunkTask chunkTask : chunkTasks)
+            {
+                chunkTask.reinitialize();
+            }
+            ForkJoinTask.invokeAll(chunkTasks);
+
+            for(final StripTask stripTask : stripTasks)
+            {
+                stripTask.reinitialize();
+            }
+            ForkJoinTask.invokeAll(stripTasks);
+        }
+    }
+
+    /*
+     * Decides the moves of one chunk of slots.
+     */
+    private final class ChunkTask
+            extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int chunk;
+
+        private ChunkTask(final int chunk)
+        {
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute()
+        {
+            decideChunk(chunk);
+        }
+    }
+
+    /*
+     * Settles the uncontested moves within one strip of rows.
+     */
+    private final class StripTask
+            extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int strip;
+
+        private StripTask(final int strip)
+        {
+            this.strip = strip;
+        }
+
+        @Override
+        protected void compute()
+        {
+            settleStrip(strip);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package ca.bcit.comp2522.project.mygame.engine;
+
+import ca.bcit.comp2522.project.mygame.entities.PlayerMoveListener;
+import ca.bcit.comp2522.project.mygame.entities.PlayerStore;
+
+import java.util.Arrays;
+
+/**
+ * A dense spatial index that maps every cell of the game grid to the player standing on it.
+ * <p>
+ * The grid is backed by a single flat array of {@code width * height} slot numbers of a {@link PlayerStore}, addressed
+ * in row-major order, so finding the occupant of a cell is a constant-time array read instead of a scan over every
+ * player. Only players that are still on the field (neither eliminated nor finished) are indexed; the owning
+ * {@link GameLogic} is responsible for keeping the index in sync whenever a player moves, is eliminated or crosses
+ * the finish line.
+ * </p>
+ * <p>
+ * Positions changed through a {@link ca.bcit.comp2522.project.mygame.entities.Player Player} handle's setters, for
+ * example by a test, reach the grid as a {@link PlayerMoveListener}, once the grid is registered with its store. A
+ * player moved that way onto a cell another player holds is left out of the index, just as {@link #place(int)} would
+ * leave it out. Lookups trust the index and only double-check that the stored player is still on the field.
+ * </p>
+ * <p>
+ * Alongside the cells, the grid keeps a histogram of how many players are indexed on each row, and their total. Both
+ * are updated as players are placed, moved and removed, so reading them never requires a scan.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class OccupancyGrid
+        implements PlayerMoveListener
+{
+    /**
+     * The value reported for a cell that no active player occupies.
+     */
+    public static final int NO_PLAYER = -1;
+
+    private static final int MINIMUM_DIMENSION = 1;
+
+    private final int width;
+    private final int height;
+    private final int[] cells;
+    private final int[] rowPopulations;
+    private final PlayerStore playerStore;
+    private int population;
+
+    /**
+     * Constructs an empty {@code OccupancyGrid} covering {@code width} by {@code height} cells for the players of
+     * the given store.
+     *
+     * @param width       the number of cells along the x-axis; must be positive.
+     * @param height      the number of cells along the y-axis; must be positive.
+     * @param playerStore the store holding the players that will be indexed.
+     * @throws IllegalArgumentException if either dimension is not positive or {@code playerStore} is null.
+     */
+    public OccupancyGrid(final int width,
+                         final int height,
+                         final PlayerStore playerStore)
+    {
+        validateDimensions(width, height);
+        validatePlayerStore(playerStore);
+        this.width = width;
+        this.height = height;
+        this.playerStore = playerStore;
+        this.cells = new int[width * height];
+        this.rowPopulations = new int[height];
+        clear();
+    }
+
+    /**
+     * Returns the player standing on the specified cell.
+     *
+     * @param x the x-coordinate of the cell.
+     * @param y the y-coordinate of the cell.
+     * @return the slot of the active player on the cell, or {@link #NO_PLAYER} if the cell is empty or outside the
+     *         grid.
+     */
+    public int getOccupant(final int x,
+                           final int y)
+    {
+        if(!isInside(x, y))
+        {
+            return NO_PLAYER;
+        }
+
+        final int occupant;
+        occupant = cells[indexOf(x, y)];
+
+        if(occupant == NO_PLAYER || !playerStore.isOnField(occupant))
+        {
+            return NO_PLAYER;
+        }
+        return occupant;
+    }
+
+    /**
+     * Records the player on the cell given by its current coordinates.
+     * <p>
+     * If the cell already holds another active player, the existing entry is kept so that the first player placed
+     * on a cell wins, matching the order in which players are scanned by the game logic.
+     * </p>
+     *
+     * @param player the slot of the player to index.
+     */
+    public void place(final int player)
+    {
+        final int x;
+        final int y;
+
+        x = playerStore.getX(player);
+        y = playerStore.getY(player);
+
+        if(isInside(x, y) && getOccupant(x, y) == NO_PLAYER)
+        {
+            population += fillCell(player, x, y);
+        }
+    }
+
+    /**
+     * Removes the player from the cell given by its current coordinates, if it is indexed there.
+     *
+     * @param player the slot of the player to remove.
+     */
+    public void remove(final int player)
+    {
+        population += clearCell(player, playerStore.getX(player), playerStore.getY(player));
+    }
+
+    /**
+     * Moves the player's entry from its former cell to the cell given by its current coordinates.
+     * <p>
+     * A move from one cell of the grid to another only touches those two cells and their rows, and leaves the total
+     * population untouched. Moves whose cells lie on rows that no other thread touches can therefore be applied
+     * from several threads at once.
+     * </p>
+     *
+     * @param player the slot of the player that has just moved.
+     * @param fromX  the x-coordinate the player moved away from.
+     * @param fromY  the y-coordinate the player moved away from.
+     */
+    public void move(final int player,
+                     final int fromX,
+                     final int fromY)
+    {
+        final int x;
+        final int y;
+
+        x = playerStore.getX(player);
+        y = playerStore.getY(player);
+
+        int populationChange;
+        populationChange = clearCell(player, fromX, fromY);
+        if(isInside(x, y))
+        {
+            populationChange += fillCell(player, x, y);
+        }
+        if(populationChange != 0)
+        {
+            population += populationChange;
+        }
+    }
+
+    /**
+     * Moves the player's entry from its former cell to the cell given by its current coordinates, after a move made
+     * through the player's handle.
+     * <p>
+     * Unlike {@link #move(int, int, int)}, which the engine only calls for moves into a cell it has just vacated, this
+     * never replaces the entry of another player. A player moved onto a taken cell, or one that is no longer on the
+     * field, is simply not indexed.
+     * </p>
+     *
+     * @param player the slot of the player that has just moved.
+     * @param fromX  the x-coordinate the player moved away from.
+     * @param fromY  the y-coordinate the player moved away from.
+     */
+    @Override
+    public void playerMoved(final int player,
+                            final int fromX,
+                            final int fromY)
+    {
+        population += clearCell(player, fromX, fromY);
+        if(playerStore.isOnField(player))
+        {
+            place(player);
+        }
+    }
+
+    /**
+     * Removes every entry from the grid.
+     */
+    public void clear()
+    {
+        Arrays.fill(cells, NO_PLAYER);
+        Arrays.fill(rowPopulations, 0);
+        population = 0;
+    }
+
+    /**
+     * Returns the number of players indexed on the given row.
+     *
+     * @param y the y-coordinate of the row.
+     * @return the number of players on the row, or zero if the row is outside the grid.
+     */
+    public int getRowPopulation(final int y)
+    {
+        return y >= 0 && y < height ? rowPopulations[y] : 0;
+    }
+
+    /**
+     * Returns the number of players indexed on the whole grid.
+     *
+     * @return the number of indexed players.
+     */
+    public int getPopulation()
+    {
+        return population;
+    }
+
+    /**
+     * Returns the number of cells along the x-axis.
+     *
+     * @return the grid width.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Returns the number of cells along the y-axis.
+     *
+     * @return the grid height.
+     */
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /*
+     * Clears the given cell, but only if it currently holds the given player. The caller applies the returned change
+     * to the total population.
+     *
+     * @param player the slot of the player expected in the cell.
+     * @param x      the x-coordinate of the cell.
+     * @param y      the y-coordinate of the cell.
+     * @return -1 if the player was removed from the cell; 0 otherwise.
+     */
+    private int clearCell(final int player,
+                          final int x,
+                          final int y)
+    {
+        if(isInside(x, y) && cells[indexOf(x, y)] == player)
+        {
+            cells[indexOf(x, y)] = NO_PLAYER;
+            rowPopulations[y]--;
+            return -1;
+        }
+        return 0;
+    }
+
+    /*
+     * Indexes the player on the given cell, counting it in the row histogram unless it replaces another entry. The
+     * caller applies the returned change to the total population.
+     *
+     * @param player the slot of the player.
+     * @param x      the x-coordinate of the cell, which must be inside the grid.
+     * @param y      the y-coordinate of the cell, which must be inside the grid.
+     * @return 1 if the cell was empty; 0 if another entry was replaced.
+     */
+    private int fillCell(final int player,
+                         final int x,
+                         final int y)
+    {
+        final int cell;
+        final int populationChange;
+
+        cell = indexOf(x, y);
+        if(cells[cell] == NO_PLAYER)
+        {
+            rowPopulations[y]++;
+            populationChange = 1;
+        }
+        else
+        {
+            populationChange = 0;
+        }
+        cells[cell] = player;
+        return populationChange;
+    }
+
+    /*
+     * Indicates whether the coordinates fall within the grid.
+     *
+     * @param x the x-coordinate to check.
+     * @param y the y-coordinate to check.
+     * @return true if the coordinates address a cell of this grid.
+     */
+    private boolean isInside(final int x,
+                             final int y)
+    {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /*
+     * Converts grid coordinates to the row-major index of the backing array.
+     *
+     * @param x the x-coordinate of the cell.
+     * @param y the y-coordinate of the cell.
+     * @return the array index of the cell.
+     */
+    private int indexOf(final int x,
+                        final int y)
+    {
+        return y * width + x;
+    }
+
+    /*
+     * Validates that both grid dimensions are positive.
+     *
+     * @param width  the width to validate.
+     * @param height the height to validate.
+     * @throws IllegalArgumentException if either dimension is not positive.
+     */
+    private static void validateDimensions(final int width,
+                                           final int height)
+    {
+        if(width < MINIMUM_DIMENSION || height < MINIMUM_DIMENSION)
+        {
+            throw new IllegalArgumentException("Grid dimensions must be positive. Provided width: " + width +
+                                               ", height: " + height);
+        }
+    }
+
+    /*
+     * Validates that the provided PlayerStore is not null.
+     *
+     * @param playerStore the PlayerStore instance to validate.
+     * @throws IllegalArgumentException if playerStore is null.
+     */
+    private static void validatePlayerStore(final PlayerStore playerStore)
+    {
+        if(playerStore == null)
+        {
+            throw new IllegalArgumentException("PlayerStore cannot be null.");
+        }
+    }
+}
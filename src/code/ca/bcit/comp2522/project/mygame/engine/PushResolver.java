@@ -0,0 +1,397 @@
+package ca.bcit.comp2522.project.mygame.engine;
+
+import ca.bcit.comp2522.project.mygame.entities.PlayerStore;
+import ca.bcit.comp2522.project.mygame.metrics.EngineMetrics;
+
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.MOVE_COOLDOWN_IN_NANOSECONDS;
+
+/**
+ * Resolves a single move attempt, including any chain of pushes it causes, without recursion or allocation.
+ * <p>
+ * When a player tries to step into an occupied cell, every player standing in a straight line along the push
+ * direction is shoved one cell further, provided the line ends in an empty cell inside the grid and nobody in the
+ * line is still cooling down from a previous move. Rather than recursing once per link, the resolver walks the line
+ * cell by cell with the {@link OccupancyGrid}, collecting the slots of the players it finds in a reusable scratch
+ * buffer. Only once the walk has reached an empty cell does it shift the collected players, starting from the far
+ * end, so a rejected push leaves every player untouched.
+ * </p>
+ * <p>
+ * Because the grid holds at most one active player per cell and the walk never turns, no player can be met twice,
+ * which makes the visited-player bookkeeping of a recursive search unnecessary. A push therefore costs time
+ * proportional to the length of the chain and allocates nothing.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class PushResolver
+{
+    /**
+     * The value returned by {@link #resolve(int, int, int, boolean, long)} when the move could not be made.
+     */
+    public static final int MOVE_REJECTED = -1;
+
+    /**
+     * The value returned by {@link #settleUncontestedUnmarked(int, int, int, long)} when the target cell is occupied.
+     */
+    public static final int MOVE_CONTESTED = -2;
+
+    private static final int NO_PUSHED_PLAYERS = 0;
+
+    private final PlayerStore playerStore;
+    private final OccupancyGrid occupancyGrid;
+    private final int[] chain;      // Scratch buffer holding the slots of the players in the current push chain.
+    private int firstOccupant;      // The player found in the mover's target cell by the last resolve call.
+    private EngineMetrics metrics;  // Counts pushes and their chain lengths; null when not instrumented.
+
+    /**
+     * Constructs a {@code PushResolver} operating on the given players and their occupancy grid.
+     *
+     * @param playerStore   the store holding the players' state.
+     * @param occupancyGrid the occupancy grid indexing the same players.
+     * @throws IllegalArgumentException if either argument is null.
+     */
+    public PushResolver(final PlayerStore playerStore,
+                        final OccupancyGrid occupancyGrid)
+    {
+        validateArguments(playerStore, occupancyGrid);
+        this.playerStore = playerStore;
+        this.occupancyGrid = occupancyGrid;
+        this.chain = new int[Math.max(occupancyGrid.getWidth(), occupancyGrid.getHeight())];
+        this.firstOccupant = OccupancyGrid.NO_PLAYER;
+    }
+
+    /**
+     * Sets the metrics that count the pushes resolved from now on and record the lengths of their chains.
+     *
+     * @param metrics the metrics to record into, or null to record nothing.
+     */
+    public void setMetrics(final EngineMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Attempts to move a player by the given delta, pushing any players in the way.
+     * <p>
+     * A voluntary mover that runs into another player stays in its cell and only pushes; a forced mover advances
+     * into the cell it pushed clear. In both cases every player that actually moved, as well as the mover, has its
+     * last-move timestamp set to {@code now} so that the move cooldown applies to it. A zero delta is not a move and
+     * is rejected, and so is any move by a player that is no longer on the field.
+     * </p>
+     *
+     * @param mover         the slot of the player attempting to move.
+     * @param deltaX        the change in the x-coordinate.
+     * @param deltaY        the change in the y-coordinate.
+     * @param voluntaryMove {@code true} if the mover stays put when pushing; {@code false} if it advances as well.
+     * @param now           the current time in nanoseconds.
+     * @return the number of players pushed, or {@link #MOVE_REJECTED} if the move could not be completed.
+     */
+    public int resolve(final int mover,
+                       final int deltaX,
+                       final int deltaY,
+                       final boolean voluntaryMove,
+                       final long now)
+    {
+        firstOccupant = OccupancyGrid.NO_PLAYER;
+
+        // A zero delta targets the mover's own cell, so the chain walk below would never leave it. A player off the
+        // field holds no cell, so moving it would put it back into the grid and its row count.
+        if(!playerStore.isOnField(mover) || isStandingStill(deltaX, deltaY) || isCoolingDown(mover, now))
+        {
+            return MOVE_REJECTED;
+        }
+
+        final int targetX;
+        final int targetY;
+
+        targetX = playerStore.getX(mover) + deltaX;
+        targetY = playerStore.getY(mover) + deltaY;
+
+        if(!isInsideGrid(targetX, targetY))
+        {
+            return MOVE_REJECTED;
+        }
+
+        firstOccupant = occupancyGrid.getOccupant(targetX, targetY);
+        if(firstOccupant == OccupancyGrid.NO_PLAYER)
+        {
+            relocate(mover, targetX, targetY);
+            playerStore.setLastMoveTimestampInNanoseconds(mover, now);
+            return NO_PUSHED_PLAYERS;
+        }
+
+        // Walk along the push direction until an empty cell is found, collecting every player in the way.
+        int chainLength;
+        int occupant;
+        int cellX;
+        int cellY;
+
+        chainLength = 0;
+        occupant = firstOccupant;
+        cellX = targetX;
+        cellY = targetY;
+        while(occupant != OccupancyGrid.NO_PLAYER)
+        {
+            if(isCoolingDown(occupant, now))
+            {
+                return rejectPush();
+            }
+
+            chain[chainLength] = occupant;
+            chainLength++;
+
+            cellX += deltaX;
+            cellY += deltaY;
+            if(!isInsideGrid(cellX, cellY))
+            {
+                return rejectPush();
+            }
+            occupant = occupancyGrid.getOccupant(cellX, cellY);
+        }
+
+        // Shift the chain from its far end so every player steps into a cell that has just been vacated.
+        for(int link = chainLength - 1; link >= 0; link--)
+        {
+            final int pushedPlayer;
+            pushedPlayer = chain[link];
+
+            relocate(pushedPlayer, playerStore.getX(pushedPlayer) + deltaX, playerStore.getY(pushedPlayer) + deltaY);
+            playerStore.setLastMoveTimestampInNanoseconds(pushedPlayer, now);
+        }
+
+        if(!voluntaryMove)
+        {
+            relocate(mover, targetX, targetY);
+        }
+        playerStore.setLastMoveTimestampInNanoseconds(mover, now);
+        if(metrics != null)
+        {
+            metrics.recordPush(chainLength);
+        }
+        return chainLength;
+    }
+
+    /*
+     * Counts a push that could not be made.
+     *
+     * @return MOVE_REJECTED.
+     */
+    private int rejectPush()
+    {
+        if(metrics != null)
+        {
+            metrics.recordRejectedPush();
+        }
+        return MOVE_REJECTED;
+    }
+
+    /**
+     * Settles a move attempt that involves no other player, without walking any push chain.
+     * <p>
+     * If the delta is zero, the mover is still cooling down or the target cell lies outside the grid, the move is
+     * rejected; if the target cell is empty, the mover steps into it exactly as
+     * {@link #resolve(int, int, int, boolean, long)} would move it. Either way the attempt is settled and {@code true}
+     * is returned. Only when the target cell is occupied is nothing done and {@code false} returned, leaving the push
+     * to a later call to {@code resolve}.
+     * </p>
+     *
+     * @param mover  the slot of the player attempting to move.
+     * @param deltaX the change in the x-coordinate.
+     * @param deltaY the change in the y-coordinate.
+     * @param now    the current time in nanoseconds.
+     * @return {@code true} if the attempt was settled; {@code false} if it is contested by an occupant.
+     */
+    public boolean settleUncontested(final int mover,
+                                     final int deltaX,
+                                     final int deltaY,
+                                     final long now)
+    {
+        return settle(mover, deltaX, deltaY, now, true) != MOVE_CONTESTED;
+    }
+
+    /**
+     * Settles a move attempt that involves no other player exactly like
+     * {@link #settleUncontested(int, int, int, long)}, but leaves a mover that steps into the empty target cell out of
+     * the player store's moved set and reports how the attempt went.
+     * <p>
+     * The call reads and writes only the mover, its own cell, its target cell and the population of their rows. It
+     * may therefore run on several threads at once, provided no two concurrent calls touch the same rows; the caller
+     * then reports every mover that stepped with {@link PlayerStore#markMoved(int)}.
+     * </p>
+     *
+     * @param mover  the slot of the player attempting to move.
+     * @param deltaX the change in the x-coordinate.
+     * @param deltaY the change in the y-coordinate.
+     * @param now    the current time in nanoseconds.
+     * @return zero if the mover stepped into the target cell, {@link #MOVE_REJECTED} if the move was rejected, or
+     *         {@link #MOVE_CONTESTED} if the target cell is occupied and nothing was done.
+     */
+    public int settleUncontestedUnmarked(final int mover,
+                                         final int deltaX,
+                                         final int deltaY,
+                                         final long now)
+    {
+        return settle(mover, deltaX, deltaY, now, false);
+    }
+
+    /**
+     * Returns the player that occupied the mover's target cell during the last call to
+     * {@link #resolve(int, int, int, boolean, long)}, whether or not the push succeeded.
+     *
+     * @return the slot of that player, or {@link OccupancyGrid#NO_PLAYER} if the target cell was empty or never
+     *         examined.
+     */
+    public int getFirstOccupant()
+    {
+        return firstOccupant;
+    }
+
+    /*
+     * Settles a move attempt that involves no other player.
+     *
+     * @param mover  the slot of the player attempting to move.
+     * @param deltaX the change in the x-coordinate.
+     * @param deltaY the change in the y-coordinate.
+     * @param now    the current time in nanoseconds.
+     * @param mark   true to add a mover that steps to the player store's moved set.
+     * @return zero if the mover stepped, MOVE_REJECTED if the move was rejected, or MOVE_CONTESTED if the target cell
+     *         is occupied.
+     */
+    private int settle(final int mover,
+                       final int deltaX,
+                       final int deltaY,
+                       final long now,
+                       final boolean mark)
+    {
+        if(isStandingStill(deltaX, deltaY) || isCoolingDown(mover, now))
+        {
+            return MOVE_REJECTED;
+        }
+
+        final int targetX;
+        final int targetY;
+
+        targetX = playerStore.getX(mover) + deltaX;
+        targetY = playerStore.getY(mover) + deltaY;
+
+        if(!isInsideGrid(targetX, targetY))
+        {
+            return MOVE_REJECTED;
+        }
+        if(occupancyGrid.getOccupant(targetX, targetY) != OccupancyGrid.NO_PLAYER)
+        {
+            return MOVE_CONTESTED;
+        }
+
+        if(mark)
+        {
+            relocate(mover, targetX, targetY);
+        }
+        else
+        {
+            relocateUnmarked(mover, targetX, targetY);
+        }
+        playerStore.setLastMoveTimestampInNanoseconds(mover, now);
+        return NO_PUSHED_PLAYERS;
+    }
+
+    /*
+     * Indicates whether the delta leaves the mover in its own cell.
+     *
+     * @param deltaX the change in the x-coordinate.
+     * @param deltaY the change in the y-coordinate.
+     * @return true if both deltas are zero.
+     */
+    private static boolean isStandingStill(final int deltaX,
+                                           final int deltaY)
+    {
+        return deltaX == 0 && deltaY == 0;
+    }
+
+    /*
+     * Indicates whether the player in the given slot moved too recently to move again.
+     *
+     * @param player the slot of the player.
+     * @param now    the current time in nanoseconds.
+     * @return true if the move cooldown has not yet elapsed.
+     */
+    private boolean isCoolingDown(final int player,
+                                  final long now)
+    {
+        return now - playerStore.getLastMoveTimestampInNanoseconds(player) < MOVE_COOLDOWN_IN_NANOSECONDS;
+    }
+
+    /*
+     * Indicates whether the coordinates fall within the game grid.
+     *
+     * @param x the x-coordinate to check.
+     * @param y the y-coordinate to check.
+     * @return true if the coordinates address a cell of the grid.
+     */
+    private boolean isInsideGrid(final int x,
+                                 final int y)
+    {
+        return x >= 0 && x < occupancyGrid.getWidth() && y >= 0 && y < occupancyGrid.getHeight();
+    }
+
+    /*
+     * Moves the player in the given slot to a new cell and updates the occupancy grid accordingly.
+     *
+     * @param player the slot of the player to move.
+     * @param newX   the destination x-coordinate.
+     * @param newY   the destination y-coordinate.
+     */
+    private void relocate(final int player,
+                          final int newX,
+                          final int newY)
+    {
+        final int previousX;
+        final int previousY;
+
+        previousX = playerStore.getX(player);
+        previousY = playerStore.getY(player);
+
+        playerStore.setX(player, newX);
+        playerStore.setY(player, newY);
+        occupancyGrid.move(player, previousX, previousY);
+    }
+
+    /*
+     * Moves the player in the given slot to a new cell and updates the occupancy grid, without adding the player to
+     * the player store's moved set.
+     *
+     * @param player the slot of the player to move.
+     * @param newX   the destination x-coordinate.
+     * @param newY   the destination y-coordinate.
+     */
+    private void relocateUnmarked(final int player,
+                                  final int newX,
+                                  final int newY)
+    {
+        final int previousX;
+        final int previousY;
+
+        previousX = playerStore.getX(player);
+        previousY = playerStore.getY(player);
+
+        playerStore.setPositionUnmarked(player, newX, newY);
+        occupancyGrid.move(player, previousX, previousY);
+    }
+
+    /*
+     * Validates that neither the player store nor the occupancy grid is null.
+     *
+     * @param playerStore   the PlayerStore instance to validate.
+     * @param occupancyGrid the OccupancyGrid instance to validate.
+     * @throws IllegalArgumentException if either argument is null.
+     */
+    private static void validateArguments(final PlayerStore playerStore,
+                                          final OccupancyGrid occupancyGrid)
+    {
+        if(playerStore == null || occupancyGrid == null)
+        {
+            throw new IllegalArgumentException("PlayerStore and OccupancyGrid cannot be null.");
+        }
+    }
+}
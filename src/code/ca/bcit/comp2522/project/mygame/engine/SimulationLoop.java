@@ -0,0 +1,299 @@
+package ca.bcit.comp2522.project.mygame.engine;
+
+import ca.bcit.comp2522.project.mygame.audio.SoundEffects;
+import ca.bcit.comp2522.project.mygame.common.GameState;
+import ca.bcit.comp2522.project.mygame.common.MovementDirection;
+import ca.bcit.comp2522.project.mygame.entities.Player;
+import ca.bcit.comp2522.project.mygame.metrics.EngineMetrics;
+import ca.bcit.comp2522.project.mygame.replay.Replay;
+import ca.bcit.comp2522.project.mygame.replay.ReplayRecorder;
+
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a game session on a dedicated simulation thread, advancing it in fixed time steps independently of the screen.
+ * <p>
+ * Only the simulation thread ever touches the session's {@link GameLogic}. Other threads talk to it in two ways:
+ * <ul>
+ *   <li><b>Commands:</b> requests such as starting a round or moving the user are placed on a lock-free queue and
+ *       applied by the simulation thread at the start of its next step.</li>
+ *   <li><b>Snapshots:</b> after every step the simulation thread publishes an immutable {@link WorldSnapshot}
+ *       through an atomic reference. Readers, typically the renderer on the JavaFX Application Thread, always see the
+ *       latest complete snapshot without waiting for the simulation.</li>
+ * </ul>
+ * A slow frame therefore never holds up the game, and a heavy update never holds up input handling or painting.
+ * </p>
+ * <p>
+ * The simulation keeps its own game clock, advanced by exactly one step per update. Should the thread fall behind,
+ * for example because the machine is busy, it catches up on the missed steps, but never on more than
+ * {@link #MAXIMUM_CATCH_UP_IN_NANOSECONDS} worth of them at once. Delayed cosmetic effects of the game are run on
+ * the simulation thread between steps as well.
+ * </p>
+ * <p>
+ * Every round is seeded afresh and recorded as it is played. Once it is over, its {@link Replay} is available from
+ * {@link #getLastReplay()}, ready to be saved and played back with a
+ * {@link ca.bcit.comp2522.project.mygame.replay.ReplayPlayer}.
+ * </p>
+ * <p>
+ * The {@link EngineMetrics} of the session are enabled, so the latency of every phase of every step is recorded.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class SimulationLoop
+{
+    /**
+     * The longest stretch of missed time the simulation catches up on after falling behind.
+     */
+    public static final long MAXIMUM_CATCH_UP_IN_NANOSECONDS = 250_000_000L;
+
+    private static final String THREAD_NAME = "game-simulation";
+    private static final long MINIMUM_STEP_IN_NANOSECONDS = 1;
+
+    private final long stepInNanoseconds;
+    private final ManualGameClock clock;
+    private final GameSession<Player> session;
+    private final GameLogic<Player> gameLogic;
+    private final Queue<Runnable> commands;
+    private final AtomicReference<WorldSnapshot> latestSnapshot;
+    private final AtomicReference<Replay> lastReplay;
+    private final Thread thread;
+    private volatile boolean running;
+
+    // Owned by the simulation thread once it has started.
+    private GameState state;
+    private final Random seedSource;
+    private final ReplayRecorder recorder;
+
+    /**
+     * Constructs a {@code SimulationLoop} for a new game session that plays the given sound effects and advances in
+     * steps of the given length.
+     * <p>
+     * The session starts on the intro screen and is not updated until {@link #start()} is called.
+     * </p>
+     *
+     * @param soundEffects      the sound effects played during game events.
+     * @param stepInNanoseconds the game time that passes with every update.
+     * @throws IllegalArgumentException if {@code soundEffects} is null or {@code stepInNanoseconds} is not positive.
+     */
+    public SimulationLoop(final SoundEffects soundEffects,
+                          final long stepInNanoseconds)
+    {
+        validateStep(stepInNanoseconds);
+        this.stepInNanoseconds = stepInNanoseconds;
+        this.clock = new ManualGameClock(System.nanoTime());
+        this.session = GameSession.create(soundEffects, clock);
+        this.gameLogic = session.getGameLogic();
+        this.gameLogic.getMetrics().setEnabled(true);
+        this.commands = new ConcurrentLinkedQueue<>();
+        this.state = GameState.INTRO;
+        this.latestSnapshot = new AtomicReference<>(WorldSnapshot.capture(gameLogic, state, System.nanoTime()));
+        this.lastReplay = new AtomicReference<>();
+        this.seedSource = new Random();
+        this.recorder = new ReplayRecorder();
+        this.thread = new Thread(this::run, THREAD_NAME);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts updating the game on the simulation thread.
+     */
+    public void start()
+    {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops the simulation thread, waits for it to finish its current step and disposes of the game session.
+     */
+    public void stop()
+    {
+        running = false;
+        LockSupport.unpark(thread);
+        try
+        {
+            if(thread.isAlive() && Thread.currentThread() != thread)
+            {
+                thread.join();
+            }
+        }
+        catch(final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            session.dispose();
+        }
+    }
+
+    /**
+     * Requests a new round. The request is ignored if a round is already being played when it is applied.
+     */
+    public void submitStartRound()
+    {
+        commands.add(this::startRound);
+    }
+
+    /**
+     * Requests a voluntary move of the user in the given direction. The request is ignored if no round is being
+     * played when it is applied.
+     *
+     * @param direction the direction to move the user in.
+     * @throws IllegalArgumentException if {@code direction} is null.
+     */
+    public void submitUserMove(final MovementDirection direction)
+    {
+        if(direction == null)
+        {
+            throw new IllegalArgumentException("MovementDirection cannot be null.");
+        }
+        commands.add(() -> moveUser(direction));
+    }
+
+    /**
+     * Returns the snapshot published after the latest completed step.
+     *
+     * @return the latest snapshot; never null.
+     */
+    public WorldSnapshot getLatestSnapshot()
+    {
+        return latestSnapshot.get();
+    }
+
+    /**
+     * Returns the instrumentation of the session's game. It may be read from any thread.
+     *
+     * @return the metrics of the game.
+     */
+    public EngineMetrics getMetrics()
+    {
+        return gameLogic.getMetrics();
+    }
+
+    /**
+     * Returns the recording of the latest round that has ended.
+     *
+     * @return the replay of the last finished round, or null if no round has ended yet.
+     */
+    public Replay getLastReplay()
+    {
+        return lastReplay.get();
+    }
+
+    /**
+     * Returns the game time that passes with every update.
+     *
+     * @return the step length in nanoseconds.
+     */
+    public long getStepInNanoseconds()
+    {
+        return stepInNanoseconds;
+    }
+
+    /*
+     * The body of the simulation thread: runs every step that has become due, then sleeps until the next one.
+     */
+    private void run()
+    {
+        long nextStepTime;
+        nextStepTime = System.nanoTime();
+
+        while(running)
+        {
+            final long now;
+            now = System.nanoTime();
+
+            if(now - nextStepTime > MAXIMUM_CATCH_UP_IN_NANOSECONDS)
+            {
+                nextStepTime = now - MAXIMUM_CATCH_UP_IN_NANOSECONDS;
+            }
+            while(running && nextStepTime <= now)
+            {
+                step();
+                nextStepTime += stepInNanoseconds;
+            }
+
+            LockSupport.parkNanos(this, nextStepTime - System.nanoTime());
+        }
+    }
+
+    /*
+     * Applies pending commands, advances game time by one step, updates the game and publishes a new snapshot.
+     */
+    private void step()
+    {
+        Runnable command;
+        while((command = commands.poll()) != null)
+        {
+            command.run();
+        }
+
+        final long stepTime;
+        stepTime = clock.advance(stepInNanoseconds);
+        gameLogic.runDueEffects(stepTime);
+
+        if(state == GameState.GAME)
+        {
+            gameLogic.updateGame(stepTime);
+            recorder.recordStep();
+            if(gameLogic.isGameOver())
+            {
+                state = GameState.GAME_OVER;
+                lastReplay.set(recorder.finish());
+            }
+        }
+
+        latestSnapshot.set(WorldSnapshot.capture(gameLogic, state, System.nanoTime()));
+    }
+
+    /*
+     * Starts a new round under a fresh seed and begins recording it, unless a round is already being played.
+     */
+    private void startRound()
+    {
+        if(state != GameState.GAME)
+        {
+            final long roundSeed;
+            roundSeed = seedSource.nextLong();
+            gameLogic.reseed(roundSeed);
+            gameLogic.initGame();
+            recorder.begin(gameLogic, roundSeed, stepInNanoseconds);
+            state = GameState.GAME;
+        }
+    }
+
+    /*
+     * Moves the user in the given direction if a round is being played.
+     *
+     * @param direction the direction to move the user in.
+     */
+    private void moveUser(final MovementDirection direction)
+    {
+        if(state == GameState.GAME && !gameLogic.isGameOver())
+        {
+            recorder.recordUserMove(direction);
+            gameLogic.tryMoveWithPush(gameLogic.getUser(), direction.getDeltaX(), direction.getDeltaY(), true);
+        }
+    }
+
+    /*
+     * Validates that the step length is positive.
+     *
+     * @param stepInNanoseconds the step length to validate.
+     * @throws IllegalArgumentException if the step length is not positive.
+     */
+    private static void validateStep(final long stepInNanoseconds)
+    {
+        if(stepInNanoseconds < MINIMUM_STEP_IN_NANOSECONDS)
+        {
+            throw new IllegalArgumentException("Step length must be positive. Provided: " + stepInNanoseconds);
+        }
+    }
+}
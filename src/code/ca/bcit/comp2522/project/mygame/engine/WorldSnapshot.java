@@ -0,0 +1,332 @@
+package ca.bcit.comp2522.project.mygame.engine;
+
+import ca.bcit.comp2522.project.mygame.common.GameState;
+import ca.bcit.comp2522.project.mygame.entities.Player;
+import ca.bcit.comp2522.project.mygame.entities.PlayerStore;
+
+/**
+ * An immutable picture of a game at the end of one game update, containing everything needed to draw it.
+ * <p>
+ * The game logic is only ever touched by the thread that updates it. To show the game on another thread, the
+ * updating thread captures a {@code WorldSnapshot} after every update and publishes it; since a snapshot never
+ * changes after it has been built, the drawing thread can read it without any locking while the game moves on.
+ * </p>
+ * <p>
+ * Players are identified by their slot index, exactly as in the {@link PlayerStore} the snapshot was taken from.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public final class WorldSnapshot
+{
+    private static final byte NO_FLAGS = 0;
+    private static final byte USER_FLAG = 1;
+    private static final byte ELIMINATED_FLAG = 1 << 1;
+    private static final byte FINISHED_FLAG = 1 << 2;
+    private static final byte PUSHING_FLAG = 1 << 3;
+    private static final byte PUSHED_FLAG = 1 << 4;
+    private static final int NO_PLAYERS = 0;
+
+    private final GameState state;
+    private final long capturedAtInNanoseconds;
+    private final long elapsedInNanoseconds;
+    private final boolean green;
+    private final boolean gameOver;
+    private final boolean userEliminated;
+    private final int finishedCount;
+    private final int eliminatedCount;
+    private final int[] x;
+    private final int[] y;
+    private final int[] stepStartX;
+    private final int[] stepStartY;
+    private final byte[] flags;
+
+    /*
+     * Private constructor that copies the state of the given game.
+     *
+     * @param gameLogic               the game to copy.
+     * @param state                   the screen the game is showing.
+     * @param capturedAtInNanoseconds the system time at which the snapshot is taken.
+     */
+    private WorldSnapshot(final GameLogic<?> gameLogic,
+                          final GameState state,
+                          final long capturedAtInNanoseconds)
+    {
+        final PlayerStore store;
+        final int size;
+
+        store = gameLogic.getPlayerStore();
+        size = store == null ? NO_PLAYERS : store.size();
+
+        this.state = state;
+        this.capturedAtInNanoseconds = capturedAtInNanoseconds;
+        this.elapsedInNanoseconds = gameLogic.getClock().nanoTime() - gameLogic.getGameStartTimeInNanoseconds();
+        this.green = gameLogic.isGreen();
+        this.gameOver = gameLogic.isGameOver();
+        this.finishedCount = gameLogic.getFinishedCount();
+        this.x = new int[size];
+        this.y = new int[size];
+        this.stepStartX = new int[size];
+        this.stepStartY = new int[size];
+        this.flags = new byte[size];
+
+        for(int index = 0; index < size; index++)
+        {
+            x[index] = store.getX(index);
+            y[index] = store.getY(index);
+            stepStartX[index] = store.getStepStartX(index);
+            stepStartY[index] = store.getStepStartY(index);
+            flags[index] = packFlags(store, index);
+        }
+        this.eliminatedCount = gameLogic.getEliminatedCount();
+        this.userEliminated = gameLogic.getUser() != null && gameLogic.getUser().isEliminated();
+    }
+
+    /**
+     * Captures the current state of the given game.
+     * <p>
+     * This method must be called by the thread that updates the game. A game that has not been initialized yet is
+     * captured without any players.
+     * </p>
+     *
+     * @param gameLogic               the game to capture.
+     * @param state                   the screen the game is showing.
+     * @param capturedAtInNanoseconds the system time at which the snapshot is taken, as given by
+     *                                {@link System#nanoTime()}.
+     * @return the new snapshot.
+     * @throws IllegalArgumentException if {@code gameLogic} or {@code state} is null.
+     */
+    public static WorldSnapshot capture(final GameLogic<? extends Player> gameLogic,
+                                        final GameState state,
+                                        final long capturedAtInNanoseconds)
+    {
+        if(gameLogic == null || state == null)
+        {
+            throw new IllegalArgumentException("GameLogic and GameState cannot be null.");
+        }
+        return new WorldSnapshot(gameLogic, state, capturedAtInNanoseconds);
+    }
+
+    /**
+     * Returns the screen the game was showing.
+     *
+     * @return the game state.
+     */
+    public GameState getState()
+    {
+        return state;
+    }
+
+    /**
+     * Returns the system time at which this snapshot was taken.
+     *
+     * @return the capture time in nanoseconds.
+     */
+    public long getCapturedAtInNanoseconds()
+    {
+        return capturedAtInNanoseconds;
+    }
+
+    /**
+     * Returns the game time that had passed since the round started.
+     *
+     * @return the elapsed game time in nanoseconds.
+     */
+    public long getElapsedInNanoseconds()
+    {
+        return elapsedInNanoseconds;
+    }
+
+    /**
+     * Indicates whether the light was green.
+     *
+     * @return {@code true} if the light was green; {@code false} otherwise.
+     */
+    public boolean isGreen()
+    {
+        return green;
+    }
+
+    /**
+     * Indicates whether the round was over.
+     *
+     * @return {@code true} if the round was over; {@code false} otherwise.
+     */
+    public boolean isGameOver()
+    {
+        return gameOver;
+    }
+
+    /**
+     * Indicates whether the user had been eliminated.
+     *
+     * @return {@code true} if the user was eliminated; {@code false} otherwise.
+     */
+    public boolean isUserEliminated()
+    {
+        return userEliminated;
+    }
+
+    /**
+     * Returns the number of players that had finished.
+     *
+     * @return the finished players count.
+     */
+    public int getFinishedCount()
+    {
+        return finishedCount;
+    }
+
+    /**
+     * Returns the number of players that had been eliminated.
+     *
+     * @return the eliminated players count.
+     */
+    public int getEliminatedCount()
+    {
+        return eliminatedCount;
+    }
+
+    /**
+     * Returns the number of players in the snapshot.
+     *
+     * @return the number of players.
+     */
+    public int size()
+    {
+        return flags.length;
+    }
+
+    /**
+     * Returns the x-coordinate of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @return the x-coordinate.
+     */
+    public int getX(final int index)
+    {
+        return x[index];
+    }
+
+    /**
+     * Returns the y-coordinate of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @return the y-coordinate.
+     */
+    public int getY(final int index)
+    {
+        return y[index];
+    }
+
+    /**
+     * Returns the x-coordinate the player in the given slot held when the update started.
+     *
+     * @param index the slot of the player.
+     * @return the x-coordinate at the start of the update.
+     */
+    public int getStepStartX(final int index)
+    {
+        return stepStartX[index];
+    }
+
+    /**
+     * Returns the y-coordinate the player in the given slot held when the update started.
+     *
+     * @param index the slot of the player.
+     * @return the y-coordinate at the start of the update.
+     */
+    public int getStepStartY(final int index)
+    {
+        return stepStartY[index];
+    }
+
+    /**
+     * Indicates whether the player in the given slot is the user.
+     *
+     * @param index the slot of the player.
+     * @return {@code true} if the player is the user; {@code false} otherwise.
+     */
+    public boolean isUser(final int index)
+    {
+        return hasFlag(index, USER_FLAG);
+    }
+
+    /**
+     * Indicates whether the player in the given slot had been eliminated.
+     *
+     * @param index the slot of the player.
+     * @return {@code true} if the player was eliminated; {@code false} otherwise.
+     */
+    public boolean isEliminated(final int index)
+    {
+        return hasFlag(index, ELIMINATED_FLAG);
+    }
+
+    /**
+     * Indicates whether the player in the given slot had finished.
+     *
+     * @param index the slot of the player.
+     * @return {@code true} if the player had finished; {@code false} otherwise.
+     */
+    public boolean isFinished(final int index)
+    {
+        return hasFlag(index, FINISHED_FLAG);
+    }
+
+    /**
+     * Indicates whether the player in the given slot was pushing.
+     *
+     * @param index the slot of the player.
+     * @return {@code true} if the player was pushing; {@code false} otherwise.
+     */
+    public boolean isPushing(final int index)
+    {
+        return hasFlag(index, PUSHING_FLAG);
+    }
+
+    /**
+     * Indicates whether the player in the given slot was being pushed.
+     *
+     * @param index the slot of the player.
+     * @return {@code true} if the player was being pushed; {@code false} otherwise.
+     */
+    public boolean isPushed(final int index)
+    {
+        return hasFlag(index, PUSHED_FLAG);
+    }
+
+    /*
+     * Tests a single flag of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @param flag  the flag to test.
+     * @return true if the flag is set.
+     */
+    private boolean hasFlag(final int index,
+                            final byte flag)
+    {
+        return (flags[index] & flag) != NO_FLAGS;
+    }
+
+    /*
+     * Packs the status of the player in the given slot into a single byte.
+     *
+     * @param store the store holding the player.
+     * @param index the slot of the player.
+     * @return the packed flags.
+     */
+    private static byte packFlags(final PlayerStore store,
+                                  final int index)
+    {
+        int packed;
+        packed = NO_FLAGS;
+        packed |= store.isUser(index) ? USER_FLAG : NO_FLAGS;
+        packed |= store.isEliminated(index) ? ELIMINATED_FLAG : NO_FLAGS;
+        packed |= store.isFinished(index) ? FINISHED_FLAG : NO_FLAGS;
+        packed |= store.isPushing(index) ? PUSHING_FLAG : NO_FLAGS;
+        packed |= store.isPushed(index) ? PUSHED_FLAG : NO_FLAGS;
+        return (byte) packed;
+    }
+}
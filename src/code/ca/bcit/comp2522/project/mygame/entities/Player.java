@@ -13,6 +13,12 @@ package ca.bcit.comp2522.project.mygame.entities;
  * when it was eliminated, aiding in enforcing cooldowns and determining the order of events.
  * </p>
  * <p>
+ * A {@code Player} does not hold this state in its own fields. It is a lightweight handle onto one slot of a
+ * {@link PlayerStore}, which keeps the state of a whole population in parallel primitive arrays. Players created
+ * through {@link PlayerStore#addPlayer(int, int)} share their store with the rest of the crowd, while a player built
+ * directly with the public constructor gets a private single-slot store of its own.
+ * </p>
+ * <p>
  * This class is designed for grid-based gameplay environments where valid coordinates must be non-negative.
  * To ensure robustness, the constructor validates that the provided initial coordinates meet this requirement.
  * Once constructed, a {@code Player} is initialized with the following default state:
@@ -29,24 +35,18 @@ package ca.bcit.comp2522.project.mygame.entities;
  */
 public class Player
 {
-    private int x;
-    private int y;
-    private int prevX;
-    private int prevY;
-    private boolean user;
-    private boolean eliminated;
-    private boolean finished; // This indicates whether the player finished the game by reaching finish line.
-    private boolean pushing = false;  // This indicates that this player is currently pushing.
-    private boolean pushed = false;   // This indicates that this player is currently being pushed down.
-    private long deathTimestampInNanoseconds = 0;
-    private long lastMoveTimestampInNanoseconds = 0;
+    private static final int SINGLE_PLAYER_CAPACITY = 1;
+
+    private final PlayerStore store;  // The store holding this player's state.
+    private final int index;          // The slot of this player within the store.
 
     /**
      * Constructs a new {@code Player} with the specified starting coordinates.
      * <p>
      * The coordinates ({@code x}, {@code y}) represent the initial position of the player within the game grid.
-     * This constructor validates that both coordinates are non-negative by invoking an internal helper method.
-     * Upon successful validation, the player's current and previous positions are initialized to these values.
+     * This constructor reserves the only slot of a private single-slot {@link PlayerStore}, which validates that both
+     * coordinates are non-negative. Upon successful validation, the player's current and previous positions are
+     * initialized to these values.
      * Moreover, the player's control and status flags (including {@code isUser}, {@code isEliminated}, and
      * {@code finished}) are initialized to {@code false}, indicating that the player is active and has not yet been
      * assigned a specialized role.
@@ -59,14 +59,43 @@ public class Player
     public Player(final int x,
                   final int y)
     {
-        validateCoordinates(x, y);
-        this.x = x;
-        this.y = y;
-        this.prevX = x;
-        this.prevY = y;
-        this.user = false;
-        this.eliminated = false;
-        this.finished = false;
+        this.store = new PlayerStore(SINGLE_PLAYER_CAPACITY);
+        this.index = store.addSlot(x, y);
+        store.bindHandle(index, this);
+    }
+
+    /*
+     * Constructs a handle onto an existing slot of a player store.
+     *
+     * @param store the store holding the player's state.
+     * @param index the slot of the player within the store.
+     */
+    Player(final PlayerStore store,
+           final int index)
+    {
+        this.store = store;
+        this.index = index;
+    }
+
+    /**
+     * Returns the slot of this player within its {@link PlayerStore}.
+     *
+     * @return the slot index.
+     */
+    public int getIndex()
+    {
+        return index;
+    }
+
+    /**
+     * Indicates whether this player's state is held by the given store.
+     *
+     * @param playerStore the store to check.
+     * @return {@code true} if this player is a handle onto a slot of {@code playerStore}; {@code false} otherwise.
+     */
+    public boolean isBackedBy(final PlayerStore playerStore)
+    {
+        return store == playerStore;
     }
 
     /**
@@ -76,7 +105,7 @@ public class Player
      */
     public int getX()
     {
-        return x;
+        return store.getX(index);
     }
 
     /**
@@ -86,7 +115,7 @@ public class Player
      */
     public int getY()
     {
-        return y;
+        return store.getY(index);
     }
 
     /**
@@ -96,7 +125,7 @@ public class Player
      */
     public int getPrevX()
     {
-        return prevX;
+        return store.getPrevX(index);
     }
 
     /**
@@ -106,7 +135,7 @@ public class Player
      */
     public int getPrevY()
     {
-        return prevY;
+        return store.getPrevY(index);
     }
 
     /**
@@ -116,7 +145,7 @@ public class Player
      */
     public boolean isPushing()
     {
-        return pushing;
+        return store.isPushing(index);
     }
 
     /**
@@ -126,7 +155,7 @@ public class Player
      */
     public boolean isPushed()
     {
-        return pushed;
+        return store.isPushed(index);
     }
 
     /**
@@ -136,7 +165,7 @@ public class Player
      */
     public long getDeathTimestampInNanoseconds()
     {
-        return deathTimestampInNanoseconds;
+        return store.getDeathTimestampInNanoseconds(index);
     }
 
     /**
@@ -146,7 +175,7 @@ public class Player
      */
     public long getLastMoveTimestampInNanoseconds()
     {
-        return lastMoveTimestampInNanoseconds;
+        return store.getLastMoveTimestampInNanoseconds(index);
     }
 
     /**
@@ -156,7 +185,7 @@ public class Player
      */
     public boolean isUser()
     {
-        return user;
+        return store.isUser(index);
     }
 
     /**
@@ -166,7 +195,7 @@ public class Player
      */
     public boolean isEliminated()
     {
-        return eliminated;
+        return store.isEliminated(index);
     }
 
     /**
@@ -176,27 +205,35 @@ public class Player
      */
     public boolean isFinished()
     {
-        return finished;
+        return store.isFinished(index);
     }
 
     /**
      * Sets the current x-coordinate of the player.
+     * <p>
+     * The move is reported to the {@link PlayerMoveListener} of the player's store, so the game's occupancy grid
+     * follows it.
+     * </p>
      *
      * @param x the new x-coordinate.
      */
     public void setX(final int x)
     {
-        this.x = x;
+        store.moveTo(index, x, store.getY(index));
     }
 
     /**
      * Sets the current y-coordinate of the player.
+     * <p>
+     * The move is reported to the {@link PlayerMoveListener} of the player's store, so the game's occupancy grid
+     * follows it.
+     * </p>
      *
      * @param y the new y-coordinate.
      */
     public void setY(final int y)
     {
-        this.y = y;
+        store.moveTo(index, store.getX(index), y);
     }
 
     /**
@@ -206,7 +243,7 @@ public class Player
      */
     public void setPrevX(final int prevX)
     {
-        this.prevX = prevX;
+        store.setPrevX(index, prevX);
     }
 
     /**
@@ -216,7 +253,7 @@ public class Player
      */
     public void setPrevY(final int prevY)
     {
-        this.prevY = prevY;
+        store.setPrevY(index, prevY);
     }
 
     /**
@@ -226,7 +263,7 @@ public class Player
      */
     public void setPushing(final boolean pushing)
     {
-        this.pushing = pushing;
+        store.setPushing(index, pushing);
     }
 
     /**
@@ -236,7 +273,7 @@ public class Player
      */
     public void setPushed(final boolean pushed)
     {
-        this.pushed = pushed;
+        store.setPushed(index, pushed);
     }
 
     /**
@@ -246,7 +283,7 @@ public class Player
      */
     public void setDeathTimeStamp(final long deathTimestamp)
     {
-        this.deathTimestampInNanoseconds = deathTimestamp;
+        store.setDeathTimestampInNanoseconds(index, deathTimestamp);
     }
 
     /**
@@ -256,7 +293,7 @@ public class Player
      */
     public void setLastMoveTimestampInNanoseconds(final long lastMoveTime)
     {
-        this.lastMoveTimestampInNanoseconds = lastMoveTime;
+        store.setLastMoveTimestampInNanoseconds(index, lastMoveTime);
     }
 
     /**
@@ -266,42 +303,34 @@ public class Player
      */
     public void setUser(final boolean user)
     {
-        this.user = user;
+        store.setUser(index, user);
     }
 
     /**
      * Sets the eliminated status of the player.
+     * <p>
+     * The change is reported to the {@link PlayerStatusListener} of the player's store, so the game's live counts
+     * and occupancy grid follow it.
+     * </p>
      *
      * @param eliminated {@code true} if the player should be marked as eliminated; {@code false} otherwise.
      */
     public void setEliminated(final boolean eliminated)
     {
-        this.eliminated = eliminated;
+        store.changeEliminated(index, eliminated);
     }
 
     /**
      * Sets the finished status of the player.
+     * <p>
+     * The change is reported to the {@link PlayerStatusListener} of the player's store, so the game's live counts
+     * and occupancy grid follow it.
+     * </p>
      *
      * @param finished {@code true} if the player has finished the game; {@code false} otherwise.
      */
     public void setFinished(final boolean finished)
     {
-        this.finished = finished;
-    }
-
-    /*
-     * Validates that the provided coordinates are non-negative.
-     *
-     * @param x the x-coordinate to validate
-     * @param y the y-coordinate to validate
-     * @throws IllegalArgumentException if either coordinate is negative
-     */
-    private static void validateCoordinates(final int x,
-                                            final int y)
-    {
-        if(x < 0 || y < 0)
-        {
-            throw new IllegalArgumentException("Coordinates must be non-negative. Provided x: " + x + ", y: " + y);
-        }
+        store.changeFinished(index, finished);
     }
 }
@@ -0,0 +1,28 @@
+package ca.bcit.comp2522.project.mygame.entities;
+
+/**
+ * Receives the moves made through the {@link Player} handles of a {@link PlayerStore}.
+ * <p>
+ * Indexes built over a store, such as the occupancy grid of the game engine, register themselves with
+ * {@link PlayerStore#setMoveListener(PlayerMoveListener)} so that a position changed through a handle's setters is
+ * reflected in the index at once instead of leaving a stale entry behind. The engine's own moves write the store
+ * directly and keep its indexes in sync itself, so they are not reported here.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public interface PlayerMoveListener
+{
+    /**
+     * Called after the player in the given slot has been moved away from the given cell. The player's new position
+     * can be read from the store.
+     *
+     * @param player the slot of the player that moved.
+     * @param fromX  the x-coordinate the player moved away from.
+     * @param fromY  the y-coordinate the player moved away from.
+     */
+    void playerMoved(int player,
+                     int fromX,
+                     int fromY);
+}
@@ -0,0 +1,29 @@
+package ca.bcit.comp2522.project.mygame.entities;
+
+/**
+ * Receives the status changes made through the {@link Player} handles of a {@link PlayerStore}.
+ * <p>
+ * The game engine registers itself with {@link PlayerStore#setStatusListener(PlayerStatusListener)} so that a player
+ * eliminated or finished through a handle's setters leaves its live counts and occupancy grid just as one eliminated
+ * or finished by the engine does. The engine's own status changes write the store directly and keep its counts in
+ * sync itself, so they are not reported here.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public interface PlayerStatusListener
+{
+    /**
+     * Called after the eliminated or finished status of the player in the given slot has changed. The player's new
+     * status can be read from the store.
+     *
+     * @param player        the slot of the player whose status changed.
+     * @param wasEliminated {@code true} if the player was eliminated before the change.
+     * @param wasOnField    {@code true} if the player was on the field, neither eliminated nor finished, before the
+     *                      change.
+     */
+    void playerStatusChanged(int player,
+                             boolean wasEliminated,
+                             boolean wasOnField);
+}
@@ -0,0 +1,781 @@
+package ca.bcit.comp2522.project.mygame.entities;
+
+/**
+ * A structure-of-arrays store that holds the state of a whole population of players in primitive arrays.
+ * <p>
+ * Instead of keeping every player in its own heap object, the store lays the state of all players out in parallel
+ * arrays indexed by a player's slot number:
+ * <ul>
+ *   <li>{@code int[]} arrays for the current and previous x- and y-coordinates, and for the position each player
+ *       held when the latest game update started.</li>
+ *   <li>A {@code byte[]} of packed status flags (user, eliminated, finished, pushing and pushed).</li>
+ *   <li>{@code long[]} arrays for the last-move and death timestamps in nanoseconds.</li>
+ *   <li>Two dirty sets, kept as {@code int[]} lists of slots, of the players whose position has been written since
+ *       the previous positions were last synced and since the last step started.</li>
+ * </ul>
+ * Game loops can therefore walk a crowd of players sequentially through contiguous memory without chasing a pointer
+ * per player or allocating anything. Each slot is paired with exactly one lightweight {@link Player} handle, which
+ * exposes the familiar object-style API on top of the arrays for code that prefers to work with individual players.
+ * </p>
+ * <p>
+ * Moves made through a handle are reported to the store's {@link PlayerMoveListener}, if one is set, so that an index
+ * built over the store stays in sync with them. Status changes made through a handle are likewise reported to its
+ * {@link PlayerStatusListener}, so that counts kept over the store stay in sync with them.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class PlayerStore
+{
+    private static final int MINIMUM_CAPACITY = 1;
+    private static final byte NO_FLAGS = 0;
+    private static final byte USER_FLAG = 1;
+    private static final byte ELIMINATED_FLAG = 1 << 1;
+    private static final byte FINISHED_FLAG = 1 << 2;
+    private static final byte PUSHING_FLAG = 1 << 3;
+    private static final byte PUSHED_FLAG = 1 << 4;
+    private static final byte OFF_FIELD_FLAGS = ELIMINATED_FLAG | FINISHED_FLAG;
+    private static final byte MOVED_SINCE_SYNC_MARK = 1;
+    private static final byte MOVED_SINCE_STEP_START_MARK = 1 << 1;
+    private static final byte MOVED_MARKS = MOVED_SINCE_SYNC_MARK | MOVED_SINCE_STEP_START_MARK;
+
+    private final int[] x;
+    private final int[] y;
+    private final int[] prevX;
+    private final int[] prevY;
+    private final int[] stepStartX;
+    private final int[] stepStartY;
+    private final byte[] status;
+    private final long[] lastMoveTimestampsInNanoseconds;
+    private final long[] deathTimestampsInNanoseconds;
+    private final Player[] handles;
+    private int size;
+    private PlayerMoveListener moveListener;  // Null until an index registers itself.
+    private PlayerStatusListener statusListener;  // Null until a game registers itself.
+
+    // Dirty sets: which of the two lists below each slot is currently listed in, as packed marks.
+    private final byte[] movedMarks;
+
+    // Slots whose current or previous position has been written since the last syncPreviousPositions call.
+    private final int[] movedSinceSync;
+    private int movedSinceSyncCount;
+
+    // Slots whose current position has been written since the last markStepStart call.
+    private final int[] movedSinceStepStart;
+    private int movedSinceStepStartCount;
+
+    /**
+     * Constructs an empty {@code PlayerStore} able to hold up to {@code capacity} players.
+     *
+     * @param capacity the maximum number of players; must be positive.
+     * @throws IllegalArgumentException if {@code capacity} is not positive.
+     */
+    public PlayerStore(final int capacity)
+    {
+        validateCapacity(capacity);
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+        this.prevX = new int[capacity];
+        this.prevY = new int[capacity];
+        this.stepStartX = new int[capacity];
+        this.stepStartY = new int[capacity];
+        this.status = new byte[capacity];
+        this.lastMoveTimestampsInNanoseconds = new long[capacity];
+        this.deathTimestampsInNanoseconds = new long[capacity];
+        this.handles = new Player[capacity];
+        this.movedMarks = new byte[capacity];
+        this.movedSinceSync = new int[capacity];
+        this.movedSinceStepStart = new int[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Adds a new player at the given coordinates and returns its handle.
+     * <p>
+     * The new player starts with its previous and step-start positions equal to its current position, no status
+     * flags set and both
+     * timestamps at zero, just like a freshly constructed {@link Player}.
+     * </p>
+     *
+     * @param x the starting x-coordinate; must be non-negative.
+     * @param y the starting y-coordinate; must be non-negative.
+     * @return the handle of the newly added player.
+     * @throws IllegalArgumentException if either coordinate is negative.
+     * @throws IllegalStateException    if the store is already full.
+     */
+    public Player addPlayer(final int x,
+                            final int y)
+    {
+        final int index;
+        index = addSlot(x, y);
+        handles[index] = new Player(this, index);
+        return handles[index];
+    }
+
+    /**
+     * Returns the handle of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @return the player handle.
+     */
+    public Player getPlayer(final int index)
+    {
+        return handles[index];
+    }
+
+    /**
+     * Returns the number of players currently held.
+     *
+     * @return the number of players.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of players this store can hold.
+     *
+     * @return the capacity.
+     */
+    public int capacity()
+    {
+        return handles.length;
+    }
+
+    /**
+     * Returns the current x-coordinate of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @return the current x-coordinate.
+     */
+    public int getX(final int index)
+    {
+        return x[index];
+    }
+
+    /**
+     * Returns the current y-coordinate of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @return the current y-coordinate.
+     */
+    public int getY(final int index)
+    {
+        return y[index];
+    }
+
+    /**
+     * Returns the previous x-coordinate of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @return the previous x-coordinate.
+     */
+    public int getPrevX(final int index)
+    {
+        return prevX[index];
+    }
+
+    /**
+     * Returns the previous y-coordinate of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @return the previous y-coordinate.
+     */
+    public int getPrevY(final int index)
+    {
+        return prevY[index];
+    }
+
+    /**
+     * Returns the x-coordinate the player in the given slot held when the latest game update started.
+     * <p>
+     * Together with the current x-coordinate, this lets a renderer interpolate a player's position between two
+     * game updates.
+     * </p>
+     *
+     * @param index the slot of the player.
+     * @return the x-coordinate at the start of the latest update.
+     */
+    public int getStepStartX(final int index)
+    {
+        return stepStartX[index];
+    }
+
+    /**
+     * Returns the y-coordinate the player in the given slot held when the latest game update started.
+     *
+     * @param index the slot of the player.
+     * @return the y-coordinate at the start of the latest update.
+     */
+    public int getStepStartY(final int index)
+    {
+        return stepStartY[index];
+    }
+
+    /**
+     * Sets the current x-coordinate of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @param value the new x-coordinate.
+     */
+    public void setX(final int index,
+                     final int value)
+    {
+        x[index] = value;
+        markMoved(index, MOVED_MARKS);
+    }
+
+    /**
+     * Sets the current y-coordinate of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @param value the new y-coordinate.
+     */
+    public void setY(final int index,
+                     final int value)
+    {
+        y[index] = value;
+        markMoved(index, MOVED_MARKS);
+    }
+
+    /**
+     * Moves the player in the given slot to the given position, adds it to the moved set and reports the move to the
+     * move listener, if one is set.
+     * <p>
+     * This is how a {@link Player} handle changes its position. The engine writes positions with
+     * {@link #setX(int, int)} and {@link #setY(int, int)} instead, and updates its own indexes.
+     * </p>
+     *
+     * @param index the slot of the player.
+     * @param x     the new x-coordinate.
+     * @param y     the new y-coordinate.
+     */
+    public void moveTo(final int index,
+                       final int x,
+                       final int y)
+    {
+        final int fromX;
+        final int fromY;
+
+        fromX = this.x[index];
+        fromY = this.y[index];
+        this.x[index] = x;
+        this.y[index] = y;
+        markMoved(index, MOVED_MARKS);
+        if(moveListener != null)
+        {
+            moveListener.playerMoved(index, fromX, fromY);
+        }
+    }
+
+    /**
+     * Sets the listener told about every move made through {@link #moveTo(int, int, int)}.
+     *
+     * @param moveListener the listener, or null to report moves to nobody.
+     */
+    public void setMoveListener(final PlayerMoveListener moveListener)
+    {
+        this.moveListener = moveListener;
+    }
+
+    /**
+     * Sets the current position of the player in the given slot without adding it to the moved set.
+     * <p>
+     * This lets players in different slots be moved from several threads at once, which the shared moved set does
+     * not allow. The caller must afterwards report every player it moved with {@link #markMoved(int)}, from a single
+     * thread and in a deterministic order, before the moved set is read.
+     * </p>
+     *
+     * @param index the slot of the player.
+     * @param x     the new x-coordinate.
+     * @param y     the new y-coordinate.
+     */
+    public void setPositionUnmarked(final int index,
+                                    final int x,
+                                    final int y)
+    {
+        this.x[index] = x;
+        this.y[index] = y;
+    }
+
+    /**
+     * Adds the player in the given slot to the moved set, exactly as changing its position through
+     * {@link #setX(int, int)} or {@link #setY(int, int)} would. Adding a player that is already listed has no effect.
+     *
+     * @param index the slot of the player.
+     */
+    public void markMoved(final int index)
+    {
+        markMoved(index, MOVED_MARKS);
+    }
+
+    /**
+     * Sets the previous x-coordinate of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @param value the new previous x-coordinate.
+     */
+    public void setPrevX(final int index,
+                         final int value)
+    {
+        prevX[index] = value;
+        markMoved(index, MOVED_SINCE_SYNC_MARK);
+    }
+
+    /**
+     * Sets the previous y-coordinate of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @param value the new previous y-coordinate.
+     */
+    public void setPrevY(final int index,
+                         final int value)
+    {
+        prevY[index] = value;
+        markMoved(index, MOVED_SINCE_SYNC_MARK);
+    }
+
+    /**
+     * Indicates whether the player in the given slot is controlled by the user.
+     *
+     * @param index the slot of the player.
+     * @return {@code true} if the player is the user; {@code false} otherwise.
+     */
+    public boolean isUser(final int index)
+    {
+        return hasFlag(index, USER_FLAG);
+    }
+
+    /**
+     * Indicates whether the player in the given slot has been eliminated.
+     *
+     * @param index the slot of the player.
+     * @return {@code true} if the player is eliminated; {@code false} otherwise.
+     */
+    public boolean isEliminated(final int index)
+    {
+        return hasFlag(index, ELIMINATED_FLAG);
+    }
+
+    /**
+     * Indicates whether the player in the given slot has finished the game.
+     *
+     * @param index the slot of the player.
+     * @return {@code true} if the player has finished; {@code false} otherwise.
+     */
+    public boolean isFinished(final int index)
+    {
+        return hasFlag(index, FINISHED_FLAG);
+    }
+
+    /**
+     * Indicates whether the player in the given slot is still on the field, that is, neither eliminated nor finished.
+     * <p>
+     * Both flags are tested with a single read of the packed status byte.
+     * </p>
+     *
+     * @param index the slot of the player.
+     * @return {@code true} if the player is still playing; {@code false} otherwise.
+     */
+    public boolean isOnField(final int index)
+    {
+        return (status[index] & OFF_FIELD_FLAGS) == NO_FLAGS;
+    }
+
+    /**
+     * Indicates whether the player in the given slot is currently pushing.
+     *
+     * @param index the slot of the player.
+     * @return {@code true} if the player is pushing; {@code false} otherwise.
+     */
+    public boolean isPushing(final int index)
+    {
+        return hasFlag(index, PUSHING_FLAG);
+    }
+
+    /**
+     * Indicates whether the player in the given slot is currently being pushed.
+     *
+     * @param index the slot of the player.
+     * @return {@code true} if the player is being pushed; {@code false} otherwise.
+     */
+    public boolean isPushed(final int index)
+    {
+        return hasFlag(index, PUSHED_FLAG);
+    }
+
+    /**
+     * Sets whether the player in the given slot is controlled by the user.
+     *
+     * @param index the slot of the player.
+     * @param value {@code true} if the player is the user; {@code false} otherwise.
+     */
+    public void setUser(final int index,
+                        final boolean value)
+    {
+        setFlag(index, USER_FLAG, value);
+    }
+
+    /**
+     * Sets the eliminated status of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @param value {@code true} if the player is eliminated; {@code false} otherwise.
+     */
+    public void setEliminated(final int index,
+                              final boolean value)
+    {
+        setFlag(index, ELIMINATED_FLAG, value);
+    }
+
+    /**
+     * Sets the finished status of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @param value {@code true} if the player has finished; {@code false} otherwise.
+     */
+    public void setFinished(final int index,
+                            final boolean value)
+    {
+        setFlag(index, FINISHED_FLAG, value);
+    }
+
+    /**
+     * Sets the eliminated status of the player in the given slot and reports a change to the status listener, if one
+     * is set.
+     * <p>
+     * This is how a {@link Player} handle changes its status. The engine writes statuses with
+     * {@link #setEliminated(int, boolean)} instead, and updates its own counts.
+     * </p>
+     *
+     * @param index the slot of the player.
+     * @param value {@code true} if the player is eliminated; {@code false} otherwise.
+     */
+    public void changeEliminated(final int index,
+                                 final boolean value)
+    {
+        changeStatus(index, ELIMINATED_FLAG, value);
+    }
+
+    /**
+     * Sets the finished status of the player in the given slot and reports a change to the status listener, if one
+     * is set.
+     * <p>
+     * This is how a {@link Player} handle changes its status. The engine writes statuses with
+     * {@link #setFinished(int, boolean)} instead, and updates its own counts.
+     * </p>
+     *
+     * @param index the slot of the player.
+     * @param value {@code true} if the player has finished; {@code false} otherwise.
+     */
+    public void changeFinished(final int index,
+                               final boolean value)
+    {
+        changeStatus(index, FINISHED_FLAG, value);
+    }
+
+    /**
+     * Sets the listener told about every status change made through {@link #changeEliminated(int, boolean)} and
+     * {@link #changeFinished(int, boolean)}.
+     *
+     * @param statusListener the listener, or null to report status changes to nobody.
+     */
+    public void setStatusListener(final PlayerStatusListener statusListener)
+    {
+        this.statusListener = statusListener;
+    }
+
+    /**
+     * Sets whether the player in the given slot is currently pushing.
+     *
+     * @param index the slot of the player.
+     * @param value {@code true} if the player is pushing; {@code false} otherwise.
+     */
+    public void setPushing(final int index,
+                           final boolean value)
+    {
+        setFlag(index, PUSHING_FLAG, value);
+    }
+
+    /**
+     * Sets whether the player in the given slot is currently being pushed.
+     *
+     * @param index the slot of the player.
+     * @param value {@code true} if the player is being pushed; {@code false} otherwise.
+     */
+    public void setPushed(final int index,
+                          final boolean value)
+    {
+        setFlag(index, PUSHED_FLAG, value);
+    }
+
+    /**
+     * Returns the last move time (in nanoseconds) of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @return the last move time.
+     */
+    public long getLastMoveTimestampInNanoseconds(final int index)
+    {
+        return lastMoveTimestampsInNanoseconds[index];
+    }
+
+    /**
+     * Sets the last move time (in nanoseconds) of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @param value the new last move time.
+     */
+    public void setLastMoveTimestampInNanoseconds(final int index,
+                                                  final long value)
+    {
+        lastMoveTimestampsInNanoseconds[index] = value;
+    }
+
+    /**
+     * Returns the timestamp (in nanoseconds) at which the player in the given slot was eliminated.
+     *
+     * @param index the slot of the player.
+     * @return the death timestamp.
+     */
+    public long getDeathTimestampInNanoseconds(final int index)
+    {
+        return deathTimestampsInNanoseconds[index];
+    }
+
+    /**
+     * Sets the timestamp (in nanoseconds) at which the player in the given slot was eliminated.
+     *
+     * @param index the slot of the player.
+     * @param value the death timestamp.
+     */
+    public void setDeathTimestampInNanoseconds(final int index,
+                                               final long value)
+    {
+        deathTimestampsInNanoseconds[index] = value;
+    }
+
+    /**
+     * Returns the number of players in the moved set, that is, the players whose current or previous position has
+     * been set since the last call to {@link #syncPreviousPositions()}.
+     * <p>
+     * Only these players can stand somewhere other than their previous position, so movement checks can walk the
+     * moved set with {@link #getMovedPlayer(int)} instead of scanning the whole population.
+     * </p>
+     *
+     * @return the number of players in the moved set.
+     */
+    public int getMovedCount()
+    {
+        return movedSinceSyncCount;
+    }
+
+    /**
+     * Returns the slot of a player in the moved set. Players appear in the order in which they first moved.
+     *
+     * @param position the position within the moved set; between zero and {@link #getMovedCount()}, exclusive.
+     * @return the slot of the player.
+     */
+    public int getMovedPlayer(final int position)
+    {
+        return movedSinceSync[position];
+    }
+
+    /**
+     * Copies the current position of every player in the moved set into its previous position, then empties the
+     * moved set. Players that have not moved are not touched.
+     */
+    public void syncPreviousPositions()
+    {
+        for(int position = 0; position < movedSinceSyncCount; position++)
+        {
+            final int index;
+            index = movedSinceSync[position];
+            prevX[index] = x[index];
+            prevY[index] = y[index];
+            movedMarks[index] &= ~MOVED_SINCE_SYNC_MARK;
+        }
+        movedSinceSyncCount = 0;
+    }
+
+    /**
+     * Copies the current position of every player that moved since the previous call into its step-start position.
+     * Every other player's step-start position already equals its current position and is not touched.
+     */
+    public void markStepStart()
+    {
+        for(int position = 0; position < movedSinceStepStartCount; position++)
+        {
+            final int index;
+            index = movedSinceStepStart[position];
+            stepStartX[index] = x[index];
+            stepStartY[index] = y[index];
+            movedMarks[index] &= ~MOVED_SINCE_STEP_START_MARK;
+        }
+        movedSinceStepStartCount = 0;
+    }
+
+    /*
+     * Reserves the next free slot for a player at the given coordinates without creating a handle for it.
+     *
+     * @param x the starting x-coordinate.
+     * @param y the starting y-coordinate.
+     * @return the reserved slot.
+     * @throws IllegalArgumentException if either coordinate is negative.
+     * @throws IllegalStateException    if the store is already full.
+     */
+    int addSlot(final int x,
+                final int y)
+    {
+        validateCoordinates(x, y);
+        if(size == handles.length)
+        {
+            throw new IllegalStateException("PlayerStore is full. Capacity: " + handles.length);
+        }
+
+        final int index;
+        index = size;
+        this.x[index] = x;
+        this.y[index] = y;
+        this.prevX[index] = x;
+        this.prevY[index] = y;
+        this.stepStartX[index] = x;
+        this.stepStartY[index] = y;
+        this.status[index] = NO_FLAGS;
+        this.movedMarks[index] = NO_FLAGS;
+        this.lastMoveTimestampsInNanoseconds[index] = 0;
+        this.deathTimestampsInNanoseconds[index] = 0;
+        size++;
+        return index;
+    }
+
+    /*
+     * Registers an existing handle for the given slot.
+     *
+     * @param index  the slot of the player.
+     * @param handle the handle representing the slot.
+     */
+    void bindHandle(final int index,
+                    final Player handle)
+    {
+        handles[index] = handle;
+    }
+
+    /*
+     * Tests a single status flag of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @param flag  the flag to test.
+     * @return true if the flag is set.
+     */
+    private boolean hasFlag(final int index,
+                            final byte flag)
+    {
+        return (status[index] & flag) != NO_FLAGS;
+    }
+
+    /*
+     * Sets or clears a single status flag of the player in the given slot.
+     *
+     * @param index the slot of the player.
+     * @param flag  the flag to change.
+     * @param value true to set the flag; false to clear it.
+     */
+    private void setFlag(final int index,
+                         final byte flag,
+                         final boolean value)
+    {
+        if(value)
+        {
+            status[index] = (byte) (status[index] | flag);
+        }
+        else
+        {
+            status[index] = (byte) (status[index] & ~flag);
+        }
+    }
+
+    /*
+     * Sets or clears a status flag of the player in the given slot and, if that changed the flag, reports the change
+     * to the status listener.
+     *
+     * @param index the slot of the player.
+     * @param flag  the flag to change.
+     * @param value true to set the flag; false to clear it.
+     */
+    private void changeStatus(final int index,
+                              final byte flag,
+                              final boolean value)
+    {
+        final boolean wasEliminated;
+        final boolean wasOnField;
+
+        if(((status[index] & flag) != NO_FLAGS) == value)
+        {
+            return;
+        }
+        wasEliminated = isEliminated(index);
+        wasOnField = isOnField(index);
+        setFlag(index, flag, value);
+        if(statusListener != null)
+        {
+            statusListener.playerStatusChanged(index, wasEliminated, wasOnField);
+        }
+    }
+
+    /*
+     * Adds the player in the given slot to each requested dirty set it is not listed in yet.
+     *
+     * @param index the slot of the player.
+     * @param marks the marks of the dirty sets to add the player to.
+     */
+    private void markMoved(final int index,
+                           final byte marks)
+    {
+        final int missingMarks;
+        missingMarks = marks & ~movedMarks[index];
+        if((missingMarks & MOVED_SINCE_SYNC_MARK) != 0)
+        {
+            movedSinceSync[movedSinceSyncCount] = index;
+            movedSinceSyncCount++;
+        }
+        if((missingMarks & MOVED_SINCE_STEP_START_MARK) != 0)
+        {
+            movedSinceStepStart[movedSinceStepStartCount] = index;
+            movedSinceStepStartCount++;
+        }
+        movedMarks[index] |= marks;
+    }
+
+    /*
+     * Validates that the provided coordinates are non-negative.
+     *
+     * @param x the x-coordinate to validate
+     * @param y the y-coordinate to validate
+     * @throws IllegalArgumentException if either coordinate is negative
+     */
+    private static void validateCoordinates(final int x,
+                                            final int y)
+    {
+        if(x < 0 || y < 0)
+        {
+            throw new IllegalArgumentException("Coordinates must be non-negative. Provided x: " + x + ", y: " + y);
+        }
+    }
+
+    /*
+     * Validates that the capacity is positive.
+     *
+     * @param capacity the capacity to validate.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    private static void validateCapacity(final int capacity)
+    {
+        if(capacity < MINIMUM_CAPACITY)
+        {
+            throw new IllegalArgumentException("PlayerStore capacity must be positive. Provided: " + capacity);
+        }
+    }
+}
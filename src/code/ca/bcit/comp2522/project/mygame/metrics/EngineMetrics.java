@@ -0,0 +1,484 @@
+package ca.bcit.comp2522.project.mygame.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-tick instrumentation of the game engine: latency histograms for every {@link TickPhase} and for whole ticks,
+ * push counters and push chain lengths, and the memory allocated during sampled ticks.
+ * <p>
+ * The engine brackets every phase with {@link #beginTick()}, {@link #endPhase(TickPhase, long)} and
+ * {@link #endTick(long)}, which cost one reading of {@link System#nanoTime()} each. The memory allocated by the
+ * ticking thread is read through the platform {@link ThreadMXBean} on one tick in
+ * {@value #ALLOCATION_SAMPLE_INTERVAL_IN_TICKS} only, and only where the JVM supports it. Memory allocated by the
+ * fork-join workers that update the strips of a large arena is not included. Recording allocates nothing, so the
+ * metrics are cheap enough to leave on in production. While they are disabled, the instrumented code only checks a
+ * flag.
+ * </p>
+ * <p>
+ * The metrics can be read from code, dumped as text by a {@link MetricsReporter}, or published over JMX with
+ * {@link #register()}. Every histogram must be written by a single thread: the tick phases, pushes and allocations by
+ * the thread updating the game, and {@link TickPhase#RENDER} by the thread drawing it. Any thread may read them.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public final class EngineMetrics
+        implements EngineMetricsMXBean
+{
+    /**
+     * The number of ticks between two samples of the memory allocated during a tick.
+     */
+    public static final int ALLOCATION_SAMPLE_INTERVAL_IN_TICKS = 64;
+
+    /**
+     * The value returned by the timing methods while the metrics are disabled.
+     */
+    public static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static final String OBJECT_NAME_PREFIX = "ca.bcit.comp2522.project.mygame:type=EngineMetrics,id=";
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private static final long NOT_SAMPLED = -1L;
+    private static final double NANOSECONDS_PER_MICROSECOND = 1_000.0;
+
+    private final LogHistogram tickLatency;
+    private final LogHistogram[] phaseLatencies;
+    private final LogHistogram pushChainLengths;
+    private final LogHistogram allocatedBytesPerTick;
+    private final AtomicLong rejectedPushes;
+    private volatile boolean enabled;
+    private ObjectName registeredName;
+
+    // Owned by the ticking thread.
+    private long ticksUntilSample;
+    private long allocatedAtTickStart;
+
+    /**
+     * Constructs an {@code EngineMetrics} with empty histograms.
+     *
+     * @param enabled whether recording starts enabled.
+     */
+    public EngineMetrics(final boolean enabled)
+    {
+        this.tickLatency = new LogHistogram();
+        this.phaseLatencies = new LogHistogram[TickPhase.values().length];
+        for(int phase = 0; phase < phaseLatencies.length; phase++)
+        {
+            phaseLatencies[phase] = new LogHistogram();
+        }
+        this.pushChainLengths = new LogHistogram();
+        this.allocatedBytesPerTick = new LogHistogram();
+        this.rejectedPushes = new AtomicLong();
+        this.enabled = enabled;
+        this.allocatedAtTickStart = NOT_SAMPLED;
+    }
+
+    /**
+     * Marks the start of a tick and, on sampled ticks, notes how much memory the calling thread has allocated so far.
+     *
+     * @return the start time of the tick, to be passed to the first {@link #endPhase(TickPhase, long)} and to
+     *         {@link #endTick(long)}, or {@link #NOT_TIMED} while disabled.
+     */
+    public long beginTick()
+    {
+        if(!enabled)
+        {
+            return NOT_TIMED;
+        }
+        if(ticksUntilSample-- == 0)
+        {
+            ticksUntilSample = ALLOCATION_SAMPLE_INTERVAL_IN_TICKS - 1;
+            allocatedAtTickStart = AllocationProbe.allocatedBytesOfCurrentThread();
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks the start of a phase that is not part of a tick, such as {@link TickPhase#RENDER}.
+     *
+     * @return the start time of the phase, or {@link #NOT_TIMED} while disabled.
+     */
+    public long beginPhase()
+    {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Records the latency of a phase that started at the given time and ended now.
+     *
+     * @param phase      the phase that ended.
+     * @param phaseStart the start time returned by the previous timing call.
+     * @return the end time of the phase, which is the start time of the next one, or {@link #NOT_TIMED} while
+     *         disabled.
+     */
+    public long endPhase(final TickPhase phase,
+                         final long phaseStart)
+    {
+        final long now;
+
+        if(!enabled || phaseStart == NOT_TIMED)
+        {
+            return NOT_TIMED;
+        }
+        now = System.nanoTime();
+        phaseLatencies[phase.ordinal()].record(now - phaseStart);
+        return now;
+    }
+
+    /**
+     * Records the latency of a whole tick and, on sampled ticks, the memory the calling thread allocated during it.
+     *
+     * @param tickStart the start time returned by {@link #beginTick()}.
+     */
+    public void endTick(final long tickStart)
+    {
+        if(!enabled || tickStart == NOT_TIMED)
+        {
+            return;
+        }
+        tickLatency.record(System.nanoTime() - tickStart);
+        if(allocatedAtTickStart != NOT_SAMPLED)
+        {
+            final long allocatedAtTickEnd;
+            allocatedAtTickEnd = AllocationProbe.allocatedBytesOfCurrentThread();
+            if(allocatedAtTickEnd != NOT_SAMPLED)
+            {
+                allocatedBytesPerTick.record(allocatedAtTickEnd - allocatedAtTickStart);
+            }
+            allocatedAtTickStart = NOT_SAMPLED;
+        }
+    }
+
+    /**
+     * Records a push that moved the given number of players.
+     *
+     * @param chainLength the number of players pushed.
+     */
+    public void recordPush(final int chainLength)
+    {
+        if(enabled)
+        {
+            pushChainLengths.record(chainLength);
+        }
+    }
+
+    /**
+     * Records a push that could not be made.
+     */
+    public void recordRejectedPush()
+    {
+        if(enabled)
+        {
+            rejectedPushes.lazySet(rejectedPushes.get() + 1);
+        }
+    }
+
+    /**
+     * Returns the latency histogram of the given phase.
+     *
+     * @param phase the phase.
+     * @return the histogram of the phase's latencies, in nanoseconds.
+     */
+    public LogHistogram getPhaseHistogram(final TickPhase phase)
+    {
+        return phaseLatencies[phase.ordinal()];
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server under a name of their own, so that they can be watched
+     * with any JMX client. Does nothing if they are already registered.
+     *
+     * @return the name under which the metrics are registered.
+     * @throws IllegalStateException if the MBean server refuses the registration.
+     */
+    public synchronized ObjectName register()
+    {
+        if(registeredName == null)
+        {
+            try
+            {
+                final ObjectName name;
+                name = new ObjectName(OBJECT_NAME_PREFIX + NEXT_ID.incrementAndGet());
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+                registeredName = name;
+            }
+            catch(final InstanceAlreadyExistsException e)
+            {
+                throw new IllegalStateException("EngineMetrics name is already taken: " + e.getMessage(), e);
+            }
+            catch(final JMException e)
+            {
+                throw new IllegalStateException("Cannot register EngineMetrics: " + e.getMessage(), e);
+            }
+        }
+        return registeredName;
+    }
+
+    /**
+     * Removes these metrics from the platform MBean server. Does nothing if they are not registered.
+     */
+    public synchronized void unregister()
+    {
+        if(registeredName != null)
+        {
+            final MBeanServer server;
+            server = ManagementFactory.getPlatformMBeanServer();
+            try
+            {
+                server.unregisterMBean(registeredName);
+            }
+            catch(final InstanceNotFoundException e)
+            {
+                // Someone else already removed it, which is what was asked for.
+            }
+            catch(final JMException e)
+            {
+                System.err.println("Error unregistering " + registeredName + ": " + e.getMessage());
+            }
+            registeredName = null;
+        }
+    }
+
+    /**
+     * Returns whether the metrics are being recorded.
+     *
+     * @return true if recording.
+     */
+    @Override
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Turns recording on or off. While off, the instrumented code only checks a flag.
+     *
+     * @param enabled true to record.
+     */
+    @Override
+    public void setEnabled(final boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the number of ticks recorded.
+     *
+     * @return the tick count.
+     */
+    @Override
+    public long getTickCount()
+    {
+        return tickLatency.getCount();
+    }
+
+    /**
+     * Returns the latency of whole ticks.
+     *
+     * @return a summary of tick latencies, in nanoseconds.
+     */
+    @Override
+    public HistogramSummary getTickLatency()
+    {
+        return tickLatency.summarize();
+    }
+
+    /**
+     * Returns the latency of the NPC movement phase.
+     *
+     * @return a summary of the phase's latencies, in nanoseconds.
+     */
+    @Override
+    public HistogramSummary getNpcMovementLatency()
+    {
+        return getPhaseHistogram(TickPhase.NPC_MOVEMENT).summarize();
+    }
+
+    /**
+     * Returns the latency of the red light elimination phase.
+     *
+     * @return a summary of the phase's latencies, in nanoseconds.
+     */
+    @Override
+    public HistogramSummary getEliminationLatency()
+    {
+        return getPhaseHistogram(TickPhase.ELIMINATION).summarize();
+    }
+
+    /**
+     * Returns the latency of the finish line phase.
+     *
+     * @return a summary of the phase's latencies, in nanoseconds.
+     */
+    @Override
+    public HistogramSummary getFinishLineLatency()
+    {
+        return getPhaseHistogram(TickPhase.FINISH_LINE).summarize();
+    }
+
+    /**
+     * Returns the latency of the light update phase.
+     *
+     * @return a summary of the phase's latencies, in nanoseconds.
+     */
+    @Override
+    public HistogramSummary getLightUpdateLatency()
+    {
+        return getPhaseHistogram(TickPhase.LIGHT_UPDATE).summarize();
+    }
+
+    /**
+     * Returns the latency of rendering a snapshot.
+     *
+     * @return a summary of render latencies, in nanoseconds.
+     */
+    @Override
+    public HistogramSummary getRenderLatency()
+    {
+        return getPhaseHistogram(TickPhase.RENDER).summarize();
+    }
+
+    /**
+     * Returns the number of pushes that moved at least one other player.
+     *
+     * @return the push count.
+     */
+    @Override
+    public long getPushCount()
+    {
+        return pushChainLengths.getCount();
+    }
+
+    /**
+     * Returns the number of pushes that could not be made.
+     *
+     * @return the rejected push count.
+     */
+    @Override
+    public long getRejectedPushCount()
+    {
+        return rejectedPushes.get();
+    }
+
+    /**
+     * Returns the lengths of the push chains of successful pushes.
+     *
+     * @return a summary of chain lengths, in players.
+     */
+    @Override
+    public HistogramSummary getPushChainLength()
+    {
+        return pushChainLengths.summarize();
+    }
+
+    /**
+     * Returns the memory allocated by the ticking thread during sampled ticks.
+     *
+     * @return a summary of the bytes allocated per sampled tick.
+     */
+    @Override
+    public HistogramSummary getAllocatedBytesPerTick()
+    {
+        return allocatedBytesPerTick.summarize();
+    }
+
+    /**
+     * Returns every metric as a table, with latencies in microseconds.
+     *
+     * @return the report.
+     */
+    @Override
+    public String formatReport()
+    {
+        final StringBuilder report;
+        report = new StringBuilder();
+
+        report.append(String.format("%-16s %10s %10s %10s %10s %10s%n",
+                                    "latency (us)", "count", "mean", "p50", "p99", "max"));
+        appendLatency(report, "tick", tickLatency);
+        for(final TickPhase phase : TickPhase.values())
+        {
+            appendLatency(report, phase.name().toLowerCase(), getPhaseHistogram(phase));
+        }
+        report.append(String.format("pushes %d, rejected %d, chain length mean %.2f p99 %d max %d%n",
+                                    pushChainLengths.getCount(),
+                                    rejectedPushes.get(),
+                                    pushChainLengths.getMean(),
+                                    pushChainLengths.getValueAtPercentile(HistogramSummary.NINETY_NINTH_PERCENTILE),
+                                    pushChainLengths.getMax()));
+        report.append(String.format("allocated bytes per sampled tick: mean %.0f p99 %d max %d (%d samples)",
+                                    allocatedBytesPerTick.getMean(),
+                                    allocatedBytesPerTick.getValueAtPercentile(
+                                            HistogramSummary.NINETY_NINTH_PERCENTILE),
+                                    allocatedBytesPerTick.getMax(),
+                                    allocatedBytesPerTick.getCount()));
+        return report.toString();
+    }
+
+    /*
+     * Appends one row of latencies, converted to microseconds, to a report.
+     *
+     * @param report    the report to append to.
+     * @param label     the label of the row.
+     * @param histogram the latencies, in nanoseconds.
+     */
+    private static void appendLatency(final StringBuilder report,
+                                      final String label,
+                                      final LogHistogram histogram)
+    {
+        report.append(String.format("%-16s %10d %10.1f %10.1f %10.1f %10.1f%n",
+                                    label,
+                                    histogram.getCount(),
+                                    histogram.getMean() / NANOSECONDS_PER_MICROSECOND,
+                                    histogram.getValueAtPercentile(HistogramSummary.MEDIAN) /
+                                    NANOSECONDS_PER_MICROSECOND,
+                                    histogram.getValueAtPercentile(HistogramSummary.NINETY_NINTH_PERCENTILE) /
+                                    NANOSECONDS_PER_MICROSECOND,
+                                    histogram.getMax() / NANOSECONDS_PER_MICROSECOND));
+    }
+
+    /*
+     * Reads the memory allocated by a thread through the platform ThreadMXBean. Holding the bean in a class of its own
+     * defers loading the management classes until the first sampled tick, so games that never enable their metrics
+     * do not pay for them.
+     */
+    private static final class AllocationProbe
+    {
+        private static final com.sun.management.ThreadMXBean THREADS = findThreadMXBean();
+
+        /*
+         * Returns the number of bytes the calling thread has allocated so far.
+         *
+         * @return the allocated bytes, or NOT_SAMPLED if the JVM cannot tell.
+         */
+        private static long allocatedBytesOfCurrentThread()
+        {
+            return THREADS == null ? NOT_SAMPLED : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        /*
+         * Returns the platform ThreadMXBean if it can measure allocations.
+         *
+         * @return the bean, or null if allocations cannot be measured.
+         */
+        private static com.sun.management.ThreadMXBean findThreadMXBean()
+        {
+            final ThreadMXBean threads;
+            threads = ManagementFactory.getThreadMXBean();
+            if(threads instanceof com.sun.management.ThreadMXBean &&
+               ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported())
+            {
+                return (com.sun.management.ThreadMXBean) threads;
+            }
+            return null;
+        }
+    }
+}
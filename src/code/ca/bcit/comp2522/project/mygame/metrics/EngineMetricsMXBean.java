@@ -0,0 +1,114 @@
+package ca.bcit.comp2522.project.mygame.metrics;
+
+/**
+ * The management interface through which {@link EngineMetrics} are exposed over JMX, for example to JConsole or
+ * VisualVM.
+ * <p>
+ * Latencies are reported in nanoseconds, push chain lengths in players and allocations in bytes. Every histogram is
+ * reported as a {@link HistogramSummary} covering everything recorded since the metrics were created.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public interface EngineMetricsMXBean
+{
+    /**
+     * Returns whether the metrics are being recorded.
+     *
+     * @return true if recording.
+     */
+    boolean isEnabled();
+
+    /**
+     * Turns recording on or off. While off, the instrumented code only checks this flag.
+     *
+     * @param enabled true to record.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Returns the number of ticks recorded.
+     *
+     * @return the tick count.
+     */
+    long getTickCount();
+
+    /**
+     * Returns the latency of whole ticks.
+     *
+     * @return a summary of tick latencies, in nanoseconds.
+     */
+    HistogramSummary getTickLatency();
+
+    /**
+     * Returns the latency of the NPC movement phase.
+     *
+     * @return a summary of the phase's latencies, in nanoseconds.
+     */
+    HistogramSummary getNpcMovementLatency();
+
+    /**
+     * Returns the latency of the red light elimination phase.
+     *
+     * @return a summary of the phase's latencies, in nanoseconds.
+     */
+    HistogramSummary getEliminationLatency();
+
+    /**
+     * Returns the latency of the finish line phase.
+     *
+     * @return a summary of the phase's latencies, in nanoseconds.
+     */
+    HistogramSummary getFinishLineLatency();
+
+    /**
+     * Returns the latency of the light update phase.
+     *
+     * @return a summary of the phase's latencies, in nanoseconds.
+     */
+    HistogramSummary getLightUpdateLatency();
+
+    /**
+     * Returns the latency of rendering a snapshot.
+     *
+     * @return a summary of render latencies, in nanoseconds.
+     */
+    HistogramSummary getRenderLatency();
+
+    /**
+     * Returns the number of pushes that moved at least one other player.
+     *
+     * @return the push count.
+     */
+    long getPushCount();
+
+    /**
+     * Returns the number of pushes that were rejected because a player in the chain was cooling down or the chain
+     * ran into the edge of the grid.
+     *
+     * @return the rejected push count.
+     */
+    long getRejectedPushCount();
+
+    /**
+     * Returns the lengths of the push chains of successful pushes.
+     *
+     * @return a summary of chain lengths, in players.
+     */
+    HistogramSummary getPushChainLength();
+
+    /**
+     * Returns the memory allocated by the ticking thread during sampled ticks.
+     *
+     * @return a summary of the bytes allocated per sampled tick.
+     */
+    HistogramSummary getAllocatedBytesPerTick();
+
+    /**
+     * Returns every metric as a human-readable table.
+     *
+     * @return the report.
+     */
+    String formatReport();
+}
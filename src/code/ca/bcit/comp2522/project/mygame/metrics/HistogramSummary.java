@@ -0,0 +1,132 @@
+package ca.bcit.comp2522.project.mygame.metrics;
+
+/**
+ * An immutable summary of a {@link LogHistogram} at one point in time: its count, mean, median, 99th and 99.9th
+ * percentiles and maximum.
+ * <p>
+ * Over JMX, a summary appears as a composite value with one item per getter.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public final class HistogramSummary
+{
+    /**
+     * The percentile reported as the median.
+     */
+    public static final double MEDIAN = 50.0;
+
+    /**
+     * The 99th percentile.
+     */
+    public static final double NINETY_NINTH_PERCENTILE = 99.0;
+
+    /**
+     * The 99.9th percentile.
+     */
+    public static final double NINETY_NINE_POINT_NINTH_PERCENTILE = 99.9;
+
+    private final long count;
+    private final double mean;
+    private final long median;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    /**
+     * Constructs a {@code HistogramSummary} with the given values.
+     *
+     * @param count  the number of values recorded.
+     * @param mean   the mean of the values.
+     * @param median the median of the values.
+     * @param p99    the 99th percentile of the values.
+     * @param p999   the 99.9th percentile of the values.
+     * @param max    the largest value.
+     */
+    public HistogramSummary(final long count,
+                            final double mean,
+                            final long median,
+                            final long p99,
+                            final long p999,
+                            final long max)
+    {
+        this.count = count;
+        this.mean = mean;
+        this.median = median;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return the count.
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Returns the mean of the values.
+     *
+     * @return the mean.
+     */
+    public double getMean()
+    {
+        return mean;
+    }
+
+    /**
+     * Returns the median of the values.
+     *
+     * @return the median.
+     */
+    public long getMedian()
+    {
+        return median;
+    }
+
+    /**
+     * Returns the 99th percentile of the values.
+     *
+     * @return the 99th percentile.
+     */
+    public long getP99()
+    {
+        return p99;
+    }
+
+    /**
+     * Returns the 99.9th percentile of the values.
+     *
+     * @return the 99.9th percentile.
+     */
+    public long getP999()
+    {
+        return p999;
+    }
+
+    /**
+     * Returns the largest value.
+     *
+     * @return the maximum.
+     */
+    public long getMax()
+    {
+        return max;
+    }
+
+    /**
+     * Returns a string representation of this summary.
+     *
+     * @return the count, mean, percentiles and maximum.
+     */
+    @Override
+    public String toString()
+    {
+        return String.format("count=%d mean=%.1f p50=%d p99=%d p99.9=%d max=%d", count, mean, median, p99, p999, max);
+    }
+}
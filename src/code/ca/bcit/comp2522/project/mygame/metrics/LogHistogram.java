@@ -0,0 +1,189 @@
+package ca.bcit.comp2522.project.mygame.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size histogram of non-negative values, such as latencies in nanoseconds, with buckets of logarithmically
+ * growing width.
+ * <p>
+ * Like an HdrHistogram, it splits every power of two into 32 equal sub-buckets, so every recorded value is kept to
+ * within about three percent, from single nanoseconds up to {@link #MAXIMUM_TRACKABLE_VALUE}. Larger values are
+ * counted in the last bucket. The buckets are allocated once, so recording a value takes a few arithmetic operations
+ * and no allocation, which makes the histogram cheap enough to leave on in production.
+ * </p>
+ * <p>
+ * A histogram must be written by a single thread at a time, typically the simulation thread or the JavaFX Application
+ * Thread, but may be read by any thread, for example a JMX client or a reporter. Readers see every value recorded
+ * before, and possibly some of the values recorded during, their read.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public final class LogHistogram
+{
+    /**
+     * The largest value told apart from larger ones: about 68 seconds, in nanoseconds.
+     */
+    public static final long MAXIMUM_TRACKABLE_VALUE = (1L << 36) - 1;
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS_PER_POWER_OF_TWO = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BUCKETS = SUB_BUCKETS_PER_POWER_OF_TWO * 2;
+    private static final int LONG_BITS = 64;
+    private static final double HUNDRED_PERCENT = 100.0;
+    private static final long NO_VALUE = 0L;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong count;
+    private final AtomicLong total;
+    private final AtomicLong max;
+
+    /**
+     * Constructs an empty {@code LogHistogram}.
+     */
+    public LogHistogram()
+    {
+        this.counts = new AtomicLongArray(bucketOf(MAXIMUM_TRACKABLE_VALUE) + 1);
+        this.count = new AtomicLong();
+        this.total = new AtomicLong();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     *
+     * @param value the value to record.
+     */
+    public void record(final long value)
+    {
+        final long clamped;
+        final int bucket;
+
+        clamped = Math.max(value, NO_VALUE);
+        bucket = bucketOf(Math.min(clamped, MAXIMUM_TRACKABLE_VALUE));
+
+        // A single writer needs no atomic read-modify-write, only ordered stores that readers can see.
+        counts.lazySet(bucket, counts.get(bucket) + 1);
+        count.lazySet(count.get() + 1);
+        total.lazySet(total.get() + clamped);
+        if(clamped > max.get())
+        {
+            max.lazySet(clamped);
+        }
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return the count.
+     */
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * Returns the largest value recorded.
+     *
+     * @return the maximum, or zero if nothing was recorded.
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the values recorded.
+     *
+     * @return the mean, or zero if nothing was recorded.
+     */
+    public double getMean()
+    {
+        final long recorded;
+        recorded = count.get();
+        return recorded == 0 ? NO_VALUE : (double) total.get() / recorded;
+    }
+
+    /**
+     * Returns the value below which the given percentage of recorded values fall, to within the precision of the
+     * buckets. The result is the highest value of the bucket it falls in, but never more than the maximum.
+     *
+     * @param percentile the percentage, between 0 and 100.
+     * @return the value at the percentile, or zero if nothing was recorded.
+     */
+    public long getValueAtPercentile(final double percentile)
+    {
+        final long recorded;
+        final long rank;
+        long seen;
+
+        recorded = count.get();
+        if(recorded == 0)
+        {
+            return NO_VALUE;
+        }
+        rank = Math.max(1, (long) Math.ceil(Math.min(percentile, HUNDRED_PERCENT) / HUNDRED_PERCENT * recorded));
+
+        seen = 0;
+        for(int bucket = 0; bucket < counts.length(); bucket++)
+        {
+            seen += counts.get(bucket);
+            if(seen >= rank)
+            {
+                return Math.min(highestValueOf(bucket), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Returns a summary of this histogram: its count, mean, median, 99th and 99.9th percentiles and maximum.
+     *
+     * @return the summary.
+     */
+    public HistogramSummary summarize()
+    {
+        return new HistogramSummary(getCount(),
+                                    getMean(),
+                                    getValueAtPercentile(HistogramSummary.MEDIAN),
+                                    getValueAtPercentile(HistogramSummary.NINETY_NINTH_PERCENTILE),
+                                    getValueAtPercentile(HistogramSummary.NINETY_NINE_POINT_NINTH_PERCENTILE),
+                                    getMax());
+    }
+
+    /*
+     * Returns the bucket of a value: one bucket per value below LINEAR_BUCKETS, then SUB_BUCKETS_PER_POWER_OF_TWO
+     * buckets per power of two.
+     *
+     * @param value the value, between zero and MAXIMUM_TRACKABLE_VALUE.
+     * @return the bucket of the value.
+     */
+    private static int bucketOf(final long value)
+    {
+        final int exponent;
+        exponent = Math.max(LONG_BITS - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1, 0);
+        return exponent * SUB_BUCKETS_PER_POWER_OF_TWO + (int) (value >>> exponent);
+    }
+
+    /*
+     * Returns the highest value that falls in the given bucket.
+     *
+     * @param bucket the bucket.
+     * @return the highest value of the bucket.
+     */
+    private static long highestValueOf(final int bucket)
+    {
+        final int exponent;
+        final long mantissa;
+
+        if(bucket < LINEAR_BUCKETS)
+        {
+            return bucket;
+        }
+        exponent = bucket / SUB_BUCKETS_PER_POWER_OF_TWO - 1;
+        mantissa = bucket - (long) exponent * SUB_BUCKETS_PER_POWER_OF_TWO;
+        return ((mantissa + 1) << exponent) - 1;
+    }
+}
@@ -0,0 +1,101 @@
+package ca.bcit.comp2522.project.mygame.metrics;
+
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically prints the report of an {@link EngineMetrics} to a stream, for example standard output.
+ * <p>
+ * The report is formatted on a daemon thread of its own, so neither the simulation nor the JavaFX Application Thread
+ * ever waits for it.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class MetricsReporter
+{
+    private static final String THREAD_NAME = "engine-metrics-reporter";
+    private static final long MINIMUM_PERIOD_IN_MILLISECONDS = 1;
+
+    private final EngineMetrics metrics;
+    private final PrintStream out;
+    private final long periodInMilliseconds;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a {@code MetricsReporter} that prints the given metrics to the given stream at the given period.
+     * It does not print anything until {@link #start()} is called.
+     *
+     * @param metrics              the metrics to report.
+     * @param out                  the stream to print to.
+     * @param periodInMilliseconds the time between two reports.
+     * @throws IllegalArgumentException if {@code metrics} or {@code out} is null, or the period is not positive.
+     */
+    public MetricsReporter(final EngineMetrics metrics,
+                           final PrintStream out,
+                           final long periodInMilliseconds)
+    {
+        validateArguments(metrics, out, periodInMilliseconds);
+        this.metrics = metrics;
+        this.out = out;
+        this.periodInMilliseconds = periodInMilliseconds;
+    }
+
+    /**
+     * Starts printing a report every period, the first one period from now. Does nothing if already started.
+     */
+    public synchronized void start()
+    {
+        if(scheduler == null)
+        {
+            scheduler = Executors.newSingleThreadScheduledExecutor(task ->
+            {
+                final Thread thread;
+                thread = new Thread(task, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(() -> out.println(metrics.formatReport()),
+                                          periodInMilliseconds,
+                                          periodInMilliseconds,
+                                          TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops printing reports. Does nothing if not started.
+     */
+    public synchronized void stop()
+    {
+        if(scheduler != null)
+        {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /*
+     * Validates the metrics, stream and period.
+     *
+     * @param metrics              the EngineMetrics to validate.
+     * @param out                  the PrintStream to validate.
+     * @param periodInMilliseconds the period to validate.
+     * @throws IllegalArgumentException if any argument is invalid.
+     */
+    private static void validateArguments(final EngineMetrics metrics,
+                                          final PrintStream out,
+                                          final long periodInMilliseconds)
+    {
+        if(metrics == null || out == null)
+        {
+            throw new IllegalArgumentException("EngineMetrics and PrintStream cannot be null.");
+        }
+        if(periodInMilliseconds < MINIMUM_PERIOD_IN_MILLISECONDS)
+        {
+            throw new IllegalArgumentException("Report period must be positive. Provided: " + periodInMilliseconds);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ca.bcit.comp2522.project.mygame.metrics;
+
+/**
+ * Enumerates the phases of a game tick, and of drawing it, whose latency {@link EngineMetrics} keeps track of.
+ * <p>
+ * <b>Details:</b>
+ * <ul>
+ *     <li>{@code NPC_MOVEMENT}: deciding and settling the moves of every NPC, push chains included.</li>
+ *     <li>{@code ELIMINATION}: eliminating the players who moved under a red light.</li>
+ *     <li>{@code FINISH_LINE}: handling the players who crossed the finish line, clearing the field once enough
+ *         have finished, and checking whether the user won.</li>
+ *     <li>{@code LIGHT_UPDATE}: running the due timed events, among them the light switch, and cosmetic effects.</li>
+ *     <li>{@code RENDER}: drawing a snapshot of the game, measured on the JavaFX Application Thread.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public enum TickPhase
+{
+    /**
+     * Deciding and settling the moves of every NPC.
+     */
+    NPC_MOVEMENT,
+
+    /**
+     * Eliminating the players who moved under a red light.
+     */
+    ELIMINATION,
+
+    /**
+     * Handling the players who crossed the finish line.
+     */
+    FINISH_LINE,
+
+    /**
+     * Running the due timed events, among them the light switch.
+     */
+    LIGHT_UPDATE,
+
+    /**
+     * Drawing a snapshot of the game.
+     */
+    RENDER
+}
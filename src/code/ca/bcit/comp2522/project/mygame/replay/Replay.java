@@ -0,0 +1,508 @@
+package ca.bcit.comp2522.project.mygame.replay;
+
+import ca.bcit.comp2522.project.mygame.common.ArenaConfig;
+import ca.bcit.comp2522.project.mygame.common.MovementDirection;
+import ca.bcit.comp2522.project.mygame.engine.GameLogic;
+import ca.bcit.comp2522.project.mygame.engine.NpcArchetype;
+import ca.bcit.comp2522.project.mygame.entities.PlayerStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A recorded round of Red Light Blood Light: everything needed to play it again exactly as it was played.
+ * <p>
+ * Since the game logic is deterministic, a round is fully described by the seed of its random source, the game
+ * time at which it started, the length of its steps, its arena and NPC behaviors, and the user's moves together with
+ * the step at which each was made. A replay stores only these, plus the number of steps the round lasted and a
+ * checksum of its final state, against which a playback can verify that it reproduced the round.
+ * </p>
+ * <p>
+ * The binary format, written by {@link #write(OutputStream)} and read by {@link #read(InputStream)}, is big-endian:
+ * </p>
+ * <ol>
+ *   <li>the four bytes {@code RLBL} and a format version byte;</li>
+ *   <li>the seed, the start time and the step length, as 64-bit integers;</li>
+ *   <li>the grid width, grid height and number of players, as variable-length integers;</li>
+ *   <li>the number of NPC behaviors as a variable-length integer, followed by one byte per behavior holding the
+ *       ordinal of its {@link NpcArchetype};</li>
+ *   <li>the number of steps as a variable-length integer and the final state checksum as a 64-bit integer;</li>
+ *   <li>the number of user moves as a variable-length integer, followed by one variable-length integer per move
+ *       holding the number of steps since the previous move, shifted left by two bits, and the ordinal of its
+ *       {@link MovementDirection} in the two low bits.</li>
+ * </ol>
+ * <p>
+ * Variable-length integers take seven bits per byte, low bits first, with the high bit set on every byte but the
+ * last. A typical round of a minute with a few hundred moves therefore takes well under a kilobyte. Instances are
+ * immutable.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ * @see ReplayRecorder
+ * @see ReplayPlayer
+ */
+public final class Replay
+{
+    /**
+     * The four bytes every replay starts with, reading {@code RLBL}.
+     */
+    public static final int MAGIC = 0x524C424C;
+
+    /**
+     * The version of the binary format written by this class.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int DIRECTION_BITS = 2;
+    private static final int DIRECTION_MASK = (1 << DIRECTION_BITS) - 1;
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION_BIT = 0x80;
+    private static final int MAXIMUM_VARINT_SHIFT = 28;
+    private static final int MINIMUM_STEP_IN_NANOSECONDS = 1;
+    private static final int CHECKSUM_MULTIPLIER = 31;
+    private static final int NO_STEPS = 0;
+
+    private final long seed;
+    private final long startTimeInNanoseconds;
+    private final long stepInNanoseconds;
+    private final ArenaConfig arena;
+    private final NpcArchetype[] npcBehaviors;
+    private final int[] inputSteps;
+    private final byte[] inputDirections;
+    private final int numberOfSteps;
+    private final long finalStateChecksum;
+
+    /*
+     * Package-private constructor used by the recorder and the reader. The arrays are not copied.
+     *
+     * @param seed                   the seed of the gameplay random source.
+     * @param startTimeInNanoseconds the game time at which the round started.
+     * @param stepInNanoseconds      the game time that passes with every step.
+     * @param arena                  the arena of the round.
+     * @param npcBehaviors           the behaviors handed out to the NPCs.
+     * @param inputSteps             the step at which each user move was made, in order.
+     * @param inputDirections        the ordinal of the direction of each user move.
+     * @param numberOfSteps          the number of steps the round lasted.
+     * @param finalStateChecksum     the checksum of the game at the end of the round.
+     * @throws IllegalArgumentException if any value is invalid.
+     */
+    Replay(final long seed,
+           final long startTimeInNanoseconds,
+           final long stepInNanoseconds,
+           final ArenaConfig arena,
+           final NpcArchetype[] npcBehaviors,
+           final int[] inputSteps,
+           final byte[] inputDirections,
+           final int numberOfSteps,
+           final long finalStateChecksum)
+    {
+        validateRound(stepInNanoseconds, arena, npcBehaviors, numberOfSteps);
+        validateInputs(inputSteps, inputDirections, numberOfSteps);
+        this.seed = seed;
+        this.startTimeInNanoseconds = startTimeInNanoseconds;
+        this.stepInNanoseconds = stepInNanoseconds;
+        this.arena = arena;
+        this.npcBehaviors = npcBehaviors;
+        this.inputSteps = inputSteps;
+        this.inputDirections = inputDirections;
+        this.numberOfSteps = numberOfSteps;
+        this.finalStateChecksum = finalStateChecksum;
+    }
+
+    /**
+     * Returns the seed of the gameplay random source at the start of the round.
+     *
+     * @return the seed.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Returns the game time at which the round started.
+     *
+     * @return the start time in nanoseconds.
+     */
+    public long getStartTimeInNanoseconds()
+    {
+        return startTimeInNanoseconds;
+    }
+
+    /**
+     * Returns the game time that passes with every step.
+     *
+     * @return the step length in nanoseconds.
+     */
+    public long getStepInNanoseconds()
+    {
+        return stepInNanoseconds;
+    }
+
+    /**
+     * Returns the arena the round was played on.
+     *
+     * @return the arena.
+     */
+    public ArenaConfig getArena()
+    {
+        return arena;
+    }
+
+    /**
+     * Returns the behaviors handed out to the NPCs of the round.
+     *
+     * @return a copy of the behaviors, in the order in which they were handed out.
+     */
+    public NpcArchetype[] getNpcBehaviors()
+    {
+        return npcBehaviors.clone();
+    }
+
+    /**
+     * Returns the number of steps the round lasted.
+     *
+     * @return the number of steps.
+     */
+    public int getNumberOfSteps()
+    {
+        return numberOfSteps;
+    }
+
+    /**
+     * Returns the checksum of the game at the end of the round, as computed by {@link #checksum(GameLogic)}.
+     *
+     * @return the final state checksum.
+     */
+    public long getFinalStateChecksum()
+    {
+        return finalStateChecksum;
+    }
+
+    /**
+     * Returns the number of user moves recorded.
+     *
+     * @return the number of user moves.
+     */
+    public int getInputCount()
+    {
+        return inputSteps.length;
+    }
+
+    /**
+     * Returns the number of steps that had been played when the given user move was made.
+     *
+     * @param input the position of the move; between zero and {@link #getInputCount()}, exclusive.
+     * @return the step of the move.
+     */
+    public int getInputStep(final int input)
+    {
+        return inputSteps[input];
+    }
+
+    /**
+     * Returns the direction of the given user move.
+     *
+     * @param input the position of the move; between zero and {@link #getInputCount()}, exclusive.
+     * @return the direction of the move.
+     */
+    public MovementDirection getInputDirection(final int input)
+    {
+        return MovementDirection.values()[inputDirections[input]];
+    }
+
+    /**
+     * Writes this replay in the binary format described above.
+     *
+     * @param out the stream to write to; it is not closed.
+     * @throws IOException if writing fails.
+     */
+    public void write(final OutputStream out)
+            throws IOException
+    {
+        final DataOutputStream data;
+        int previousStep;
+
+        data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(FORMAT_VERSION);
+        data.writeLong(seed);
+        data.writeLong(startTimeInNanoseconds);
+        data.writeLong(stepInNanoseconds);
+        writeVarInt(data, arena.getWidthInNumberOfCells());
+        writeVarInt(data, arena.getHeightInNumberOfCells());
+        writeVarInt(data, arena.getNumberOfPlayers());
+        writeVarInt(data, npcBehaviors.length);
+        for(final NpcArchetype behavior : npcBehaviors)
+        {
+            data.writeByte(behavior.ordinal());
+        }
+        writeVarInt(data, numberOfSteps);
+        data.writeLong(finalStateChecksum);
+        writeVarInt(data, inputSteps.length);
+
+        previousStep = NO_STEPS;
+        for(int input = 0; input < inputSteps.length; input++)
+        {
+            writeVarInt(data, (inputSteps[input] - previousStep) << DIRECTION_BITS | inputDirections[input]);
+            previousStep = inputSteps[input];
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a replay written by {@link #write(OutputStream)}.
+     * <p>
+     * The stream is read to its end before the replay is decoded, so that every count in it can be checked against
+     * the bytes left before an array of that length is allocated.
+     * </p>
+     *
+     * @param in the stream to read from; it is not closed.
+     * @return the replay.
+     * @throws IOException if reading fails or the data is not a valid replay of a supported format version.
+     */
+    public static Replay read(final InputStream in)
+            throws IOException
+    {
+        final DataInputStream data;
+        data = new DataInputStream(new ByteArrayInputStream(in.readAllBytes()));
+
+        if(data.readInt() != MAGIC)
+        {
+            throw new IOException("Not a Red Light Blood Light replay.");
+        }
+        final int version;
+        version = data.readUnsignedByte();
+        if(version != FORMAT_VERSION)
+        {
+            throw new IOException("Unsupported replay format version: " + version);
+        }
+
+        try
+        {
+            final long seed;
+            final long startTimeInNanoseconds;
+            final long stepInNanoseconds;
+            final ArenaConfig arena;
+            final NpcArchetype[] npcBehaviors;
+            final int numberOfSteps;
+            final long finalStateChecksum;
+            final int[] inputSteps;
+            final byte[] inputDirections;
+            int step;
+
+            seed = data.readLong();
+            startTimeInNanoseconds = data.readLong();
+            stepInNanoseconds = data.readLong();
+            arena = new ArenaConfig(readVarInt(data), readVarInt(data), readVarInt(data));
+            npcBehaviors = new NpcArchetype[readCount(data)];
+            for(int behavior = 0; behavior < npcBehaviors.length; behavior++)
+            {
+                npcBehaviors[behavior] = NpcArchetype.values()[data.readUnsignedByte()];
+            }
+            numberOfSteps = readVarInt(data);
+            finalStateChecksum = data.readLong();
+            inputSteps = new int[readCount(data)];
+            inputDirections = new byte[inputSteps.length];
+
+            step = NO_STEPS;
+            for(int input = 0; input < inputSteps.length; input++)
+            {
+                final int encoded;
+                encoded = readVarInt(data);
+                step += encoded >>> DIRECTION_BITS;
+                inputSteps[input] = step;
+                inputDirections[input] = (byte) (encoded & DIRECTION_MASK);
+            }
+
+            return new Replay(seed,
+                              startTimeInNanoseconds,
+                              stepInNanoseconds,
+                              arena,
+                              npcBehaviors,
+                              inputSteps,
+                              inputDirections,
+                              numberOfSteps,
+                              finalStateChecksum);
+        }
+        catch(final IllegalArgumentException | ArrayIndexOutOfBoundsException | NegativeArraySizeException e)
+        {
+            throw new IOException("Corrupt replay: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Computes a checksum of the state of a game: the position, elimination and finish of every player, and the
+     * finished and eliminated counts. Two games with the same checksum almost certainly are in the same state.
+     *
+     * @param gameLogic the game to summarize.
+     * @return the checksum, or zero if the game has not been initialized.
+     */
+    public static long checksum(final GameLogic<?> gameLogic)
+    {
+        final PlayerStore store;
+        long checksum;
+
+        store = gameLogic.getPlayerStore();
+        checksum = 0;
+        if(store == null)
+        {
+            return checksum;
+        }
+        for(int index = 0; index < store.size(); index++)
+        {
+            checksum = checksum * CHECKSUM_MULTIPLIER + store.getX(index);
+            checksum = checksum * CHECKSUM_MULTIPLIER + store.getY(index);
+            checksum = checksum * CHECKSUM_MULTIPLIER + (store.isEliminated(index) ? 1 : 0);
+            checksum = checksum * CHECKSUM_MULTIPLIER + (store.isFinished(index) ? 1 : 0);
+        }
+        checksum = checksum * CHECKSUM_MULTIPLIER + gameLogic.getFinishedCount();
+        checksum = checksum * CHECKSUM_MULTIPLIER + gameLogic.getEliminatedCount();
+        return checksum;
+    }
+
+    /*
+     * Writes a non-negative integer in seven-bit groups, low bits first.
+     *
+     * @param data  the stream to write to.
+     * @param value the value to write.
+     * @throws IOException if writing fails.
+     */
+    private static void writeVarInt(final DataOutputStream data,
+                                    final int value)
+            throws IOException
+    {
+        int remaining;
+        remaining = value;
+        while((remaining & ~VARINT_PAYLOAD_MASK) != 0)
+        {
+            data.writeByte(remaining & VARINT_PAYLOAD_MASK | VARINT_CONTINUATION_BIT);
+            remaining >>>= VARINT_PAYLOAD_BITS;
+        }
+        data.writeByte(remaining);
+    }
+
+    /*
+     * Reads an integer written by writeVarInt.
+     *
+     * @param data the stream to read from.
+     * @return the value read.
+     * @throws IOException if reading fails or the value is too long.
+     */
+    private static int readVarInt(final DataInputStream data)
+            throws IOException
+    {
+        int value;
+        int shift;
+        int current;
+
+        value = 0;
+        shift = 0;
+        do
+        {
+            if(shift > MAXIMUM_VARINT_SHIFT)
+            {
+                throw new IOException("Corrupt replay: variable-length integer is too long.");
+            }
+            current = data.readUnsignedByte();
+            value |= (current & VARINT_PAYLOAD_MASK) << shift;
+            shift += VARINT_PAYLOAD_BITS;
+        }
+        while((current & VARINT_CONTINUATION_BIT) != 0);
+        return value;
+    }
+
+    /*
+     * Reads the number of entries of a list. Every entry takes at least one byte, so a count larger than the number
+     * of bytes left can only come from a corrupt file, and is rejected before anything is allocated for it.
+     *
+     * @param data the stream to read from; it must be backed by an array, so that it knows how many bytes are left.
+     * @return the count read.
+     * @throws IOException if reading fails or the count is negative or exceeds the bytes left.
+     */
+    private static int readCount(final DataInputStream data)
+            throws IOException
+    {
+        final int count;
+        final int bytesLeft;
+
+        count = readVarInt(data);
+        bytesLeft = data.available();
+        if(count < 0 || count > bytesLeft)
+        {
+            throw new IOException("Corrupt replay: a list of " + count + " entries cannot fit in the " + bytesLeft +
+                                  " bytes left.");
+        }
+        return count;
+    }
+
+    /*
+     * Validates the description of the round.
+     *
+     * @param stepInNanoseconds the step length to validate.
+     * @param arena             the arena to validate.
+     * @param npcBehaviors      the behaviors to validate.
+     * @param numberOfSteps     the number of steps to validate.
+     * @throws IllegalArgumentException if any value is invalid.
+     */
+    private static void validateRound(final long stepInNanoseconds,
+                                      final ArenaConfig arena,
+                                      final NpcArchetype[] npcBehaviors,
+                                      final int numberOfSteps)
+    {
+        if(stepInNanoseconds < MINIMUM_STEP_IN_NANOSECONDS || numberOfSteps < NO_STEPS)
+        {
+            throw new IllegalArgumentException("Step length must be positive and the number of steps not negative. " +
+                                               "Provided: " + stepInNanoseconds + ", " + numberOfSteps);
+        }
+        if(arena == null || npcBehaviors == null || npcBehaviors.length == 0)
+        {
+            throw new IllegalArgumentException("A replay needs an arena and at least one NPC behavior.");
+        }
+        for(final NpcArchetype behavior : npcBehaviors)
+        {
+            if(behavior == null)
+            {
+                throw new IllegalArgumentException("NpcArchetype cannot be null.");
+            }
+        }
+    }
+
+    /*
+     * Validates that the user moves are in step order, within the round and in a known direction.
+     *
+     * @param inputSteps      the steps of the moves.
+     * @param inputDirections the direction ordinals of the moves.
+     * @param numberOfSteps   the number of steps the round lasted.
+     * @throws IllegalArgumentException if any move is invalid.
+     */
+    private static void validateInputs(final int[] inputSteps,
+                                       final byte[] inputDirections,
+                                       final int numberOfSteps)
+    {
+        if(inputSteps == null || inputDirections == null || inputSteps.length != inputDirections.length)
+        {
+            throw new IllegalArgumentException("Every user move needs a step and a direction.");
+        }
+
+        int previousStep;
+        previousStep = NO_STEPS;
+        for(int input = 0; input < inputSteps.length; input++)
+        {
+            if(inputSteps[input] < previousStep ||
+               inputSteps[input] > numberOfSteps ||
+               inputDirections[input] < 0 ||
+               inputDirections[input] >= MovementDirection.values().length)
+            {
+                throw new IllegalArgumentException("Invalid user move " + input + " at step " + inputSteps[input]);
+            }
+            previousStep = inputSteps[input];
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package ca.bcit.comp2522.project.mygame.replay;
+
+import ca.bcit.comp2522.project.mygame.common.GameState;
+import ca.bcit.comp2522.project.mygame.common.MovementDirection;
+import ca.bcit.comp2522.project.mygame.engine.GameLogic;
+import ca.bcit.comp2522.project.mygame.engine.ManualGameClock;
+import ca.bcit.comp2522.project.mygame.engine.WorldSnapshot;
+import ca.bcit.comp2522.project.mygame.entities.Player;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Plays a {@link Replay} back on a fresh, headless {@link GameLogic}, reproducing the recorded round step by step.
+ * <p>
+ * Playback runs on a {@link ManualGameClock}, so it is not tied to real time. Seeking to a step simply plays every
+ * step up to it as fast as the CPU allows, without sound or rendering, after which {@link #getSnapshot()} captures the
+ * world at that step for the renderer. Seeking backwards replays the round from its start. The game logic is exposed
+ * as well, so that a reported bug can be inspected, or a pathological round profiled, at the exact step it occurs.
+ * </p>
+ * <p>
+ * Like the game logic itself, this class is meant to be used by a single thread.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class ReplayPlayer
+{
+    private static final int FILE_ARGUMENT = 0;
+    private static final int STEP_ARGUMENT = 1;
+    private static final int FIRST_STEP = 0;
+    private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000.0;
+
+    private final Replay replay;
+    private ManualGameClock clock;
+    private GameLogic<Player> gameLogic;
+    private int currentStep;
+    private int nextInput;
+
+    /**
+     * Constructs a {@code ReplayPlayer} for the given replay, positioned at the start of the round.
+     *
+     * @param replay the replay to play back.
+     * @throws IllegalArgumentException if {@code replay} is null.
+     */
+    public ReplayPlayer(final Replay replay)
+    {
+        if(replay == null)
+        {
+            throw new IllegalArgumentException("Replay cannot be null.");
+        }
+        this.replay = replay;
+        restart();
+    }
+
+    /**
+     * Plays a replay file back to its end, or to the given step, and prints whether it reproduced the round.
+     *
+     * @param args the replay file, optionally followed by the step to stop at.
+     * @throws IOException if the file cannot be read or is not a valid replay.
+     */
+    public static void main(final String[] args)
+            throws IOException
+    {
+        if(args.length <= FILE_ARGUMENT)
+        {
+            System.err.println("Usage: ReplayPlayer <replay file> [step]");
+            return;
+        }
+
+        final Replay replay;
+        final ReplayPlayer player;
+        final long start;
+        final long elapsed;
+
+        try(final InputStream in = new BufferedInputStream(new FileInputStream(args[FILE_ARGUMENT])))
+        {
+            replay = Replay.read(in);
+        }
+        player = new ReplayPlayer(replay);
+
+        start = System.nanoTime();
+        if(args.length > STEP_ARGUMENT)
+        {
+            player.seek(Integer.parseInt(args[STEP_ARGUMENT]));
+        }
+        else
+        {
+            player.playToEnd();
+        }
+        elapsed = System.nanoTime() - start;
+
+        System.out.println("Replay        : " + args[FILE_ARGUMENT]);
+        System.out.println("Arena         : " + replay.getArena());
+        System.out.println("Seed          : " + replay.getSeed());
+        System.out.println("User moves    : " + replay.getInputCount());
+        System.out.println("Step          : " + player.getCurrentStep() + " of " + replay.getNumberOfSteps());
+        System.out.println("Finished      : " + player.getGameLogic().getFinishedCount());
+        System.out.println("Eliminated    : " + player.getGameLogic().getEliminatedCount());
+        System.out.printf("Playback time : %.1f ms%n", elapsed / NANOSECONDS_PER_MILLISECOND);
+        if(player.isAtEnd())
+        {
+            System.out.println("Reproduced    : " + player.matchesRecording());
+        }
+    }
+
+    /**
+     * Returns the replay being played back.
+     *
+     * @return the replay.
+     */
+    public Replay getReplay()
+    {
+        return replay;
+    }
+
+    /**
+     * Returns the game logic the round is played back on. It is replaced whenever playback restarts.
+     *
+     * @return the game logic.
+     */
+    public GameLogic<Player> getGameLogic()
+    {
+        return gameLogic;
+    }
+
+    /**
+     * Returns the number of steps played so far.
+     *
+     * @return the current step.
+     */
+    public int getCurrentStep()
+    {
+        return currentStep;
+    }
+
+    /**
+     * Returns whether every recorded step has been played.
+     *
+     * @return true at the end of the round.
+     */
+    public boolean isAtEnd()
+    {
+        return currentStep >= replay.getNumberOfSteps();
+    }
+
+    /**
+     * Starts playback over from the beginning of the round on a fresh game.
+     */
+    public void restart()
+    {
+        clock = new ManualGameClock(replay.getStartTimeInNanoseconds());
+        gameLogic = GameLogic.newHeadlessInstance(replay.getSeed(), clock);
+        gameLogic.setNpcBehaviors(replay.getNpcBehaviors());
+        gameLogic.initGame(replay.getArena());
+        currentStep = FIRST_STEP;
+        nextInput = 0;
+    }
+
+    /**
+     * Plays the next step of the round: applies the user moves made during it, advances the game clock by one step,
+     * runs the due effects and updates the game. Does nothing at the end of the round.
+     */
+    public void step()
+    {
+        if(isAtEnd())
+        {
+            return;
+        }
+
+        while(nextInput < replay.getInputCount() && replay.getInputStep(nextInput) == currentStep)
+        {
+            final MovementDirection direction;
+            direction = replay.getInputDirection(nextInput);
+            if(!gameLogic.isGameOver())
+            {
+                gameLogic.tryMoveWithPush(gameLogic.getUser(), direction.getDeltaX(), direction.getDeltaY(), true);
+            }
+            nextInput++;
+        }
+
+        final long now;
+        now = clock.advance(replay.getStepInNanoseconds());
+        gameLogic.runDueEffects(now);
+        gameLogic.updateGame(now);
+        currentStep++;
+    }
+
+    /**
+     * Plays the round headless up to the given step, restarting it first if that step has already been passed.
+     *
+     * @param targetStep the step to stop at; clamped to the length of the round.
+     * @throws IllegalArgumentException if {@code targetStep} is negative.
+     */
+    public void seek(final int targetStep)
+    {
+        if(targetStep < FIRST_STEP)
+        {
+            throw new IllegalArgumentException("Step cannot be negative. Provided: " + targetStep);
+        }
+        if(targetStep < currentStep)
+        {
+            restart();
+        }
+        while(currentStep < targetStep && !isAtEnd())
+        {
+            step();
+        }
+    }
+
+    /**
+     * Plays the rest of the round headless.
+     */
+    public void playToEnd()
+    {
+        seek(replay.getNumberOfSteps());
+    }
+
+    /**
+     * Returns whether the game is in the state recorded at the end of the round. Only meaningful at the end.
+     *
+     * @return true if the checksum of the game matches the recorded one.
+     */
+    public boolean matchesRecording()
+    {
+        return Replay.checksum(gameLogic) == replay.getFinalStateChecksum();
+    }
+
+    /**
+     * Captures the world at the current step, ready to be drawn.
+     *
+     * @return a snapshot of the game at the current step.
+     */
+    public WorldSnapshot getSnapshot()
+    {
+        final GameState state;
+        state = gameLogic.isGameOver() ? GameState.GAME_OVER : GameState.GAME;
+        return WorldSnapshot.capture(gameLogic, state, clock.nanoTime());
+    }
+}
@@ -0,0 +1,195 @@
+package ca.bcit.comp2522.project.mygame.replay;
+
+import ca.bcit.comp2522.project.mygame.common.MovementDirection;
+import ca.bcit.comp2522.project.mygame.engine.GameLogic;
+import ca.bcit.comp2522.project.mygame.engine.NpcArchetype;
+import ca.bcit.comp2522.project.mygame.engine.NpcBehavior;
+
+import java.util.Arrays;
+
+/**
+ * Records a round of Red Light Blood Light as it is played, so that it can be saved as a {@link Replay}.
+ * <p>
+ * The recorder does not look at the game while it runs. The code driving the game tells it when a round begins,
+ * when the user makes a move and when a step has been played, and the recorder notes the step at which every move
+ * was made. Recording a round therefore costs a few bytes per user move and nothing per step.
+ * </p>
+ * <p>
+ * For a recording to play back faithfully, the round must be driven the way {@link ReplayPlayer} drives it: every
+ * step first applies the moves made during it, then advances the game clock by the step length, runs the due
+ * effects and updates the game. Like the game logic itself, this class is meant to be used by a single thread.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class ReplayRecorder
+{
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int GROWTH_FACTOR = 2;
+    private static final long MINIMUM_STEP_IN_NANOSECONDS = 1;
+
+    private long seed;
+    private long startTimeInNanoseconds;
+    private long stepInNanoseconds;
+    private GameLogic<?> gameLogic;
+    private NpcArchetype[] npcBehaviors;
+    private int[] inputSteps;
+    private byte[] inputDirections;
+    private int inputCount;
+    private int currentStep;
+
+    /**
+     * Constructs a {@code ReplayRecorder} that is not recording.
+     */
+    public ReplayRecorder()
+    {
+        this.inputSteps = new int[INITIAL_CAPACITY];
+        this.inputDirections = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Begins recording a round that has just been initialized, discarding any previous recording.
+     * <p>
+     * Must be called right after {@link GameLogic#initGame()}, whose random source must have been seeded with
+     * {@code seed} right before it, and before the first step of the round.
+     * </p>
+     *
+     * @param gameLogic         the game whose round is recorded.
+     * @param seed              the seed the gameplay random source was given before the round was initialized.
+     * @param stepInNanoseconds the game time that passes with every step.
+     * @throws IllegalArgumentException if {@code gameLogic} is null or its game has not been initialized, if
+     *                                  {@code stepInNanoseconds} is not positive, or if any NPC behavior of the game
+     *                                  is not an {@link NpcArchetype} and therefore cannot be saved.
+     */
+    public void begin(final GameLogic<?> gameLogic,
+                      final long seed,
+                      final long stepInNanoseconds)
+    {
+        validateGame(gameLogic, stepInNanoseconds);
+        this.npcBehaviors = toArchetypes(gameLogic.getNpcBehaviors());
+        this.gameLogic = gameLogic;
+        this.seed = seed;
+        this.startTimeInNanoseconds = gameLogic.getGameStartTimeInNanoseconds();
+        this.stepInNanoseconds = stepInNanoseconds;
+        this.inputCount = 0;
+        this.currentStep = 0;
+    }
+
+    /**
+     * Returns whether a round is being recorded.
+     *
+     * @return true between {@link #begin(GameLogic, long, long)} and {@link #finish()}.
+     */
+    public boolean isRecording()
+    {
+        return gameLogic != null;
+    }
+
+    /**
+     * Records a move of the user, made before the current step is played. Ignored if no round is being recorded.
+     *
+     * @param direction the direction of the move.
+     * @throws IllegalArgumentException if {@code direction} is null.
+     */
+    public void recordUserMove(final MovementDirection direction)
+    {
+        if(direction == null)
+        {
+            throw new IllegalArgumentException("MovementDirection cannot be null.");
+        }
+        if(!isRecording())
+        {
+            return;
+        }
+        if(inputCount == inputSteps.length)
+        {
+            inputSteps = Arrays.copyOf(inputSteps, inputSteps.length * GROWTH_FACTOR);
+            inputDirections = Arrays.copyOf(inputDirections, inputDirections.length * GROWTH_FACTOR);
+        }
+        inputSteps[inputCount] = currentStep;
+        inputDirections[inputCount] = (byte) direction.ordinal();
+        inputCount++;
+    }
+
+    /**
+     * Records that a step of the round has been played. Ignored if no round is being recorded.
+     */
+    public void recordStep()
+    {
+        if(isRecording())
+        {
+            currentStep++;
+        }
+    }
+
+    /**
+     * Stops recording and returns the recorded round, together with a checksum of the game's current state.
+     *
+     * @return the replay of the round.
+     * @throws IllegalStateException if no round is being recorded.
+     */
+    public Replay finish()
+    {
+        if(!isRecording())
+        {
+            throw new IllegalStateException("No round is being recorded.");
+        }
+
+        final Replay replay;
+        replay = new Replay(seed,
+                            startTimeInNanoseconds,
+                            stepInNanoseconds,
+                            gameLogic.getArena(),
+                            npcBehaviors,
+                            Arrays.copyOf(inputSteps, inputCount),
+                            Arrays.copyOf(inputDirections, inputCount),
+                            currentStep,
+                            Replay.checksum(gameLogic));
+        gameLogic = null;
+        return replay;
+    }
+
+    /*
+     * Converts the behaviors of a game into the archetypes a replay can store.
+     *
+     * @param behaviors the behaviors to convert.
+     * @return the same behaviors as archetypes.
+     * @throws IllegalArgumentException if any behavior is not an NpcArchetype.
+     */
+    private static NpcArchetype[] toArchetypes(final NpcBehavior[] behaviors)
+    {
+        final NpcArchetype[] archetypes;
+        archetypes = new NpcArchetype[behaviors.length];
+        for(int behavior = 0; behavior < behaviors.length; behavior++)
+        {
+            if(!(behaviors[behavior] instanceof NpcArchetype))
+            {
+                throw new IllegalArgumentException("Only rounds played with NpcArchetype behaviors can be recorded. " +
+                                                   "Provided: " + behaviors[behavior]);
+            }
+            archetypes[behavior] = (NpcArchetype) behaviors[behavior];
+        }
+        return archetypes;
+    }
+
+    /*
+     * Validates that the game has been initialized and the step length is positive.
+     *
+     * @param gameLogic         the GameLogic to validate.
+     * @param stepInNanoseconds the step length to validate.
+     * @throws IllegalArgumentException if either is invalid.
+     */
+    private static void validateGame(final GameLogic<?> gameLogic,
+                                     final long stepInNanoseconds)
+    {
+        if(gameLogic == null || gameLogic.getPlayerStore() == null)
+        {
+            throw new IllegalArgumentException("GameLogic cannot be null and its game must be initialized.");
+        }
+        if(stepInNanoseconds < MINIMUM_STEP_IN_NANOSECONDS)
+        {
+            throw new IllegalArgumentException("Step length must be positive. Provided: " + stepInNanoseconds);
+        }
+    }
+}
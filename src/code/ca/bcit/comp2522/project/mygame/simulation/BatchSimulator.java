@@ -0,0 +1,217 @@
+package ca.bcit.comp2522.project.mygame.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays a large number of simulated rounds in parallel across all available processor cores.
+ * <p>
+ * The requested rounds are split into fixed-size batches. Each batch is played by its own {@link HeadlessSimulator},
+ * and therefore its own headless game, on a thread of a fixed-size pool; the batches share no state, so they need no
+ * locking and the work scales with the number of cores. Once every batch has finished, the per-batch statistics are
+ * merged in batch order.
+ * </p>
+ * <p>
+ * Every batch draws its seed from the run's seed and the batch's position, and the batch size does not depend on the
+ * number of threads. The merged statistics are therefore the same for a given seed no matter how many threads play
+ * the batches or in which order they finish.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class BatchSimulator
+{
+    /**
+     * The default number of rounds played by a single batch.
+     */
+    public static final int DEFAULT_ROUNDS_PER_BATCH = 50;
+
+    private static final int DEFAULT_NUMBER_OF_ROUNDS = 10_000;
+    private static final long DEFAULT_SEED = 0L;
+    private static final int ROUNDS_ARGUMENT = 0;
+    private static final int SEED_ARGUMENT = 1;
+    private static final int THREADS_ARGUMENT = 2;
+    private static final int MINIMUM_NUMBER_OF_ROUNDS = 0;
+    private static final int MINIMUM_POSITIVE_VALUE = 1;
+    private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000.0;
+
+    // Spreads consecutive batch indices over the whole seed space (the 64-bit golden ratio).
+    private static final long BATCH_SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+    private final HeadlessSimulator simulator;
+    private final int numberOfThreads;
+    private final int roundsPerBatch;
+
+    /**
+     * Constructs a {@code BatchSimulator} that plays default rounds on one thread per available processor.
+     */
+    public BatchSimulator()
+    {
+        this(new HeadlessSimulator(), Runtime.getRuntime().availableProcessors(), DEFAULT_ROUNDS_PER_BATCH);
+    }
+
+    /**
+     * Constructs a {@code BatchSimulator} with the given round settings, thread count and batch size.
+     *
+     * @param simulator       the simulator describing how a single round is played; it is only read, never shared
+     *                        mutable state, so every batch can use it concurrently.
+     * @param numberOfThreads the number of threads playing batches at the same time.
+     * @param roundsPerBatch  the number of rounds played by a single batch.
+     * @throws IllegalArgumentException if {@code simulator} is null or either number is not positive.
+     */
+    public BatchSimulator(final HeadlessSimulator simulator,
+                          final int numberOfThreads,
+                          final int roundsPerBatch)
+    {
+        validateConfiguration(simulator, numberOfThreads, roundsPerBatch);
+        this.simulator = simulator;
+        this.numberOfThreads = numberOfThreads;
+        this.roundsPerBatch = roundsPerBatch;
+    }
+
+    /**
+     * Plays the given number of rounds in parallel and returns their merged outcomes.
+     *
+     * @param numberOfRounds the total number of rounds to play.
+     * @param seed           the seed from which the seed of every batch is derived.
+     * @return the statistics of all rounds played.
+     * @throws IllegalArgumentException if {@code numberOfRounds} is negative.
+     * @throws IllegalStateException    if a batch fails or the calling thread is interrupted while waiting.
+     */
+    public SimulationStatistics run(final int numberOfRounds,
+                                    final long seed)
+    {
+        validateNumberOfRounds(numberOfRounds);
+
+        final ExecutorService executor;
+        final List<Future<SimulationStatistics>> batches;
+
+        executor = Executors.newFixedThreadPool(numberOfThreads);
+        batches = new ArrayList<>();
+        try
+        {
+            for(int firstRound = 0; firstRound < numberOfRounds; firstRound += roundsPerBatch)
+            {
+                final int rounds;
+                final long batchSeed;
+
+                rounds = Math.min(roundsPerBatch, numberOfRounds - firstRound);
+                batchSeed = seed + (firstRound / roundsPerBatch) * BATCH_SEED_INCREMENT;
+                batches.add(executor.submit(() -> simulator.run(rounds, batchSeed)));
+            }
+            return mergeInOrder(batches);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs a parallel simulation from the command line and prints the statistics.
+     * <p>
+     * The optional arguments are, in order, the number of rounds to play, the seed and the number of threads.
+     * </p>
+     *
+     * @param args the optional number of rounds, seed and number of threads.
+     */
+    public static void main(final String[] args)
+    {
+        final int numberOfRounds;
+        final long seed;
+        final int numberOfThreads;
+        final long start;
+        final long elapsed;
+        final SimulationStatistics statistics;
+
+        numberOfRounds = args.length > ROUNDS_ARGUMENT ? Integer.parseInt(args[ROUNDS_ARGUMENT]) :
+                                                         DEFAULT_NUMBER_OF_ROUNDS;
+        seed = args.length > SEED_ARGUMENT ? Long.parseLong(args[SEED_ARGUMENT]) : DEFAULT_SEED;
+        numberOfThreads = args.length > THREADS_ARGUMENT ? Integer.parseInt(args[THREADS_ARGUMENT]) :
+                                                           Runtime.getRuntime().availableProcessors();
+
+        start = System.nanoTime();
+        statistics = new BatchSimulator(new HeadlessSimulator(), numberOfThreads, DEFAULT_ROUNDS_PER_BATCH)
+                .run(numberOfRounds, seed);
+        elapsed = System.nanoTime() - start;
+
+        System.out.println(statistics);
+        System.out.printf("Simulated on %d threads in %.0f ms%n",
+                          numberOfThreads,
+                          elapsed / NANOSECONDS_PER_MILLISECOND);
+    }
+
+    /*
+     * Waits for every batch and merges their statistics in submission order.
+     *
+     * @param batches the pending batches.
+     * @return the merged statistics.
+     * @throws IllegalStateException if a batch failed or the thread was interrupted.
+     */
+    private static SimulationStatistics mergeInOrder(final List<Future<SimulationStatistics>> batches)
+    {
+        final SimulationStatistics merged;
+        merged = new SimulationStatistics();
+
+        for(final Future<SimulationStatistics> batch : batches)
+        {
+            try
+            {
+                merged.merge(batch.get());
+            }
+            catch(final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for simulated rounds.", e);
+            }
+            catch(final ExecutionException e)
+            {
+                throw new IllegalStateException("A batch of simulated rounds failed.", e.getCause());
+            }
+        }
+        return merged;
+    }
+
+    /*
+     * Validates the configuration of the batch simulator.
+     *
+     * @param simulator       the simulator to validate.
+     * @param numberOfThreads the number of threads to validate.
+     * @param roundsPerBatch  the batch size to validate.
+     * @throws IllegalArgumentException if simulator is null or either number is not positive.
+     */
+    private static void validateConfiguration(final HeadlessSimulator simulator,
+                                              final int numberOfThreads,
+                                              final int roundsPerBatch)
+    {
+        if(simulator == null)
+        {
+            throw new IllegalArgumentException("HeadlessSimulator cannot be null.");
+        }
+        if(numberOfThreads < MINIMUM_POSITIVE_VALUE || roundsPerBatch < MINIMUM_POSITIVE_VALUE)
+        {
+            throw new IllegalArgumentException("Number of threads and rounds per batch must be positive. Provided " +
+                                               "threads: " + numberOfThreads + ", rounds per batch: " +
+                                               roundsPerBatch);
+        }
+    }
+
+    /*
+     * Validates that the number of rounds is not negative.
+     *
+     * @param numberOfRounds the number of rounds to validate.
+     * @throws IllegalArgumentException if numberOfRounds is negative.
+     */
+    private static void validateNumberOfRounds(final int numberOfRounds)
+    {
+        if(numberOfRounds < MINIMUM_NUMBER_OF_ROUNDS)
+        {
+            throw new IllegalArgumentException("Number of rounds cannot be negative. Provided: " + numberOfRounds);
+        }
+    }
+}
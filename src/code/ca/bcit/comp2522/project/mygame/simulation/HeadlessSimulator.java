@@ -0,0 +1,249 @@
+package ca.bcit.comp2522.project.mygame.simulation;
+
+import ca.bcit.comp2522.project.mygame.common.ArenaConfig;
+import ca.bcit.comp2522.project.mygame.engine.GameLogic;
+import ca.bcit.comp2522.project.mygame.engine.ManualGameClock;
+import ca.bcit.comp2522.project.mygame.entities.Player;
+
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.GRID_HEIGHT_IN_NUMBER_OF_CELLS;
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.GRID_WIDTH_IN_NUMBER_OF_CELLS;
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.MOVE_COOLDOWN_IN_NANOSECONDS;
+
+/**
+ * Plays complete rounds of Red Light Blood Light back-to-back without a window, sound or the JavaFX toolkit.
+ * <p>
+ * The simulator drives a headless {@link GameLogic} with a {@link ManualGameClock}, advancing game time by a fixed
+ * tick after every update. Since no frame ever waits for the screen, rounds that take minutes to watch complete in a
+ * fraction of a second, which makes it practical to play thousands of them while tuning the probabilities and timings
+ * in {@code GameConfig}. The user never moves during a simulation, so the outcomes describe how the crowd of NPCs
+ * fares on its own.
+ * </p>
+ * <p>
+ * Every run is seeded, so running the same number of rounds with the same seed always produces the same statistics.
+ * A round ends when the game is over. Because the user stands still, a round can also stall once too few NPCs are
+ * left to fill the finish line; such a round is cut off as soon as no NPC remains on the field, or at the latest once
+ * it has lasted the configured maximum duration, and is counted as not completed.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class HeadlessSimulator
+{
+    /**
+     * The default length of a simulated tick, matching a 60 Hz animation frame.
+     */
+    public static final long DEFAULT_TICK_IN_NANOSECONDS = 16_666_667L;
+
+    /**
+     * The default game time after which a round that has not ended on its own is cut off.
+     */
+    public static final long DEFAULT_MAXIMUM_ROUND_DURATION_IN_NANOSECONDS = 600_000_000_000L;
+
+    private static final int DEFAULT_NUMBER_OF_ROUNDS = 1000;
+    private static final long DEFAULT_SEED = 0L;
+    private static final int ROUNDS_ARGUMENT = 0;
+    private static final int SEED_ARGUMENT = 1;
+    private static final int WIDTH_ARGUMENT = 2;
+    private static final int HEIGHT_ARGUMENT = 3;
+    private static final int PLAYERS_ARGUMENT = 4;
+    private static final int MINIMUM_NUMBER_OF_ROUNDS = 0;
+    private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000.0;
+
+    private final ArenaConfig arena;
+    private final long tickInNanoseconds;
+    private final long maximumRoundDurationInNanoseconds;
+
+    /**
+     * Constructs a {@code HeadlessSimulator} with the default crowd size, tick length and maximum round duration.
+     */
+    public HeadlessSimulator()
+    {
+        this(ArenaConfig.DEFAULT, DEFAULT_TICK_IN_NANOSECONDS, DEFAULT_MAXIMUM_ROUND_DURATION_IN_NANOSECONDS);
+    }
+
+    /**
+     * Constructs a {@code HeadlessSimulator} with the given crowd size, tick length and maximum round duration.
+     *
+     * @param numberOfPlayers                   the number of players in every round, including the user.
+     * @param tickInNanoseconds                 the game time that passes between two updates.
+     * @param maximumRoundDurationInNanoseconds the game time after which an unfinished round is cut off.
+     * @throws IllegalArgumentException if any argument is not positive, or if the players do not fit the grid.
+     */
+    public HeadlessSimulator(final int numberOfPlayers,
+                             final long tickInNanoseconds,
+                             final long maximumRoundDurationInNanoseconds)
+    {
+        this(new ArenaConfig(GRID_WIDTH_IN_NUMBER_OF_CELLS, GRID_HEIGHT_IN_NUMBER_OF_CELLS, numberOfPlayers),
+             tickInNanoseconds,
+             maximumRoundDurationInNanoseconds);
+    }
+
+    /**
+     * Constructs a {@code HeadlessSimulator} that plays every round on the given arena, with the given tick length
+     * and maximum round duration.
+     *
+     * @param arena                             the grid size and number of players of every round.
+     * @param tickInNanoseconds                 the game time that passes between two updates.
+     * @param maximumRoundDurationInNanoseconds the game time after which an unfinished round is cut off.
+     * @throws IllegalArgumentException if {@code arena} is null or either duration is not positive.
+     */
+    public HeadlessSimulator(final ArenaConfig arena,
+                             final long tickInNanoseconds,
+                             final long maximumRoundDurationInNanoseconds)
+    {
+        validateConfiguration(arena, tickInNanoseconds, maximumRoundDurationInNanoseconds);
+        this.arena = arena;
+        this.tickInNanoseconds = tickInNanoseconds;
+        this.maximumRoundDurationInNanoseconds = maximumRoundDurationInNanoseconds;
+    }
+
+    /**
+     * Plays the given number of rounds back-to-back and returns their combined outcomes.
+     *
+     * @param numberOfRounds the number of rounds to play.
+     * @param seed           the seed of the gameplay random source shared by all rounds.
+     * @return the statistics of the rounds played.
+     * @throws IllegalArgumentException if {@code numberOfRounds} is negative.
+     */
+    public SimulationStatistics run(final int numberOfRounds,
+                                    final long seed)
+    {
+        validateNumberOfRounds(numberOfRounds);
+
+        final SimulationStatistics statistics;
+        final ManualGameClock clock;
+        final GameLogic<Player> gameLogic;
+
+        statistics = new SimulationStatistics();
+
+        // Start past the move cooldown so that nobody is held back by a last move that never happened.
+        clock = new ManualGameClock(MOVE_COOLDOWN_IN_NANOSECONDS);
+        gameLogic = GameLogic.newHeadlessInstance(seed, clock);
+
+        for(int round = 0; round < numberOfRounds; round++)
+        {
+            playRound(gameLogic, clock, statistics);
+        }
+        return statistics;
+    }
+
+    /**
+     * Runs a simulation from the command line and prints the statistics.
+     * <p>
+     * The optional first argument is the number of rounds to play and the optional second argument is the seed.
+     * Three further optional arguments, the grid width, grid height and number of players, play every round on an
+     * arena of that size instead of the default one; all three must be given together.
+     * </p>
+     *
+     * @param args the optional number of rounds, seed and arena size.
+     */
+    public static void main(final String[] args)
+    {
+        final int numberOfRounds;
+        final long seed;
+        final long start;
+        final long elapsed;
+        final ArenaConfig arena;
+        final SimulationStatistics statistics;
+
+        numberOfRounds = args.length > ROUNDS_ARGUMENT ? Integer.parseInt(args[ROUNDS_ARGUMENT]) :
+                                                         DEFAULT_NUMBER_OF_ROUNDS;
+        seed = args.length > SEED_ARGUMENT ? Long.parseLong(args[SEED_ARGUMENT]) : DEFAULT_SEED;
+        arena = args.length > PLAYERS_ARGUMENT ? new ArenaConfig(Integer.parseInt(args[WIDTH_ARGUMENT]),
+                                                                 Integer.parseInt(args[HEIGHT_ARGUMENT]),
+                                                                 Integer.parseInt(args[PLAYERS_ARGUMENT])) :
+                                                 ArenaConfig.DEFAULT;
+
+        start = System.nanoTime();
+        statistics = new HeadlessSimulator(arena,
+                                           DEFAULT_TICK_IN_NANOSECONDS,
+                                           DEFAULT_MAXIMUM_ROUND_DURATION_IN_NANOSECONDS).run(numberOfRounds, seed);
+        elapsed = System.nanoTime() - start;
+
+        System.out.println(statistics);
+        System.out.printf("Simulated in %.0f ms%n", elapsed / NANOSECONDS_PER_MILLISECOND);
+    }
+
+    /*
+     * Plays a single round to its end, or until it reaches the maximum duration, and records its outcome.
+     *
+     * @param gameLogic  the headless game to play.
+     * @param clock      the clock driving the game.
+     * @param statistics the statistics to record the outcome in.
+     */
+    private void playRound(final GameLogic<Player> gameLogic,
+                           final ManualGameClock clock,
+                           final SimulationStatistics statistics)
+    {
+        gameLogic.initGame(arena);
+
+        final long start;
+        long duration;
+        boolean stalled;
+
+        start = gameLogic.getGameStartTimeInNanoseconds();
+        duration = 0;
+        stalled = false;
+        while(!gameLogic.isGameOver() && !stalled && duration < maximumRoundDurationInNanoseconds)
+        {
+            gameLogic.updateGame(clock.advance(tickInNanoseconds));
+            duration = clock.nanoTime() - start;
+
+            // The round has stalled once no NPC is left on the field to reach the finish line.
+            stalled = gameLogic.getOnFieldCount() == (isOnField(gameLogic.getUser()) ? 1 : 0);
+        }
+
+        statistics.recordRound(gameLogic.getFinishedCount(),
+                               gameLogic.getEliminatedCount(),
+                               gameLogic.isGameOver(),
+                               duration);
+    }
+
+    /*
+     * Indicates whether the given player is still on the field.
+     *
+     * @param player the player to check.
+     * @return true if the player is neither eliminated nor finished.
+     */
+    private static boolean isOnField(final Player player)
+    {
+        return !player.isEliminated() && !player.isFinished();
+    }
+
+    /*
+     * Validates the configuration of the simulator.
+     *
+     * @param arena                             the arena to validate.
+     * @param tickInNanoseconds                 the tick length to validate.
+     * @param maximumRoundDurationInNanoseconds the maximum round duration to validate.
+     * @throws IllegalArgumentException if the arena is null or either duration is not positive.
+     */
+    private static void validateConfiguration(final ArenaConfig arena,
+                                              final long tickInNanoseconds,
+                                              final long maximumRoundDurationInNanoseconds)
+    {
+        if(arena == null ||
+           tickInNanoseconds <= 0 ||
+           maximumRoundDurationInNanoseconds <= 0)
+        {
+            throw new IllegalArgumentException("Simulation settings must be set and positive. Provided arena: " +
+                                               arena + ", tick: " + tickInNanoseconds +
+                                               ", maximum duration: " + maximumRoundDurationInNanoseconds);
+        }
+    }
+
+    /*
+     * Validates that the number of rounds is not negative.
+     *
+     * @param numberOfRounds the number of rounds to validate.
+     * @throws IllegalArgumentException if numberOfRounds is negative.
+     */
+    private static void validateNumberOfRounds(final int numberOfRounds)
+    {
+        if(numberOfRounds < MINIMUM_NUMBER_OF_ROUNDS)
+        {
+            throw new IllegalArgumentException("Number of rounds cannot be negative. Provided: " + numberOfRounds);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package ca.bcit.comp2522.project.mygame.simulation;
+
+/**
+ * Accumulates the outcomes of simulated rounds of Red Light Blood Light.
+ * <p>
+ * For every recorded round the statistics keep track of the number of finishers, the number of eliminated players,
+ * whether the round ended on its own or had to be cut off, and how long it lasted in game time. Statistics collected
+ * separately, for example by different simulation runs, can be combined with {@link #merge(SimulationStatistics)}.
+ * </p>
+ * <p>
+ * This class is not thread-safe; every simulation run should collect into its own instance.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class SimulationStatistics
+{
+    private static final int NO_ROUNDS = 0;
+    private static final double NANOSECONDS_PER_SECOND = 1_000_000_000.0;
+
+    private int rounds;
+    private int completedRounds;
+    private long totalFinished;
+    private long totalEliminated;
+    private long totalDurationInNanoseconds;
+    private long shortestDurationInNanoseconds;
+    private long longestDurationInNanoseconds;
+
+    /**
+     * Constructs an empty {@code SimulationStatistics} with no recorded rounds.
+     */
+    public SimulationStatistics()
+    {
+        this.rounds = NO_ROUNDS;
+        this.completedRounds = NO_ROUNDS;
+        this.totalFinished = 0;
+        this.totalEliminated = 0;
+        this.totalDurationInNanoseconds = 0;
+        this.shortestDurationInNanoseconds = Long.MAX_VALUE;
+        this.longestDurationInNanoseconds = 0;
+    }
+
+    /**
+     * Records the outcome of a single round.
+     *
+     * @param finished              the number of players who crossed the finish line in time.
+     * @param eliminated            the number of players who were eliminated.
+     * @param completed             {@code true} if the round ended on its own; {@code false} if it was cut off.
+     * @param durationInNanoseconds the length of the round in game time, in nanoseconds.
+     * @throws IllegalArgumentException if any count or the duration is negative.
+     */
+    public void recordRound(final int finished,
+                            final int eliminated,
+                            final boolean completed,
+                            final long durationInNanoseconds)
+    {
+        validateOutcome(finished, eliminated, durationInNanoseconds);
+
+        rounds++;
+        if(completed)
+        {
+            completedRounds++;
+        }
+        totalFinished += finished;
+        totalEliminated += eliminated;
+        totalDurationInNanoseconds += durationInNanoseconds;
+        shortestDurationInNanoseconds = Math.min(shortestDurationInNanoseconds, durationInNanoseconds);
+        longestDurationInNanoseconds = Math.max(longestDurationInNanoseconds, durationInNanoseconds);
+    }
+
+    /**
+     * Adds every round recorded by another {@code SimulationStatistics} to this one.
+     *
+     * @param other the statistics to merge into this one.
+     * @throws IllegalArgumentException if {@code other} is null.
+     */
+    public void merge(final SimulationStatistics other)
+    {
+        if(other == null)
+        {
+            throw new IllegalArgumentException("SimulationStatistics to merge cannot be null.");
+        }
+
+        rounds += other.rounds;
+        completedRounds += other.completedRounds;
+        totalFinished += other.totalFinished;
+        totalEliminated += other.totalEliminated;
+        totalDurationInNanoseconds += other.totalDurationInNanoseconds;
+        shortestDurationInNanoseconds = Math.min(shortestDurationInNanoseconds, other.shortestDurationInNanoseconds);
+        longestDurationInNanoseconds = Math.max(longestDurationInNanoseconds, other.longestDurationInNanoseconds);
+    }
+
+    /**
+     * Returns the number of recorded rounds.
+     *
+     * @return the number of rounds.
+     */
+    public int getRounds()
+    {
+        return rounds;
+    }
+
+    /**
+     * Returns the number of recorded rounds that ended on their own rather than being cut off.
+     *
+     * @return the number of completed rounds.
+     */
+    public int getCompletedRounds()
+    {
+        return completedRounds;
+    }
+
+    /**
+     * Returns the total number of finishers over all recorded rounds.
+     *
+     * @return the total number of finishers.
+     */
+    public long getTotalFinished()
+    {
+        return totalFinished;
+    }
+
+    /**
+     * Returns the total number of eliminated players over all recorded rounds.
+     *
+     * @return the total number of eliminations.
+     */
+    public long getTotalEliminated()
+    {
+        return totalEliminated;
+    }
+
+    /**
+     * Returns the average number of finishers per round.
+     *
+     * @return the average number of finishers, or {@code 0} if no round was recorded.
+     */
+    public double getAverageFinished()
+    {
+        return average(totalFinished);
+    }
+
+    /**
+     * Returns the average number of eliminated players per round.
+     *
+     * @return the average number of eliminations, or {@code 0} if no round was recorded.
+     */
+    public double getAverageEliminated()
+    {
+        return average(totalEliminated);
+    }
+
+    /**
+     * Returns the average length of a round in game time.
+     *
+     * @return the average round duration in nanoseconds, or {@code 0} if no round was recorded.
+     */
+    public double getAverageDurationInNanoseconds()
+    {
+        return average(totalDurationInNanoseconds);
+    }
+
+    /**
+     * Returns the length of the shortest recorded round in game time.
+     *
+     * @return the shortest round duration in nanoseconds, or {@code 0} if no round was recorded.
+     */
+    public long getShortestDurationInNanoseconds()
+    {
+        return rounds == NO_ROUNDS ? 0 : shortestDurationInNanoseconds;
+    }
+
+    /**
+     * Returns the length of the longest recorded round in game time.
+     *
+     * @return the longest round duration in nanoseconds.
+     */
+    public long getLongestDurationInNanoseconds()
+    {
+        return longestDurationInNanoseconds;
+    }
+
+    /**
+     * Returns a human-readable summary of the recorded outcomes.
+     *
+     * @return a multi-line summary of the statistics.
+     */
+    @Override
+    public String toString()
+    {
+        return String.format("Rounds:              %d (%d completed)%n" +
+                             "Finishers / round:   %.2f%n" +
+                             "Eliminated / round:  %.2f%n" +
+                             "Round duration:      avg %.2fs, min %.2fs, max %.2fs",
+                             rounds,
+                             completedRounds,
+                             getAverageFinished(),
+                             getAverageEliminated(),
+                             getAverageDurationInNanoseconds() / NANOSECONDS_PER_SECOND,
+                             getShortestDurationInNanoseconds() / NANOSECONDS_PER_SECOND,
+                             getLongestDurationInNanoseconds() / NANOSECONDS_PER_SECOND);
+    }
+
+    /*
+     * Divides a total by the number of recorded rounds.
+     *
+     * @param total the total to average.
+     * @return the average per round, or 0 if no round was recorded.
+     */
+    private double average(final long total)
+    {
+        return rounds == NO_ROUNDS ? 0 : (double) total / rounds;
+    }
+
+    /*
+     * Validates that the outcome of a round holds no negative values.
+     *
+     * @param finished              the number of finishers.
+     * @param eliminated            the number of eliminated players.
+     * @param durationInNanoseconds the length of the round.
+     * @throws IllegalArgumentException if any value is negative.
+     */
+    private static void validateOutcome(final int finished,
+                                        final int eliminated,
+                                        final long durationInNanoseconds)
+    {
+        if(finished < 0 || eliminated < 0 || durationInNanoseconds < 0)
+        {
+            throw new IllegalArgumentException("Round outcomes cannot be negative. Provided finished: " + finished +
+                                               ", eliminated: " + eliminated +
+                                               ", duration: " + durationInNanoseconds);
+        }
+    }
+}
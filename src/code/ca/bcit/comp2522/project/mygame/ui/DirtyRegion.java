@@ -0,0 +1,147 @@
+package ca.bcit.comp2522.project.mygame.ui;
+
+import javafx.scene.canvas.GraphicsContext;
+
+/*
+ * The part of the game board that has to be repainted for the next frame, kept as a short list of rectangles.
+ * <p>
+ * The region is meant for frames in which only a few sprites changed. It holds at most a fixed number of rectangles,
+ * and only counts as worth repainting piecemeal while their total area stays below a fixed fraction of the board.
+ * Past either limit it is marked overflowed, and the caller is expected to repaint the whole board instead. Rectangles
+ * are not merged; overlapping ones are simply repainted twice under the same clip.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+final class DirtyRegion
+{
+    private static final int MAXIMUM_NUMBER_OF_RECTANGLES = 64;
+    private static final double MAXIMUM_AREA_FRACTION = 0.5;
+
+    private final double[] left;
+    private final double[] top;
+    private final double[] right;
+    private final double[] bottom;
+    private final double maximumArea;
+    private int numberOfRectangles;
+    private double area;
+    private boolean overflowed;
+
+    /*
+     * Constructs an empty region on a board of the given size.
+     *
+     * @param boardWidth  the width of the board in pixels.
+     * @param boardHeight the height of the board in pixels.
+     */
+    DirtyRegion(final double boardWidth,
+                final double boardHeight)
+    {
+        this.left = new double[MAXIMUM_NUMBER_OF_RECTANGLES];
+        this.top = new double[MAXIMUM_NUMBER_OF_RECTANGLES];
+        this.right = new double[MAXIMUM_NUMBER_OF_RECTANGLES];
+        this.bottom = new double[MAXIMUM_NUMBER_OF_RECTANGLES];
+        this.maximumArea = boardWidth * boardHeight * MAXIMUM_AREA_FRACTION;
+    }
+
+    /*
+     * Empties the region.
+     */
+    void clear()
+    {
+        numberOfRectangles = 0;
+        area = 0;
+        overflowed = false;
+    }
+
+    /*
+     * Adds a rectangle to the region, marking the region overflowed if it no longer fits.
+     *
+     * @param x      the left edge of the rectangle in pixels.
+     * @param y      the top edge of the rectangle in pixels.
+     * @param width  the width of the rectangle in pixels.
+     * @param height the height of the rectangle in pixels.
+     */
+    void add(final double x,
+             final double y,
+             final double width,
+             final double height)
+    {
+        if(overflowed)
+        {
+            return;
+        }
+        if(numberOfRectangles == MAXIMUM_NUMBER_OF_RECTANGLES || area + width * height > maximumArea)
+        {
+            overflowed = true;
+            return;
+        }
+
+        left[numberOfRectangles] = x;
+        top[numberOfRectangles] = y;
+        right[numberOfRectangles] = x + width;
+        bottom[numberOfRectangles] = y + height;
+        numberOfRectangles++;
+        area += width * height;
+    }
+
+    /*
+     * Tells whether nothing has to be repainted.
+     *
+     * @return true if the region holds no rectangle and has not overflowed.
+     */
+    boolean isEmpty()
+    {
+        return numberOfRectangles == 0 && !overflowed;
+    }
+
+    /*
+     * Tells whether the region grew too large or fragmented to be worth repainting piecemeal.
+     *
+     * @return true if the whole board should be repainted.
+     */
+    boolean isOverflowed()
+    {
+        return overflowed;
+    }
+
+    /*
+     * Tells whether the given rectangle overlaps the region.
+     *
+     * @param x      the left edge of the rectangle in pixels.
+     * @param y      the top edge of the rectangle in pixels.
+     * @param width  the width of the rectangle in pixels.
+     * @param height the height of the rectangle in pixels.
+     * @return true if any rectangle of the region overlaps the given one.
+     */
+    boolean intersects(final double x,
+                       final double y,
+                       final double width,
+                       final double height)
+    {
+        for(int i = 0; i < numberOfRectangles; i++)
+        {
+            if(x < right[i] && x + width > left[i] && y < bottom[i] && y + height > top[i])
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Restricts further drawing on the graphics context to the region. The caller saves the state of the graphics
+     * context before and restores it after drawing, which lifts the clip again.
+     *
+     * @param graphicsContext the graphics context to clip.
+     */
+    void clip(final GraphicsContext graphicsContext)
+    {
+        graphicsContext.beginPath();
+        for(int i = 0; i < numberOfRectangles; i++)
+        {
+            graphicsContext.rect(left[i], top[i], right[i] - left[i], bottom[i] - top[i]);
+        }
+        graphicsContext.clip();
+    }
+}
@@ -0,0 +1,129 @@
+package ca.bcit.comp2522.project.mygame.ui;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.CELL_SIZE_IN_PIXEL;
+
+/**
+ * The stack of transparent canvases the game is drawn on, one per part of the screen that changes at its own pace.
+ * <p>
+ * From bottom to top, the layers are:
+ * <ul>
+ *   <li><b>Background:</b> the black field and the finish line, painted once per round. The intro and game over
+ *       screens are drawn on this layer too.</li>
+ *   <li><b>Doll:</b> the light machine, repainted only when the light changes.</li>
+ *   <li><b>Crowd:</b> the players, repainted around the sprites that moved or changed.</li>
+ *   <li><b>HUD:</b> the time and player counts, repainted only when their text changes.</li>
+ * </ul>
+ * Every layer is as large as the screen and is drawn with the same monospaced font, left-aligned text and
+ * top-anchored text baseline. The layers above the background let mouse events through. A layer that is not
+ * repainted keeps its pixels, so a frame only costs the layers that changed. The canvases are meant to be stacked in
+ * the order {@link #getCanvases()} returns them, for example in a {@code StackPane}.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public final class GameLayers
+{
+    private static final String FONT_STYLE = "Monospaced";
+
+    private final Canvas background;
+    private final Canvas doll;
+    private final Canvas crowd;
+    private final Canvas hud;
+
+    /**
+     * Constructs the layers, each of the given size.
+     *
+     * @param width  the width of every layer in pixels.
+     * @param height the height of every layer in pixels.
+     */
+    public GameLayers(final double width,
+                      final double height)
+    {
+        this.background = createLayer(width, height);
+        this.doll = createLayer(width, height);
+        this.crowd = createLayer(width, height);
+        this.hud = createLayer(width, height);
+
+        doll.setMouseTransparent(true);
+        crowd.setMouseTransparent(true);
+        hud.setMouseTransparent(true);
+    }
+
+    /**
+     * Returns the canvases of the layers, from bottom to top.
+     *
+     * @return a new array holding the background, doll, crowd and HUD canvases, in that order.
+     */
+    public Canvas[] getCanvases()
+    {
+        return new Canvas[]{background, doll, crowd, hud};
+    }
+
+    /**
+     * Returns the graphics context of the background layer.
+     *
+     * @return the graphics context of the background layer.
+     */
+    public GraphicsContext getBackground()
+    {
+        return background.getGraphicsContext2D();
+    }
+
+    /**
+     * Returns the graphics context of the doll layer.
+     *
+     * @return the graphics context of the doll layer.
+     */
+    public GraphicsContext getDoll()
+    {
+        return doll.getGraphicsContext2D();
+    }
+
+    /**
+     * Returns the graphics context of the crowd layer.
+     *
+     * @return the graphics context of the crowd layer.
+     */
+    public GraphicsContext getCrowd()
+    {
+        return crowd.getGraphicsContext2D();
+    }
+
+    /**
+     * Returns the graphics context of the HUD layer.
+     *
+     * @return the graphics context of the HUD layer.
+     */
+    public GraphicsContext getHud()
+    {
+        return hud.getGraphicsContext2D();
+    }
+
+    /*
+     * Creates a layer of the given size with the text settings the game is drawn with.
+     *
+     * @param width  the width of the layer in pixels.
+     * @param height the height of the layer in pixels.
+     * @return the canvas of the layer.
+     */
+    private static Canvas createLayer(final double width,
+                                      final double height)
+    {
+        final Canvas canvas;
+        final GraphicsContext graphicsContext;
+
+        canvas = new Canvas(width, height);
+        graphicsContext = canvas.getGraphicsContext2D();
+        graphicsContext.setFont(Font.font(FONT_STYLE, CELL_SIZE_IN_PIXEL));
+        graphicsContext.setTextAlign(TextAlignment.LEFT);
+        graphicsContext.setTextBaseline(VPos.TOP);
+        return canvas;
+    }
+}
@@ -2,8 +2,10 @@ package ca.bcit.comp2522.project.mygame.ui;
 
 import ca.bcit.comp2522.project.mygame.common.GameState;
 import ca.bcit.comp2522.project.mygame.engine.GameLogic;
+import ca.bcit.comp2522.project.mygame.engine.WorldSnapshot;
 import ca.bcit.comp2522.project.mygame.entities.Player;
 import ca.bcit.comp2522.project.mygame.util.DrawingUtils;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
@@ -18,7 +20,6 @@ import static ca.bcit.comp2522.project.mygame.common.GameConfig.FINISH_LINE_Y_IN
 import static ca.bcit.comp2522.project.mygame.common.GameConfig.STAT_HEIGHT_IN_PIXEL;
 import static ca.bcit.comp2522.project.mygame.common.GameConfig.TOP_MARGIN_IN_PIXEL;
 import static ca.bcit.comp2522.project.mygame.util.DrawingUtils.computeTextWidth;
-import static ca.bcit.comp2522.project.mygame.util.DrawingUtils.putSafeString;
 
 /**
  * The {@code GameRenderer} class is responsible for drawing the entire user interface (UI) of the game.
@@ -31,10 +32,24 @@ import static ca.bcit.comp2522.project.mygame.util.DrawingUtils.putSafeString;
  *   <li><b>Game Over Screen:</b> Presents a game over message that adapts based on whether the user is eliminated
  *       or has won, and provides instructions for restarting or exiting the game.</li>
  * </ul>
- * To achieve this, the class uses a JavaFX {@link GraphicsContext} for low-level rendering operations and relies on a
- * {@link GameLogic} instance to obtain current game state information. Additionally, helper methods from
- * {@code DrawingUtils} are employed to load asset resources (like logo text files) and perform safe drawing of ASCII
- * art and text strings.
+ * To achieve this, the class uses a JavaFX {@link GraphicsContext} for low-level rendering operations and draws the
+ * game from an immutable {@link WorldSnapshot}. The snapshot is either published by the thread that updates the game,
+ * so that drawing never has to touch the live game state, or captured on the spot from a {@link GameLogic} instance
+ * the renderer was created with. Additionally, helper methods from {@code DrawingUtils} are employed to load asset
+ * resources (like logo text files) and perform safe drawing of ASCII art and text strings.
+ * </p>
+ * <p>
+ * Drawing avoids redoing work that has not changed:
+ * <ul>
+ *   <li><b>Pre-rendered screens:</b> The intro and game over screens are painted once to offscreen images and copied
+ *       onto the canvas until the window is resized.</li>
+ *   <li><b>Sprite atlas:</b> Player and doll sprites are copied from a {@code SpriteAtlas} that rasterizes each
+ *       distinct sprite once.</li>
+ *   <li><b>Dirty rectangles:</b> Only the areas around sprites that moved or changed, and around the light machine
+ *       when the light changes, are cleared and redrawn, unless a full repaint is cheaper.</li>
+ *   <li><b>Layers:</b> The background, light machine, crowd and statistics each live on their own
+ *       {@link GameLayers} layer, and a frame only repaints the layers whose content changed.</li>
+ * </ul>
  * </p>
  *
  * @author Kyle Cheon
@@ -43,28 +58,54 @@ import static ca.bcit.comp2522.project.mygame.util.DrawingUtils.putSafeString;
 public class GameRenderer
 {
     private static final int COORDINATE_ZERO = 0;
-    private static final int FIRST_INDEX = 0;
     private static final double INTRO_LOGO_CHARACTER_SIZE_WEIGHT = 0.75;
     private static final double GAME_STAT_CHARACTER_SIZE_WEIGHT = 0.6;
     private static final int LOGO_MIDDLE_FACTOR = 2;
     private static final double NANOSECOND_PER_SECOND = 1_000_000_000.0;
-    private static final int INITIAL_COUNT = 0;
     private static final int GAME_STATS_OFFSET_IN_NUMBER_OF_CELLS = 5;
     private static final String FONT_STYLE = "Monospaced";
     private static final int FINISH_LINE_WIDTH_IN_PIXEL = 1;
     private static final double LIGHT_MACHINE_SIZE_WEIGHT = 0.6;
     private static final int SPRITE_OFFSET_ONE = 1;
-    private static final int SPRITE_OFFSET_TWO = 2;
-    private static final int SPRITE_OFFSET_THREE = 3;
-    private static final int SPRITE_OFFSET_FOUR = 4;
-    private static final String SPRITE_HEAD = " O ";
-    private static final String SPRITE_UPPER_BODY = "/|\\";
-    private static final String SPRITE_CORE_BODY = " | ";
-    private static final String SPRITE_LOWER_BODY = "/ \\";
+    private static final int DOLL_WIDTH_IN_CHARACTERS = 13;
+    private static final double COMPLETE_STEP = 1.0;
+    private static final double BOARD_TOP_IN_PIXEL = TOP_MARGIN_IN_PIXEL + STAT_HEIGHT_IN_PIXEL;
+    private static final double BOARD_HEIGHT_IN_PIXEL = CANVAS_HEIGHT_IN_PIXEL - BOARD_TOP_IN_PIXEL;
+    private static final double DOLL_X_IN_PIXEL = (CANVAS_WIDTH_IN_PIXEL - DOLL_WIDTH_IN_CHARACTERS *
+                                                   (CELL_SIZE_IN_PIXEL * LIGHT_MACHINE_SIZE_WEIGHT)) /
+                                                  LOGO_MIDDLE_FACTOR;
+    private static final double DIRTY_MARGIN_IN_PIXEL = 2.0;
+    private static final int DOUBLE_MARGIN = 2;
 
     private String[] logoLines;
     private String[] logoWinLines;
-    private final GameLogic<Player> gameLogic;
+    private final GameLogic<Player> gameLogic;  // Null when the renderer only draws published snapshots.
+    private final PrerenderedScreen introScreen = new PrerenderedScreen(this::drawIntroScreen);
+    private final PrerenderedScreen deathScreen = new PrerenderedScreen(this::drawDeathScreen);
+    private final PrerenderedScreen winScreen = new PrerenderedScreen(this::drawWinScreen);
+    private final SpriteAtlas spriteAtlas = new SpriteAtlas();
+    private final DirtyRegion dirtyRegion = new DirtyRegion(CANVAS_WIDTH_IN_PIXEL, BOARD_HEIGHT_IN_PIXEL);
+
+    // What the board showed after the previous game frame, and what it shows after the current one. A null sprite
+    // means nothing is drawn for that slot. The arrays are swapped after every frame.
+    private SpriteAtlas.Sprite[] drawnSprites = new SpriteAtlas.Sprite[0];
+    private double[] drawnX = new double[0];
+    private double[] drawnY = new double[0];
+    private SpriteAtlas.Sprite[] nextSprites = new SpriteAtlas.Sprite[0];
+    private double[] nextX = new double[0];
+    private double[] nextY = new double[0];
+    private boolean drawnGreen;
+    private Canvas boardCanvas;  // Null when the next game frame must repaint the whole board.
+    private double boardCanvasWidth;
+    private double boardCanvasHeight;
+
+    // What the layers show when drawn with render(WorldSnapshot, GameLayers, double).
+    private boolean layersShowGame;
+    private double layerWidth;
+    private double layerHeight;
+    private boolean dollDrawn;
+    private boolean dollGreen;
+    private String hudText;      // Null when the HUD layer is blank.
 
     /**
      * Constructs a new {@code GameRenderer} with the specified {@link GameLogic} instance.
@@ -83,7 +124,29 @@ public class GameRenderer
     {
         validateGameLogic(gameLogic);
         this.gameLogic = gameLogic;
+        loadLogos();
+    }
 
+    /**
+     * Constructs a new {@code GameRenderer} that draws published {@link WorldSnapshot}s only.
+     * <p>
+     * A renderer created this way never reads a {@link GameLogic} and can therefore only be used with
+     * {@link #render(WorldSnapshot, GraphicsContext, double)}. The logo assets are loaded as by
+     * {@link #GameRenderer(GameLogic)}.
+     * </p>
+     */
+    public GameRenderer()
+    {
+        this.gameLogic = null;
+        loadLogos();
+    }
+
+    /*
+     * Loads the logo assets for the introductory and winning screens, falling back to default text if they cannot
+     * be read.
+     */
+    private void loadLogos()
+    {
         try
         {
             logoLines = DrawingUtils.loadResource("/logo.txt");
@@ -114,8 +177,8 @@ public class GameRenderer
      * <p>
      * This method acts as a controller that selects which screen to render by delegating the drawing operation
      * to one of the specialized methods: {@link #drawIntroScreen(GraphicsContext)} for the introductory screen,
-     * {@link #drawGame(GraphicsContext)} for the in-game display, or {@link #drawGameOverScreen(GraphicsContext)} for
-     * the game over screen.
+     * {@link #drawGame(GraphicsContext, WorldSnapshot, double)} for the in-game display, or
+     * {@link #drawGameOverScreen(GraphicsContext, WorldSnapshot)} for the game over screen.
      * </p>
      *
      * @param state the current game state.
@@ -124,20 +187,102 @@ public class GameRenderer
     public void render(final GameState state,
                        final GraphicsContext graphicsContext)
     {
-        switch(state)
+        render(state, graphicsContext, COMPLETE_STEP);
+    }
+
+    /**
+     * Renders the game screen based on the current {@link GameState}, drawing every player part of the way between
+     * its position before and after the latest game update.
+     * <p>
+     * The game logic advances in fixed steps, while the screen may be redrawn many times between two steps. The
+     * {@code stepProgress} tells how far the current frame lies between the latest step and the next one, so that
+     * moving players glide smoothly from cell to cell instead of jumping once per step. A progress of {@code 0} draws
+     * every player where it stood before the latest step, and a progress of {@code 1} draws it where it stands now.
+     * </p>
+     *
+     * @param state           the current game state.
+     * @param graphicsContext the {@link GraphicsContext} used for performing drawing operations.
+     * @param stepProgress    the fraction of a game step that has passed since the latest update, between 0 and 1.
+     * @throws IllegalStateException if this renderer was created without a {@link GameLogic}.
+     */
+    public void render(final GameState state,
+                       final GraphicsContext graphicsContext,
+                       final double stepProgress)
+    {
+        if(gameLogic == null)
+        {
+            throw new IllegalStateException("This GameRenderer only renders published snapshots.");
+        }
+        render(WorldSnapshot.capture(gameLogic, state, System.nanoTime()), graphicsContext, stepProgress);
+    }
+
+    /**
+     * Renders the screen described by a snapshot of the game.
+     * <p>
+     * This method only reads the given snapshot, so it can safely run on the JavaFX Application Thread while the game
+     * itself is updated on another thread. The {@code stepProgress} is interpreted exactly as by
+     * {@link #render(GameState, GraphicsContext, double)}.
+     * </p>
+     *
+     * @param snapshot        the snapshot of the game to draw.
+     * @param graphicsContext the {@link GraphicsContext} used for performing drawing operations.
+     * @param stepProgress    the fraction of a game step that has passed since the snapshot was taken, between 0 and 1.
+     */
+    public void render(final WorldSnapshot snapshot,
+                       final GraphicsContext graphicsContext,
+                       final double stepProgress)
+    {
+        switch(snapshot.getState())
         {
             case INTRO:
-                drawIntroScreen(graphicsContext);
+                boardCanvas = null;
+                introScreen.draw(graphicsContext);
                 break;
             case GAME:
-                drawGame(graphicsContext);
+                drawGame(graphicsContext, snapshot, stepProgress);
                 break;
             case GAME_OVER:
-                drawGameOverScreen(graphicsContext);
+                boardCanvas = null;
+                drawGameOverScreen(graphicsContext, snapshot);
                 break;
         }
     }
 
+    /**
+     * Renders the screen described by a snapshot of the game onto a stack of layers, repainting only the layers that
+     * changed since the previous frame.
+     * <p>
+     * During a game, the background with the finish line is painted once, the light machine only when the light
+     * changes, the HUD only when its text changes, and the crowd only around the players that moved or changed. The
+     * intro and game over screens are drawn on the background layer, with the layers above it cleared. The snapshot
+     * and {@code stepProgress} are interpreted exactly as by {@link #render(WorldSnapshot, GraphicsContext, double)}.
+     * Frames of one renderer should all be drawn either onto layers or onto a single canvas.
+     * </p>
+     *
+     * @param snapshot     the snapshot of the game to draw.
+     * @param layers       the layers to draw on.
+     * @param stepProgress the fraction of a game step that has passed since the snapshot was taken, between 0 and 1.
+     */
+    public void render(final WorldSnapshot snapshot,
+                       final GameLayers layers,
+                       final double stepProgress)
+    {
+        if(snapshot.getState() == GameState.GAME)
+        {
+            drawLayeredGame(layers, snapshot, stepProgress);
+            return;
+        }
+
+        if(layersShowGame)
+        {
+            clearLayer(layers.getDoll());
+            clearLayer(layers.getCrowd());
+            clearLayer(layers.getHud());
+            layersShowGame = false;
+        }
+        render(snapshot, layers.getBackground(), stepProgress);
+    }
+
     /*
      * Draws the introductory screen.
      * <p>
@@ -153,11 +298,7 @@ public class GameRenderer
      */
     private void drawIntroScreen(final GraphicsContext graphicsContext)
     {
-        graphicsContext.setFill(Color.BLACK);
-        graphicsContext.fillRect(COORDINATE_ZERO,
-                    COORDINATE_ZERO,
-                    CANVAS_WIDTH_IN_PIXEL,
-                    CANVAS_HEIGHT_IN_PIXEL);
+        clearScreen(graphicsContext);
         graphicsContext.setFill(Color.WHITE);
 
         // Draw intro ASCII logo image.
@@ -243,22 +384,14 @@ public class GameRenderer
      * </p>
      *
      * @param graphicsContext the {@link GraphicsContext} used for drawing the in-game screen.
+     * @param snapshot        the snapshot of the game to draw.
+     * @param stepProgress    the fraction of a game step that has passed since the latest update.
      */
-    private void drawGame(final GraphicsContext graphicsContext)
+    private void drawGame(final GraphicsContext graphicsContext,
+                          final WorldSnapshot snapshot,
+                          final double stepProgress)
     {
-        // Compute elapsed time in seconds.
-        final double elapsedSeconds;
-        elapsedSeconds = (System.nanoTime() - gameLogic.getGameStartTimeInNanoseconds()) / NANOSECOND_PER_SECOND;
-
-        // Count dead players.
-        int deadCount = INITIAL_COUNT;
-        for(final Player p : gameLogic.getPlayers())
-        {
-            if(p.isEliminated())
-            {
-                deadCount++;
-            }
-        }
+        final boolean fullRepaint;
 
         // Clear previous stats
         graphicsContext.setFill(Color.BLACK);
@@ -266,12 +399,140 @@ public class GameRenderer
                     TOP_MARGIN_IN_PIXEL,
                     CANVAS_WIDTH_IN_PIXEL,
                     STAT_HEIGHT_IN_PIXEL);
+        drawStats(graphicsContext, formatStats(snapshot));
+
+        // Work out which sprites changed since the previous frame, and repaint only around them if there are few.
+        // The header is redrawn every frame, so it is always dirty, which redraws the sprites reaching into it.
+        locateSprites(snapshot, stepProgress);
+        if(collectDirtyRegion(graphicsContext))
+        {
+            fullRepaint = true;
+        }
+        else
+        {
+            dirtyRegion.add(COORDINATE_ZERO, TOP_MARGIN_IN_PIXEL, CANVAS_WIDTH_IN_PIXEL, STAT_HEIGHT_IN_PIXEL);
+            if(drawnGreen != snapshot.isGreen())
+            {
+                markDirty(SpriteAtlas.Sprite.RED_DOLL, DOLL_X_IN_PIXEL, BOARD_TOP_IN_PIXEL);
+            }
+            fullRepaint = dirtyRegion.isOverflowed();
+        }
 
-        // Prepare the stats string.
+        if(fullRepaint)
+        {
+            drawBoard(graphicsContext, snapshot, true);
+        }
+        else
+        {
+            graphicsContext.save();
+            dirtyRegion.clip(graphicsContext);
+            drawBoard(graphicsContext, snapshot, false);
+            graphicsContext.restore();
+        }
+        rememberBoard(graphicsContext, snapshot);
+    }
+
+    /*
+     * Draws the in-game screen onto a stack of layers, repainting each layer only if what it shows has changed.
+     *
+     * @param layers       the layers to draw on.
+     * @param snapshot     the snapshot of the game to draw.
+     * @param stepProgress the fraction of a game step that has passed since the latest update.
+     */
+    private void drawLayeredGame(final GameLayers layers,
+                                 final WorldSnapshot snapshot,
+                                 final double stepProgress)
+    {
+        final GraphicsContext background;
+        final GraphicsContext doll;
+        final GraphicsContext crowd;
+        final GraphicsContext hud;
         final String stats;
-        stats = String.format("Time: %.1fs   Finished: %d   Dead: %d",
-                elapsedSeconds, gameLogic.getFinishedCount(), deadCount);
 
+        background = layers.getBackground();
+        doll = layers.getDoll();
+        crowd = layers.getCrowd();
+        hud = layers.getHud();
+
+        // The background only changes when a game starts or the layers are resized.
+        if(!layersShowGame ||
+           layerWidth != background.getCanvas().getWidth() ||
+           layerHeight != background.getCanvas().getHeight())
+        {
+            clearScreen(background);
+            drawFinishLine(background);
+            clearLayer(doll);
+            clearLayer(hud);
+            layersShowGame = true;
+            layerWidth = background.getCanvas().getWidth();
+            layerHeight = background.getCanvas().getHeight();
+            dollDrawn = false;
+            hudText = null;
+            boardCanvas = null;
+        }
+
+        if(!dollDrawn || dollGreen != snapshot.isGreen())
+        {
+            clearLayer(doll);
+            drawDoll(doll, snapshot.isGreen());
+            dollDrawn = true;
+            dollGreen = snapshot.isGreen();
+        }
+
+        stats = formatStats(snapshot);
+        if(!stats.equals(hudText))
+        {
+            clearLayer(hud);
+            drawStats(hud, stats);
+            hudText = stats;
+        }
+
+        locateSprites(snapshot, stepProgress);
+        if(collectDirtyRegion(crowd))
+        {
+            clearLayer(crowd);
+            drawCrowd(crowd, true);
+        }
+        else if(!dirtyRegion.isEmpty())
+        {
+            crowd.save();
+            dirtyRegion.clip(crowd);
+            clearLayer(crowd);
+            drawCrowd(crowd, false);
+            crowd.restore();
+        }
+        rememberBoard(crowd, snapshot);
+    }
+
+    /*
+     * Returns the statistics shown in the header: the elapsed time and the number of finished and dead players.
+     *
+     * @param snapshot the snapshot of the game to draw.
+     * @return the text of the header.
+     */
+    private static String formatStats(final WorldSnapshot snapshot)
+    {
+        // Compute elapsed time in seconds.
+        final double elapsedSeconds;
+        elapsedSeconds = snapshot.getElapsedInNanoseconds() / NANOSECOND_PER_SECOND;
+
+        // Dead players are counted when the snapshot is taken.
+        final int deadCount;
+        deadCount = snapshot.getEliminatedCount();
+
+        return String.format("Time: %.1fs   Finished: %d   Dead: %d",
+                elapsedSeconds, snapshot.getFinishedCount(), deadCount);
+    }
+
+    /*
+     * Draws the statistics at the top left of the header.
+     *
+     * @param graphicsContext the {@link GraphicsContext} used for drawing.
+     * @param stats           the text of the header.
+     */
+    private static void drawStats(final GraphicsContext graphicsContext,
+                                  final String stats)
+    {
         // Draw the stats at the top left (using a smaller font so it fits nicely).
         graphicsContext.setFill(Color.YELLOW);
         graphicsContext.setFont(Font.font(FONT_STYLE,
@@ -279,25 +540,57 @@ public class GameRenderer
         graphicsContext.fillText(stats,
                 GAME_STATS_OFFSET_IN_NUMBER_OF_CELLS,
                 TOP_MARGIN_IN_PIXEL + CELL_SIZE_IN_PIXEL / LOGO_MIDDLE_FACTOR);
+    }
+
+    /*
+     * Makes a whole layer transparent again.
+     *
+     * @param graphicsContext the {@link GraphicsContext} of the layer.
+     */
+    private static void clearLayer(final GraphicsContext graphicsContext)
+    {
+        graphicsContext.clearRect(COORDINATE_ZERO,
+                                  COORDINATE_ZERO,
+                                  graphicsContext.getCanvas().getWidth(),
+                                  graphicsContext.getCanvas().getHeight());
+    }
 
+    /*
+     * Draws the game board: the light machine, the finish line and every player on the field.
+     * <p>
+     * In a partial repaint only the sprites overlapping the dirty region are drawn, and the caller has clipped the
+     * graphics context to that region, so the board is cleared and redrawn there only.
+     * </p>
+     *
+     * @param graphicsContext the {@link GraphicsContext} used for drawing.
+     * @param snapshot        the snapshot of the game to draw.
+     * @param fullRepaint     whether the whole board is repainted rather than the dirty region only.
+     */
+    private void drawBoard(final GraphicsContext graphicsContext,
+                           final WorldSnapshot snapshot,
+                           final boolean fullRepaint)
+    {
         graphicsContext.setFill(Color.BLACK);
         // Clear only below the header area.
         graphicsContext.fillRect(COORDINATE_ZERO,
-                TOP_MARGIN_IN_PIXEL + STAT_HEIGHT_IN_PIXEL,
+                BOARD_TOP_IN_PIXEL,
                 CANVAS_WIDTH_IN_PIXEL,
-                CANVAS_HEIGHT_IN_PIXEL - TOP_MARGIN_IN_PIXEL - STAT_HEIGHT_IN_PIXEL);
+                BOARD_HEIGHT_IN_PIXEL);
 
         graphicsContext.setFont(Font.font(FONT_STYLE, CELL_SIZE_IN_PIXEL));
         graphicsContext.setTextAlign(TextAlignment.LEFT);
-        if(!gameLogic.isGreen())
-        {
-            drawLightMachine(graphicsContext);
-        }
-        else
-        {
-            drawGreenMachine(graphicsContext);
-        }
+        drawDoll(graphicsContext, snapshot.isGreen());
+        drawFinishLine(graphicsContext);
+        drawCrowd(graphicsContext, fullRepaint);
+    }
 
+    /*
+     * Draws the finish line across the canvas.
+     *
+     * @param graphicsContext the {@link GraphicsContext} used for drawing.
+     */
+    private static void drawFinishLine(final GraphicsContext graphicsContext)
+    {
         double finishLineYCanvas = FINISH_LINE_Y_IN_NUMBER_OF_CELLS * CELL_SIZE_IN_PIXEL +
                                    TOP_MARGIN_IN_PIXEL +
                                    STAT_HEIGHT_IN_PIXEL;
@@ -311,397 +604,414 @@ public class GameRenderer
                       finishLineYCanvas,
                       CANVAS_WIDTH_IN_PIXEL,
                       finishLineYCanvas);
+    }
 
-        for(final Player p : gameLogic.getPlayers())
+    /*
+     * Draws every player on the field, or in a partial repaint only those overlapping the dirty region.
+     *
+     * @param graphicsContext the {@link GraphicsContext} used for drawing.
+     * @param fullRepaint     whether every player is drawn rather than those in the dirty region only.
+     */
+    private void drawCrowd(final GraphicsContext graphicsContext,
+                           final boolean fullRepaint)
+    {
+        for(int index = 0; index < nextSprites.length; index++)
         {
-            // Skip finished players so they no longer appear on-screen.
-            if (p.isFinished()) continue;
-            if (p.isEliminated())
+            final SpriteAtlas.Sprite sprite;
+            sprite = nextSprites[index];
+
+            // Finished players no longer appear on-screen.
+            if(sprite == null)
             {
-                drawDeadSprite(graphicsContext, p);
+                continue;
             }
-            else
+            if(fullRepaint || dirtyRegion.intersects(getDirtyLeft(nextX[index]),
+                                                     getDirtyTop(sprite, nextY[index]),
+                                                     getDirtyWidth(sprite),
+                                                     getDirtyHeight(sprite)))
             {
-                drawPlayerSprite(graphicsContext, p);
+                spriteAtlas.draw(graphicsContext, sprite, nextX[index], nextY[index]);
             }
         }
     }
 
     /*
-     * Draws the game over screen.
+     * Chooses the sprite of every player for the current frame and where it is drawn.
      * <p>
-     * This method clears the canvas and then draws an appropriate game over message based on whether the user is
-     * eliminated. For an eliminated user, a simple text message is shown. If the user wins, the method displays a
-     * winning logo (loaded from resources or defaulted) and additional win messages, along with instructions for
-     * replaying or exiting the game.
+     * Finished players get no sprite. Eliminated players lie where they fell. Every other player is drawn part of the
+     * way between its position before and after the latest step, and gets a special sprite while pushing or being
+     * pushed: the user is drawn in cyan with a "YOU" label, NPCs in white and only differently while being pushed.
      * </p>
      *
-     * @param graphicsContext the {@link GraphicsContext} used for drawing the game over screen.
+     * @param snapshot     the snapshot of the game to draw.
+     * @param stepProgress the fraction of a game step that has passed since the latest update.
      */
-    private void drawGameOverScreen(final GraphicsContext graphicsContext)
+    private void locateSprites(final WorldSnapshot snapshot,
+                               final double stepProgress)
     {
-        graphicsContext.setFill(Color.BLACK);
-        graphicsContext.fillRect(COORDINATE_ZERO,
-                    COORDINATE_ZERO,
-                    CANVAS_WIDTH_IN_PIXEL,
-                    CANVAS_HEIGHT_IN_PIXEL);
-
-        if(gameLogic.getUser().isEliminated())
+        if(nextSprites.length != snapshot.size())
         {
-            graphicsContext.setFill(Color.WHITE);
-            graphicsContext.setFont(Font.font(FONT_STYLE, CELL_SIZE_IN_PIXEL));
-            final String message;
-            final double textWidth;
-            final double centerX;
-            final double centerY;
-
-            message = "You die! Press ENTER to try again.";
-            textWidth = computeTextWidth(message, graphicsContext.getFont());
-            centerX = (CANVAS_WIDTH_IN_PIXEL - textWidth) / LOGO_MIDDLE_FACTOR;
-            centerY = CANVAS_HEIGHT_IN_PIXEL / LOGO_MIDDLE_FACTOR;
-            graphicsContext.fillText(message,
-                        centerX,
-                        centerY);
+            nextSprites = new SpriteAtlas.Sprite[snapshot.size()];
+            nextX = new double[snapshot.size()];
+            nextY = new double[snapshot.size()];
         }
-        else
+
+        for(int index = 0; index < snapshot.size(); index++)
         {
-            // Winning screen
-            // Draw the winning logo (similar to how drawIntroScreen does it)
-            graphicsContext.setFill(Color.WHITE);
-            graphicsContext.setFont(Font.font(FONT_STYLE,
-                                CELL_SIZE_IN_PIXEL * INTRO_LOGO_CHARACTER_SIZE_WEIGHT));
-
-            final int logoHeight;
-            logoHeight = logoWinLines.length;
-
-            // Center vertically and leave a little room above/below
-            final double logoY;
-            logoY = (double) CANVAS_HEIGHT_IN_PIXEL / LOGO_MIDDLE_FACTOR
-                    - (logoHeight * CELL_SIZE_IN_PIXEL * INTRO_LOGO_CHARACTER_SIZE_WEIGHT) / LOGO_MIDDLE_FACTOR
-                    - (CELL_SIZE_IN_PIXEL * INTRO_LOGO_CHARACTER_SIZE_WEIGHT);
-
-            for(int i = 0; i < logoWinLines.length; i++)
+            if(snapshot.isFinished(index))
             {
-                final String line;
-                final double textWidth;
-                final double x;
-
-                line = logoWinLines[i];
-                textWidth = computeTextWidth(line, graphicsContext.getFont());
-                x = (CANVAS_WIDTH_IN_PIXEL - textWidth) / LOGO_MIDDLE_FACTOR;
-                graphicsContext.fillText(line,
-                            x,
-                        logoY + i * CELL_SIZE_IN_PIXEL * INTRO_LOGO_CHARACTER_SIZE_WEIGHT);
+                nextSprites[index] = null;
+            }
+            else if(snapshot.isEliminated(index))
+            {
+                nextSprites[index] = SpriteAtlas.Sprite.DEAD;
+                nextX[index] = (snapshot.getX(index) - SPRITE_OFFSET_ONE) * CELL_SIZE_IN_PIXEL;
+                nextY[index] = snapshot.getY(index) * CELL_SIZE_IN_PIXEL + BOARD_TOP_IN_PIXEL;
+            }
+            else
+            {
+                nextSprites[index] = chooseLiveSprite(snapshot, index);
+                nextX[index] = (interpolate(snapshot.getStepStartX(index), snapshot.getX(index), stepProgress) -
+                                SPRITE_OFFSET_ONE) * CELL_SIZE_IN_PIXEL;
+                nextY[index] = interpolate(snapshot.getStepStartY(index), snapshot.getY(index), stepProgress) *
+                               CELL_SIZE_IN_PIXEL + BOARD_TOP_IN_PIXEL;
             }
-
-            // Now show the “You win!” message below the logo
-            graphicsContext.setFont(Font.font(FONT_STYLE, CELL_SIZE_IN_PIXEL));
-            final String message;
-            final double messageWidth;
-            final double messageX;
-            final double messageY;
-
-            message = "You win! But have you truly earned it after all these fallen fates?";
-            messageWidth = computeTextWidth(message, graphicsContext.getFont());
-            messageX = (CANVAS_WIDTH_IN_PIXEL - messageWidth) / LOGO_MIDDLE_FACTOR;
-            messageY = logoY + logoHeight * CELL_SIZE_IN_PIXEL * INTRO_LOGO_CHARACTER_SIZE_WEIGHT + CELL_SIZE_IN_PIXEL;
-            graphicsContext.fillText(message,
-                        messageX,
-                        messageY);
-
-            // Show replay/exit instructions
-            final String instructions;
-            final double instrWidth;
-            final double instrX;
-            final double instrY;
-
-            instructions = "Press ENTER to Play Again or ESC to Exit";
-            instrWidth = computeTextWidth(instructions, graphicsContext.getFont());
-            instrX = (CANVAS_WIDTH_IN_PIXEL - instrWidth) / LOGO_MIDDLE_FACTOR;
-            instrY = messageY + CELL_SIZE_IN_PIXEL * LOGO_MIDDLE_FACTOR;
-            graphicsContext.fillText(instructions,
-                        instrX,
-                        instrY);
         }
     }
 
     /*
-     * Draws the red light machine.
+     * Collects the parts of the crowd that changed since the previous game frame into the dirty region.
      * <p>
-     * This method draws a red-colored ASCII art doll representing the red light machine at a centered position.
+     * A sprite that moved, changed or disappeared dirties the area it covered before and the area it covers now. The
+     * whole board is repainted instead when there is no previous frame to build on: on the first game frame after
+     * another screen, on a different or resized canvas, or when the number of players changed. It is also repainted
+     * when so much changed that the dirty region overflowed.
      * </p>
      *
-     * @param graphicsContext the GraphicsContext used for drawing.
+     * @param graphicsContext the {@link GraphicsContext} the crowd is drawn on.
+     * @return true if the whole board has to be repainted.
      */
-    private void drawLightMachine(final GraphicsContext graphicsContext)
+    private boolean collectDirtyRegion(final GraphicsContext graphicsContext)
     {
-        final String[] doll =
+        final Canvas canvas;
+
+        dirtyRegion.clear();
+        canvas = graphicsContext.getCanvas();
+        if(boardCanvas != canvas ||
+           boardCanvasWidth != canvas.getWidth() ||
+           boardCanvasHeight != canvas.getHeight() ||
+           drawnSprites.length != nextSprites.length)
         {
-                "   .^-^.     ",
-                "   (o o)     ",
-                "   / V \\     ",
-                "  /|---|\\    ",
-                "   |===|     ",
-                "   \\ | /     ",
-                "    \\|/     "
-        };
+            return true;
+        }
 
-        graphicsContext.setFill(Color.RED);
+        for(int index = 0; index < nextSprites.length && !dirtyRegion.isOverflowed(); index++)
+        {
+            if(drawnSprites[index] != nextSprites[index] ||
+               drawnX[index] != nextX[index] ||
+               drawnY[index] != nextY[index])
+            {
+                if(drawnSprites[index] != null)
+                {
+                    markDirty(drawnSprites[index], drawnX[index], drawnY[index]);
+                }
+                if(nextSprites[index] != null)
+                {
+                    markDirty(nextSprites[index], nextX[index], nextY[index]);
+                }
+            }
+        }
+        return dirtyRegion.isOverflowed();
+    }
 
-        // Compute starting position to center the doll.
-        final double dollWidth;
-        final double startX;
-        final double startY;
+    /*
+     * Remembers what the board shows after the current frame, so that the next frame can be compared against it.
+     *
+     * @param graphicsContext the {@link GraphicsContext} the frame was drawn on.
+     * @param snapshot        the snapshot of the game that was drawn.
+     */
+    private void rememberBoard(final GraphicsContext graphicsContext,
+                               final WorldSnapshot snapshot)
+    {
+        final SpriteAtlas.Sprite[] sprites;
+        final double[] x;
+        final double[] y;
 
-        dollWidth = doll[FIRST_INDEX].length() * (CELL_SIZE_IN_PIXEL * LIGHT_MACHINE_SIZE_WEIGHT);
-        startX = (CANVAS_WIDTH_IN_PIXEL - dollWidth) / LOGO_MIDDLE_FACTOR;
-        startY = TOP_MARGIN_IN_PIXEL + STAT_HEIGHT_IN_PIXEL;
+        sprites = drawnSprites;
+        x = drawnX;
+        y = drawnY;
+        drawnSprites = nextSprites;
+        drawnX = nextX;
+        drawnY = nextY;
+        nextSprites = sprites;
+        nextX = x;
+        nextY = y;
 
-        // Draw each line of the doll.
-        for(int i = 0; i < doll.length; i++)
-        {
-            putSafeString(graphicsContext,
-                          startX,
-                          startY + i * CELL_SIZE_IN_PIXEL,
-                          doll[i]);
-        }
+        drawnGreen = snapshot.isGreen();
+        boardCanvas = graphicsContext.getCanvas();
+        boardCanvasWidth = boardCanvas.getWidth();
+        boardCanvasHeight = boardCanvas.getHeight();
     }
 
     /*
-     * Draws the green light machine.
+     * Adds the area a sprite covers, plus a margin for anti-aliased edges, to the dirty region.
+     *
+     * @param sprite  the sprite.
+     * @param x       the left edge of the sprite in pixels.
+     * @param anchorY the baseline of the row the sprite stands on, in pixels.
+     */
+    private void markDirty(final SpriteAtlas.Sprite sprite,
+                           final double x,
+                           final double anchorY)
+    {
+        dirtyRegion.add(getDirtyLeft(x),
+                        getDirtyTop(sprite, anchorY),
+                        getDirtyWidth(sprite),
+                        getDirtyHeight(sprite));
+    }
+
+    /*
+     * Returns the left edge of the area a sprite dirties.
+     *
+     * @param x the left edge of the sprite in pixels.
+     * @return the left edge of the dirty area in pixels.
+     */
+    private static double getDirtyLeft(final double x)
+    {
+        return x - DIRTY_MARGIN_IN_PIXEL;
+    }
+
+    /*
+     * Returns the top edge of the area a sprite dirties.
+     *
+     * @param sprite  the sprite.
+     * @param anchorY the baseline of the row the sprite stands on, in pixels.
+     * @return the top edge of the dirty area in pixels.
+     */
+    private double getDirtyTop(final SpriteAtlas.Sprite sprite,
+                               final double anchorY)
+    {
+        return spriteAtlas.getTop(sprite, anchorY) - DIRTY_MARGIN_IN_PIXEL;
+    }
+
+    /*
+     * Returns the width of the area a sprite dirties.
+     *
+     * @param sprite the sprite.
+     * @return the width of the dirty area in pixels.
+     */
+    private double getDirtyWidth(final SpriteAtlas.Sprite sprite)
+    {
+        return spriteAtlas.getWidth(sprite) + DOUBLE_MARGIN * DIRTY_MARGIN_IN_PIXEL;
+    }
+
+    /*
+     * Returns the height of the area a sprite dirties.
+     *
+     * @param sprite the sprite.
+     * @return the height of the dirty area in pixels.
+     */
+    private double getDirtyHeight(final SpriteAtlas.Sprite sprite)
+    {
+        return spriteAtlas.getHeight(sprite) + DOUBLE_MARGIN * DIRTY_MARGIN_IN_PIXEL;
+    }
+
+    /*
+     * Draws the game over screen.
      * <p>
-     * This method draws a green-colored ASCII art doll representing the green light machine at a centered position.
+     * This method selects the screen that matches how the game ended: a simple message when the user is eliminated,
+     * or the winning logo with additional win messages and instructions for replaying or exiting the game otherwise.
+     * Both screens are copied from their pre-rendered images.
      * </p>
      *
-     * @param graphicsContext the GraphicsContext used for drawing.
+     * @param graphicsContext the {@link GraphicsContext} used for drawing the game over screen.
+     * @param snapshot        the snapshot of the finished game.
      */
-    private void drawGreenMachine(final GraphicsContext graphicsContext)
+    private void drawGameOverScreen(final GraphicsContext graphicsContext,
+                                    final WorldSnapshot snapshot)
     {
-        String[] doll =
+        if(snapshot.isUserEliminated())
         {
-                "   .^-^.     ",
-                "   (   )     ",
-                "   / - \\     ",
-                "  /|---|\\    ",
-                "   |===|     ",
-                "   \\ | /     ",
-                "    \\|/     "
-        };
-
-        graphicsContext.setFill(Color.GREEN);
-
-        // Compute starting position to center the doll.
-        double dollWidth = doll[FIRST_INDEX].length() * (CELL_SIZE_IN_PIXEL * LIGHT_MACHINE_SIZE_WEIGHT);
-        double startX = (CANVAS_WIDTH_IN_PIXEL - dollWidth) / LOGO_MIDDLE_FACTOR;
-        double startY = TOP_MARGIN_IN_PIXEL + STAT_HEIGHT_IN_PIXEL; // same position as red light
-
-        // Draw each line of the doll.
-        for(int i = 0; i < doll.length; i++)
+            deathScreen.draw(graphicsContext);
+        }
+        else
         {
-            putSafeString(graphicsContext,
-                          startX,
-                          startY + i * CELL_SIZE_IN_PIXEL,
-                          doll[i]);
+            winScreen.draw(graphicsContext);
         }
     }
 
     /*
-     * Draws a dead player's sprite.
-     * <p>
-     * This method draws a representation of a dead player using gray color to indicate elimination.
-     * </p>
+     * Draws the game over screen shown when the user has been eliminated.
      *
-     * @param graphicsContext the GraphicsContext used for drawing.
-     * @param player  the Player whose dead sprite is to be drawn.
+     * @param graphicsContext the {@link GraphicsContext} used for drawing the screen.
      */
-    private void drawDeadSprite(final GraphicsContext graphicsContext,
-                                final Player player)
+    private void drawDeathScreen(final GraphicsContext graphicsContext)
     {
-        final double baseX;
-        final double baseY;
+        clearScreen(graphicsContext);
 
-        baseX = (player.getX() - SPRITE_OFFSET_ONE) * CELL_SIZE_IN_PIXEL;
-        baseY = player.getY() * CELL_SIZE_IN_PIXEL + TOP_MARGIN_IN_PIXEL + STAT_HEIGHT_IN_PIXEL;
+        graphicsContext.setFill(Color.WHITE);
+        graphicsContext.setFont(Font.font(FONT_STYLE, CELL_SIZE_IN_PIXEL));
+        final String message;
+        final double textWidth;
+        final double centerX;
+        final double centerY;
 
-        graphicsContext.setFill(Color.GRAY); // Use gray to indicate death.
-        // Draw a dead body.
-        putSafeString(graphicsContext,
-                      baseX,
-                      baseY - SPRITE_OFFSET_TWO * CELL_SIZE_IN_PIXEL,
-                      "  ____");
-        putSafeString(graphicsContext,
-                      baseX,
-                      baseY - SPRITE_OFFSET_ONE * CELL_SIZE_IN_PIXEL,
-                      "--O---");
+        message = "You die! Press ENTER to try again or S to Save Replay.";
+        textWidth = computeTextWidth(message, graphicsContext.getFont());
+        centerX = (CANVAS_WIDTH_IN_PIXEL - textWidth) / LOGO_MIDDLE_FACTOR;
+        centerY = CANVAS_HEIGHT_IN_PIXEL / LOGO_MIDDLE_FACTOR;
+        graphicsContext.fillText(message,
+                    centerX,
+                    centerY);
     }
 
     /*
-     * Draws a live player's sprite.
+     * Draws the game over screen shown when the user has won.
      * <p>
-     * This method renders the sprite for a player by choosing different visual representations based on the player's
-     * state. If the player is controlled by the user and is in a pushing or being pushed state, corresponding special
-     * rendering is performed. Otherwise, a standard multi-line ASCII sprite is drawn.
+     * This screen displays the winning logo (loaded from resources or defaulted) and additional win messages, along
+     * with instructions for replaying or exiting the game.
      * </p>
      *
+     * @param graphicsContext the {@link GraphicsContext} used for drawing the screen.
+     */
+    private void drawWinScreen(final GraphicsContext graphicsContext)
+    {
+        clearScreen(graphicsContext);
+
+        // Draw the winning logo (similar to how drawIntroScreen does it)
+        graphicsContext.setFill(Color.WHITE);
+        graphicsContext.setFont(Font.font(FONT_STYLE,
+                            CELL_SIZE_IN_PIXEL * INTRO_LOGO_CHARACTER_SIZE_WEIGHT));
+
+        final int logoHeight;
+        logoHeight = logoWinLines.length;
+
+        // Center vertically and leave a little room above/below
+        final double logoY;
+        logoY = (double) CANVAS_HEIGHT_IN_PIXEL / LOGO_MIDDLE_FACTOR
+                - (logoHeight * CELL_SIZE_IN_PIXEL * INTRO_LOGO_CHARACTER_SIZE_WEIGHT) / LOGO_MIDDLE_FACTOR
+                - (CELL_SIZE_IN_PIXEL * INTRO_LOGO_CHARACTER_SIZE_WEIGHT);
+
+        for(int i = 0; i < logoWinLines.length; i++)
+        {
+            final String line;
+            final double textWidth;
+            final double x;
+
+            line = logoWinLines[i];
+            textWidth = computeTextWidth(line, graphicsContext.getFont());
+            x = (CANVAS_WIDTH_IN_PIXEL - textWidth) / LOGO_MIDDLE_FACTOR;
+            graphicsContext.fillText(line,
+                        x,
+                    logoY + i * CELL_SIZE_IN_PIXEL * INTRO_LOGO_CHARACTER_SIZE_WEIGHT);
+        }
+
+        // Now show the “You win!” message below the logo
+        graphicsContext.setFont(Font.font(FONT_STYLE, CELL_SIZE_IN_PIXEL));
+        final String message;
+        final double messageWidth;
+        final double messageX;
+        final double messageY;
+
+        message = "You win! But have you truly earned it after all these fallen fates?";
+        messageWidth = computeTextWidth(message, graphicsContext.getFont());
+        messageX = (CANVAS_WIDTH_IN_PIXEL - messageWidth) / LOGO_MIDDLE_FACTOR;
+        messageY = logoY + logoHeight * CELL_SIZE_IN_PIXEL * INTRO_LOGO_CHARACTER_SIZE_WEIGHT + CELL_SIZE_IN_PIXEL;
+        graphicsContext.fillText(message,
+                    messageX,
+                    messageY);
+
+        // Show replay/exit instructions
+        final String instructions;
+        final double instrWidth;
+        final double instrX;
+        final double instrY;
+
+        instructions = "Press ENTER to Play Again, S to Save Replay or ESC to Exit";
+        instrWidth = computeTextWidth(instructions, graphicsContext.getFont());
+        instrX = (CANVAS_WIDTH_IN_PIXEL - instrWidth) / LOGO_MIDDLE_FACTOR;
+        instrY = messageY + CELL_SIZE_IN_PIXEL * LOGO_MIDDLE_FACTOR;
+        graphicsContext.fillText(instructions,
+                    instrX,
+                    instrY);
+    }
+
+    /*
+     * Fills the whole canvas with black.
+     *
      * @param graphicsContext the {@link GraphicsContext} used for drawing.
-     * @param player  the {@link Player} whose sprite is to be rendered.
      */
-    private void drawPlayerSprite(final GraphicsContext graphicsContext,
-                                  final Player player)
+    private static void clearScreen(final GraphicsContext graphicsContext)
     {
-        final double baseX;
-        final double baseY;
+        graphicsContext.setFill(Color.BLACK);
+        graphicsContext.fillRect(COORDINATE_ZERO,
+                    COORDINATE_ZERO,
+                    CANVAS_WIDTH_IN_PIXEL,
+                    CANVAS_HEIGHT_IN_PIXEL);
+    }
 
-        baseX = (player.getX() - SPRITE_OFFSET_ONE) * CELL_SIZE_IN_PIXEL;
-        baseY = player.getY() * CELL_SIZE_IN_PIXEL + TOP_MARGIN_IN_PIXEL + STAT_HEIGHT_IN_PIXEL;
+    /*
+     * Draws the light machine.
+     * <p>
+     * This method draws the ASCII art doll representing the light machine at a centered position, red with its eyes
+     * open during a red light and green with its back turned during a green light.
+     * </p>
+     *
+     * @param graphicsContext the GraphicsContext used for drawing.
+     * @param green           whether the light is green.
+     */
+    private void drawDoll(final GraphicsContext graphicsContext,
+                          final boolean green)
+    {
+        // The doll is centered just below the header.
+        spriteAtlas.draw(graphicsContext,
+                         green ? SpriteAtlas.Sprite.GREEN_DOLL : SpriteAtlas.Sprite.RED_DOLL,
+                         DOLL_X_IN_PIXEL,
+                         BOARD_TOP_IN_PIXEL);
+    }
 
-        if(player.isUser())
+    /*
+     * Chooses the sprite of a live player on the field.
+     *
+     * @param snapshot the snapshot holding the player.
+     * @param index    the slot of the player.
+     * @return the sprite that matches whether the player is the user and whether it is pushing or being pushed.
+     */
+    private static SpriteAtlas.Sprite chooseLiveSprite(final WorldSnapshot snapshot,
+                                                       final int index)
+    {
+        if(snapshot.isUser(index))
         {
-            graphicsContext.setFill(Color.CYAN);
-            if(player.isPushing())
-            {
-                drawPushingSprite(graphicsContext,
-                                  player,
-                                  baseX,
-                                  baseY);
-            }
-            else if
-            (player.isPushed())
+            if(snapshot.isPushing(index))
             {
-                drawPushedSprite(graphicsContext,
-                                 player,
-                                 baseX,
-                                 baseY);
+                return SpriteAtlas.Sprite.USER_PUSHING;
             }
-            else
+            if(snapshot.isPushed(index))
             {
-                putSafeString(graphicsContext,
-                              baseX,
-                              baseY - SPRITE_OFFSET_FOUR * CELL_SIZE_IN_PIXEL,
-                              "YOU");
-                putSafeString(graphicsContext,
-                              baseX,
-                              baseY - SPRITE_OFFSET_THREE * CELL_SIZE_IN_PIXEL,
-                              SPRITE_HEAD);
-                putSafeString(graphicsContext,
-                              baseX,
-                              baseY - SPRITE_OFFSET_TWO * CELL_SIZE_IN_PIXEL,
-                              SPRITE_UPPER_BODY);
-                putSafeString(graphicsContext,
-                              baseX,
-                              baseY - SPRITE_OFFSET_ONE * CELL_SIZE_IN_PIXEL,
-                              SPRITE_CORE_BODY);
-                putSafeString(graphicsContext,
-                              baseX,
-                              baseY,
-                              SPRITE_LOWER_BODY);
+                return SpriteAtlas.Sprite.USER_PUSHED;
             }
+            return SpriteAtlas.Sprite.USER;
         }
-        else
+        if(snapshot.isPushed(index))
         {
-            graphicsContext.setFill(Color.WHITE);
-            // For NPCs, you might only want to show a pushed sprite if they're being pushed.
-            if(player.isPushed())
-            {
-                drawPushedSprite(graphicsContext,
-                                 player,
-                                 baseX,
-                                 baseY);
-            }
-            else
-            {
-                putSafeString(graphicsContext,
-                              baseX,
-                              baseY - SPRITE_OFFSET_THREE * CELL_SIZE_IN_PIXEL,
-                              SPRITE_HEAD);
-                putSafeString(graphicsContext,
-                              baseX,
-                              baseY - SPRITE_OFFSET_TWO * CELL_SIZE_IN_PIXEL,
-                              SPRITE_UPPER_BODY);
-                putSafeString(graphicsContext,
-                              baseX,
-                              baseY - SPRITE_OFFSET_ONE * CELL_SIZE_IN_PIXEL,
-                              SPRITE_CORE_BODY);
-                putSafeString(graphicsContext,
-                              baseX,
-                              baseY,
-                              SPRITE_LOWER_BODY);
-            }
+            return SpriteAtlas.Sprite.NPC_PUSHED;
         }
+        return SpriteAtlas.Sprite.NPC;
     }
 
     /*
-     * Draws a sprite for a player who is pushing.
-     * <p>
-     * This method renders a modified sprite to indicate that the player is pushing.
-     * </p>
-     *
-     * @param graphicsContext    the GraphicsContext used for drawing.
-     * @param player     the Player who is pushing.
-     * @param baseX the base x-coordinate for the sprite.
-     * @param baseY the base y-coordinate for the sprite.
-     */
-    private void drawPushingSprite(final GraphicsContext graphicsContext,
-                                   final Player player,
-                                   final double baseX,
-                                   final double baseY)
-    {
-        graphicsContext.setFill(player.isUser() ? Color.CYAN : Color.WHITE);
-        putSafeString(graphicsContext,
-                      baseX,
-                      baseY - 4 * CELL_SIZE_IN_PIXEL,
-                      player.isUser() ? "YOU" : "");
-        putSafeString(graphicsContext,
-                      baseX,
-                      baseY - SPRITE_OFFSET_THREE * CELL_SIZE_IN_PIXEL,
-                      SPRITE_HEAD);
-        putSafeString(graphicsContext,
-                      baseX,
-                      baseY - SPRITE_OFFSET_TWO * CELL_SIZE_IN_PIXEL,
-                      "-|\\"); // Note the extra dash on the left to suggest pushing.
-        putSafeString(graphicsContext,
-                      baseX,
-                      baseY - SPRITE_OFFSET_ONE * CELL_SIZE_IN_PIXEL,
-                      SPRITE_CORE_BODY);
-        putSafeString(graphicsContext,
-                      baseX,
-                      baseY,
-                      SPRITE_LOWER_BODY);
-    }
-
-    /*
-     * Draws a sprite for a player who is being pushed.
-     * <p>
-     * This method renders a modified sprite to indicate that the player is being pushed.
-     * </p>
+     * Returns the point the given fraction of the way from one grid coordinate to another.
      *
-     * @param gc    the GraphicsContext used for drawing.
-     * @param p     the Player who is being pushed.
-     * @param baseX the base x-coordinate for the sprite.
-     * @param baseY the base y-coordinate for the sprite.
-     */
-    private void drawPushedSprite(final GraphicsContext gc,
-                                  final Player p,
-                                  final double baseX,
-                                  final double baseY)
-    {
-        gc.setFill(p.isUser() ? Color.CYAN : Color.WHITE);
-        putSafeString(gc,
-                      baseX,
-                      baseY - SPRITE_OFFSET_THREE * CELL_SIZE_IN_PIXEL,
-                      SPRITE_HEAD);
-        putSafeString(gc,
-                      baseX,
-                      baseY - SPRITE_OFFSET_TWO * CELL_SIZE_IN_PIXEL,
-                      SPRITE_UPPER_BODY);
-        putSafeString(gc,
-                      baseX,
-                      baseY - SPRITE_OFFSET_ONE * CELL_SIZE_IN_PIXEL,
-                      " |\\"); // Slightly shifted leg or extra mark to indicate imbalance.
-        putSafeString(gc,
-                      baseX,
-                      baseY,
-                      SPRITE_LOWER_BODY);
+     * @param from     the coordinate at the start of the step.
+     * @param to       the coordinate at the end of the step.
+     * @param progress the fraction of the step that has passed.
+     * @return the interpolated coordinate, in cells.
+     */
+    private static double interpolate(final int from,
+                                      final int to,
+                                      final double progress)
+    {
+        return from + (to - from) * progress;
     }
 
     /*
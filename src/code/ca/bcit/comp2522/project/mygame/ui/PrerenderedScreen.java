@@ -0,0 +1,108 @@
+package ca.bcit.comp2522.project.mygame.ui;
+
+import javafx.application.Platform;
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+
+import java.util.function.Consumer;
+
+/*
+ * A screen that never changes once drawn, painted once to an offscreen image and copied onto the canvas with a single
+ * drawImage call from then on.
+ * <p>
+ * The image is as large as the canvas it was painted for and is painted again only when that canvas changes size.
+ * Text is laid out on the offscreen canvas with the text alignment and baseline of the target, so the image looks
+ * exactly like the screen painted straight onto the target would.
+ * Offscreen canvases can only be snapshotted on the JavaFX Application Thread, so on any other thread, or onto a
+ * canvas too small to hold an image, the screen is painted straight onto the target instead.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+final class PrerenderedScreen
+{
+    private static final int ORIGIN = 0;
+    private static final double MINIMUM_SIDE_IN_PIXEL = 1.0;
+
+    private final Consumer<GraphicsContext> painter;
+    private WritableImage image;   // Null until the screen is first drawn on the JavaFX Application Thread.
+    private double imageWidth;
+    private double imageHeight;
+    private VPos imageBaseline;
+    private TextAlignment imageAlignment;
+
+    /*
+     * Constructs a screen drawn by the given painter.
+     *
+     * @param painter draws the whole screen onto the graphics context it is given.
+     */
+    PrerenderedScreen(final Consumer<GraphicsContext> painter)
+    {
+        this.painter = painter;
+    }
+
+    /*
+     * Draws the screen onto the canvas of the given graphics context, painting the image first if there is none yet
+     * or the canvas has been resized or its text settings changed since.
+     *
+     * @param graphicsContext the graphics context to draw on.
+     */
+    void draw(final GraphicsContext graphicsContext)
+    {
+        final Canvas target;
+
+        target = graphicsContext.getCanvas();
+        if(!Platform.isFxApplicationThread() || target.getWidth() < MINIMUM_SIDE_IN_PIXEL ||
+           target.getHeight() < MINIMUM_SIDE_IN_PIXEL)
+        {
+            painter.accept(graphicsContext);
+            return;
+        }
+
+        if(image == null ||
+           imageWidth != target.getWidth() ||
+           imageHeight != target.getHeight() ||
+           imageBaseline != graphicsContext.getTextBaseline() ||
+           imageAlignment != graphicsContext.getTextAlign())
+        {
+            paint(graphicsContext);
+        }
+        graphicsContext.drawImage(image, ORIGIN, ORIGIN);
+    }
+
+    /*
+     * Paints the screen onto an offscreen canvas the size of the target's and keeps a snapshot of it.
+     *
+     * @param target the graphics context the image will be drawn on.
+     */
+    private void paint(final GraphicsContext target)
+    {
+        final double width;
+        final double height;
+        final Canvas offscreen;
+        final GraphicsContext graphicsContext;
+        final SnapshotParameters parameters;
+
+        width = target.getCanvas().getWidth();
+        height = target.getCanvas().getHeight();
+        offscreen = new Canvas(width, height);
+        graphicsContext = offscreen.getGraphicsContext2D();
+        graphicsContext.setTextBaseline(target.getTextBaseline());
+        graphicsContext.setTextAlign(target.getTextAlign());
+        painter.accept(graphicsContext);
+
+        parameters = new SnapshotParameters();
+        parameters.setFill(Color.BLACK);
+        image = offscreen.snapshot(parameters, new WritableImage((int) Math.ceil(width), (int) Math.ceil(height)));
+        imageWidth = width;
+        imageHeight = height;
+        imageBaseline = target.getTextBaseline();
+        imageAlignment = target.getTextAlign();
+    }
+}
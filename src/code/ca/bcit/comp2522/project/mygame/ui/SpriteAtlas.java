@@ -0,0 +1,316 @@
+package ca.bcit.comp2522.project.mygame.ui;
+
+import javafx.application.Platform;
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+import static ca.bcit.comp2522.project.mygame.common.GameConfig.CELL_SIZE_IN_PIXEL;
+import static ca.bcit.comp2522.project.mygame.util.DrawingUtils.computeTextWidth;
+import static ca.bcit.comp2522.project.mygame.util.DrawingUtils.putSafeString;
+
+/*
+ * Holds every ASCII art sprite of the game, rasterized once into a single image, so that drawing a sprite is a single
+ * drawImage region copy instead of one fillText call per line.
+ * <p>
+ * Each sprite is a few lines of text drawn one cell apart in its own color. Sprites are placed by an anchor: the
+ * baseline of the row the sprite stands on. Line {@code i} of a sprite sits
+ * {@code firstLineOffsetInCells + i} cells below the anchor, so that a player's feet are on its own row and its head
+ * and "YOU" label rise above it. In the atlas, every sprite gets a frame with one spare line above and below its
+ * text. The lines are laid out there with the text baseline of the canvas the sprites are drawn on, and the spare
+ * lines leave room for glyphs hanging above or below their line whatever that baseline is. Should the baseline of
+ * the target change, the atlas is painted again.
+ * </p>
+ * <p>
+ * The atlas is painted the first time a sprite is drawn on the JavaFX Application Thread, the only thread a canvas
+ * can be snapshotted on. On any other thread the sprite's lines are drawn as text instead.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+final class SpriteAtlas
+{
+    private static final String FONT_STYLE = "Monospaced";
+    private static final int ORIGIN = 0;
+    private static final int FRAME_MARGIN_IN_NUMBER_OF_LINES = 1;
+    private static final int FRAME_MARGINS = 2;
+    private static final String USER_LABEL = "YOU";
+    private static final String HEAD = " O ";
+    private static final String UPPER_BODY = "/|\\";
+    private static final String PUSHING_UPPER_BODY = "-|\\";  // The extra dash on the left suggests pushing.
+    private static final String CORE_BODY = " | ";
+    private static final String PUSHED_CORE_BODY = " |\\";    // A shifted leg suggests imbalance.
+    private static final String LOWER_BODY = "/ \\";
+    private static final int PLAYER_FIRST_LINE_OFFSET_IN_CELLS = -3;
+    private static final int USER_FIRST_LINE_OFFSET_IN_CELLS = -4;
+    private static final int DEAD_FIRST_LINE_OFFSET_IN_CELLS = -2;
+    private static final int DOLL_FIRST_LINE_OFFSET_IN_CELLS = 0;
+
+    /*
+     * The distinct sprites of the game.
+     */
+    enum Sprite
+    {
+        NPC(Color.WHITE, PLAYER_FIRST_LINE_OFFSET_IN_CELLS,
+            HEAD, UPPER_BODY, CORE_BODY, LOWER_BODY),
+        NPC_PUSHED(Color.WHITE, PLAYER_FIRST_LINE_OFFSET_IN_CELLS,
+                   HEAD, UPPER_BODY, PUSHED_CORE_BODY, LOWER_BODY),
+        USER(Color.CYAN, USER_FIRST_LINE_OFFSET_IN_CELLS,
+             USER_LABEL, HEAD, UPPER_BODY, CORE_BODY, LOWER_BODY),
+        USER_PUSHING(Color.CYAN, USER_FIRST_LINE_OFFSET_IN_CELLS,
+                     USER_LABEL, HEAD, PUSHING_UPPER_BODY, CORE_BODY, LOWER_BODY),
+        USER_PUSHED(Color.CYAN, PLAYER_FIRST_LINE_OFFSET_IN_CELLS,
+                    HEAD, UPPER_BODY, PUSHED_CORE_BODY, LOWER_BODY),
+        DEAD(Color.GRAY, DEAD_FIRST_LINE_OFFSET_IN_CELLS,
+             "  ____",
+             "--O---"),
+        RED_DOLL(Color.RED, DOLL_FIRST_LINE_OFFSET_IN_CELLS,
+                 "   .^-^.     ",
+                 "   (o o)     ",
+                 "   / V \\     ",
+                 "  /|---|\\    ",
+                 "   |===|     ",
+                 "   \\ | /     ",
+                 "    \\|/     "),
+        GREEN_DOLL(Color.GREEN, DOLL_FIRST_LINE_OFFSET_IN_CELLS,
+                   "   .^-^.     ",
+                   "   (   )     ",
+                   "   / - \\     ",
+                   "  /|---|\\    ",
+                   "   |===|     ",
+                   "   \\ | /     ",
+                   "    \\|/     ");
+
+        private final Color color;
+        private final int firstLineOffsetInCells;
+        private final String[] lines;
+
+        /*
+         * Constructs a sprite.
+         *
+         * @param color                  the color of the sprite.
+         * @param firstLineOffsetInCells the number of cells the first line sits below the anchor.
+         * @param lines                  the lines of the sprite, from top to bottom.
+         */
+        Sprite(final Color color,
+               final int firstLineOffsetInCells,
+               final String... lines)
+        {
+            this.color = color;
+            this.firstLineOffsetInCells = firstLineOffsetInCells;
+            this.lines = lines;
+        }
+
+        /*
+         * Returns the number of characters in the longest line of the sprite.
+         *
+         * @return the width of the sprite in characters.
+         */
+        int getWidthInCharacters()
+        {
+            int width;
+            width = 0;
+            for(final String line : lines)
+            {
+                width = Math.max(width, line.length());
+            }
+            return width;
+        }
+    }
+
+    private final Font font;
+    private final double[] frameY;
+    private final double[] frameWidth;
+    private final double[] frameHeight;
+    private boolean measured;
+    private double atlasWidth;
+    private double atlasHeight;
+    private WritableImage image;   // Null until a sprite is first drawn on the JavaFX Application Thread.
+    private VPos imageBaseline;
+
+    /*
+     * Constructs an atlas whose sprites are drawn in a monospaced font one cell high.
+     */
+    SpriteAtlas()
+    {
+        this.font = Font.font(FONT_STYLE, CELL_SIZE_IN_PIXEL);
+        this.frameY = new double[Sprite.values().length];
+        this.frameWidth = new double[Sprite.values().length];
+        this.frameHeight = new double[Sprite.values().length];
+    }
+
+    /*
+     * Draws a sprite anchored at the given point.
+     *
+     * @param graphicsContext the graphics context to draw on.
+     * @param sprite          the sprite to draw.
+     * @param x               the left edge of the sprite in pixels.
+     * @param anchorY         the baseline of the row the sprite stands on, in pixels.
+     */
+    void draw(final GraphicsContext graphicsContext,
+              final Sprite sprite,
+              final double x,
+              final double anchorY)
+    {
+        final int frame;
+        final double top;
+
+        if(!Platform.isFxApplicationThread())
+        {
+            drawLines(graphicsContext, sprite, x, anchorY);
+            return;
+        }
+        if(image == null || imageBaseline != graphicsContext.getTextBaseline())
+        {
+            paint(graphicsContext.getTextBaseline());
+        }
+
+        frame = sprite.ordinal();
+        top = getTop(sprite, anchorY);
+        graphicsContext.drawImage(image,
+                                  ORIGIN,
+                                  frameY[frame],
+                                  frameWidth[frame],
+                                  frameHeight[frame],
+                                  x,
+                                  top,
+                                  frameWidth[frame],
+                                  frameHeight[frame]);
+    }
+
+    /*
+     * Returns the top edge of the area a sprite covers when anchored at the given baseline.
+     *
+     * @param sprite  the sprite.
+     * @param anchorY the baseline of the row the sprite stands on, in pixels.
+     * @return the top edge of the sprite in pixels.
+     */
+    double getTop(final Sprite sprite,
+                  final double anchorY)
+    {
+        return anchorY + (sprite.firstLineOffsetInCells - FRAME_MARGIN_IN_NUMBER_OF_LINES) * CELL_SIZE_IN_PIXEL;
+    }
+
+    /*
+     * Returns the width of the area a sprite covers.
+     *
+     * @param sprite the sprite.
+     * @return the width of the sprite in pixels.
+     */
+    double getWidth(final Sprite sprite)
+    {
+        measure();
+        return frameWidth[sprite.ordinal()];
+    }
+
+    /*
+     * Returns the height of the area a sprite covers.
+     *
+     * @param sprite the sprite.
+     * @return the height of the sprite in pixels.
+     */
+    double getHeight(final Sprite sprite)
+    {
+        measure();
+        return frameHeight[sprite.ordinal()];
+    }
+
+    /*
+     * Returns the image the sprites are currently copied from.
+     *
+     * @return the atlas image, or null if no sprite has been drawn on the JavaFX Application Thread yet.
+     */
+    WritableImage getImage()
+    {
+        return image;
+    }
+
+    /*
+     * Draws the lines of a sprite as text, skipping the lines that fall outside the canvas.
+     *
+     * @param graphicsContext the graphics context to draw on.
+     * @param sprite          the sprite to draw.
+     * @param x               the left edge of the sprite in pixels.
+     * @param anchorY         the baseline of the row the sprite stands on, in pixels.
+     */
+    private void drawLines(final GraphicsContext graphicsContext,
+                           final Sprite sprite,
+                           final double x,
+                           final double anchorY)
+    {
+        graphicsContext.setFont(font);
+        graphicsContext.setFill(sprite.color);
+        for(int i = 0; i < sprite.lines.length; i++)
+        {
+            putSafeString(graphicsContext,
+                          x,
+                          anchorY + (sprite.firstLineOffsetInCells + i) * CELL_SIZE_IN_PIXEL,
+                          sprite.lines[i]);
+        }
+    }
+
+    /*
+     * Works out where every sprite's frame lies in the atlas, once.
+     */
+    private void measure()
+    {
+        if(measured)
+        {
+            return;
+        }
+
+        atlasWidth = 0;
+        atlasHeight = 0;
+        for(final Sprite sprite : Sprite.values())
+        {
+            final int frame;
+            frame = sprite.ordinal();
+            frameY[frame] = atlasHeight;
+            frameWidth[frame] = Math.ceil(computeTextWidth(" ".repeat(sprite.getWidthInCharacters()), font));
+            frameHeight[frame] = (sprite.lines.length + FRAME_MARGINS * FRAME_MARGIN_IN_NUMBER_OF_LINES) *
+                                 CELL_SIZE_IN_PIXEL;
+            atlasWidth = Math.max(atlasWidth, frameWidth[frame]);
+            atlasHeight += frameHeight[frame];
+        }
+        measured = true;
+    }
+
+    /*
+     * Stacks one frame per sprite on an offscreen canvas with a transparent background and keeps a snapshot of it.
+     *
+     * @param baseline the text baseline of the canvas the sprites are drawn on.
+     */
+    private void paint(final VPos baseline)
+    {
+        final Canvas offscreen;
+        final GraphicsContext graphicsContext;
+        final SnapshotParameters parameters;
+
+        measure();
+        offscreen = new Canvas(atlasWidth, atlasHeight);
+        graphicsContext = offscreen.getGraphicsContext2D();
+        graphicsContext.setFont(font);
+        graphicsContext.setTextBaseline(baseline);
+        for(final Sprite sprite : Sprite.values())
+        {
+            graphicsContext.setFill(sprite.color);
+            for(int i = 0; i < sprite.lines.length; i++)
+            {
+                graphicsContext.fillText(sprite.lines[i],
+                                         ORIGIN,
+                                         frameY[sprite.ordinal()] + (i + FRAME_MARGIN_IN_NUMBER_OF_LINES) *
+                                                                    CELL_SIZE_IN_PIXEL);
+            }
+        }
+
+        parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        image = offscreen.snapshot(parameters, new WritableImage((int) atlasWidth, (int) atlasHeight));
+        imageBaseline = baseline;
+    }
+}
@@ -3,7 +3,6 @@ package ca.bcit.comp2522.project.mygame.util;
 import ca.bcit.comp2522.project.mygame.common.MovementDirection;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.text.Font;
-import javafx.scene.text.Text;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -30,16 +29,14 @@ public class DrawingUtils
 {
     private static final int HALVING_FACTOR = 2;
     private static final int BOUNDARY_ZERO = 0;
-    private static final int COORDINATE_MOVEMENT_BY_ZERO = 0;
-    private static final int COORDINATE_MOVEMENT_BY_NEGATIVE_ONE = -1;
-    private static final int COORDINATE_MOVEMENT_BY_POSITIVE_ONE = 1;
     private static final int FIRST_INDEX = 0;
+    private static final TextMetricsCache TEXT_METRICS = new TextMetricsCache();
 
     /**
      * Computes the width of the specified text when rendered with the given font.
      * <p>
-     * This method creates a temporary {@link Text} object with the provided text and font, then returns
-     * the width of its layout bounds.
+     * Widths are answered from a {@link TextMetricsCache} shared by the whole game, so that centering the same text
+     * frame after frame only lays it out once. Printable ASCII text in a monospaced font is never laid out at all.
      * </p>
      *
      * @param text the text whose width is to be computed.
@@ -49,10 +46,7 @@ public class DrawingUtils
     public static double computeTextWidth(final String text,
                                           final Font font)
     {
-        final Text tempText;
-        tempText = new Text(text);
-        tempText.setFont(font);
-        return tempText.getLayoutBounds().getWidth();
+        return TEXT_METRICS.getWidth(font, text);
     }
 
     /**
@@ -100,12 +94,7 @@ public class DrawingUtils
      */
     public static int directionDeltaX(final MovementDirection direction)
     {
-        switch(direction)
-        {
-            case LEFT: return COORDINATE_MOVEMENT_BY_NEGATIVE_ONE;
-            case RIGHT: return COORDINATE_MOVEMENT_BY_POSITIVE_ONE;
-            default: return COORDINATE_MOVEMENT_BY_ZERO;
-        }
+        return direction.getDeltaX();
     }
 
     /**
@@ -121,12 +110,7 @@ public class DrawingUtils
      */
     public static int directionDeltaY(final MovementDirection direction)
     {
-        switch(direction)
-        {
-            case UP: return COORDINATE_MOVEMENT_BY_NEGATIVE_ONE;
-            case DOWN: return COORDINATE_MOVEMENT_BY_POSITIVE_ONE;
-            default: return COORDINATE_MOVEMENT_BY_ZERO;
-        }
+        return direction.getDeltaY();
     }
 
     /**
@@ -0,0 +1,343 @@
+package ca.bcit.comp2522.project.mygame.util;
+
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers the rendered width of text, so that centering a string costs a map lookup instead of a layout pass.
+ * <p>
+ * Measuring text in JavaFX means laying out a {@link Text} node, which is far too slow to repeat for every line of
+ * every frame. This cache measures with a single reusable node and answers repeated questions from memory:
+ * <ul>
+ *   <li>The first time a font is seen, the advance of a narrow and a wide glyph are compared. If they match, the font
+ *       is monospaced, and the width of any printable ASCII string in it is simply its length times that
+ *       advance.</li>
+ *   <li>Every other width is measured once and kept in a map keyed by font and string. The map holds at most
+ *       {@link #getCapacity()} entries and drops the least recently used one to make room for a new one.</li>
+ * </ul>
+ * Fonts are told apart by name and size. All methods are synchronized, so one cache may be shared by every thread
+ * that measures text.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public final class TextMetricsCache
+{
+    /**
+     * The number of widths a cache created with {@link #TextMetricsCache()} remembers.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final int MINIMUM_CAPACITY = 1;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final boolean ACCESS_ORDER = true;
+    private static final String NARROW_GLYPH = "i";
+    private static final String WIDE_GLYPH = "W";
+    private static final double ADVANCE_TOLERANCE_IN_PIXEL = 1e-6;
+    private static final double NOT_MONOSPACED = Double.NaN;
+    private static final char FIRST_PRINTABLE_ASCII = ' ';
+    private static final char LAST_PRINTABLE_ASCII = '~';
+
+    private final int capacity;
+    private Text measuringText;  // Created on the first measurement, so that an unused cache never touches JavaFX.
+    private final Map<FontKey, Double> monospaceAdvances;
+    private final Map<TextKey, Double> widths;
+
+    /**
+     * Constructs an empty cache that remembers up to {@link #DEFAULT_CAPACITY} widths.
+     */
+    public TextMetricsCache()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty cache that remembers up to the given number of widths.
+     *
+     * @param capacity the largest number of widths kept at once.
+     * @throws IllegalArgumentException if {@code capacity} is less than one.
+     */
+    public TextMetricsCache(final int capacity)
+    {
+        validateCapacity(capacity);
+        this.capacity = capacity;
+        this.monospaceAdvances = new HashMap<>();
+        this.widths = new LinkedHashMap<>(capacity, LOAD_FACTOR, ACCESS_ORDER)
+        {
+            /*
+             * Drops the least recently used width once the cache is over capacity.
+             */
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<TextKey, Double> eldest)
+            {
+                return size() > TextMetricsCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the width of the given text when rendered with the given font.
+     * <p>
+     * The text is only laid out if it is neither a printable ASCII string in a monospaced font nor among the widths
+     * used most recently.
+     * </p>
+     *
+     * @param font the font used to render the text.
+     * @param text the text whose width is to be returned.
+     * @return the width of the text in pixels.
+     */
+    public synchronized double getWidth(final Font font,
+                                        final String text)
+    {
+        final FontKey fontKey;
+        final double advance;
+        final TextKey textKey;
+        final Double cachedWidth;
+        final double width;
+
+        fontKey = new FontKey(font);
+        advance = getMonospaceAdvance(fontKey, font);
+        if(!Double.isNaN(advance) && isPrintableAscii(text))
+        {
+            return advance * text.length();
+        }
+
+        textKey = new TextKey(fontKey, text);
+        cachedWidth = widths.get(textKey);
+        if(cachedWidth != null)
+        {
+            return cachedWidth;
+        }
+
+        width = measure(font, text);
+        widths.put(textKey, width);
+        return width;
+    }
+
+    /**
+     * Returns the number of widths currently remembered, not counting the advances of monospaced fonts.
+     *
+     * @return the number of cached widths.
+     */
+    public synchronized int size()
+    {
+        return widths.size();
+    }
+
+    /**
+     * Returns the largest number of widths this cache keeps at once.
+     *
+     * @return the capacity of the cache.
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /*
+     * Returns the advance shared by every glyph of the font, or NOT_MONOSPACED if the glyphs differ in width. The
+     * answer is worked out the first time the font is seen.
+     *
+     * @param fontKey the key of the font.
+     * @param font    the font.
+     * @return the advance of a glyph in pixels, or NOT_MONOSPACED.
+     */
+    private double getMonospaceAdvance(final FontKey fontKey,
+                                       final Font font)
+    {
+        final Double knownAdvance;
+        final double narrowAdvance;
+        final double wideAdvance;
+        final double advance;
+
+        knownAdvance = monospaceAdvances.get(fontKey);
+        if(knownAdvance != null)
+        {
+            return knownAdvance;
+        }
+
+        narrowAdvance = measure(font, NARROW_GLYPH);
+        wideAdvance = measure(font, WIDE_GLYPH);
+        if(Math.abs(narrowAdvance - wideAdvance) <= ADVANCE_TOLERANCE_IN_PIXEL)
+        {
+            advance = wideAdvance;
+        }
+        else
+        {
+            advance = NOT_MONOSPACED;
+        }
+        monospaceAdvances.put(fontKey, advance);
+        return advance;
+    }
+
+    /*
+     * Lays the text out with the reusable node and returns its width.
+     *
+     * @param font the font used to render the text.
+     * @param text the text to measure.
+     * @return the width of the text in pixels.
+     */
+    private double measure(final Font font,
+                           final String text)
+    {
+        if(measuringText == null)
+        {
+            measuringText = new Text();
+        }
+        measuringText.setFont(font);
+        measuringText.setText(text);
+        return measuringText.getLayoutBounds().getWidth();
+    }
+
+    /*
+     * Tells whether every character of the text is a printable ASCII character, whose advance in a monospaced font
+     * is the same as that of the probed glyphs.
+     *
+     * @param text the text to check.
+     * @return true if the text is printable ASCII only.
+     */
+    private static boolean isPrintableAscii(final String text)
+    {
+        for(int i = 0; i < text.length(); i++)
+        {
+            final char character;
+            character = text.charAt(i);
+            if(character < FIRST_PRINTABLE_ASCII || character > LAST_PRINTABLE_ASCII)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Validates that the cache can hold at least one width.
+     *
+     * @param capacity the capacity to validate.
+     * @throws IllegalArgumentException if the capacity is less than one.
+     */
+    private static void validateCapacity(final int capacity)
+    {
+        if(capacity < MINIMUM_CAPACITY)
+        {
+            throw new IllegalArgumentException("Text metrics cache capacity must be at least " + MINIMUM_CAPACITY +
+                                               ", got " + capacity);
+        }
+    }
+
+    /*
+     * Identifies a font by name and size.
+     */
+    private static final class FontKey
+    {
+        private final String name;
+        private final double size;
+
+        /*
+         * Constructs the key of the given font.
+         *
+         * @param font the font.
+         */
+        FontKey(final Font font)
+        {
+            this.name = font.getName();
+            this.size = font.getSize();
+        }
+
+        /**
+         * Tells whether the other object is the key of a font with the same name and size.
+         *
+         * @param other the object to compare with.
+         * @return true if both keys identify the same font.
+         */
+        @Override
+        public boolean equals(final Object other)
+        {
+            if(this == other)
+            {
+                return true;
+            }
+            if(!(other instanceof FontKey))
+            {
+                return false;
+            }
+
+            final FontKey that;
+            that = (FontKey) other;
+            return Double.compare(size, that.size) == 0 && name.equals(that.name);
+        }
+
+        /**
+         * Returns a hash code consistent with {@link #equals(Object)}.
+         *
+         * @return the hash code of the key.
+         */
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(name, size);
+        }
+    }
+
+    /*
+     * Identifies a string rendered with a given font.
+     */
+    private static final class TextKey
+    {
+        private final FontKey font;
+        private final String text;
+
+        /*
+         * Constructs the key of the text rendered with the font.
+         *
+         * @param font the key of the font.
+         * @param text the text.
+         */
+        TextKey(final FontKey font,
+                final String text)
+        {
+            this.font = font;
+            this.text = text;
+        }
+
+        /**
+         * Tells whether the other object is the key of the same text in the same font.
+         *
+         * @param other the object to compare with.
+         * @return true if both keys identify the same rendered text.
+         */
+        @Override
+        public boolean equals(final Object other)
+        {
+            if(this == other)
+            {
+                return true;
+            }
+            if(!(other instanceof TextKey))
+            {
+                return false;
+            }
+
+            final TextKey that;
+            that = (TextKey) other;
+            return font.equals(that.font) && text.equals(that.text);
+        }
+
+        /**
+         * Returns a hash code consistent with {@link #equals(Object)}.
+         *
+         * @return the hash code of the key.
+         */
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(font, text);
+        }
+    }
+}
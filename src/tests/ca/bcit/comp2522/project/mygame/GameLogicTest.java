@@ -2,19 +2,49 @@ package ca.bcit.comp2522.project.mygame;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import ca.bcit.comp2522.project.mygame.audio.MutedSoundEffects;
 import ca.bcit.comp2522.project.mygame.audio.SoundManager;
+import ca.bcit.comp2522.project.mygame.common.ArenaConfig;
 import ca.bcit.comp2522.project.mygame.common.GameState;
+import ca.bcit.comp2522.project.mygame.common.MovementDirection;
 import ca.bcit.comp2522.project.mygame.engine.GameLogic;
+import ca.bcit.comp2522.project.mygame.engine.GameSession;
+import ca.bcit.comp2522.project.mygame.engine.ManualGameClock;
+import ca.bcit.comp2522.project.mygame.engine.NpcArchetype;
+import ca.bcit.comp2522.project.mygame.engine.SimulationLoop;
+import ca.bcit.comp2522.project.mygame.engine.WorldSnapshot;
 import ca.bcit.comp2522.project.mygame.entities.Player;
+import ca.bcit.comp2522.project.mygame.entities.PlayerStore;
+import ca.bcit.comp2522.project.mygame.metrics.EngineMetrics;
+import ca.bcit.comp2522.project.mygame.metrics.LogHistogram;
+import ca.bcit.comp2522.project.mygame.metrics.TickPhase;
+import ca.bcit.comp2522.project.mygame.replay.Replay;
+import ca.bcit.comp2522.project.mygame.replay.ReplayPlayer;
+import ca.bcit.comp2522.project.mygame.replay.ReplayRecorder;
+import ca.bcit.comp2522.project.mygame.simulation.BatchSimulator;
+import ca.bcit.comp2522.project.mygame.simulation.HeadlessSimulator;
+import ca.bcit.comp2522.project.mygame.simulation.SimulationStatistics;
 import ca.bcit.comp2522.project.mygame.ui.GameRenderer;
+import ca.bcit.comp2522.project.mygame.util.TextMetricsCache;
 import javafx.embed.swing.JFXPanel;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.text.Font;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
-import java.util.ArrayList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
 
 /**
  * A comprehensive JUnit 5 test class that verifies the core functionality of the game logic,
@@ -29,7 +59,7 @@ import java.util.List;
  *   <li>Light State and Win Condition: Tests that updating the game state toggles light state appropriately
  *       and that a win is detected when the user reaches the finish line.</li>
  *   <li>Sound and UI: Confirms that methods of the SoundManager and GameRenderer do not throw errors when invoked.</li>
- *   <li>Singleton Pattern: Ensures that a valid SoundManager creates a non-null GameLogic instance.</li>
+ *   <li>Instance Creation: Ensures that a valid SoundManager creates a non-null GameLogic instance.</li>
  *   <li>Cooldown Enforcement: Checks that move attempts made before the cooldown expires are rejected.</li>
  * </ul>
  * Additionally, the class initializes the JavaFX runtime before running any tests to allow the use of JavaFX classes.
@@ -54,8 +84,7 @@ public class GameLogicTest {
      */
     @Test
     void testInitGameCreatesPlayers() {
-        SoundManager sm = new SoundManager();
-        GameLogic gl = GameLogic.getInstance(sm);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(1L, new ManualGameClock(0));
         gl.initGame();
         List<Player> players = gl.getPlayers();
         assertNotNull(players, "initGame() should create a non-null list of players.");
@@ -71,8 +100,7 @@ public class GameLogicTest {
      */
     @Test
     void testTryMoveWithPushMovesPlayer() {
-        SoundManager sm = new SoundManager();
-        GameLogic gl = GameLogic.getInstance(sm);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(1L, new ManualGameClock(1_000_000_000L));
         gl.initGame();
         // Use the user-controlled player for movement testing.
         Player user = gl.getUser();
@@ -83,13 +111,13 @@ public class GameLogicTest {
         user.setPrevY(20);
 
         // Attempt to move the user one cell to the right.
-        boolean moved = gl.tryMoveWithPush(user, 1, 0, new ArrayList<>(), true);
+        boolean moved = gl.tryMoveWithPush(user, 1, 0, true);
         assertTrue(moved, "tryMoveWithPush should return true when moving into an empty cell.");
         assertEquals(11, user.getX(), "User's x-coordinate should update from 10 to 11 after moving.");
         assertEquals(20, user.getY(), "User's y-coordinate should remain unchanged.");
 
         // Immediately try to move again; due to cooldown the move should fail.
-        boolean movedAgain = gl.tryMoveWithPush(user, 1, 0, new ArrayList<>(), true);
+        boolean movedAgain = gl.tryMoveWithPush(user, 1, 0, true);
         assertFalse(movedAgain, "A second immediate move should fail due to move cooldown.");
     }
 
@@ -99,22 +127,20 @@ public class GameLogicTest {
      */
     @Test
     void testLightSwitchTogglingViaUpdateGame() {
-        SoundManager sm = new SoundManager();
-        GameLogic gl = GameLogic.getInstance(sm);
+        ManualGameClock clock = new ManualGameClock(1_000_000_000L);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(1L, clock);
         gl.initGame();
         // Capture the initial light state.
         boolean initialLight = gl.isGreen();
         // Call updateGame with the current time.
-        long now = System.nanoTime();
-        gl.updateGame(now);
+        gl.updateGame(clock.nanoTime());
         // Calling updateGame again immediately should normally not toggle the light.
-        gl.updateGame(System.nanoTime());
+        gl.updateGame(clock.nanoTime());
         // The light state should remain the same if not enough time elapsed.
         assertEquals(initialLight, gl.isGreen(), "Light state should remain unchanged if updateGame is called too quickly.");
 
         // Now simulate a long elapsed time by adding a large delta.
-        long later = now + 10_000_000; // 10 milliseconds later
-        gl.updateGame(later);
+        gl.updateGame(clock.advance(10_000_000L)); // 10 milliseconds later
         // Now it is expected that enough time has elapsed to toggle the light.
         // (Since the next switch interval is randomized, we can only assert that the state may change.)
         // We simply assert that updateGame runs without error.
@@ -126,15 +152,14 @@ public class GameLogicTest {
      */
     @Test
     void testUserWinCondition() {
-        SoundManager sm = new SoundManager();
-        GameLogic gl = GameLogic.getInstance(sm);
+        ManualGameClock clock = new ManualGameClock(1_000_000_000L);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(1L, clock);
         gl.initGame();
         Player user = gl.getUser();
         // In GameConfig, FINISH_LINE_Y_IN_NUMBER_OF_CELLS is 5.
         // Simulate the user reaching the finish line by setting y to 4.
         user.setY(4);
-        long now = System.nanoTime();
-        gl.updateGame(now);
+        gl.updateGame(clock.advance(50_000_000L));
         assertTrue(user.isFinished(), "User should be marked finished when reaching the finish line (y < 5).");
         assertTrue(gl.isGameOver(), "Game should be over after the user finishes.");
     }
@@ -164,8 +189,7 @@ public class GameLogicTest {
      */
     @Test
     void testGameRendererRenderDoesNotThrow() {
-        SoundManager sm = new SoundManager();
-        GameLogic gl = GameLogic.getInstance(sm);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(1L, new ManualGameClock(0));
         gl.initGame();
         GameRenderer renderer = new GameRenderer(gl);
         Canvas canvas = new Canvas(200, 200);
@@ -181,9 +205,9 @@ public class GameLogicTest {
      * GameLogic instance (and not throw).
      */
     @Test
-    void testGetInstanceWithValidSoundManager() {
+    void testNewDeterministicInstanceWithValidSoundManager() {
         SoundManager sm = new SoundManager();
-        GameLogic<Player> gl = GameLogic.getInstance(sm);
+        GameLogic<Player> gl = GameLogic.newDeterministicInstance(sm, 1L, new ManualGameClock(0));
         assertNotNull(gl, "GameLogic instance should be created with a valid SoundManager.");
     }
 
@@ -193,8 +217,7 @@ public class GameLogicTest {
      */
     @Test
     void testTryMoveWithPushCooldownNotElapsed() {
-        SoundManager sm = new SoundManager();
-        GameLogic<Player> gl = GameLogic.getInstance(sm);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(1L, new ManualGameClock(1_000_000_000L));
         gl.initGame();
 
         Player user = gl.getUser();
@@ -202,12 +225,704 @@ public class GameLogicTest {
         user.setY(10);
 
         // First move should succeed.
-        boolean firstMove = gl.tryMoveWithPush(user, 0, -1, new ArrayList<>(), true);
+        boolean firstMove = gl.tryMoveWithPush(user, 0, -1, true);
         assertTrue(firstMove, "First move within bounds should succeed.");
 
         // Immediately try to move again; cooldown not elapsed => should fail.
-        boolean secondMove = gl.tryMoveWithPush(user, 0, -1, new ArrayList<>(), true);
+        boolean secondMove = gl.tryMoveWithPush(user, 0, -1, true);
         assertFalse(secondMove, "Second move before cooldown ends should fail.");
     }
 
-}
\ No newline at end of file
+    /**
+     * Tests that moving a player through its setters keeps the occupancy grid and its row histogram in sync, even
+     * when the player passes over a cell another player already holds.
+     */
+    @Test
+    void testPlayerSettersKeepRowPopulationsInSync() {
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(1L, new ManualGameClock(1_000_000_000L));
+        gl.initGame();
+        Player user = gl.getUser();
+        int startingRow = user.getY();
+
+        user.setX(10);
+        user.setY(20);
+        user.setPrevX(10);
+        user.setPrevY(20);
+        assertTrue(gl.tryMoveWithPush(user, 1, 0, true), "Moving into an empty cell should succeed.");
+
+        int onStartingRow = 0;
+        for (Player p : gl.getPlayers()) {
+            if (p.getY() == startingRow) {
+                onStartingRow++;
+            }
+        }
+        assertEquals(onStartingRow, gl.getRowPopulation(startingRow), "The row the user left should not count it.");
+        assertEquals(1, gl.getRowPopulation(20), "The row the user moved to should count only the user.");
+    }
+
+    /**
+     * Tests that eliminating or finishing a player through its setters keeps the live counts and the row histogram
+     * in sync, just like the engine's own eliminations do, and that reviving the player restores them.
+     */
+    @Test
+    void testPlayerStatusSettersKeepCountsInSync() {
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(1L, new ManualGameClock(1_000_000_000L));
+        gl.initGame();
+        Player npc = gl.getPlayers().get(1);
+        int row = npc.getY();
+        int onField = gl.getOnFieldCount();
+        int onRow = gl.getRowPopulation(row);
+
+        npc.setEliminated(true);
+        assertEquals(onField - 1, gl.getOnFieldCount(), "An eliminated player should leave the field.");
+        assertEquals(1, gl.getEliminatedCount(), "An eliminated player should be counted.");
+        assertEquals(onRow - 1, gl.getRowPopulation(row), "An eliminated player should leave its row.");
+
+        npc.setEliminated(true);
+        assertEquals(1, gl.getEliminatedCount(), "Eliminating a player twice should count it once.");
+
+        npc.setFinished(true);
+        assertEquals(onField - 1, gl.getOnFieldCount(), "A player already off the field should not leave it again.");
+
+        npc.setEliminated(false);
+        npc.setFinished(false);
+        assertEquals(onField, gl.getOnFieldCount(), "A revived player should be back on the field.");
+        assertEquals(0, gl.getEliminatedCount(), "A revived player should no longer be counted as eliminated.");
+        assertEquals(onRow, gl.getRowPopulation(row), "A revived player should be back on its row.");
+
+        npc.setFinished(true);
+        assertEquals(onField - 1, gl.getOnFieldCount(), "A finished player should leave the field.");
+        assertEquals(0, gl.getEliminatedCount(), "A finished player should not be counted as eliminated.");
+        assertEquals(onRow - 1, gl.getRowPopulation(row), "A finished player should leave its row.");
+    }
+
+    /**
+     * Tests that a player who has left the field cannot move back into the grid, so that the row populations still
+     * add up to the number of players on the field.
+     */
+    @Test
+    void testOffFieldPlayerCannotMoveBackIntoGrid() {
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(1L, new ManualGameClock(1_000_000_000L));
+        gl.initGame();
+        Player npc = gl.getPlayers().get(1);
+        int x = npc.getX();
+        int y = npc.getY();
+
+        npc.setEliminated(true);
+        assertFalse(gl.tryMoveWithPush(npc, 0, -1, false), "A player off the field should not be able to move.");
+        assertEquals(x, npc.getX(), "A rejected move should leave the x-coordinate unchanged.");
+        assertEquals(y, npc.getY(), "A rejected move should leave the y-coordinate unchanged.");
+
+        int rowSum = 0;
+        for (int row = 0; row < gl.getArena().getHeightInNumberOfCells(); row++) {
+            rowSum += gl.getRowPopulation(row);
+        }
+        assertEquals(gl.getOnFieldCount(), rowSum, "The row populations should add up to the players on the field.");
+    }
+
+    /**
+     * Tests that a voluntary push shoves the player in front of the user one cell along the push direction while the
+     * user stays in place.
+     */
+    @Test
+    void testUserPushShovesOccupantAndStaysPut() {
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(1L, new ManualGameClock(1_000_000_000L));
+        // 100 players fill the two bottom starting rows completely, so the user always has someone in front.
+        gl.initGame(100);
+        Player user = gl.getUser();
+        int userX = user.getX();
+        int userY = user.getY();
+
+        Player front = null;
+        for (Player p : gl.getPlayers()) {
+            if (p.getX() == userX && p.getY() == userY - 1) {
+                front = p;
+            }
+        }
+        assertNotNull(front, "A player should stand directly in front of the user.");
+
+        boolean pushed = gl.tryMoveWithPush(user, 0, -1, true);
+        assertTrue(pushed, "Pushing into a column with free space behind it should succeed.");
+        assertEquals(userY, user.getY(), "The pushing user should stay in place.");
+        assertEquals(userY - 2, front.getY(), "The pushed player should move one cell up.");
+    }
+
+    /**
+     * Negative test: pushing along a row that is completely full should be rejected and leave every player in place.
+     */
+    @Test
+    void testPushIntoFullRowIsRejected() {
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(1L, new ManualGameClock(1_000_000_000L));
+        // 50 players fill the whole starting row, so any sideways push runs into the edge of the grid.
+        gl.initGame(50);
+        Player user = gl.getUser();
+        int userX = user.getX();
+
+        int deltaX = userX == 0 ? 1 : -1;
+        boolean pushed = gl.tryMoveWithPush(user, deltaX, 0, true);
+        assertFalse(pushed, "A push that would shove a player off the grid should be rejected.");
+        for (Player p : gl.getPlayers()) {
+            assertEquals(p.getPrevX(), p.getX(), "No player should move when the push is rejected.");
+        }
+    }
+
+    /**
+     * Negative test: a move with a zero delta targets the mover's own cell and should be rejected without moving
+     * anyone.
+     */
+    @Test
+    void testZeroDeltaMoveIsRejected() {
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(1L, new ManualGameClock(1_000_000_000L));
+        gl.initGame();
+        Player user = gl.getUser();
+        int userX = user.getX();
+        int userY = user.getY();
+
+        assertFalse(gl.tryMoveWithPush(user, 0, 0, true), "A voluntary move by zero cells should be rejected.");
+        assertFalse(gl.tryMoveWithPush(user, 0, 0, false), "A forced move by zero cells should be rejected.");
+        assertEquals(userX, user.getX(), "The user should stay in its column.");
+        assertEquals(userY, user.getY(), "The user should stay on its row.");
+        assertTrue(gl.tryMoveWithPush(user, 0, -1, true), "A zero-delta attempt should not start the move cooldown.");
+    }
+
+    /**
+     * Tests that two deterministic games created with the same seed and stepped with the same synthetic timestamps
+     * play out identically.
+     */
+    @Test
+    void testDeterministicInstancesWithSameSeedPlayIdentically() {
+        SoundManager sm = new SoundManager();
+        ManualGameClock firstClock = new ManualGameClock(0);
+        ManualGameClock secondClock = new ManualGameClock(0);
+        GameLogic<Player> first = GameLogic.newDeterministicInstance(sm, 42L, firstClock);
+        GameLogic<Player> second = GameLogic.newDeterministicInstance(sm, 42L, secondClock);
+        assertNotSame(first, second, "Each deterministic instance should be a separate GameLogic.");
+
+        first.initGame();
+        second.initGame();
+        for (int tick = 0; tick < 2000 && !first.isGameOver(); tick++) {
+            first.updateGame(firstClock.advance(50_000_000L));
+            second.updateGame(secondClock.advance(50_000_000L));
+        }
+
+        assertEquals(first.isGameOver(), second.isGameOver(), "Both games should end at the same time.");
+        assertEquals(first.getFinishedCount(), second.getFinishedCount(), "Both games should have the same finishers.");
+        for (int index = 0; index < first.getPlayers().size(); index++) {
+            Player a = first.getPlayers().get(index);
+            Player b = second.getPlayers().get(index);
+            assertEquals(a.getX(), b.getX(), "Player " + index + " should end on the same column.");
+            assertEquals(a.getY(), b.getY(), "Player " + index + " should end on the same row.");
+            assertEquals(a.isEliminated(), b.isEliminated(), "Player " + index + " should share the same fate.");
+        }
+    }
+
+    /**
+     * Tests that a large crowd is spawned on distinct cells, so that no two active players share a grid cell.
+     */
+    @Test
+    void testInitGameWithLargeCrowdUsesDistinctCells() {
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(1L, new ManualGameClock(0));
+        gl.initGame(1500);
+
+        List<Player> players = gl.getPlayers();
+        assertEquals(1500, players.size(), "initGame(1500) should create 1500 players.");
+
+        Set<Integer> occupiedCells = new HashSet<>();
+        for (Player p : players) {
+            assertTrue(occupiedCells.add(p.getY() * 1000 + p.getX()), "Every player should start on its own cell.");
+        }
+    }
+
+    /**
+     * Tests that a player store hands out its slots in order, pairs each with one handle, starts every player in a
+     * clean state and refuses players it has no room for.
+     */
+    @Test
+    void testPlayerStoreAssignsSlotsInOrder() {
+        PlayerStore store = new PlayerStore(3);
+        Player first = store.addPlayer(4, 7);
+        Player second = store.addPlayer(5, 7);
+        Player third = store.addPlayer(6, 8);
+
+        assertEquals(3, store.size());
+        assertEquals(3, store.capacity());
+        assertEquals(0, first.getIndex());
+        assertEquals(1, second.getIndex());
+        assertEquals(2, third.getIndex());
+        assertSame(second, store.getPlayer(1), "Each slot should keep the handle it was created with.");
+        assertTrue(third.isBackedBy(store));
+
+        assertEquals(6, store.getPrevX(2), "A new player's previous position should be its starting position.");
+        assertEquals(8, store.getStepStartY(2), "A new player's step start should be its starting position.");
+        assertTrue(store.isOnField(2), "A new player should be on the field.");
+        assertFalse(store.isUser(2) || store.isPushing(2) || store.isPushed(2), "A new player should have no flags.");
+        assertEquals(0, store.getMovedCount(), "Adding players should not mark them as moved.");
+
+        assertThrows(IllegalStateException.class, () -> store.addPlayer(0, 0), "A full store should refuse players.");
+        assertThrows(IllegalArgumentException.class, () -> new PlayerStore(2).addPlayer(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PlayerStore(0));
+
+        Player standalone = new Player(1, 2);
+        assertEquals(0, standalone.getIndex(), "A standalone player should own the only slot of its own store.");
+        assertFalse(standalone.isBackedBy(store));
+    }
+
+    /**
+     * Tests that a player store lists a player in its moved set once however often it moves, and that
+     * {@code markStepStart} and {@code syncPreviousPositions} each catch up their own positions independently.
+     */
+    @Test
+    void testPlayerStoreStepStartAndPreviousPositions() {
+        PlayerStore store = new PlayerStore(2);
+        store.addPlayer(4, 7);
+        store.addPlayer(5, 7);
+
+        store.setX(1, 6);
+        store.setY(1, 6);
+        store.setX(1, 7);
+        assertEquals(1, store.getMovedCount(), "A player moved several times should be listed once.");
+        assertEquals(1, store.getMovedPlayer(0));
+        assertEquals(5, store.getStepStartX(1), "The step start should hold until the next step starts.");
+
+        store.syncPreviousPositions();
+        assertEquals(0, store.getMovedCount(), "Syncing should empty the moved set.");
+        assertEquals(7, store.getPrevX(1));
+        assertEquals(6, store.getPrevY(1));
+        assertEquals(5, store.getStepStartX(1), "Syncing the previous positions should not start a new step.");
+
+        store.markStepStart();
+        assertEquals(7, store.getStepStartX(1), "A new step should start from the current position.");
+        assertEquals(6, store.getStepStartY(1));
+        assertEquals(4, store.getStepStartX(0), "A player that did not move should keep its step start.");
+
+        store.setPrevX(0, 9);
+        store.markStepStart();
+        assertEquals(4, store.getStepStartX(0), "Setting a previous position should not move the step start.");
+        assertEquals(1, store.getMovedCount(), "Setting a previous position should still need a sync.");
+        store.syncPreviousPositions();
+        assertEquals(4, store.getPrevX(0), "Syncing should restore the previous position from the current one.");
+    }
+
+    /**
+     * Tests that {@code syncPreviousPositions} only catches up the players in the moved set, leaving a player whose
+     * position was written without a mark alone until it is reported with {@code markMoved}.
+     */
+    @Test
+    void testSyncPreviousPositionsOnlyTouchesMovedPlayers() {
+        PlayerStore store = new PlayerStore(3);
+        store.addPlayer(4, 7);
+        store.addPlayer(5, 7);
+        store.addPlayer(6, 7);
+
+        store.setX(0, 3);
+        store.setPositionUnmarked(1, 8, 2);
+        assertEquals(1, store.getMovedCount(), "Only the marked move should enter the moved set.");
+
+        store.syncPreviousPositions();
+        assertEquals(3, store.getPrevX(0), "A moved player should have its previous position caught up.");
+        assertEquals(5, store.getPrevX(1), "An unreported player should keep its previous position.");
+        assertEquals(7, store.getPrevY(1));
+        assertEquals(6, store.getPrevX(2), "A player that did not move should keep its previous position.");
+
+        store.markMoved(1);
+        store.syncPreviousPositions();
+        assertEquals(8, store.getPrevX(1), "A reported player should be caught up by the next sync.");
+        assertEquals(2, store.getPrevY(1));
+        assertEquals(3, store.getPrevX(0), "A player synced before should keep its previous position.");
+    }
+
+    /**
+     * Tests that red light elimination catches an NPC that was shoved by the user, even though the NPC never moved
+     * on its own, while the user who pushed and stayed put survives.
+     */
+    @Test
+    void testRedLightEliminatesPlayerShovedByPush() {
+        ManualGameClock clock = new ManualGameClock(1_000_000_000L);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(1L, clock);
+        gl.setNpcBehaviors(NpcArchetype.CAUTIOUS);
+        // 100 players fill the two bottom starting rows completely, so the user always has someone in front.
+        gl.initGame(100);
+        gl.setNextSwitchInMilliseconds(0);
+        gl.updateGame(clock.advance(50_000_000L));
+        assertFalse(gl.isGreen(), "The light should have turned red.");
+        gl.setNextSwitchInMilliseconds(1_000_000);
+
+        Player user = gl.getUser();
+        Player front = null;
+        for (Player p : gl.getPlayers()) {
+            if (p.getX() == user.getX() && p.getY() == user.getY() - 1) {
+                front = p;
+            }
+        }
+        assertNotNull(front, "A player should stand directly in front of the user.");
+        int eliminatedBefore = gl.getEliminatedCount();
+
+        assertTrue(gl.tryMoveWithPush(user, 0, -1, true), "The push should succeed.");
+        gl.updateGame(clock.advance(50_000_000L));
+        assertTrue(front.isEliminated(), "A player shoved on red should be eliminated.");
+        assertFalse(user.isEliminated(), "The pushing user did not move and should survive.");
+        assertEquals(eliminatedBefore + 1, gl.getEliminatedCount(), "Only the shoved player should be eliminated.");
+    }
+
+    /**
+     * Tests that the headless simulator plays complete rounds and reproduces its outcomes for the same seed.
+     */
+    @Test
+    void testHeadlessSimulatorIsReproducible() {
+        HeadlessSimulator simulator = new HeadlessSimulator();
+        SimulationStatistics first = simulator.run(20, 99L);
+        SimulationStatistics second = simulator.run(20, 99L);
+
+        assertEquals(20, first.getRounds(), "Every requested round should be recorded.");
+        assertTrue(first.getTotalFinished() + first.getTotalEliminated() > 0, "Rounds should have outcomes.");
+        assertEquals(first.toString(), second.toString(), "The same seed should produce the same statistics.");
+    }
+
+    /**
+     * Tests that a parallel batch simulation merges to the same statistics regardless of the number of threads.
+     */
+    @Test
+    void testBatchSimulatorResultDoesNotDependOnThreadCount() {
+        HeadlessSimulator simulator = new HeadlessSimulator();
+        SimulationStatistics sequential = new BatchSimulator(simulator, 1, 5).run(23, 11L);
+        SimulationStatistics parallel = new BatchSimulator(simulator, 3, 5).run(23, 11L);
+
+        assertEquals(23, parallel.getRounds(), "Every requested round should be recorded.");
+        assertEquals(sequential.toString(), parallel.toString(), "Thread count should not change the outcome.");
+    }
+
+    /**
+     * Tests that game sessions are isolated from each other and can be looked up until they are disposed.
+     */
+    @Test
+    void testGameSessionsAreIsolatedAndDisposable() {
+        GameSession<Player> first = GameSession.createHeadless(1L, new ManualGameClock(0));
+        GameSession<Player> second = GameSession.createHeadless(1L, new ManualGameClock(0));
+        assertNotSame(first.getGameLogic(), second.getGameLogic(), "Each session should own its own GameLogic.");
+        assertSame(first, GameSession.find(first.getId()), "An open session should be found by its id.");
+
+        first.getGameLogic().initGame(10);
+        second.getGameLogic().initGame(20);
+        assertEquals(10, first.getGameLogic().getPlayers().size(), "Sessions should not share players.");
+
+        first.dispose();
+        assertFalse(first.isOpen(), "A disposed session should no longer be open.");
+        assertNull(GameSession.find(first.getId()), "A disposed session should no longer be found.");
+        assertTrue(second.isOpen(), "Disposing one session should leave the others open.");
+        second.dispose();
+    }
+
+    /**
+     * Tests that the simulation thread applies submitted commands and publishes snapshots of the running round.
+     */
+    @Test
+    void testSimulationLoopAppliesCommandsAndPublishesSnapshots() throws InterruptedException {
+        SimulationLoop simulation = new SimulationLoop(new MutedSoundEffects(), 1_000_000L);
+        assertEquals(GameState.INTRO, simulation.getLatestSnapshot().getState(), "The loop should start on the intro.");
+
+        simulation.start();
+        simulation.submitStartRound();
+        WorldSnapshot snapshot = simulation.getLatestSnapshot();
+        for (int attempt = 0; attempt < 200 && snapshot.getState() == GameState.INTRO; attempt++) {
+            Thread.sleep(5);
+            snapshot = simulation.getLatestSnapshot();
+        }
+        simulation.stop();
+
+        assertNotEquals(GameState.INTRO, snapshot.getState(), "Starting a round should leave the intro screen.");
+        assertTrue(snapshot.size() > 0, "A snapshot of a running round should contain the players.");
+    }
+
+    /**
+     * Tests that the light switches exactly when its scheduled interval ends, and that changing the interval
+     * reschedules the pending switch.
+     */
+    @Test
+    void testLightSwitchFiresWhenScheduledIntervalEnds() {
+        ManualGameClock clock = new ManualGameClock(0);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(7L, clock);
+        gl.initGame();
+        gl.setNextSwitchInMilliseconds(100);
+
+        gl.updateGame(clock.advance(99_000_000L));
+        assertTrue(gl.isGreen(), "The light should stay green until its interval has passed.");
+        gl.updateGame(clock.advance(1_000_000L));
+        assertFalse(gl.isGreen(), "The light should turn red once its interval has passed.");
+        assertEquals(clock.nanoTime(), gl.getLastLightSwitchTimeInNanoseconds(), "The switch time should be recorded.");
+
+        gl.setNextSwitchInMilliseconds(1_000_000);
+        gl.updateGame(clock.advance(60_000_000_000L));
+        assertFalse(gl.isGreen(), "A lengthened interval should replace the switch scheduled before.");
+    }
+
+    /**
+     * Tests that NPCs follow the behavior they are given: cautious NPCs never move under a red light, while reckless
+     * ones eventually do and are eliminated for it.
+     */
+    @Test
+    void testNpcBehaviorsControlRedLightMovement() {
+        assertEquals(0, eliminatedUnderLongRedLight(NpcArchetype.CAUTIOUS), "Cautious NPCs should never move on red.");
+        assertTrue(eliminatedUnderLongRedLight(NpcArchetype.RECKLESS) > 0, "Reckless NPCs should move on red.");
+    }
+
+    private static int eliminatedUnderLongRedLight(NpcArchetype archetype) {
+        ManualGameClock clock = new ManualGameClock(0);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(3L, clock);
+        gl.setNpcBehaviors(archetype);
+        gl.initGame();
+        gl.setNextSwitchInMilliseconds(0);
+        gl.updateGame(clock.advance(50_000_000L));
+        assertFalse(gl.isGreen(), "The light should have turned red.");
+        gl.setNextSwitchInMilliseconds(1_000_000);
+
+        for (int tick = 0; tick < 500; tick++) {
+            gl.updateGame(clock.advance(50_000_000L));
+        }
+        int eliminated = 0;
+        for (Player p : gl.getPlayers()) {
+            if (p.isEliminated()) {
+                eliminated++;
+            }
+        }
+        return eliminated;
+    }
+
+    /**
+     * Tests that the push animation flags are cleared by the engine's own timers once the push delay has passed on
+     * the game clock, even without a JavaFX toolkit.
+     */
+    @Test
+    void testPushFlagsAreClearedByEngineTimers() {
+        ManualGameClock clock = new ManualGameClock(1_000_000_000L);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(11L, clock);
+        gl.initGame(100);
+        Player user = gl.getUser();
+
+        assertTrue(gl.tryMoveWithPush(user, 0, -1, true), "The user should push the player in front.");
+        assertTrue(user.isPushing(), "The user should be shown pushing right after the push.");
+
+        gl.runDueEffects(clock.advance(200_000_000L));
+        assertTrue(user.isPushing(), "The pushing flag should last until the push delay has passed.");
+        gl.runDueEffects(clock.advance(100_000_000L));
+        assertFalse(user.isPushing(), "The pushing flag should be cleared once the push delay has passed.");
+    }
+
+    /**
+     * Tests that a game can be played on an arena chosen at runtime, far larger than the default grid, and that
+     * arenas beyond the supported size are rejected.
+     */
+    @Test
+    void testInitGameOnLargeArena() {
+        ManualGameClock clock = new ManualGameClock(1_000_000_000L);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(5L, clock);
+        ArenaConfig arena = new ArenaConfig(1000, 1000, 100_000);
+        gl.initGame(arena);
+
+        assertSame(arena, gl.getArena(), "The game should run on the requested arena.");
+        assertEquals(100_000, gl.getOnFieldCount(), "Every player should start on the field.");
+        assertEquals(1000, gl.getRowPopulation(arena.getStartingRow()), "The starting row should be full.");
+        assertEquals(1000, gl.getRowPopulation(arena.getStartingRow() - 99), "The hundredth row should be full.");
+
+        for (int tick = 0; tick < 20; tick++) {
+            gl.updateGame(clock.advance(50_000_000L));
+        }
+        assertEquals(100_000, gl.getOnFieldCount() + gl.getEliminatedCount() + gl.getFinishedCount(),
+                "Every player should be accounted for.");
+
+        assertThrows(IllegalArgumentException.class, () -> new ArenaConfig(1001, 1000, 10),
+                "An arena beyond a million cells should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> new ArenaConfig(10, 10, 100),
+                "A crowd that does not fit between the start and the finish line should be rejected.");
+    }
+
+    /**
+     * Tests that a large arena, whose strips are updated in parallel on a fork-join pool, plays out exactly like the
+     * same seeded game updated on a single thread.
+     */
+    @Test
+    void testParallelStripsMatchSingleThreadedRun() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Player> parallel = playLargeArena(pool);
+            List<Player> serial = playLargeArena(null);
+            for (int index = 0; index < serial.size(); index++) {
+                Player a = serial.get(index);
+                Player b = parallel.get(index);
+                assertEquals(a.getX(), b.getX(), "Player " + index + " should end on the same column.");
+                assertEquals(a.getY(), b.getY(), "Player " + index + " should end on the same row.");
+                assertEquals(a.isEliminated(), b.isEliminated(), "Player " + index + " should share the same fate.");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays a seeded game on an arena of several strips and chunks, through green and red lights, on the given pool.
+     *
+     * @param pool the pool to update the strips on, or null for a single thread.
+     * @return the players at the end of the game.
+     */
+    private static List<Player> playLargeArena(ForkJoinPool pool) {
+        ManualGameClock clock = new ManualGameClock(1_000_000_000L);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(17L, clock);
+        gl.setTickPool(pool);
+        gl.initGame(new ArenaConfig(400, 300, 12_000));
+        for (int tick = 0; tick < 600; tick++) {
+            gl.updateGame(clock.advance(50_000_000L));
+        }
+        assertTrue(gl.getEliminatedCount() > 0, "Some players should have moved under a red light.");
+        return gl.getPlayers();
+    }
+
+    /**
+     * Tests that a recorded round, written to bytes and read back, plays back to exactly the recorded state, and that
+     * seeking backwards reaches the same state as playing forwards.
+     */
+    @Test
+    void testReplayReproducesRecordedRound() throws IOException {
+        ManualGameClock clock = new ManualGameClock(5_000_000_000L);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(99L, clock);
+        gl.setNpcBehaviors(NpcArchetype.CAUTIOUS, NpcArchetype.RECKLESS);
+        gl.initGame();
+        for (int tick = 0; tick < 50; tick++) {
+            gl.updateGame(clock.advance(50_000_000L));
+        }
+
+        // Record a second round on the same game, driven the way the simulation loop drives it.
+        ReplayRecorder recorder = new ReplayRecorder();
+        gl.reseed(1234L);
+        gl.initGame();
+        recorder.begin(gl, 1234L, 50_000_000L);
+        MovementDirection[] moves = {MovementDirection.UP, MovementDirection.LEFT, MovementDirection.UP,
+                MovementDirection.RIGHT};
+        int step = 0;
+        while (!gl.isGameOver() && step < 2_000) {
+            if (step % 7 == 0) {
+                MovementDirection move = moves[step / 7 % moves.length];
+                recorder.recordUserMove(move);
+                gl.tryMoveWithPush(gl.getUser(), move.getDeltaX(), move.getDeltaY(), true);
+            }
+            long now = clock.advance(50_000_000L);
+            gl.runDueEffects(now);
+            gl.updateGame(now);
+            recorder.recordStep();
+            step++;
+        }
+        Replay recorded = recorder.finish();
+        assertFalse(recorder.isRecording(), "Finishing should stop the recording.");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        recorded.write(bytes);
+        Replay replay = Replay.read(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(step, replay.getNumberOfSteps(), "Every step should have been recorded.");
+        assertTrue(replay.getInputCount() > 0, "User moves should have been recorded.");
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.seek(step / 2);
+        long halfway = Replay.checksum(player.getGameLogic());
+        player.playToEnd();
+        assertTrue(player.matchesRecording(), "Playback should reproduce the recorded round.");
+        List<Player> original = gl.getPlayers();
+        List<Player> replayed = player.getGameLogic().getPlayers();
+        for (int index = 0; index < original.size(); index++) {
+            assertEquals(original.get(index).getX(), replayed.get(index).getX(), "Player " + index + " column.");
+            assertEquals(original.get(index).getY(), replayed.get(index).getY(), "Player " + index + " row.");
+        }
+
+        player.seek(step / 2);
+        assertEquals(step / 2, player.getCurrentStep(), "Seeking backwards should land on the requested step.");
+        assertEquals(halfway, Replay.checksum(player.getGameLogic()), "Seeking backwards should replay the round.");
+
+        byte[] corrupt = bytes.toByteArray();
+        corrupt[0]++;
+        assertThrows(IOException.class, () -> Replay.read(new ByteArrayInputStream(corrupt)),
+                "Data without the replay header should be rejected.");
+
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 1);
+        assertThrows(IOException.class, () -> Replay.read(new ByteArrayInputStream(truncated)),
+                "A replay cut short should be rejected.");
+
+        ByteArrayOutputStream oversized = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(oversized);
+        header.writeInt(Replay.MAGIC);
+        header.writeByte(Replay.FORMAT_VERSION);
+        header.writeLong(1234L);
+        header.writeLong(0L);
+        header.writeLong(50_000_000L);
+        header.write(new byte[] {100, 80, 100});
+        // A count of Integer.MAX_VALUE NPC behaviors, with nothing after it.
+        header.write(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+        header.flush();
+        assertThrows(IOException.class, () -> Replay.read(new ByteArrayInputStream(oversized.toByteArray())),
+                "A count larger than the bytes left should be rejected before anything is allocated.");
+    }
+
+    /**
+     * Tests that enabled engine metrics time every phase of every update, count pushes, and can be read over JMX,
+     * and that log histograms report percentiles to within their bucket precision.
+     */
+    @Test
+    void testEngineMetricsRecordEveryPhaseAndPush() throws Exception {
+        LogHistogram histogram = new LogHistogram();
+        for (int value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(5_000.5, histogram.getMean(), 1e-9);
+        assertEquals(5_000, histogram.getValueAtPercentile(50.0), 5_000 * 0.04, "The median should be close.");
+        assertEquals(10_000, histogram.getValueAtPercentile(100.0), "The top percentile should be the maximum.");
+
+        ManualGameClock clock = new ManualGameClock(1_000_000_000L);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(3L, clock);
+        EngineMetrics metrics = gl.getMetrics();
+        gl.initGame(new ArenaConfig(50, 40, 400));
+        gl.updateGame(clock.advance(50_000_000L));
+        assertEquals(0, metrics.getTickCount(), "Metrics should start disabled.");
+
+        metrics.setEnabled(true);
+        for (int tick = 0; tick < 200; tick++) {
+            gl.updateGame(clock.advance(50_000_000L));
+        }
+        assertEquals(200, metrics.getTickCount(), "Every update should be timed.");
+        for (TickPhase phase : List.of(TickPhase.NPC_MOVEMENT, TickPhase.ELIMINATION, TickPhase.FINISH_LINE,
+                TickPhase.LIGHT_UPDATE)) {
+            assertEquals(200, metrics.getPhaseHistogram(phase).getCount(), phase + " should be timed every update.");
+        }
+        assertTrue(metrics.getPushCount() + metrics.getRejectedPushCount() > 0, "A crowd should push.");
+
+        ObjectName name = metrics.register();
+        try {
+            CompositeData tickLatency = (CompositeData) ManagementFactory.getPlatformMBeanServer()
+                    .getAttribute(name, "TickLatency");
+            assertEquals(200L, tickLatency.get("count"), "JMX should report the same tick count.");
+        } finally {
+            metrics.unregister();
+        }
+        assertTrue(metrics.formatReport().contains("npc_movement"), "The report should list every phase.");
+    }
+
+    /**
+     * Tests that the text metrics cache answers monospaced ASCII text from the glyph advance, remembers other widths,
+     * and never holds more widths than its capacity.
+     */
+    @Test
+    void testTextMetricsCacheAnswersFromMemory() {
+        TextMetricsCache cache = new TextMetricsCache(2);
+        Font font = Font.font("Monospaced", 20);
+        double advance = cache.getWidth(font, "W");
+        assertEquals(advance * 5, cache.getWidth(font, "Hello"), 1e-9, "Monospaced widths should scale by length.");
+        assertEquals(2, cache.getCapacity());
+        assertEquals(0, cache.size(), "Monospaced ASCII text should not need a cached width.");
+
+        double first = cache.getWidth(font, "\u00e9t\u00e9");
+        assertEquals(first, cache.getWidth(Font.font("Monospaced", 20), "\u00e9t\u00e9"), 1e-9,
+                "An equal font should find the cached width.");
+        cache.getWidth(font, "\u00fc");
+        cache.getWidth(font, "\u00f1");
+        assertEquals(2, cache.size(), "The least recently used width should be evicted.");
+
+        assertThrows(IllegalArgumentException.class, () -> new TextMetricsCache(0));
+    }
+
+}
@@ -0,0 +1,431 @@
+package ca.bcit.comp2522.project.mygame.ui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ca.bcit.comp2522.project.mygame.common.GameState;
+import ca.bcit.comp2522.project.mygame.engine.GameLogic;
+import ca.bcit.comp2522.project.mygame.engine.ManualGameClock;
+import ca.bcit.comp2522.project.mygame.engine.WorldSnapshot;
+import ca.bcit.comp2522.project.mygame.entities.Player;
+import javafx.application.Platform;
+import javafx.embed.swing.JFXPanel;
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A JUnit 5 test class that verifies what the rendering helpers of the game actually put on the canvas.
+ * <p>
+ * The tests live in the package of the renderer so that they can reach its package-private helpers. Anything that
+ * snapshots a canvas has to run on the JavaFX Application Thread, which {@link #runOnFxThread(FxAction)} takes care
+ * of; the tests read the snapshots back pixel by pixel.
+ * </p>
+ *
+ * @author Kyle Cheon
+ * @version 1.0
+ */
+public class GameRendererTest {
+
+    private static final long FX_TIMEOUT_IN_SECONDS = 10;
+    private static final int MARKER_X = 795;
+    private static final int MARKER_Y = 595;
+
+    /**
+     * A piece of test code run on the JavaFX Application Thread.
+     */
+    @FunctionalInterface
+    interface FxAction {
+        /**
+         * Runs the action.
+         *
+         * @throws Exception if the action fails.
+         */
+        void run() throws Exception;
+    }
+
+    /**
+     * Initializes the JavaFX toolkit, so that canvases can be snapshotted on the JavaFX Application Thread.
+     */
+    @BeforeAll
+    static void initJavaFX() {
+        new JFXPanel(); // This initializes the JavaFX runtime.
+    }
+
+    /**
+     * Tests that a pre-rendered screen is painted once and then copied from its image on every frame, until the
+     * canvas is resized, and that it is painted straight onto the canvas off the JavaFX Application Thread.
+     */
+    @Test
+    void testPrerenderedScreenIsReusedUntilCanvasResized() throws Exception {
+        AtomicInteger paints = new AtomicInteger();
+        PrerenderedScreen screen = new PrerenderedScreen(gc -> {
+            paints.incrementAndGet();
+            gc.setFill(Color.WHITE);
+            gc.fillRect(0, 0, gc.getCanvas().getWidth(), 10);
+        });
+        Canvas canvas = new Canvas(200, 200);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+
+        runOnFxThread(() -> {
+            for (int frame = 0; frame < 3; frame++) {
+                screen.draw(gc);
+            }
+            assertEquals(1, paints.get(), "The screen should be painted once and then reused.");
+
+            canvas.setWidth(300);
+            screen.draw(gc);
+            screen.draw(gc);
+            assertEquals(2, paints.get(), "The screen should be painted again, once, after the canvas is resized.");
+            assertEquals(Color.WHITE, readPixel(canvas, 250, 5),
+                    "The new image should cover the whole resized canvas.");
+        });
+
+        screen.draw(gc);
+        assertEquals(3, paints.get(), "Off the JavaFX thread, the screen should be painted straight onto the canvas.");
+    }
+
+    /**
+     * Tests that a sprite copied from the atlas covers the same rows as the same sprite drawn line by line as text,
+     * whatever the text baseline of the canvas, and that the atlas is painted once per baseline and reused between
+     * frames.
+     */
+    @Test
+    void testSpriteAtlasMatchesTextAndIsReused() throws Exception {
+        SpriteAtlas atlas = new SpriteAtlas();
+        AtomicReference<WritableImage> previousImage = new AtomicReference<>();
+
+        for (VPos baseline : VPos.values()) {
+            Canvas asText = new Canvas(200, 200);
+            Canvas fromAtlas = new Canvas(200, 200);
+            asText.getGraphicsContext2D().setTextBaseline(baseline);
+            fromAtlas.getGraphicsContext2D().setTextBaseline(baseline);
+
+            // Off the JavaFX thread, the atlas draws the sprite's lines as text.
+            atlas.draw(asText.getGraphicsContext2D(), SpriteAtlas.Sprite.USER, 40, 120);
+            runOnFxThread(() -> {
+                atlas.draw(fromAtlas.getGraphicsContext2D(), SpriteAtlas.Sprite.USER, 40, 120);
+                WritableImage image = atlas.getImage();
+                assertNotNull(image, "Drawing on the JavaFX thread should paint the atlas.");
+                assertNotSame(previousImage.get(), image, "A new baseline should paint the atlas again.");
+                atlas.draw(fromAtlas.getGraphicsContext2D(), SpriteAtlas.Sprite.USER, 40, 120);
+                assertSame(image, atlas.getImage(), "The next frame should reuse the atlas.");
+                previousImage.set(image);
+
+                int[] expected = findInkRows(snapshot(asText));
+                int[] actual = findInkRows(snapshot(fromAtlas));
+                assertTrue(expected[0] <= expected[1], "The sprite should be drawn with " + baseline + ".");
+                assertEquals(expected[0], actual[0], 1, "The top of the sprite should match with " + baseline + ".");
+                assertEquals(expected[1], actual[1], 1,
+                        "The bottom of the sprite should match with " + baseline + ".");
+            });
+        }
+    }
+
+    /**
+     * Tests that a dirty region holds up to 64 rectangles and overflows on the next one.
+     */
+    @Test
+    void testDirtyRegionOverflowsAfterMaximumNumberOfRectangles() {
+        DirtyRegion region = new DirtyRegion(800, 600);
+        assertTrue(region.isEmpty(), "A new region should be empty.");
+
+        for (int i = 0; i < 64; i++) {
+            region.add(i * 10, 0, 1, 1);
+        }
+        assertFalse(region.isEmpty());
+        assertFalse(region.isOverflowed(), "64 small rectangles should still fit.");
+
+        region.add(0, 100, 1, 1);
+        assertTrue(region.isOverflowed(), "The 65th rectangle should overflow the region.");
+        assertFalse(region.isEmpty(), "An overflowed region should not count as empty.");
+    }
+
+    /**
+     * Tests that a dirty region overflows once its rectangles cover more than half of the board.
+     */
+    @Test
+    void testDirtyRegionOverflowsPastHalfTheBoard() {
+        DirtyRegion region = new DirtyRegion(800, 600);
+
+        region.add(0, 0, 400, 600);
+        assertFalse(region.isOverflowed(), "Exactly half of the board should still fit.");
+        region.add(400, 0, 1, 1);
+        assertTrue(region.isOverflowed(), "Any more than half of the board should overflow the region.");
+
+        region.clear();
+        region.add(0, 0, 800, 301);
+        assertTrue(region.isOverflowed(), "A single rectangle over half of the board should overflow the region.");
+    }
+
+    /**
+     * Tests that clearing a dirty region, overflowed or not, leaves it empty.
+     */
+    @Test
+    void testDirtyRegionIsEmptyAfterClear() {
+        DirtyRegion region = new DirtyRegion(800, 600);
+
+        region.add(10, 10, 20, 20);
+        region.clear();
+        assertTrue(region.isEmpty(), "A cleared region should be empty.");
+        assertFalse(region.intersects(10, 10, 20, 20), "A cleared region should forget its rectangles.");
+
+        region.add(0, 0, 800, 600);
+        assertTrue(region.isOverflowed());
+        region.clear();
+        assertTrue(region.isEmpty(), "Clearing should also lift an overflow.");
+        assertFalse(region.isOverflowed());
+    }
+
+    /**
+     * Tests that rectangles merely touching an edge or a corner of a dirty region do not intersect it, while
+     * rectangles overlapping it by a single pixel do.
+     */
+    @Test
+    void testDirtyRegionIntersectsAtEdges() {
+        DirtyRegion region = new DirtyRegion(800, 600);
+        region.add(100, 100, 50, 50);
+
+        assertFalse(region.intersects(50, 100, 50, 50), "Touching the left edge should not intersect.");
+        assertFalse(region.intersects(150, 100, 50, 50), "Touching the right edge should not intersect.");
+        assertFalse(region.intersects(100, 50, 50, 50), "Touching the top edge should not intersect.");
+        assertFalse(region.intersects(100, 150, 50, 50), "Touching the bottom edge should not intersect.");
+        assertFalse(region.intersects(150, 150, 10, 10), "Touching a corner should not intersect.");
+
+        assertTrue(region.intersects(51, 100, 50, 50), "Overlapping the left edge by a pixel should intersect.");
+        assertTrue(region.intersects(149, 100, 50, 50), "Overlapping the right edge by a pixel should intersect.");
+        assertTrue(region.intersects(100, 51, 50, 50), "Overlapping the top edge by a pixel should intersect.");
+        assertTrue(region.intersects(100, 149, 50, 50), "Overlapping the bottom edge by a pixel should intersect.");
+        assertTrue(region.intersects(110, 110, 5, 5), "A rectangle inside the region should intersect.");
+    }
+
+    /**
+     * Tests that a round drawn frame by frame, where most frames only repaint the areas that changed, looks exactly
+     * like the same frames painted from scratch, including frames that change nothing and frames in which the light
+     * flips.
+     */
+    @Test
+    void testIncrementalGameFramesMatchFullRepaints() throws Exception {
+        ManualGameClock clock = new ManualGameClock(1_000_000_000L);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(9L, clock);
+        gl.initGame();
+        GameRenderer renderer = new GameRenderer();
+        Canvas canvas = new Canvas(800, 600);
+        Canvas reference = new Canvas(800, 600);
+
+        for (int tick = 0; tick < 200 && !gl.isGameOver(); tick++) {
+            gl.updateGame(clock.advance(50_000_000L));
+            WorldSnapshot frame = WorldSnapshot.capture(gl, GameState.GAME, clock.nanoTime());
+            String description = "Frame " + tick + " should match a full repaint.";
+            runOnFxThread(() -> {
+                renderer.render(frame, canvas.getGraphicsContext2D(), 1.0);
+                renderer.render(frame, canvas.getGraphicsContext2D(), 1.0);
+                new GameRenderer().render(frame, reference.getGraphicsContext2D(), 1.0);
+                assertSameImage(snapshot(reference), snapshot(canvas), description);
+            });
+        }
+    }
+
+    /**
+     * Tests that the layers are drawn through a whole visit, from the intro screen through a round to the game over
+     * screen and back into a new round, and that the doll and HUD layers are only repainted when the light or the
+     * HUD text changes.
+     * <p>
+     * A repaint clears the whole layer, so a marker pixel put on a layer outside anything the renderer draws survives
+     * exactly as long as the layer is left alone.
+     * </p>
+     */
+    @Test
+    void testLayeredRenderingRepaintsOnlyChangedLayers() throws Exception {
+        ManualGameClock clock = new ManualGameClock(1_000_000_000L);
+        GameLogic<Player> gl = GameLogic.newHeadlessInstance(4L, clock);
+        gl.initGame();
+        GameRenderer renderer = new GameRenderer();
+        GameLayers layers = new GameLayers(800, 600);
+        Canvas[] canvases = layers.getCanvases();
+        assertEquals(4, canvases.length, "There should be a background, doll, crowd and HUD layer.");
+        Canvas doll = canvases[1];
+        Canvas hud = canvases[3];
+
+        WorldSnapshot intro = WorldSnapshot.capture(gl, GameState.INTRO, clock.nanoTime());
+        gl.updateGame(clock.advance(50_000_000L));
+        WorldSnapshot first = WorldSnapshot.capture(gl, GameState.GAME, clock.nanoTime());
+        runOnFxThread(() -> {
+            renderer.render(intro, layers, 1.0);
+            renderer.render(first, layers, 1.0);
+            putMarker(layers.getDoll());
+            putMarker(layers.getHud());
+            renderer.render(first, layers, 0.5);
+            renderer.render(first, layers, 1.0);
+            assertEquals(Color.MAGENTA, readMarker(doll), "An identical frame should not repaint the doll layer.");
+            assertEquals(Color.MAGENTA, readMarker(hud), "An identical frame should not repaint the HUD layer.");
+        });
+
+        int lightChanges = 0;
+        boolean green = first.isGreen();
+        for (int tick = 0; tick < 200 && !gl.isGameOver(); tick++) {
+            gl.updateGame(clock.advance(50_000_000L));
+            WorldSnapshot frame = WorldSnapshot.capture(gl, GameState.GAME, clock.nanoTime());
+            boolean lightChanged = frame.isGreen() != green;
+            String description = "The doll layer should be repainted at tick " + tick + " only if the light changed.";
+            runOnFxThread(() -> {
+                putMarker(layers.getDoll());
+                renderer.render(frame, layers, 0.5);
+                renderer.render(frame, layers, 1.0);
+                assertEquals(lightChanged ? Color.TRANSPARENT : Color.MAGENTA, readMarker(doll), description);
+            });
+            green = frame.isGreen();
+            lightChanges += lightChanged ? 1 : 0;
+        }
+        assertTrue(lightChanges > 0, "The light should change at least once during the round.");
+
+        clock.advance(1_000_000_000L);
+        WorldSnapshot later = WorldSnapshot.capture(gl, GameState.GAME, clock.nanoTime());
+        WorldSnapshot gameOver = WorldSnapshot.capture(gl, GameState.GAME_OVER, clock.nanoTime());
+        runOnFxThread(() -> {
+            putMarker(layers.getHud());
+            renderer.render(later, layers, 1.0);
+            assertEquals(Color.TRANSPARENT, readMarker(hud), "A new elapsed time should repaint the HUD layer.");
+
+            putMarker(layers.getDoll());
+            putMarker(layers.getHud());
+            renderer.render(gameOver, layers, 1.0);
+            assertEquals(Color.TRANSPARENT, readMarker(doll), "The game over screen should clear the doll layer.");
+            assertEquals(Color.TRANSPARENT, readMarker(hud), "The game over screen should clear the HUD layer.");
+
+            renderer.render(first, layers, 1.0);
+            assertTrue(findInkRows(snapshot(doll))[1] >= 0, "A new round should draw the doll again.");
+        });
+    }
+
+    /*
+     * Runs the action on the JavaFX Application Thread and waits for it, rethrowing anything it throws so that
+     * failed assertions inside it fail the test.
+     *
+     * @param action the action to run.
+     * @throws Exception if the action throws or does not finish in time.
+     */
+    static void runOnFxThread(final FxAction action) throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Platform.runLater(() -> {
+            try {
+                action.run();
+            } catch (Throwable t) {
+                failure.set(t);
+            } finally {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(FX_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS), "The JavaFX thread should run the action.");
+        if (failure.get() instanceof Error) {
+            throw (Error) failure.get();
+        }
+        if (failure.get() != null) {
+            throw (Exception) failure.get();
+        }
+    }
+
+    /*
+     * Snapshots a canvas over a transparent background. Must be called on the JavaFX Application Thread.
+     *
+     * @param canvas the canvas to snapshot.
+     * @return the snapshot.
+     */
+    static WritableImage snapshot(final Canvas canvas) {
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        return canvas.snapshot(parameters, null);
+    }
+
+    /*
+     * Reads the color of one pixel of a canvas. Must be called on the JavaFX Application Thread.
+     *
+     * @param canvas the canvas to read.
+     * @param x      the x-coordinate of the pixel.
+     * @param y      the y-coordinate of the pixel.
+     * @return the color of the pixel, transparent where nothing was drawn.
+     */
+    static Color readPixel(final Canvas canvas, final int x, final int y) {
+        return snapshot(canvas).getPixelReader().getColor(x, y);
+    }
+
+    /*
+     * Puts a magenta marker in the bottom right corner of a layer, where the renderer never draws anything.
+     *
+     * @param gc the graphics context of the layer.
+     */
+    static void putMarker(final GraphicsContext gc) {
+        gc.save();
+        gc.setFill(Color.MAGENTA);
+        gc.fillRect(MARKER_X - 1, MARKER_Y - 1, 4, 4);
+        gc.restore();
+    }
+
+    /*
+     * Reads the color of a layer where {@link #putMarker(GraphicsContext)} puts its marker. Must be called on the
+     * JavaFX Application Thread.
+     *
+     * @param canvas the canvas of the layer.
+     * @return magenta if the marker is still there, transparent if the layer was cleared since.
+     */
+    static Color readMarker(final Canvas canvas) {
+        return readPixel(canvas, MARKER_X, MARKER_Y);
+    }
+
+    /*
+     * Finds the first and last rows of an image holding any pixel that is not fully transparent.
+     *
+     * @param image the image to scan.
+     * @return the first and last inked rows, or {height, -1} if nothing was drawn.
+     */
+    static int[] findInkRows(final WritableImage image) {
+        PixelReader reader = image.getPixelReader();
+        int first = (int) image.getHeight();
+        int last = -1;
+
+        for (int y = 0; y < (int) image.getHeight(); y++) {
+            for (int x = 0; x < (int) image.getWidth(); x++) {
+                if (reader.getArgb(x, y) >>> 24 != 0) {
+                    first = Math.min(first, y);
+                    last = y;
+                    break;
+                }
+            }
+        }
+        return new int[]{first, last};
+    }
+
+    /*
+     * Asserts that two images of the same size hold the same pixels, naming the first pixel that differs.
+     *
+     * @param expected the expected image.
+     * @param actual   the actual image.
+     * @param message  the message to fail with.
+     */
+    static void assertSameImage(final WritableImage expected, final WritableImage actual, final String message) {
+        PixelReader expectedReader = expected.getPixelReader();
+        PixelReader actualReader = actual.getPixelReader();
+
+        assertEquals(expected.getWidth(), actual.getWidth(), message);
+        assertEquals(expected.getHeight(), actual.getHeight(), message);
+        for (int y = 0; y < (int) expected.getHeight(); y++) {
+            for (int x = 0; x < (int) expected.getWidth(); x++) {
+                if (expectedReader.getArgb(x, y) != actualReader.getArgb(x, y)) {
+                    fail(message + " The pixel at (" + x + ", " + y + ") differs.");
+                }
+            }
+        }
+    }
+}